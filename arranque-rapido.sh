@@ -0,0 +1,134 @@
+#!/bin/bash
+
+# Arranque rápido: Spring AOT + archivo CDS
+# Autor: Roberto Rivas López
+#
+# Requiere haber compilado con el perfil Maven arranque-rapido, que procesa la
+# aplicación con Spring AOT en target/arranque (aparte de la compilación normal),
+# empaqueta sus clases en un jar delgado y deja el classpath de dependencias:
+#   mvn -Parranque-rapido verify     # compila, entrena el archivo CDS y mide el arranque
+#
+# Uso: ./arranque-rapido.sh entrenar|iniciar|medir [args de la aplicación]
+#   entrenar  corrida de entrenamiento: arranca, termina y vuelca target/arranque/aplicacion.jsa
+#   iniciar   arranca la aplicación desde el código AOT y el archivo CDS
+#   medir     compara el arranque JIT, AOT y AOT+CDS (mediana de REPETICIONES corridas)
+#
+# El archivo CDS solo sirve con la misma JVM y el mismo classpath del entrenamiento.
+
+PERFILES=${PERFILES:-dev}
+REPETICIONES=${REPETICIONES:-5}
+OPCIONES_JVM=${OPCIONES_JVM:-"-Xms256m -Xmx512m"}
+DIRECTORIO=target/arranque
+ARCHIVO_CDS=${DIRECTORIO}/aplicacion.jsa
+ARCHIVO_CLASSPATH=${DIRECTORIO}/classpath-arranque.txt
+
+# Colores para output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+cd "$(dirname "$0")" || exit 1
+
+JAR_APP=$(ls ${DIRECTORIO}/*-arranque.jar 2>/dev/null | head -1)
+if [ -z "${JAR_APP}" ] || [ ! -f "${ARCHIVO_CLASSPATH}" ]; then
+    echo -e "${RED}❌ Faltan el jar y el classpath de arranque: ejecute mvn -Parranque-rapido package${NC}"
+    exit 1
+fi
+CLASSPATH_APP="${JAR_APP}:$(cat "${ARCHIVO_CLASSPATH}")"
+
+# Opciones de JVM del modo indicado: jit (sin AOT), aot o cds (AOT + archivo CDS)
+opciones_modo() {
+    OPCIONES=(${OPCIONES_JVM})
+    case "$1" in
+        aot) OPCIONES+=(-Dspring.aot.enabled=true) ;;
+        cds) OPCIONES+=(-Dspring.aot.enabled=true -XX:SharedArchiveFile="${ARCHIVO_CDS}") ;;
+    esac
+}
+
+ejecutar() {
+    opciones_modo "$1"
+    shift
+    java "${OPCIONES[@]}" -cp "${CLASSPATH_APP}" com.rrivasl.AplicacionPrincipal \
+        --spring.profiles.active="${PERFILES}" "$@"
+}
+
+# Arrancar y terminar apenas el contexto está listo
+ejecutar_entrenamiento() {
+    local modo=$1
+    shift
+    ejecutar "$modo" --aplicacion.arranque.entrenamiento=true \
+        --server.port=0 \
+        --logging.level.root=WARN \
+        --logging.level.org.springframework.web=WARN \
+        --logging.level.org.hibernate.SQL=WARN \
+        --logging.level.com.rrivasl=INFO \
+        --spring.jpa.show-sql=false "$@"
+}
+
+entrenar() {
+    echo -e "${BLUE}🏋️ Corrida de entrenamiento (perfiles: ${PERFILES})${NC}"
+    rm -f "${ARCHIVO_CDS}"
+    OPCIONES_JVM="${OPCIONES_JVM} -XX:ArchiveClassesAtExit=${ARCHIVO_CDS}" \
+        ejecutar_entrenamiento aot "$@" > ${DIRECTORIO}/entrenamiento.log 2>&1
+    if [ ! -f "${ARCHIVO_CDS}" ]; then
+        echo -e "${RED}❌ No se generó ${ARCHIVO_CDS} (ver ${DIRECTORIO}/entrenamiento.log)${NC}"
+        exit 1
+    fi
+    echo -e "${GREEN}✅ Archivo CDS: ${ARCHIVO_CDS} ($(du -h "${ARCHIVO_CDS}" | cut -f1))${NC}"
+}
+
+# Segundos desde el inicio de la JVM hasta el contexto listo ("process running for")
+medir_modo() {
+    local modo=$1
+    local tiempos=()
+    for _ in $(seq 1 "${REPETICIONES}"); do
+        local tiempo
+        tiempo=$(ejecutar_entrenamiento "$modo" 2>&1 \
+            | sed -n 's/.*Started AplicacionPrincipal in [0-9.]* seconds (process running for \([0-9.]*\)).*/\1/p')
+        if [ -z "$tiempo" ]; then
+            echo -e "${RED}❌ El modo ${modo} no arrancó${NC}" >&2
+            return 1
+        fi
+        tiempos+=("$tiempo")
+    done
+    local mediana
+    mediana=$(printf '%s\n' "${tiempos[@]}" | sort -n | awk '{v[NR]=$1} END {print v[int((NR+1)/2)]}')
+    printf "%-8s mediana=%6.3f s  corridas=%s\n" "$modo" "$mediana" "${tiempos[*]}"
+}
+
+medir() {
+    if [ ! -f "${ARCHIVO_CDS}" ]; then
+        entrenar
+    fi
+    echo -e "${BLUE}⏱️ Arranque hasta el contexto listo (${REPETICIONES} corridas por modo)${NC}"
+    medir_modo jit || exit 1
+    medir_modo aot || exit 1
+    medir_modo cds || exit 1
+}
+
+case "$1" in
+    entrenar)
+        shift
+        entrenar "$@"
+        ;;
+    iniciar)
+        shift
+        MODO=cds
+        if [ ! -f "${ARCHIVO_CDS}" ]; then
+            echo -e "${YELLOW}⚠️ Sin ${ARCHIVO_CDS}: se inicia solo con AOT${NC}"
+            MODO=aot
+        fi
+        opciones_modo "$MODO"
+        exec java "${OPCIONES[@]}" -cp "${CLASSPATH_APP}" com.rrivasl.AplicacionPrincipal \
+            --spring.profiles.active="${PERFILES}" "$@"
+        ;;
+    medir)
+        medir
+        ;;
+    *)
+        echo "Uso: $0 entrenar|iniciar|medir [args de la aplicación]"
+        exit 1
+        ;;
+esac
@@ -0,0 +1,126 @@
+#!/bin/bash
+
+# Prueba de carga: hilos de plataforma vs. hilos virtuales
+# Autor: Roberto Rivas López
+#
+# Levanta la aplicación en cada modo, carga productos de ejemplo y mide
+# throughput y latencias con N conexiones concurrentes (PruebaCarga).
+# El modo hilos-virtuales requiere ejecutar este script con Java 21.
+#
+# Uso: ./prueba-carga.sh [conexiones] [segundos] [ruta]
+#   ./prueba-carga.sh 5000 30 "/api/productos?tamano=20"
+
+CONEXIONES=${1:-5000}
+SEGUNDOS=${2:-30}
+RUTA=${3:-"/api/productos?tamano=20"}
+CALENTAMIENTO=${CALENTAMIENTO:-10}
+PUERTO=${PUERTO:-18090}
+PRODUCTOS=${PRODUCTOS:-1000}
+OPCIONES_JVM=${OPCIONES_JVM:-"-Xms1g -Xmx1g"}
+
+# Colores para output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+VERSION_JAVA=$(java -XshowSettings:properties -version 2>&1 | awk -F'= ' '/java.specification.version/ {print $2}')
+RESULTADOS=$(mktemp)
+PID_APP=""
+
+detener_aplicacion() {
+    if [ -n "$PID_APP" ]; then
+        kill "$PID_APP" 2>/dev/null
+        wait "$PID_APP" 2>/dev/null
+        PID_APP=""
+    fi
+}
+trap detener_aplicacion EXIT
+
+# Compilar aplicación y generador de carga
+compilar() {
+    echo -e "${BLUE}🔨 Compilando (Java ${VERSION_JAVA})...${NC}"
+    local perfil_maven=""
+    if [ "$VERSION_JAVA" -ge 21 ]; then
+        perfil_maven="-Pjava21"
+    fi
+    mvn -q ${perfil_maven} test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt || exit 1
+    CLASSPATH_APP="target/classes:$(cat target/classpath.txt)"
+}
+
+# Iniciar la aplicación con los perfiles indicados y esperar a que responda
+iniciar_aplicacion() {
+    local perfiles=$1
+    # DevTools reinicia la aplicación en otro cargador de clases: se desactiva por propiedad de sistema
+    java ${OPCIONES_JVM} -Dspring.devtools.restart.enabled=false -cp "${CLASSPATH_APP}" com.rrivasl.AplicacionPrincipal \
+        --spring.profiles.active="${perfiles}" \
+        --server.port="${PUERTO}" \
+        --aplicacion.seguridad.administrador.nombre-usuario=carga \
+        --aplicacion.seguridad.administrador.contrasena='Carga123!' \
+        --aplicacion.limite-peticiones.habilitado=false \
+        --spring.jpa.show-sql=false \
+        --logging.level.root=WARN \
+        --logging.level.org.springframework.web=WARN \
+        --logging.level.org.hibernate.SQL=WARN \
+        --logging.level.com.rrivasl=WARN > "target/prueba-carga-${perfiles//,/-}.log" 2>&1 &
+    PID_APP=$!
+
+    for _ in $(seq 1 90); do
+        sleep 1
+        if curl -s -o /dev/null "http://localhost:${PUERTO}/api/usuarios/salud"; then
+            return 0
+        fi
+    done
+    echo -e "${RED}❌ La aplicación no respondió (ver target/prueba-carga-${perfiles//,/-}.log)${NC}"
+    detener_aplicacion
+    return 1
+}
+
+# Iniciar sesión con la cuenta de administrador de carga: las rutas de la API exigen token JWT
+obtener_token() {
+    TOKEN=$(curl -s -X POST "http://localhost:${PUERTO}/api/autenticacion/login" -H "Content-Type: application/json" \
+        -d '{"nombreUsuario":"carga","contrasena":"Carga123!"}' | sed -n 's/.*"tokenAcceso" *: *"\([^"]*\)".*/\1/p')
+    if [ -z "$TOKEN" ]; then
+        echo -e "${RED}❌ No se pudo obtener el token de acceso${NC}"
+        return 1
+    fi
+}
+
+# Cargar productos de ejemplo por el endpoint de lotes
+cargar_datos() {
+    seq 1 "${PRODUCTOS}" | awk '{printf "{\"nombre\":\"Producto %d\",\"codigoProducto\":\"CARGA-%06d\",\"precio\":%d.50,\"stock\":%d,\"categoria\":\"Carga\"}\n", $1, $1, $1 % 100, $1 % 50}' \
+        | curl -s -o /dev/null -X POST "http://localhost:${PUERTO}/api/productos/lote" \
+            -H "Authorization: Bearer ${TOKEN}" -H "Content-Type: application/x-ndjson" --data-binary @-
+}
+
+ejecutar_modo() {
+    local etiqueta=$1
+    local perfiles=$2
+
+    echo -e "${BLUE}🚀 Modo ${etiqueta} (perfiles: ${perfiles})${NC}"
+    iniciar_aplicacion "${perfiles}" || return 1
+    obtener_token || { detener_aplicacion; return 1; }
+    cargar_datos
+    java -cp "target/test-classes" com.rrivasl.pruebas.carga.PruebaCarga \
+        "http://localhost:${PUERTO}${RUTA}" "${CONEXIONES}" "${SEGUNDOS}" "${CALENTAMIENTO}" "${etiqueta}" "${TOKEN}" \
+        | tee -a "${RESULTADOS}"
+    detener_aplicacion
+}
+
+# Cada conexión usa un descriptor en el cliente y otro en el servidor
+ulimit -n $((CONEXIONES * 2 + 1024)) 2>/dev/null || \
+    echo -e "${YELLOW}⚠️ No se pudo subir el límite de archivos abiertos ($(ulimit -n))${NC}"
+
+compilar
+ejecutar_modo "plataforma" "dev"
+if [ "$VERSION_JAVA" -ge 21 ]; then
+    ejecutar_modo "hilos-virtuales" "dev,hilos-virtuales"
+else
+    echo -e "${YELLOW}⚠️ Java ${VERSION_JAVA}: se omite el modo hilos-virtuales (requiere Java 21)${NC}"
+fi
+
+echo ""
+echo -e "${GREEN}📊 RESULTADOS (${CONEXIONES} conexiones, ${SEGUNDOS} s, ${RUTA})${NC}"
+cat "${RESULTADOS}"
+rm -f "${RESULTADOS}"
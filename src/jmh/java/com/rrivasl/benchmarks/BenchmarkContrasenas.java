@@ -0,0 +1,75 @@
+package com.rrivasl.benchmarks;
+
+import com.rrivasl.servicio.CodificadorContrasenas;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks del codificador de contraseñas: costo contra latencia
+ * @author Roberto Rivas López
+ * Principios aplicados: Medición Reproducible, Separación de Intereses
+ *
+ * Mide verificar y codificar con varios costos. La latencia crece lineal con
+ * las iteraciones, así que al terminar cada costo se informa cuántas
+ * iteraciones darían la latencia objetivo de verificación en esta máquina
+ * (-p objetivoMs=100 para otro objetivo). Conviene medir en el hardware de
+ * producción y elegir el mayor costo que cumpla el objetivo con carga: cada
+ * inicio de sesión ocupa un hilo del ejecutor de contraseñas ese tiempo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BenchmarkContrasenas {
+
+    private static final String CONTRASENA = "MiClave123!";
+
+    @Param({"100000", "310000", "600000"})
+    private int iteraciones;
+
+    @Param({"100"})
+    private double objetivoMs;
+
+    private ConfigurableApplicationContext contexto;
+    private CodificadorContrasenas codificador;
+    private String codificada;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar("--aplicacion.seguridad.contrasenas.iteraciones=" + iteraciones);
+        codificador = contexto.getBean(CodificadorContrasenas.class);
+        codificada = codificador.codificar(CONTRASENA);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        // Con el JIT ya caliente, la mediana de unas pocas verificaciones basta para extrapolar
+        double[] muestras = new double[5];
+        for (int i = 0; i < muestras.length; i++) {
+            long inicio = System.nanoTime();
+            codificador.coincide(CONTRASENA, codificada);
+            muestras[i] = (System.nanoTime() - inicio) / 1_000_000.0;
+        }
+        Arrays.sort(muestras);
+        double medianaMs = muestras[muestras.length / 2];
+        long sugeridas = Math.max(1, Math.round(iteraciones * objetivoMs / medianaMs));
+        System.out.printf("%n%d iteraciones: %.1f ms por verificación; para %.0f ms usar aplicacion.seguridad.contrasenas.iteraciones=%d%n",
+                iteraciones, medianaMs, objetivoMs, sugeridas);
+        contexto.close();
+    }
+
+    @Benchmark
+    public boolean verificar() {
+        return codificador.coincide(CONTRASENA, codificada);
+    }
+
+    @Benchmark
+    public String codificar() {
+        return codificador.codificar(CONTRASENA);
+    }
+}
@@ -0,0 +1,81 @@
+package com.rrivasl.benchmarks;
+
+import com.rrivasl.modelo.PaginaCursor;
+import com.rrivasl.modelo.Producto;
+import com.rrivasl.servicio.ServicioProducto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de ServicioProductoImpl (almacenamiento en memoria)
+ * @author Roberto Rivas López
+ * Principios aplicados: Medición Reproducible, Separación de Intereses
+ *
+ * La paginación por número se mide en la primera y en la última página: el
+ * desplazamiento se paga entero en la última. La página por cursor de la misma
+ * posición sirve de referencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class BenchmarkProductos {
+
+    private static final int TAMAÑO_PAGINA = 20;
+
+    @Param({"1000", "100000"})
+    private int productos;
+
+    private ConfigurableApplicationContext contexto;
+    private ServicioProducto servicioProducto;
+    private int ultimaPagina;
+    private String cursorUltimaPagina;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar("--aplicacion.productos.almacenamiento=memoria");
+        servicioProducto = contexto.getBean(ServicioProducto.class);
+        servicioProducto.crearProductosDePrueba(productos);
+        ultimaPagina = (productos - 1) / TAMAÑO_PAGINA;
+        List<Producto> anterior = servicioProducto.obtenerProductosPaginados(ultimaPagina - 1, TAMAÑO_PAGINA);
+        cursorUltimaPagina = PaginaCursor.codificarCursor(anterior.get(anterior.size() - 1).getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Producto> obtenerPrimeraPagina() {
+        return servicioProducto.obtenerProductosPaginados(0, TAMAÑO_PAGINA);
+    }
+
+    @Benchmark
+    public List<Producto> obtenerUltimaPagina() {
+        return servicioProducto.obtenerProductosPaginados(ultimaPagina, TAMAÑO_PAGINA);
+    }
+
+    @Benchmark
+    public PaginaCursor<Producto> obtenerUltimaPaginaPorCursor() {
+        return servicioProducto.obtenerPaginaProductos(cursorUltimaPagina, TAMAÑO_PAGINA);
+    }
+
+    @Benchmark
+    public Producto buscarPorCodigo() {
+        return servicioProducto.buscarPorCodigo(codigo(ThreadLocalRandom.current().nextInt(1, productos + 1)));
+    }
+
+    /**
+     * Mismo formato que ProcesadorLoteProductos.productosDePrueba
+     */
+    private static String codigo(int i) {
+        return i < 100 ? String.format("PROD-%03d", i) : "PROD-" + i;
+    }
+}
@@ -0,0 +1,82 @@
+package com.rrivasl.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.rrivasl.modelo.Producto;
+import com.rrivasl.modelo.Usuario;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de serialización Jackson de listas de Usuario y Producto
+ * @author Roberto Rivas López
+ * Principios aplicados: Medición Reproducible, Responsabilidad Única
+ *
+ * El mapeador replica spring.jackson de application.yml (NON_NULL, fechas ISO).
+ * Se mide con y sin indent-output, que la configuración activa para todas las respuestas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BenchmarkSerializacion {
+
+    @Param({"20", "1000"})
+    private int elementos;
+
+    @Param({"true", "false"})
+    private boolean indentado;
+
+    private ObjectWriter escritor;
+    private List<Usuario> usuarios;
+    private List<Producto> productos;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        JsonMapper mapeador = JsonMapper.builder()
+                .findAndAddModules()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .configure(SerializationFeature.INDENT_OUTPUT, indentado)
+                .build();
+        escritor = mapeador.writer();
+
+        usuarios = new ArrayList<>(elementos);
+        productos = new ArrayList<>(elementos);
+        for (int i = 1; i <= elementos; i++) {
+            Usuario usuario = new Usuario("usuario" + i, "Roberto", "Rivas López", "usuario" + i + "@ejemplo.cl", "Clave123!");
+            usuario.setId((long) i);
+            usuarios.add(usuario);
+
+            Producto producto = Producto.builder()
+                    .nombre("Producto " + i)
+                    .descripcion("Descripción del producto " + i)
+                    .codigoProducto("PROD-" + i)
+                    .categoria("CATEGORIA_" + (i % 3 + 1))
+                    .precio(BigDecimal.valueOf(1990 + i, 2))
+                    .stock(i % 50)
+                    .build();
+            producto.setId((long) i);
+            productos.add(producto);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarUsuarios() throws JsonProcessingException {
+        return escritor.writeValueAsBytes(usuarios);
+    }
+
+    @Benchmark
+    public byte[] serializarProductos() throws JsonProcessingException {
+        return escritor.writeValueAsBytes(productos);
+    }
+}
@@ -0,0 +1,62 @@
+package com.rrivasl.benchmarks;
+
+import com.rrivasl.modelo.ReclamosJwt;
+import com.rrivasl.modelo.ResultadoAutenticacion;
+import com.rrivasl.modelo.Usuario;
+import com.rrivasl.servicio.ServicioTokens;
+import com.rrivasl.servicio.ServicioUsuario;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de ServicioTokensJwt: costo de autenticar una petición
+ * @author Roberto Rivas López
+ * Principios aplicados: Medición Reproducible, Separación de Intereses
+ *
+ * Con la caché de verificados (50000) una petición con un token ya visto no
+ * recalcula el HMAC ni lee el JSON; con 0 cada verificación hace todo el
+ * trabajo. La diferencia es el ahorro por petición de un cliente que repite
+ * su token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BenchmarkTokens {
+
+    @Param({"50000", "0"})
+    private int tamañoCache;
+
+    private ConfigurableApplicationContext contexto;
+    private ServicioTokens servicioTokens;
+    private Usuario usuario;
+    private String tokenAcceso;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar("--aplicacion.jwt.verificados.tamaño-maximo=" + tamañoCache);
+        servicioTokens = contexto.getBean(ServicioTokens.class);
+        usuario = contexto.getBean(ServicioUsuario.class)
+                .crearUsuario(new Usuario("rrivasl", "Roberto", "Rivas López", "roberto@ejemplo.cl", "Clave123!"));
+        tokenAcceso = servicioTokens.emitirTokens(usuario).getTokenAcceso();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public ReclamosJwt verificarTokenAcceso() {
+        return servicioTokens.verificar(tokenAcceso, ReclamosJwt.TipoToken.ACCESO);
+    }
+
+    @Benchmark
+    public ResultadoAutenticacion emitirTokens() {
+        return servicioTokens.emitirTokens(usuario);
+    }
+}
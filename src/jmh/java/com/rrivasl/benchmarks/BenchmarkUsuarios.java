@@ -0,0 +1,89 @@
+package com.rrivasl.benchmarks;
+
+import com.rrivasl.modelo.Usuario;
+import com.rrivasl.servicio.ServicioUsuario;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks de ServicioUsuarioImpl con 1k, 100k y 1M usuarios
+ * @author Roberto Rivas López
+ * Principios aplicados: Medición Reproducible, Separación de Intereses
+ *
+ * Las búsquedas eligen un usuario existente al azar, así con 1M usuarios la
+ * caché de 10k entradas falla casi siempre, como en producción. El alta se mide
+ * en lotes de tamaño fijo (SingleShotTime): el almacén crece lo mismo en cada
+ * corrida y la memoria no depende del tiempo de medición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class BenchmarkUsuarios {
+
+    private static final int ALTAS_POR_LOTE = 10_000;
+    private static final String[] NOMBRES = {"Roberto", "María", "José", "Ana", "Luis", "Carmen", "Pedro", "Lucía"};
+    private static final String[] APELLIDOS = {"Rivas", "López", "González", "Muñoz", "Rojas", "Díaz", "Pérez", "Soto"};
+
+    @Param({"1000", "100000", "1000000"})
+    private int usuarios;
+
+    private ConfigurableApplicationContext contexto;
+    private ServicioUsuario servicioUsuario;
+    private long[] ids;
+    private final AtomicLong siguienteAlta = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = ContextoBenchmark.iniciar();
+        servicioUsuario = contexto.getBean(ServicioUsuario.class);
+        ids = new long[usuarios];
+        for (int i = 0; i < usuarios; i++) {
+            ids[i] = servicioUsuario.crearUsuario(usuario("carga" + i)).getId();
+        }
+        siguienteAlta.set(usuarios);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Optional<Usuario> buscarPorId() {
+        return servicioUsuario.buscarPorId(ids[ThreadLocalRandom.current().nextInt(usuarios)]);
+    }
+
+    @Benchmark
+    public Optional<Usuario> buscarPorNombreUsuario() {
+        return servicioUsuario.buscarPorNombreUsuario("carga" + ThreadLocalRandom.current().nextInt(usuarios));
+    }
+
+    @Benchmark
+    public boolean existeCorreoElectronicoLibre() {
+        // El caso común de un alta: el filtro de Bloom responde sin tocar el almacén
+        return servicioUsuario.existeCorreoElectronico("libre" + ThreadLocalRandom.current().nextInt() + "@ejemplo.cl");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, batchSize = ALTAS_POR_LOTE)
+    @Measurement(iterations = 5, batchSize = ALTAS_POR_LOTE)
+    public Usuario crearUsuario() {
+        return servicioUsuario.crearUsuario(usuario("alta" + siguienteAlta.getAndIncrement()));
+    }
+
+    private static Usuario usuario(String nombreUsuario) {
+        int i = nombreUsuario.hashCode() & Integer.MAX_VALUE;
+        return new Usuario(nombreUsuario, NOMBRES[i % NOMBRES.length], APELLIDOS[(i / 8) % APELLIDOS.length],
+                nombreUsuario + "@ejemplo.cl", "Clave123!");
+    }
+}
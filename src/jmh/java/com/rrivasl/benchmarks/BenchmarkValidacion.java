@@ -0,0 +1,56 @@
+package com.rrivasl.benchmarks;
+
+import com.rrivasl.modelo.Usuario;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de Bean Validation sobre Usuario
+ * @author Roberto Rivas López
+ * Principios aplicados: Medición Reproducible, Responsabilidad Única
+ *
+ * Un usuario inválido cuesta más que uno válido: cada violación interpola su
+ * mensaje. Las expresiones regulares de nombre y contraseña dominan ambos casos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BenchmarkValidacion {
+
+    private ValidatorFactory fabrica;
+    private Validator validador;
+    private Usuario usuarioValido;
+    private Usuario usuarioInvalido;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        fabrica = Validation.buildDefaultValidatorFactory();
+        validador = fabrica.getValidator();
+        usuarioValido = new Usuario("rrivasl", "Roberto", "Rivas López", "roberto@ejemplo.cl", "Clave123!");
+        usuarioInvalido = new Usuario("r!", "R2", "", "no-es-correo", "corta");
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        fabrica.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Usuario>> validarUsuarioValido() {
+        return validador.validate(usuarioValido);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Usuario>> validarUsuarioInvalido() {
+        return validador.validate(usuarioInvalido);
+    }
+}
@@ -0,0 +1,57 @@
+package com.rrivasl.benchmarks;
+
+import com.rrivasl.AplicacionPrincipal;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Contexto de Spring para benchmarks
+ * @author Roberto Rivas López
+ * Principios aplicados: Reutilización, Configuración Centralizada
+ *
+ * Levanta la aplicación sin servidor web y con el registro en WARN, para medir
+ * los servicios con sus cachés, filtros e índices reales y no el costo de
+ * escribir logs. Sin perfil dev: DevTools reiniciaría la aplicación en otro
+ * cargador de clases.
+ *
+ * Las contraseñas se codifican con una sola iteración, como en las pruebas:
+ * crear usuarios no mide PBKDF2. El costo del hash lo mide
+ * BenchmarkContrasenas, que pasa sus propias iteraciones.
+ */
+final class ContextoBenchmark {
+
+    private static final String ITERACIONES = "--aplicacion.seguridad.contrasenas.iteraciones=";
+
+    private ContextoBenchmark() {
+    }
+
+    /**
+     * Iniciar la aplicación con argumentos adicionales ("--clave=valor")
+     * Van como argumentos y no como propiedades por defecto: application.yml
+     * tiene precedencia sobre estas últimas.
+     */
+    static ConfigurableApplicationContext iniciar(String... argumentos) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> todos = new ArrayList<>(List.of(
+                "--spring.profiles.active=benchmark",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.rrivasl=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.springframework=WARN"));
+        // Un argumento repetido se leería como lista ("1,310000"): solo se añade si el llamador no lo trae
+        if (Arrays.stream(argumentos).noneMatch(argumento -> argumento.startsWith(ITERACIONES))) {
+            todos.add(ITERACIONES + "1");
+        }
+        todos.addAll(Arrays.asList(argumentos));
+        return new SpringApplicationBuilder(AplicacionPrincipal.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(todos.toArray(new String[0]));
+    }
+}
@@ -83,6 +83,15 @@ public class AplicacionPrincipal {
             logger.info("🔍 Health Check: http://localhost:{}/api/actuator/health",
                        context.getEnvironment().getProperty("server.port", "8080"));
             
+            // Corrida de entrenamiento (archivo CDS, medición de arranque): terminar apenas inicia
+            if (context.getEnvironment().getProperty("aplicacion.arranque.entrenamiento", Boolean.class, false)) {
+                logger.info("🏁 Corrida de entrenamiento: la aplicación termina tras el arranque");
+                System.exit(SpringApplication.exit(context));
+            }
+            
+        } catch (SpringApplication.AbandonedRunException e) {
+            // El procesamiento AOT corta la ejecución una vez preparado el contexto
+            throw e;
         } catch (Exception e) {
             logger.error("❌ Error al iniciar la aplicación: {}", e.getMessage(), e);
             System.exit(1);
@@ -97,8 +106,7 @@ public class AplicacionPrincipal {
     public void configuracionPostInicio() {
         logger.info("🔧 Ejecutando configuraciones post-inicio...");
         
-        // Configurar zona horaria de la aplicación
-        TimeZone.setDefault(TimeZone.getTimeZone("America/Santiago"));
+        // La zona horaria ya quedó fijada en main, antes de crear el contexto
         
         // Log de información del sistema
         logger.info("💾 Memoria disponible: {} MB", 
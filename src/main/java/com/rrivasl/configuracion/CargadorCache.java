@@ -0,0 +1,25 @@
+package com.rrivasl.configuracion;
+
+/**
+ * Fuente de datos de una caché con recarga
+ * @author Roberto Rivas López
+ * Principios aplicados: Inversión de Dependencias, Segregación de Interfaces
+ *
+ * La caché la consulta cuando le falta una entrada o cuando debe refrescar una
+ * vencida por refresh-after-write. La carga debe leer directamente del almacén,
+ * nunca a través de un método @Cacheable de la misma caché.
+ */
+public interface CargadorCache {
+
+    /**
+     * Nombre de la caché que alimenta este cargador
+     */
+    String getNombreCache();
+
+    /**
+     * Leer el valor vigente de una clave
+     * @param clave clave de la caché
+     * @return valor actual, o null si ya no existe (la entrada se descarta)
+     */
+    Object cargar(Object clave);
+}
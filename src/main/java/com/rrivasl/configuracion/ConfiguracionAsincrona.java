@@ -0,0 +1,151 @@
+package com.rrivasl.configuracion;
+
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuración de ejecutores asíncronos
+ * @author Roberto Rivas López
+ * Principios aplicados: Configuración Centralizada, Inversión de Dependencias
+ *
+ * Tres grupos de hilos acotados y con nombre, para que un volcado de hilos diga
+ * qué está corriendo:
+ * - trabajo-*: trabajos en segundo plano y métodos @Async. La cola tiene tope;
+ *   llena, el envío se rechaza (TaskRejectedException) y el llamador responde
+ *   503 en vez de acumular trabajos sin límite.
+ * - descarga-*: respuestas en streaming (StreamingResponseBody), que así no
+ *   retienen los hilos de Tomcat. Con la cola llena la descarga corre en el
+ *   hilo de la petición: se frena al cliente en vez de rechazarlo.
+ * - contrasena-*: codificación y verificación de contraseñas, que por diseño
+ *   cuestan decenas de milisegundos de CPU. Un hilo por núcleo y cola con
+ *   tope: una ráfaga de inicios de sesión espera aquí sin ocupar los hilos de
+ *   Tomcat, y con la cola llena se responde 503.
+ * Con aplicacion.hilos-virtuales.habilitado (perfil hilos-virtuales, Java 21)
+ * los grupos conservan sus límites y su cola, pero sus hilos son virtuales.
+ */
+@Configuration
+public class ConfiguracionAsincrona implements AsyncConfigurer, WebMvcConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfiguracionAsincrona.class);
+
+    @Value("${aplicacion.trabajos.hilos:2}")
+    private int hilosTrabajos;
+
+    @Value("${aplicacion.trabajos.hilos-maximos:4}")
+    private int hilosMaximosTrabajos;
+
+    @Value("${aplicacion.trabajos.capacidad-cola:20}")
+    private int capacidadColaTrabajos;
+
+    @Value("${aplicacion.trabajos.espera-cierre:30s}")
+    private Duration esperaCierre;
+
+    @Value("${aplicacion.descargas.hilos:4}")
+    private int hilosDescargas;
+
+    @Value("${aplicacion.descargas.hilos-maximos:8}")
+    private int hilosMaximosDescargas;
+
+    @Value("${aplicacion.descargas.capacidad-cola:50}")
+    private int capacidadColaDescargas;
+
+    @Value("${aplicacion.descargas.tiempo-limite:10m}")
+    private Duration tiempoLimiteDescargas;
+
+    @Value("${aplicacion.seguridad.contrasenas.hilos:0}")
+    private int hilosContrasenas;
+
+    @Value("${aplicacion.seguridad.contrasenas.capacidad-cola:200}")
+    private int capacidadColaContrasenas;
+
+    @Value("${aplicacion.hilos-virtuales.habilitado:false}")
+    private boolean hilosVirtuales;
+
+    /**
+     * Ejecutor de trabajos en segundo plano (reportes a disco, métodos @Async)
+     * Los hilos pasan del mínimo al máximo solo con la cola llena; después se rechaza.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ejecutorTrabajos() {
+        ThreadPoolTaskExecutor ejecutor = crearEjecutor("trabajo-", hilosTrabajos, hilosMaximosTrabajos, capacidadColaTrabajos);
+        ejecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // Al cerrar se interrumpen los trabajos en curso: los reportes borran su archivo parcial
+        ejecutor.setWaitForTasksToCompleteOnShutdown(false);
+        ejecutor.setAwaitTerminationMillis(esperaCierre.toMillis());
+        logger.info("Ejecutor de trabajos: {}-{} hilos, cola de {}", hilosTrabajos, hilosMaximosTrabajos, capacidadColaTrabajos);
+        return ejecutor;
+    }
+
+    /**
+     * Ejecutor de respuestas en streaming de Spring MVC
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ejecutorDescargas() {
+        ThreadPoolTaskExecutor ejecutor = crearEjecutor("descarga-", hilosDescargas, hilosMaximosDescargas, capacidadColaDescargas);
+        ejecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        ejecutor.setWaitForTasksToCompleteOnShutdown(true);
+        ejecutor.setAwaitTerminationMillis(esperaCierre.toMillis());
+        logger.info("Ejecutor de descargas: {}-{} hilos, cola de {}", hilosDescargas, hilosMaximosDescargas, capacidadColaDescargas);
+        return ejecutor;
+    }
+
+    /**
+     * Ejecutor de codificación y verificación de contraseñas
+     * Trabajo de CPU: más hilos que núcleos no verifican más rápido. 0 hilos = uno por núcleo.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ejecutorContrasenas() {
+        int hilos = hilosContrasenas > 0 ? hilosContrasenas : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor ejecutor = crearEjecutor("contrasena-", hilos, hilos, capacidadColaContrasenas);
+        ejecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        ejecutor.setWaitForTasksToCompleteOnShutdown(true);
+        ejecutor.setAwaitTerminationMillis(esperaCierre.toMillis());
+        logger.info("Ejecutor de contraseñas: {} hilos, cola de {}", hilos, capacidadColaContrasenas);
+        return ejecutor;
+    }
+
+    /**
+     * Ejecutor por defecto de @Async: sin esto Spring crearía un hilo por tarea
+     */
+    @Override
+    public Executor getAsyncExecutor() {
+        return ejecutorTrabajos();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (error, metodo, parametros) -> logger.error("Error no controlado en {}", metodo.getName(), error);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurador) {
+        configurador.setTaskExecutor(ejecutorDescargas());
+        // El límite de Tomcat (30 s) cortaría las exportaciones grandes
+        configurador.setDefaultTimeout(tiempoLimiteDescargas.toMillis());
+    }
+
+    private ThreadPoolTaskExecutor crearEjecutor(String prefijo, int hilos, int hilosMaximos, int capacidadCola) {
+        ThreadPoolTaskExecutor ejecutor = new ThreadPoolTaskExecutor();
+        ejecutor.setThreadNamePrefix(prefijo);
+        if (hilosVirtuales) {
+            ejecutor.setThreadFactory(HilosVirtuales.fabrica(prefijo));
+        }
+        ejecutor.setCorePoolSize(hilos);
+        ejecutor.setMaxPoolSize(Math.max(hilos, hilosMaximos));
+        ejecutor.setQueueCapacity(capacidadCola);
+        ejecutor.setAllowCoreThreadTimeOut(true);
+        return ejecutor;
+    }
+}
@@ -0,0 +1,81 @@
+package com.rrivasl.configuracion;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Configuración de cachés Caffeine
+ * @author Roberto Rivas López
+ * Principios aplicados: Configuración Centralizada, Inversión de Dependencias
+ *
+ * Cada caché es acotada en tamaño, vence por tiempo desde la escritura y se
+ * refresca en segundo plano pasado el intervalo de refresco, de modo que las
+ * lecturas frecuentes no esperan a la fuente. Registra estadísticas para que
+ * Actuator publique aciertos y fallos (cache.gets) en /actuator/prometheus.
+ * Dentro de una transacción, escrituras y desalojos se aplican al confirmarla,
+ * así una lectura concurrente no vuelve a cachear el valor anterior.
+ */
+@Configuration
+public class ConfiguracionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfiguracionCache.class);
+
+    public static final String CACHE_USUARIOS = "usuarios";
+    public static final String CACHE_PRODUCTOS = "productos";
+
+    @Value("${aplicacion.cache.tamaño-maximo:10000}")
+    private long tamañoMaximo;
+
+    @Value("${aplicacion.cache.expiracion:10m}")
+    private Duration expiracion;
+
+    @Value("${aplicacion.cache.refresco:1m}")
+    private Duration refresco;
+
+    private final Map<String, CargadorCache> cargadoresPorCache = new ConcurrentHashMap<>();
+
+    /**
+     * Gestor de cachés con una caché de carga por nombre
+     * Los cargadores se resuelven en la primera carga: son los mismos servicios que
+     * usan las cachés, así que no pueden inyectarse al construir el gestor.
+     */
+    @Bean
+    public CacheManager cacheManager(ObjectProvider<CargadorCache> cargadores) {
+        if (!refresco.minus(expiracion).isNegative()) {
+            throw new IllegalStateException("aplicacion.cache.refresco debe ser menor que aplicacion.cache.expiracion");
+        }
+
+        CaffeineCacheManager gestor = new CaffeineCacheManager();
+        gestor.setAllowNullValues(false);
+        for (String nombre : new String[] {CACHE_USUARIOS, CACHE_PRODUCTOS}) {
+            gestor.registerCustomCache(nombre, Caffeine.newBuilder()
+                    .maximumSize(tamañoMaximo)
+                    .expireAfterWrite(expiracion)
+                    .refreshAfterWrite(refresco)
+                    .recordStats()
+                    .build(clave -> cargador(nombre, cargadores).cargar(clave)));
+        }
+
+        logger.info("Cachés configuradas: tamaño máximo {}, expiración {}, refresco {}", tamañoMaximo, expiracion, refresco);
+        return new TransactionAwareCacheManagerProxy(gestor);
+    }
+
+    private CargadorCache cargador(String nombre, ObjectProvider<CargadorCache> cargadores) {
+        return cargadoresPorCache.computeIfAbsent(nombre, n -> cargadores.orderedStream()
+                .filter(cargador -> n.equals(cargador.getNombreCache()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No hay cargador para la caché " + n)));
+    }
+}
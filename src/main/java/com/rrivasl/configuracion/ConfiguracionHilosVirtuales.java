@@ -0,0 +1,34 @@
+package com.rrivasl.configuracion;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Atención de peticiones HTTP con hilos virtuales (Java 21)
+ * @author Roberto Rivas López
+ * Principios aplicados: Configuración Centralizada, Abierto/Cerrado
+ *
+ * Se activa con el perfil hilos-virtuales. Tomcat deja de usar su grupo de 200
+ * hilos: cada petición corre en un hilo virtual nuevo, que al bloquearse en E/S
+ * (JDBC, disco) libera su hilo portador. El límite de concurrencia pasa a ser
+ * server.tomcat.max-connections y, para la base de datos, el pool de conexiones.
+ */
+@Configuration
+@ConditionalOnProperty(name = "aplicacion.hilos-virtuales.habilitado", havingValue = "true")
+public class ConfiguracionHilosVirtuales {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfiguracionHilosVirtuales.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> ejecutorTomcatVirtual() {
+        return protocolo -> {
+            protocolo.setExecutor(HilosVirtuales.hiloPorTarea("http-virtual-"));
+            logger.info("Tomcat atiende las peticiones con hilos virtuales");
+        };
+    }
+}
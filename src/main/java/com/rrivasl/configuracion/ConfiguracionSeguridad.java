@@ -1,9 +1,121 @@
 package com.rrivasl.configuracion;
 
+import com.rrivasl.servicio.ServicioTokens;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
 /**
  * Configuración de Seguridad
  * @author Roberto Rivas López
+ * Principios aplicados: Configuración Centralizada, Seguridad por defecto
+ *
+ * Cadena de filtros sin estado: no se crea sesión HTTP y cada petición a una
+ * ruta protegida se autentica solo con su token JWT (FiltroAutenticacionJwt).
+ * El filtro corre justo después de la codificación de caracteres, antes de
+ * cualquier trabajo de Spring MVC. Ya resuelto el controlador,
+ * InterceptorPermisos compara los permisos del token con los que declara
+ * @RequierePermiso. aplicacion.seguridad.habilitada=false deja fuera ambos
+ * (pruebas de carga sobre el servidor, por ejemplo).
+ *
+ * Antes que la autenticación corre FiltroLimitePeticiones, que descarta con
+ * 429 lo que exceda el límite del cliente sin gastar en verificar tokens;
+ * se desactiva aparte con aplicacion.limite-peticiones.habilitado=false.
  */
-public class ConfiguracionSeguridad {
-    // TODO: Configurar Spring Security
+@Configuration
+public class ConfiguracionSeguridad implements WebMvcConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfiguracionSeguridad.class);
+
+    public static final int ORDEN_LIMITE = Ordered.HIGHEST_PRECEDENCE + 50;
+    public static final int ORDEN_AUTENTICACION = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    @Value("${aplicacion.seguridad.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${aplicacion.seguridad.rutas-protegidas:/usuarios,/productos,/reportes}")
+    private List<String> rutasProtegidas;
+
+    @Value("${aplicacion.jwt.header:Authorization}")
+    private String cabecera;
+
+    @Value("${aplicacion.jwt.prefijo:Bearer }")
+    private String prefijo;
+
+    @Value("${aplicacion.limite-peticiones.habilitado:true}")
+    private boolean limiteHabilitado;
+
+    @Value("${aplicacion.limite-peticiones.general:200/1s}")
+    private String limiteGeneral;
+
+    @Value("${aplicacion.limite-peticiones.rutas:}")
+    private String limitesPorRuta;
+
+    @Value("${aplicacion.limite-peticiones.cabecera-clave:}")
+    private String cabeceraClave;
+
+    @Value("${aplicacion.limite-peticiones.tamaño-maximo:100000}")
+    private long tamañoMaximoLimite;
+
+    @Value("${management.endpoints.web.base-path:/actuator}")
+    private String rutaActuator;
+
+    @Bean
+    public InterceptorPermisos interceptorPermisos() {
+        return new InterceptorPermisos();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registro) {
+        if (habilitada) {
+            registro.addInterceptor(interceptorPermisos());
+        }
+    }
+
+    @Bean
+    public FiltroAutenticacionJwt filtroAutenticacionJwt(ServicioTokens servicioTokens) {
+        return new FiltroAutenticacionJwt(servicioTokens, cabecera, prefijo, rutasProtegidas);
+    }
+
+    @Bean
+    public FilterRegistrationBean<FiltroAutenticacionJwt> registroFiltroAutenticacionJwt(FiltroAutenticacionJwt filtro) {
+        FilterRegistrationBean<FiltroAutenticacionJwt> registro = new FilterRegistrationBean<>(filtro);
+        registro.setOrder(ORDEN_AUTENTICACION);
+        registro.setEnabled(habilitada);
+        if (habilitada) {
+            logger.info("Autenticación JWT sin estado en {}", rutasProtegidas);
+        } else {
+            logger.warn("Autenticación JWT deshabilitada (aplicacion.seguridad.habilitada=false)");
+        }
+        return registro;
+    }
+
+    @Bean
+    public FiltroLimitePeticiones filtroLimitePeticiones(ObjectProvider<MeterRegistry> registro) {
+        // Sin actuator no hay registro de Micrometer: los contadores se llevan igual, sin exportarse
+        return new FiltroLimitePeticiones(limiteGeneral, limitesPorRuta, cabeceraClave, rutaActuator,
+                tamañoMaximoLimite, registro.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    public FilterRegistrationBean<FiltroLimitePeticiones> registroFiltroLimitePeticiones(FiltroLimitePeticiones filtro) {
+        FilterRegistrationBean<FiltroLimitePeticiones> registro = new FilterRegistrationBean<>(filtro);
+        registro.setOrder(ORDEN_LIMITE);
+        registro.setEnabled(limiteHabilitado);
+        if (!limiteHabilitado) {
+            logger.warn("Límite de peticiones deshabilitado (aplicacion.limite-peticiones.habilitado=false)");
+        }
+        return registro;
+    }
 }
@@ -0,0 +1,119 @@
+package com.rrivasl.configuracion;
+
+import com.rrivasl.modelo.ReclamosJwt;
+import com.rrivasl.servicio.ServicioTokens;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Filtro de autenticación sin estado con tokens JWT
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Seguridad por defecto
+ *
+ * Cada petición a una ruta protegida debe traer un token de acceso vigente en
+ * la cabecera configurada. No hay sesión ni consulta al almacén: el token se
+ * verifica con ServicioTokens y sus reclamos quedan en el atributo
+ * ATRIBUTO_RECLAMOS de la petición. Sin token, o con uno inválido, responde
+ * 401 con WWW-Authenticate: Bearer.
+ *
+ * Quedan abiertos el registro (POST /usuarios), los /salud de cada recurso,
+ * las peticiones OPTIONS (CORS) y toda ruta fuera de las protegidas. Las rutas
+ * se comparan ya normalizadas (decodificadas, sin ";parámetros" ni "//"),
+ * como las ve Spring MVC al elegir el controlador: /usuarios;x/1 no evita el
+ * filtro. Aun así, cada endpoint protegido declara @RequierePermiso y
+ * InterceptorPermisos exige el token por su cuenta.
+ */
+public class FiltroAutenticacionJwt extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FiltroAutenticacionJwt.class);
+
+    public static final String ATRIBUTO_RECLAMOS = FiltroAutenticacionJwt.class.getName() + ".reclamos";
+
+    private static final String RUTA_REGISTRO = "/usuarios";
+    private static final String SUFIJO_SALUD = "/salud";
+
+    private final ServicioTokens servicioTokens;
+    private final String cabecera;
+    private final String prefijo;
+    private final List<String> rutasProtegidas;
+
+    public FiltroAutenticacionJwt(ServicioTokens servicioTokens, String cabecera, String prefijo, List<String> rutasProtegidas) {
+        this.servicioTokens = servicioTokens;
+        this.cabecera = cabecera;
+        this.prefijo = prefijo;
+        this.rutasProtegidas = List.copyOf(rutasProtegidas);
+    }
+
+    /**
+     * Reclamos del token de la petición, o null si la ruta no es protegida
+     */
+    public static ReclamosJwt reclamos(HttpServletRequest peticion) {
+        return (ReclamosJwt) peticion.getAttribute(ATRIBUTO_RECLAMOS);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest peticion) {
+        if (HttpMethod.OPTIONS.matches(peticion.getMethod())) {
+            return true;
+        }
+        String ruta = ruta(peticion);
+        if (ruta.endsWith(SUFIJO_SALUD)
+                || (RUTA_REGISTRO.equals(ruta) && HttpMethod.POST.matches(peticion.getMethod()))) {
+            return true;
+        }
+        for (String protegida : rutasProtegidas) {
+            if (ruta.equals(protegida) || ruta.startsWith(protegida + "/")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest peticion, HttpServletResponse respuesta, FilterChain cadena)
+            throws ServletException, IOException {
+        String valor = peticion.getHeader(cabecera);
+        if (valor == null || !valor.startsWith(prefijo)) {
+            rechazar(respuesta, "Token de acceso requerido");
+            return;
+        }
+
+        ReclamosJwt reclamos;
+        try {
+            reclamos = servicioTokens.verificar(valor.substring(prefijo.length()).trim(), ReclamosJwt.TipoToken.ACCESO);
+        } catch (IllegalArgumentException e) {
+            logger.debug("Token rechazado en {} {}: {}", peticion.getMethod(), ruta(peticion), e.getMessage());
+            rechazar(respuesta, e.getMessage());
+            return;
+        }
+
+        peticion.setAttribute(ATRIBUTO_RECLAMOS, reclamos);
+        cadena.doFilter(peticion, respuesta);
+    }
+
+    private static String ruta(HttpServletRequest peticion) {
+        return UrlPathHelper.defaultInstance.getPathWithinApplication(peticion);
+    }
+
+    private static void rechazar(HttpServletResponse respuesta, String mensaje) throws IOException {
+        respuesta.setStatus(HttpStatus.UNAUTHORIZED.value());
+        respuesta.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        respuesta.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        respuesta.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        respuesta.getWriter().write(mensaje);
+    }
+}
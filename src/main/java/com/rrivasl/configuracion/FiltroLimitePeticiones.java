@@ -0,0 +1,260 @@
+package com.rrivasl.configuracion;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rrivasl.repositorio.CuboTokens;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Filtro de límite de peticiones por cliente y ruta
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Seguridad por defecto
+ *
+ * Cada cliente tiene un cubo de tokens general y uno por cada regla de ruta
+ * que alcance. Las reglas se escriben "[MÉTODO ]ruta=capacidad/periodo", por
+ * ejemplo "POST /autenticacion=20/1m": ráfagas de hasta 20 peticiones y 20 por
+ * minuto sostenidas. Se aplica la primera regla cuya ruta coincida y después
+ * el límite general. Sin token en alguno de los dos, responde 429 con
+ * Retry-After y cuenta el rechazo en aplicacion.peticiones.rechazadas,
+ * etiquetado con el límite que lo rechazó. Ambos se revisan antes de gastar:
+ * una petición rechazada por el límite general no consume el de su ruta.
+ *
+ * Corre antes de la autenticación JWT: una ráfaga se descarta sin verificar
+ * firmas, leer el cuerpo ni ocupar el ejecutor de contraseñas. Cada límite se
+ * aplica siempre por dirección remota y, si se configura la cabecera de clave
+ * de API y viene en la petición, además por clave. La clave no se verifica
+ * aquí: solo puede restar, nunca dar un cubo nuevo, así que cambiarla en cada
+ * petición no evita el límite de la IP. La IP es la de getRemoteAddr: detrás de
+ * un proxy solo es la del cliente con server.forward-headers-strategy, que
+ * toma X-Forwarded-For de los proxies confiables; sin ello todos los clientes
+ * comparten el cubo del proxy. Las rutas se comparan normalizadas,
+ * como las ve Spring MVC (/autenticacion;x/login es /autenticacion/login).
+ * Los cubos viven en cachés Caffeine acotadas que los descartan tras un
+ * periodo sin uso, cuando ya estarían llenos de nuevo.
+ *
+ * Quedan fuera las peticiones OPTIONS (CORS), los /salud de cada recurso y
+ * el actuator, para que sondas y métricas no consuman el límite del cliente.
+ */
+public class FiltroLimitePeticiones extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FiltroLimitePeticiones.class);
+
+    public static final String METRICA_RECHAZADAS = "aplicacion.peticiones.rechazadas";
+    public static final String LIMITE_GENERAL = "general";
+
+    private static final String SUFIJO_SALUD = "/salud";
+    // Separa los cubos por clave de los cubos por IP en la misma caché
+    private static final String PREFIJO_CLAVE = "clave:";
+
+    private final Limite general;
+    private final List<Limite> porRuta;
+    private final String cabeceraClave;
+    private final String rutaActuator;
+
+    /**
+     * @param general límite general por cliente ("capacidad/periodo"); vacío, sin límite general
+     * @param rutas reglas por ruta separadas por comas ("[MÉTODO ]ruta=capacidad/periodo")
+     * @param cabeceraClave cabecera con la clave de API, limitada además de la IP; vacía, solo la IP
+     * @param rutaActuator ruta base del actuator, que queda fuera del límite
+     * @param tamañoMaximo clientes recordados por cada límite
+     * @param registro registro de métricas para los rechazos
+     */
+    public FiltroLimitePeticiones(String general, String rutas, String cabeceraClave, String rutaActuator,
+                                  long tamañoMaximo, MeterRegistry registro) {
+        this.general = general == null || general.isBlank()
+                ? null : Limite.crear(LIMITE_GENERAL, null, null, general, tamañoMaximo, registro);
+        this.porRuta = leerReglas(rutas, tamañoMaximo, registro);
+        this.cabeceraClave = cabeceraClave == null || cabeceraClave.isBlank() ? null : cabeceraClave.trim();
+        this.rutaActuator = rutaActuator;
+    }
+
+    /**
+     * Peticiones rechazadas por un límite ("general" o el texto de la regla, como "POST /autenticacion")
+     */
+    public double rechazadas(String limite) {
+        if (general != null && general.nombre.equals(limite)) {
+            return general.rechazadas.count();
+        }
+        for (Limite regla : porRuta) {
+            if (regla.nombre.equals(limite)) {
+                return regla.rechazadas.count();
+            }
+        }
+        throw new IllegalArgumentException("No existe el límite " + limite);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest peticion) {
+        if (HttpMethod.OPTIONS.matches(peticion.getMethod())) {
+            return true;
+        }
+        String ruta = ruta(peticion);
+        return ruta.endsWith(SUFIJO_SALUD) || ruta.equals(rutaActuator) || ruta.startsWith(rutaActuator + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest peticion, HttpServletResponse respuesta, FilterChain cadena)
+            throws ServletException, IOException {
+        String ip = peticion.getRemoteAddr();
+        String clave = clave(peticion);
+        String ruta = ruta(peticion);
+        long ahora = System.nanoTime();
+
+        Limite regla = regla(peticion.getMethod(), ruta);
+        Limite agotado = null;
+        long espera = 0;
+        if (regla != null && (espera = regla.espera(ip, clave, ahora)) > 0) {
+            agotado = regla;
+        } else if (general != null && (espera = general.espera(ip, clave, ahora)) > 0) {
+            agotado = general;
+        } else if (regla != null && (espera = regla.consumir(ip, clave, ahora)) > 0) {
+            // Otra petición del mismo cliente gastó el último token entre la revisión y el consumo
+            agotado = regla;
+        } else if (general != null && (espera = general.consumir(ip, clave, ahora)) > 0) {
+            agotado = general;
+        }
+        if (agotado != null) {
+            agotado.rechazadas.increment();
+            logger.debug("Límite {} agotado para {} en {} {}", agotado.nombre, ip, peticion.getMethod(), ruta);
+            rechazar(respuesta, espera);
+            return;
+        }
+        cadena.doFilter(peticion, respuesta);
+    }
+
+    private Limite regla(String metodo, String ruta) {
+        for (Limite regla : porRuta) {
+            if ((regla.metodo == null || regla.metodo.matches(metodo))
+                    && (ruta.equals(regla.ruta) || ruta.startsWith(regla.ruta + "/"))) {
+                return regla;
+            }
+        }
+        return null;
+    }
+
+    private String clave(HttpServletRequest peticion) {
+        if (cabeceraClave == null) {
+            return null;
+        }
+        String clave = peticion.getHeader(cabeceraClave);
+        return clave == null || clave.isEmpty() ? null : PREFIJO_CLAVE + clave;
+    }
+
+    private static List<Limite> leerReglas(String rutas, long tamañoMaximo, MeterRegistry registro) {
+        if (rutas == null || rutas.isBlank()) {
+            return List.of();
+        }
+        List<Limite> reglas = new ArrayList<>();
+        for (String texto : rutas.split(",")) {
+            String regla = texto.trim();
+            int igual = regla.lastIndexOf('=');
+            if (igual <= 0) {
+                throw new IllegalStateException("Regla de límite inválida (se espera [MÉTODO ]ruta=capacidad/periodo): " + regla);
+            }
+            String nombre = regla.substring(0, igual).trim();
+            int espacio = nombre.indexOf(' ');
+            HttpMethod metodo = espacio < 0 ? null : HttpMethod.valueOf(nombre.substring(0, espacio).toUpperCase());
+            String ruta = nombre.substring(espacio + 1).trim();
+            reglas.add(Limite.crear(nombre, metodo, ruta, regla.substring(igual + 1), tamañoMaximo, registro));
+        }
+        return List.copyOf(reglas);
+    }
+
+    private static String ruta(HttpServletRequest peticion) {
+        return UrlPathHelper.defaultInstance.getPathWithinApplication(peticion);
+    }
+
+    private static void rechazar(HttpServletResponse respuesta, long esperaNanos) throws IOException {
+        long segundos = Math.max(1, (esperaNanos + 999_999_999L) / 1_000_000_000L);
+        respuesta.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        respuesta.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        respuesta.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        respuesta.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        respuesta.getWriter().write("Demasiadas peticiones; reintente en " + segundos + " s");
+    }
+
+    /**
+     * Un límite configurado: sus cubos por cliente y su contador de rechazos
+     */
+    private static final class Limite {
+
+        private final String nombre;
+        private final HttpMethod metodo;
+        private final String ruta;
+        private final Cache<String, CuboTokens> cubos;
+        private final Counter rechazadas;
+        // Creada una vez: la búsqueda de cada petición no construye una lambda nueva
+        private final Function<String, CuboTokens> nuevoCubo;
+
+        private Limite(String nombre, HttpMethod metodo, String ruta, int capacidad, Duration periodo,
+                       long tamañoMaximo, MeterRegistry registro) {
+            this.nombre = nombre;
+            this.metodo = metodo;
+            this.ruta = ruta;
+            this.cubos = Caffeine.newBuilder().maximumSize(tamañoMaximo).expireAfterAccess(periodo).build();
+            this.rechazadas = Counter.builder(METRICA_RECHAZADAS)
+                    .description("Peticiones rechazadas con 429 por el límite de peticiones")
+                    .tag("limite", nombre)
+                    .register(registro);
+            long periodoNanos = periodo.toNanos();
+            this.nuevoCubo = cliente -> new CuboTokens(capacidad, periodoNanos, System.nanoTime());
+        }
+
+        static Limite crear(String nombre, HttpMethod metodo, String ruta, String tasa, long tamañoMaximo,
+                            MeterRegistry registro) {
+            int barra = tasa.indexOf('/');
+            try {
+                int capacidad = Integer.parseInt(tasa.substring(0, barra).trim());
+                Duration periodo = DurationStyle.detectAndParse(tasa.substring(barra + 1).trim());
+                if (capacidad <= 0 || periodo.isNegative() || periodo.isZero()) {
+                    throw new IllegalArgumentException("capacidad y periodo deben ser mayores a cero");
+                }
+                logger.info("Límite de peticiones {}: {} cada {} por cliente", nombre, capacidad, periodo);
+                return new Limite(nombre, metodo, ruta, capacidad, periodo, tamañoMaximo, registro);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IllegalStateException("Tasa de límite inválida para " + nombre
+                        + " (se espera capacidad/periodo, como 20/1m): " + tasa, e);
+            }
+        }
+
+        /**
+         * Espera del cubo de la IP o, si la petición trae clave, la mayor entre ese y el de la clave
+         */
+        long espera(String ip, String clave, long ahora) {
+            long espera = cubos.get(ip, nuevoCubo).espera(ahora);
+            return clave == null ? espera : Math.max(espera, cubos.get(clave, nuevoCubo).espera(ahora));
+        }
+
+        /**
+         * Consumir un token del cubo de la IP y, si la petición trae clave, también del de la clave
+         */
+        long consumir(String ip, String clave, long ahora) {
+            long espera = cubos.get(ip, nuevoCubo).consumir(ahora);
+            if (espera == 0 && clave != null) {
+                espera = cubos.get(clave, nuevoCubo).consumir(ahora);
+            }
+            return espera;
+        }
+    }
+}
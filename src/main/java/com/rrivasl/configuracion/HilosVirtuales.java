@@ -0,0 +1,72 @@
+package com.rrivasl.configuracion;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Acceso a los hilos virtuales de Java 21
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Responsabilidad Única
+ *
+ * El proyecto compila para Java 17, donde Thread.ofVirtual no existe: la API se
+ * resuelve en tiempo de ejecución y solo se usa con el perfil hilos-virtuales.
+ * Sobre Java 17 ese perfil falla al iniciar en vez de caer en hilos de plataforma.
+ */
+final class HilosVirtuales {
+
+    private HilosVirtuales() {
+    }
+
+    /**
+     * Indica si la JVM en ejecución ofrece hilos virtuales
+     */
+    static boolean disponibles() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Fábrica de hilos virtuales con nombre prefijo + número correlativo
+     * @throws IllegalStateException si la JVM no ofrece hilos virtuales
+     */
+    static ThreadFactory fabrica(String prefijo) {
+        verificarDisponibles();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> tipoBuilder = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            Object builder = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(tipoBuilder)).invoke();
+            MethodHandle nombre = lookup.findVirtual(tipoBuilder, "name",
+                    MethodType.methodType(tipoBuilder, String.class, long.class));
+            builder = nombre.invoke(builder, prefijo, 1L);
+            MethodHandle fabrica = lookup.findVirtual(tipoBuilder, "factory", MethodType.methodType(ThreadFactory.class));
+            return (ThreadFactory) fabrica.invoke(builder);
+        } catch (Throwable e) {
+            throw new IllegalStateException("No se pudo crear la fábrica de hilos virtuales", e);
+        }
+    }
+
+    /**
+     * Ejecutor que crea un hilo virtual por tarea, sin límite ni cola
+     * @throws IllegalStateException si la JVM no ofrece hilos virtuales
+     */
+    static ExecutorService hiloPorTarea(String prefijo) {
+        ThreadFactory fabrica = fabrica(prefijo);
+        try {
+            MethodHandle ejecutor = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+            return (ExecutorService) ejecutor.invoke(fabrica);
+        } catch (Throwable e) {
+            throw new IllegalStateException("No se pudo crear el ejecutor de hilos virtuales", e);
+        }
+    }
+
+    private static void verificarDisponibles() {
+        if (!disponibles()) {
+            throw new IllegalStateException("Los hilos virtuales requieren Java 21 (en ejecución: Java "
+                    + Runtime.version().feature() + "); compile con -Pjava21");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.rrivasl.configuracion;
+
+import com.rrivasl.modelo.Permiso;
+import com.rrivasl.modelo.ReclamosJwt;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interceptor de autorización por permisos
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Seguridad por defecto
+ *
+ * Compara la máscara que exige @RequierePermiso con la del token de acceso que
+ * dejó FiltroAutenticacionJwt en la petición. La máscara de cada método se
+ * calcula una vez y queda en un mapa: autorizar una petición es una búsqueda y
+ * un AND, sin leer el usuario, su rol ni anotaciones. Sin permisos suficientes
+ * responde 403; sin token, 401 (un endpoint anotado fuera de las rutas
+ * protegidas no queda abierto). Solo los métodos sin anotación, ni propia ni
+ * del controlador, atienden sin token.
+ */
+public class InterceptorPermisos implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterceptorPermisos.class);
+
+    // Máscara de los métodos sin @RequierePermiso; 0 es @RequierePermiso({}), solo token
+    private static final long SIN_ANOTACION = -1L;
+
+    private final ConcurrentMap<Method, Long> mascaraPorMetodo = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest peticion, HttpServletResponse respuesta, Object manejador)
+            throws IOException {
+        if (!(manejador instanceof HandlerMethod metodo)) {
+            return true;
+        }
+        long requerida = mascaraPorMetodo.computeIfAbsent(metodo.getMethod(), m -> mascaraRequerida(metodo));
+        if (requerida == SIN_ANOTACION) {
+            return true;
+        }
+
+        ReclamosJwt reclamos = FiltroAutenticacionJwt.reclamos(peticion);
+        if (reclamos == null) {
+            respuesta.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            rechazar(respuesta, HttpStatus.UNAUTHORIZED, "Token de acceso requerido");
+            return false;
+        }
+        if (!reclamos.tienePermisos(requerida)) {
+            logger.debug("{} sin permisos {} para {} {}", reclamos.getNombreUsuario(),
+                    Permiso.desdeMascara(requerida & ~reclamos.getPermisos()), peticion.getMethod(), peticion.getRequestURI());
+            rechazar(respuesta, HttpStatus.FORBIDDEN, "Permisos insuficientes");
+            return false;
+        }
+        return true;
+    }
+
+    private static long mascaraRequerida(HandlerMethod metodo) {
+        RequierePermiso anotacion = AnnotatedElementUtils.findMergedAnnotation(metodo.getMethod(), RequierePermiso.class);
+        if (anotacion == null) {
+            anotacion = AnnotatedElementUtils.findMergedAnnotation(metodo.getBeanType(), RequierePermiso.class);
+        }
+        return anotacion == null ? SIN_ANOTACION : Permiso.mascara(anotacion.value());
+    }
+
+    private static void rechazar(HttpServletResponse respuesta, HttpStatus estado, String mensaje) throws IOException {
+        respuesta.setStatus(estado.value());
+        respuesta.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        respuesta.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        respuesta.getWriter().write(mensaje);
+    }
+}
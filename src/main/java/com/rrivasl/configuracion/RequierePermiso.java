@@ -0,0 +1,28 @@
+package com.rrivasl.configuracion;
+
+import com.rrivasl.modelo.Permiso;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Permisos que exige un endpoint
+ * @author Roberto Rivas López
+ * Principios aplicados: Programación Declarativa, Seguridad por defecto
+ *
+ * En un método o en el controlador completo; la anotación del método reemplaza
+ * a la de la clase. Se exigen todos los permisos indicados. La verifica
+ * InterceptorPermisos contra los permisos del token de acceso. Sin permisos,
+ * @RequierePermiso({}), basta un token de acceso válido: así se marcan las
+ * consultas abiertas a cualquier usuario autenticado.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequierePermiso {
+
+    Permiso[] value();
+}
@@ -0,0 +1,156 @@
+package com.rrivasl.controlador;
+
+import com.rrivasl.modelo.ResultadoAutenticacion;
+import com.rrivasl.modelo.Usuario;
+import com.rrivasl.servicio.ServicioIntentosLogin;
+import com.rrivasl.servicio.ServicioTokens;
+import com.rrivasl.servicio.ServicioUsuario;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controlador REST de autenticación con tokens JWT
+ * @author Roberto Rivas López
+ * Principios aplicados: Separación de Intereses, Responsabilidad Única
+ *
+ * Entrega el par de tokens (acceso y refresco) al iniciar sesión y lo renueva
+ * con el token de refresco. No guarda sesión: el cierre de sesión es del
+ * cliente, que descarta sus tokens.
+ *
+ * Los fallos de inicio de sesión se cuentan por usuario y por IP; mientras
+ * dura un bloqueo el intento se rechaza con 429 y Retry-After sin revisar la
+ * contraseña.
+ *
+ * La verificación de la contraseña corre en el ejecutor de contraseñas y la
+ * respuesta se completa de forma asíncrona: el hilo de Tomcat queda libre
+ * mientras se calcula el hash. Con la cola de ese ejecutor llena se responde
+ * 503 en vez de encolar sin límite.
+ */
+@RestController
+@RequestMapping("/autenticacion")
+@CrossOrigin(origins = "*")
+public class ControladorAutenticacion {
+
+    private static final Logger logger = LoggerFactory.getLogger(ControladorAutenticacion.class);
+
+    @Autowired
+    private ServicioUsuario servicioUsuario;
+
+    @Autowired
+    private ServicioTokens servicioTokens;
+
+    @Autowired
+    private ServicioIntentosLogin servicioIntentosLogin;
+
+    @Autowired
+    @Qualifier("ejecutorContrasenas")
+    private ThreadPoolTaskExecutor ejecutorContrasenas;
+
+    /**
+     * Iniciar sesión con nombre de usuario y contraseña
+     * @param credenciales cuerpo con "nombreUsuario" y "contrasena"
+     * @param peticion petición HTTP, para la dirección de origen
+     * @return ResponseEntity con el par de tokens, al terminar la verificación
+     */
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<?>> iniciarSesion(@RequestBody Map<String, String> credenciales,
+                                                              HttpServletRequest peticion) {
+        String nombreUsuario = credenciales.get("nombreUsuario");
+        String contrasena = credenciales.get("contrasena");
+        if (nombreUsuario == null || nombreUsuario.isBlank() || contrasena == null || contrasena.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    new ResponseEntity<>("Nombre de usuario y contraseña son obligatorios", HttpStatus.BAD_REQUEST));
+        }
+
+        try {
+            String ip = peticion.getRemoteAddr();
+            long espera = servicioIntentosLogin.segundosDeEspera(nombreUsuario, ip);
+            if (espera > 0) {
+                logger.warn("Inicio de sesión de {} desde {} rechazado: bloqueo por intentos fallidos", nombreUsuario, ip);
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(espera))
+                        .body("Demasiados intentos fallidos; reintente en " + espera + " s"));
+            }
+            return CompletableFuture.supplyAsync(() -> verificarCredenciales(nombreUsuario, contrasena, ip), ejecutorContrasenas);
+        } catch (TaskRejectedException e) {
+            logger.warn("Inicio de sesión de {} rechazado: cola de verificación de contraseñas llena", nombreUsuario);
+            return CompletableFuture.completedFuture(ocupado());
+        } catch (Exception e) {
+            logger.error("Error interno al iniciar sesión", e);
+            return CompletableFuture.completedFuture(
+                    new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR));
+        }
+    }
+
+    /**
+     * Verificar la contraseña y emitir los tokens; corre en el ejecutor de contraseñas
+     */
+    private ResponseEntity<?> verificarCredenciales(String nombreUsuario, String contrasena, String ip) {
+        try {
+            Optional<Usuario> usuario = servicioUsuario.autenticar(nombreUsuario, contrasena);
+            if (usuario.isEmpty()) {
+                logger.warn("Inicio de sesión fallido para {} desde {}", nombreUsuario, ip);
+                servicioIntentosLogin.registrarFallo(nombreUsuario, ip);
+                return noAutorizado("Credenciales inválidas");
+            }
+            servicioIntentosLogin.registrarExito(nombreUsuario);
+            logger.info("Inicio de sesión de {}", nombreUsuario);
+            return new ResponseEntity<>(servicioTokens.emitirTokens(usuario.get()), HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Error interno al iniciar sesión", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Obtener un par nuevo de tokens con el token de refresco
+     * @param cuerpo cuerpo con "tokenRefresco"
+     * @return ResponseEntity con el par nuevo de tokens
+     */
+    @PostMapping("/refrescar")
+    public ResponseEntity<?> refrescar(@RequestBody Map<String, String> cuerpo) {
+        String tokenRefresco = cuerpo.get("tokenRefresco");
+        if (tokenRefresco == null || tokenRefresco.isBlank()) {
+            return new ResponseEntity<>("El token de refresco es obligatorio", HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            ResultadoAutenticacion resultado = servicioTokens.refrescar(tokenRefresco);
+            return new ResponseEntity<>(resultado, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Refresco de tokens rechazado: {}", e.getMessage());
+            return noAutorizado(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error interno al refrescar tokens", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Respuesta cuando la cola del ejecutor de contraseñas está llena
+     */
+    private static ResponseEntity<String> ocupado() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Hay demasiadas verificaciones de contraseña en curso, intente más tarde");
+    }
+
+    private static ResponseEntity<String> noAutorizado(String mensaje) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                .body(mensaje);
+    }
+}
@@ -1,9 +1,298 @@
 package com.rrivasl.controlador;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.rrivasl.configuracion.RequierePermiso;
+import com.rrivasl.modelo.PaginaCursor;
+import com.rrivasl.modelo.Permiso;
+import com.rrivasl.modelo.Producto;
+import com.rrivasl.modelo.ResultadoLote;
+import com.rrivasl.repositorio.ResumenProducto;
+import com.rrivasl.servicio.ServicioProducto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
+import java.io.IOException;
+
 /**
  * Controlador REST Producto
  * @author Roberto Rivas López
+ * Principios aplicados: Separación de Intereses, Responsabilidad Única
+ *
+ * Cada producto viaja con un ETag derivado de su ID y versión. Si el cliente envía
+ * If-None-Match con el ETag vigente se responde 304 sin serializar el cuerpo, de
+ * modo que un sondeo repetido del catálogo cuesta una comparación de hash.
  */
+@RestController
+@RequestMapping("/productos")
+@CrossOrigin(origins = "*")
 public class ControladorProducto {
-    // TODO: Implementar endpoints REST Producto
+
+    private static final Logger logger = LoggerFactory.getLogger(ControladorProducto.class);
+
+    @Autowired
+    private ServicioProducto servicioProducto;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${aplicacion.paginacion.tamaño-default:10}")
+    private int tamañoPorDefecto;
+
+    @Value("${aplicacion.paginacion.tamaño-maximo:100}")
+    private int tamañoMaximo;
+
+    /**
+     * Crear un nuevo producto
+     * @param producto datos del producto a crear
+     * @return producto creado con su ETag
+     */
+    @RequierePermiso(Permiso.GESTION_PRODUCTOS)
+    @PostMapping
+    public ResponseEntity<?> crearProducto(@Valid @RequestBody Producto producto) {
+        try {
+            logger.info("Creando nuevo producto: {}", producto.getCodigoProducto());
+            producto.setId(null);
+            producto.setVersion(null);
+            Producto creado = servicioProducto.crearProducto(producto);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(calcularEtag(creado)).body(creado);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error al crear producto: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            logger.error("Error interno al crear producto", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Carga masiva de productos
+     * Acepta un arreglo JSON o NDJSON (un producto por línea). El cuerpo se lee como
+     * flujo y se persiste por bloques, así que el tamaño de la carga no limita la memoria.
+     * Un error de formato detiene la lectura; los bloques ya procesados quedan guardados.
+     * @param peticion petición con el cuerpo a leer
+     * @return totales de la carga y resultado por bloque
+     */
+    @RequierePermiso(Permiso.GESTION_PRODUCTOS)
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> crearProductosEnLote(HttpServletRequest peticion) {
+        try (MappingIterator<Producto> productos = objectMapper.readerFor(Producto.class).readValues(peticion.getInputStream())) {
+            ResultadoLote resultado = servicioProducto.crearProductosEnLote(() -> productos);
+            logger.info("Carga masiva de productos: {} insertados de {}", resultado.getInsertados(), resultado.getRecibidos());
+            return new ResponseEntity<>(resultado, HttpStatus.OK);
+        } catch (RuntimeJsonMappingException | IOException e) {
+            logger.error("Contenido inválido en carga masiva de productos: {}", e.getMessage());
+            return new ResponseEntity<>("Contenido inválido en la carga: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error en carga masiva de productos: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            // MappingIterator envuelve los errores de sintaxis en RuntimeException
+            if (e.getCause() instanceof JsonProcessingException) {
+                logger.error("Contenido inválido en carga masiva de productos: {}", e.getMessage());
+                return new ResponseEntity<>("Contenido inválido en la carga: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+            logger.error("Error interno en carga masiva de productos", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Listar productos paginados por cursor (proyección liviana, sin descripción)
+     * @param cursor cursor opaco devuelto por la página anterior, opcional
+     * @param tamano tamaño de página, opcional (limitado al máximo configurado)
+     * @param peticion petición web para la comparación de If-None-Match
+     * @return página de productos o 304 si el cliente ya la tiene
+     */
+    @RequierePermiso({})
+    @GetMapping
+    public ResponseEntity<?> listarProductos(@RequestParam(required = false) String cursor,
+                                             @RequestParam(name = "tamano", required = false) Integer tamano,
+                                             WebRequest peticion) {
+        try {
+            int tamaño = tamano == null ? tamañoPorDefecto : tamano;
+            if (tamaño <= 0) {
+                return new ResponseEntity<>("El tamaño de página debe ser mayor a cero", HttpStatus.BAD_REQUEST);
+            }
+
+            PaginaCursor<ResumenProducto> pagina = servicioProducto.obtenerPaginaResumen(cursor, Math.min(tamaño, tamañoMaximo));
+            String etag = calcularEtag(pagina);
+            if (peticion.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(pagina);
+        } catch (IllegalArgumentException e) {
+            logger.error("Parámetros de paginación inválidos: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Error al listar productos", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Buscar producto por ID
+     * @param id identificador del producto
+     * @param peticion petición web para la comparación de If-None-Match
+     * @return producto, 304 si no cambió o 404 si no existe
+     */
+    @RequierePermiso({})
+    @GetMapping("/{id}")
+    public ResponseEntity<?> buscarProductoPorId(@PathVariable Long id, WebRequest peticion) {
+        try {
+            return responderConEtag(servicioProducto.buscarPorId(id), peticion);
+        } catch (Exception e) {
+            logger.error("Error al buscar producto por ID: {}", id, e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Buscar producto por código
+     * @param codigo código único del producto
+     * @param peticion petición web para la comparación de If-None-Match
+     * @return producto, 304 si no cambió o 404 si no existe
+     */
+    @RequierePermiso({})
+    @GetMapping("/codigo/{codigo}")
+    public ResponseEntity<?> buscarProductoPorCodigo(@PathVariable String codigo, WebRequest peticion) {
+        try {
+            return responderConEtag(servicioProducto.buscarPorCodigo(codigo), peticion);
+        } catch (Exception e) {
+            logger.error("Error al buscar producto por código: {}", codigo, e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Actualizar producto existente
+     * Si se envía If-Match, la actualización solo procede cuando coincide con el ETag vigente.
+     * @param id identificador del producto
+     * @param producto nuevos datos del producto
+     * @param ifMatch ETag esperado, opcional
+     * @return producto actualizado con su nuevo ETag
+     */
+    @RequierePermiso(Permiso.GESTION_PRODUCTOS)
+    @PutMapping("/{id}")
+    public ResponseEntity<?> actualizarProducto(@PathVariable Long id,
+                                                @Valid @RequestBody Producto producto,
+                                                @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            // Sin If-Match (o con "*") se actualiza sin exigir versión
+            producto.setVersion(ifMatch == null || "*".equals(ifMatch.trim()) ? null : extraerVersion(id, ifMatch));
+            Producto actualizado = servicioProducto.actualizarProducto(id, producto);
+            if (actualizado == null) {
+                return new ResponseEntity<>("Producto no encontrado", HttpStatus.NOT_FOUND);
+            }
+            return ResponseEntity.ok().eTag(calcularEtag(actualizado)).body(actualizado);
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Conflicto de versión al actualizar producto {}: {}", id, e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.PRECONDITION_FAILED);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error al actualizar producto: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            logger.error("Error interno al actualizar producto", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Eliminar producto
+     * @param id identificador del producto
+     * @return confirmación de eliminación
+     */
+    @RequierePermiso(Permiso.GESTION_PRODUCTOS)
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> eliminarProducto(@PathVariable Long id) {
+        try {
+            if (servicioProducto.buscarPorId(id) == null) {
+                return new ResponseEntity<>("Producto no encontrado", HttpStatus.NOT_FOUND);
+            }
+            servicioProducto.eliminarProducto(id);
+            return new ResponseEntity<>("Producto eliminado exitosamente", HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Error interno al eliminar producto", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Endpoint de salud para verificar que el controlador funciona
+     * @return estado del controlador
+     */
+    @GetMapping("/salud")
+    public ResponseEntity<String> verificarSalud() {
+        return new ResponseEntity<>("Controlador de productos funcionando correctamente - Roberto Rivas López", HttpStatus.OK);
+    }
+
+    /**
+     * Responder un producto con su ETag, o 304 si el cliente ya tiene esa versión
+     */
+    private ResponseEntity<?> responderConEtag(Producto producto, WebRequest peticion) {
+        if (producto == null) {
+            return new ResponseEntity<>("Producto no encontrado", HttpStatus.NOT_FOUND);
+        }
+        String etag = calcularEtag(producto);
+        if (peticion.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(producto);
+    }
+
+    /**
+     * ETag fuerte de un producto: "id-version"
+     */
+    private String calcularEtag(Producto producto) {
+        return "\"" + producto.getId() + "-" + producto.getVersion() + "\"";
+    }
+
+    /**
+     * ETag débil de una página: hash de los pares (id, versión) y del cursor siguiente
+     * Se calcula sin serializar la página.
+     */
+    private String calcularEtag(PaginaCursor<ResumenProducto> pagina) {
+        long hash = 1125899906842597L;
+        for (ResumenProducto resumen : pagina.getContenido()) {
+            hash = 31 * hash + resumen.getId();
+            hash = 31 * hash + (resumen.getVersion() == null ? 0 : resumen.getVersion());
+        }
+        hash = 31 * hash + (pagina.getCursorSiguiente() == null ? 0 : pagina.getCursorSiguiente().hashCode());
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Extraer la versión de un ETag "id-version" recibido en If-Match
+     * @throws OptimisticLockingFailureException si el ETag no corresponde al producto
+     */
+    private Long extraerVersion(Long id, String ifMatch) {
+        String valor = ifMatch.trim();
+        if (valor.startsWith("W/")) {
+            valor = valor.substring(2);
+        }
+        valor = valor.replace("\"", "");
+        String prefijo = id + "-";
+        if (!valor.startsWith(prefijo)) {
+            throw new OptimisticLockingFailureException("El ETag no corresponde al producto " + id);
+        }
+        try {
+            return Long.parseLong(valor.substring(prefijo.length()));
+        } catch (NumberFormatException e) {
+            throw new OptimisticLockingFailureException("ETag inválido: " + ifMatch);
+        }
+    }
 }
@@ -0,0 +1,254 @@
+package com.rrivasl.controlador;
+
+import com.rrivasl.configuracion.RequierePermiso;
+import com.rrivasl.modelo.FormatoReporte;
+import com.rrivasl.modelo.ResultadoReporte;
+import com.rrivasl.modelo.Permiso;
+import com.rrivasl.modelo.ResumenDashboard;
+import com.rrivasl.modelo.TipoReporte;
+import com.rrivasl.modelo.Trabajo;
+import com.rrivasl.servicio.ServicioEstadisticas;
+import com.rrivasl.servicio.ServicioReportes;
+import com.rrivasl.servicio.ServicioTrabajos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Controlador REST para tableros y reportes
+ * @author Roberto Rivas López
+ * Principios aplicados: Separación de Intereses, Responsabilidad Única
+ */
+@RestController
+@RequestMapping("/reportes")
+@CrossOrigin(origins = "*")
+@RequierePermiso(Permiso.REPORTES)
+public class ControladorReportes {
+
+    private static final Logger logger = LoggerFactory.getLogger(ControladorReportes.class);
+
+    @Autowired
+    private ServicioEstadisticas servicioEstadisticas;
+
+    @Autowired
+    private ServicioReportes servicioReportes;
+
+    @Autowired
+    private ServicioTrabajos servicioTrabajos;
+
+    @Value("${aplicacion.trabajos.reintento:30s}")
+    private Duration reintento;
+
+    /**
+     * Totales para el tablero: usuarios por estado y productos, unidades y valor por categoría
+     * Se leen de contadores en memoria; el costo no crece con la cantidad de datos.
+     * @return resumen vigente
+     */
+    @GetMapping("/resumen")
+    public ResponseEntity<?> obtenerResumen() {
+        try {
+            ResumenDashboard resumen = servicioEstadisticas.obtenerResumen();
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(resumen);
+        } catch (Exception e) {
+            logger.error("Error al obtener el resumen del tablero", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Forzar la reconciliación de los contadores con la fuente de datos
+     * Útil tras cargas hechas directamente en la base.
+     * @return resumen tras la corrección
+     */
+    @PostMapping("/resumen/reconciliar")
+    public ResponseEntity<?> reconciliar() {
+        try {
+            long desvio = servicioEstadisticas.reconciliar();
+            logger.info("Reconciliación manual de contadores: {} de diferencia", desvio);
+            return ResponseEntity.ok(servicioEstadisticas.obtenerResumen());
+        } catch (Exception e) {
+            logger.error("Error al reconciliar los contadores agregados", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Exportar un reporte (usuarios, inventario o ventas) en CSV o PDF
+     * El reporte se escribe en la respuesta a medida que se genera: la descarga
+     * empieza antes de terminar y la memoria no crece con la cantidad de filas.
+     * @param tipo usuarios, inventario o ventas
+     * @param formato csv o pdf (por defecto csv)
+     * @param mes mes del reporte de ventas (AAAA-MM), opcional
+     * @return cuerpo de respuesta en streaming, o 400 si los parámetros no son válidos
+     */
+    @GetMapping("/exportar/{tipo}")
+    public ResponseEntity<StreamingResponseBody> exportarReporte(@PathVariable String tipo,
+                                                                 @RequestParam(defaultValue = "csv") String formato,
+                                                                 @RequestParam(required = false) String mes) {
+        TipoReporte tipoReporte;
+        FormatoReporte formatoReporte;
+        YearMonth mesReporte;
+        try {
+            tipoReporte = TipoReporte.desde(tipo);
+            formatoReporte = FormatoReporte.desde(formato);
+            mesReporte = parsearMes(mes);
+        } catch (IllegalArgumentException e) {
+            logger.error("Parámetros de reporte inválidos: {}", e.getMessage());
+            return solicitudInvalida(e.getMessage());
+        }
+
+        logger.info("Exportando {} en {}", tipoReporte.getTitulo(), formatoReporte);
+        StreamingResponseBody cuerpo = salida -> {
+            ResultadoReporte resultado = servicioReportes.generarReporte(tipoReporte, formatoReporte, mesReporte, salida);
+            logger.info("Exportación completada: {} filas en {} ms", resultado.getFilas(), resultado.getDuracionMs());
+        };
+        String nombreArchivo = tipoReporte.name().toLowerCase(Locale.ROOT) + "." + formatoReporte.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoReporte.getTipoContenido()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(nombreArchivo).build().toString())
+                .body(cuerpo);
+    }
+
+    /**
+     * Generar un reporte a disco en segundo plano
+     * Responde de inmediato con el trabajo; el avance se consulta en GET /reportes/{idTrabajo}
+     * y el archivo se descarga al completarse. Con la cola de trabajos llena responde
+     * 503 con Retry-After.
+     * @param tipo usuarios, inventario o ventas
+     * @param formato csv o pdf (por defecto csv)
+     * @param mes mes del reporte de ventas (AAAA-MM), opcional
+     * @return 202 con el trabajo en cola
+     */
+    @PostMapping("/exportar/{tipo}")
+    public ResponseEntity<?> encolarReporte(@PathVariable String tipo,
+                                            @RequestParam(defaultValue = "csv") String formato,
+                                            @RequestParam(required = false) String mes) {
+        try {
+            Trabajo trabajo = servicioTrabajos.encolarReporte(TipoReporte.desde(tipo), FormatoReporte.desde(formato),
+                    parsearMes(mes));
+            URI ubicacion = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/reportes/{idTrabajo}").buildAndExpand(trabajo.getId()).toUri();
+            return ResponseEntity.accepted().location(ubicacion).body(trabajo);
+        } catch (IllegalArgumentException e) {
+            logger.error("Parámetros de reporte inválidos: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(reintento.toSeconds()))
+                    .body("Hay demasiados reportes en curso, intente más tarde");
+        } catch (Exception e) {
+            logger.error("Error al encolar el reporte", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Consultar el estado y avance de un trabajo
+     * @param idTrabajo identificador devuelto al encolar
+     * @return trabajo o 404 si no existe (o ya se purgó)
+     */
+    @GetMapping("/{idTrabajo}")
+    public ResponseEntity<?> consultarTrabajo(@PathVariable String idTrabajo) {
+        try {
+            Optional<Trabajo> trabajo = servicioTrabajos.buscarTrabajo(idTrabajo);
+            if (trabajo.isPresent()) {
+                return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(trabajo.get());
+            } else {
+                return new ResponseEntity<>("Trabajo no encontrado", HttpStatus.NOT_FOUND);
+            }
+        } catch (Exception e) {
+            logger.error("Error al consultar el trabajo: {}", idTrabajo, e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Descargar el archivo de un trabajo completado
+     * @param idTrabajo identificador del trabajo
+     * @return archivo, 404 si el trabajo no existe o 409 si aún no se completa
+     */
+    @GetMapping("/{idTrabajo}/archivo")
+    public ResponseEntity<?> descargarArchivo(@PathVariable String idTrabajo) {
+        try {
+            Optional<Trabajo> trabajo = servicioTrabajos.buscarTrabajo(idTrabajo);
+            if (trabajo.isEmpty()) {
+                return new ResponseEntity<>("Trabajo no encontrado", HttpStatus.NOT_FOUND);
+            }
+            if (trabajo.get().getEstado() != Trabajo.EstadoTrabajo.COMPLETADO) {
+                return new ResponseEntity<>("El trabajo está " + trabajo.get().getEstado(), HttpStatus.CONFLICT);
+            }
+            ResultadoReporte resultado = trabajo.get().getResultado();
+            Path archivo = Paths.get(resultado.getArchivo());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(resultado.getFormato().getTipoContenido()))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(archivo.getFileName().toString()).build().toString())
+                    .body(new FileSystemResource(archivo));
+        } catch (Exception e) {
+            logger.error("Error al descargar el archivo del trabajo: {}", idTrabajo, e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Cancelar un trabajo en cola o en ejecución
+     * @param idTrabajo identificador del trabajo
+     * @return trabajo cancelado, 404 si no existe o 409 si ya terminó
+     */
+    @DeleteMapping("/{idTrabajo}")
+    public ResponseEntity<?> cancelarTrabajo(@PathVariable String idTrabajo) {
+        try {
+            return ResponseEntity.ok(servicioTrabajos.cancelarTrabajo(idTrabajo));
+        } catch (IllegalArgumentException e) {
+            logger.error("Error al cancelar el trabajo: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            logger.error("Error al cancelar el trabajo: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            logger.error("Error interno al cancelar el trabajo", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static YearMonth parsearMes(String mes) {
+        try {
+            return mes == null ? null : YearMonth.parse(mes);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("El mes debe tener formato AAAA-MM");
+        }
+    }
+
+    /**
+     * Respuesta 400 con mensaje de texto
+     * El tipo de retorno declara StreamingResponseBody, así que el mensaje también se escribe como flujo.
+     */
+    private static ResponseEntity<StreamingResponseBody> solicitudInvalida(String mensaje) {
+        byte[] contenido = mensaje.getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.badRequest()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(salida -> salida.write(contenido));
+    }
+}
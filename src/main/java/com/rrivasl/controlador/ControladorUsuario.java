@@ -1,17 +1,45 @@
 package com.rrivasl.controlador;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.rrivasl.configuracion.RequierePermiso;
+import com.rrivasl.modelo.PaginaCursor;
+import com.rrivasl.modelo.Permiso;
+import com.rrivasl.modelo.ResultadoImportacion;
 import com.rrivasl.modelo.Usuario;
 import com.rrivasl.servicio.ServicioUsuario;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Controlador REST para gestión de usuarios
@@ -25,18 +53,58 @@ public class ControladorUsuario {
     
     private static final Logger logger = LoggerFactory.getLogger(ControladorUsuario.class);
     
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
+    private static final String TEXT_CSV = "text/csv";
+    
+    // CSV con fila de encabezado: las columnas se asocian por nombre a las propiedades de Usuario
+    private static final ObjectReader LECTOR_CSV = new CsvMapper()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .readerFor(Usuario.class)
+            .with(CsvSchema.emptySchema().withHeader())
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    
+    // Usuarios escritos entre cada vaciado del buffer en la exportación
+    private static final int USUARIOS_POR_VACIADO = 500;
+    
     @Autowired
     private ServicioUsuario servicioUsuario;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    @Qualifier("ejecutorContrasenas")
+    private ThreadPoolTaskExecutor ejecutorContrasenas;
+    
+    @Value("${aplicacion.paginacion.tamaño-default:10}")
+    private int tamañoPorDefecto;
+    
+    @Value("${aplicacion.paginacion.tamaño-maximo:100}")
+    private int tamañoMaximo;
+    
     /**
      * Crear un nuevo usuario
+     * El alta codifica la contraseña: corre en el ejecutor de contraseñas y no en el hilo de Tomcat.
      * @param usuario datos del usuario a crear
-     * @return ResponseEntity con el usuario creado
+     * @return ResponseEntity con el usuario creado, al terminar el alta
      */
     @PostMapping
-    public ResponseEntity<?> crearUsuario(@Valid @RequestBody Usuario usuario) {
+    public CompletableFuture<ResponseEntity<?>> crearUsuario(@Valid @RequestBody Usuario usuario) {
+        logger.info("Creando nuevo usuario: {}", usuario.getNombreUsuario());
+        try {
+            return CompletableFuture.supplyAsync(() -> registrarUsuario(usuario), ejecutorContrasenas);
+        } catch (TaskRejectedException e) {
+            logger.warn("Alta de {} rechazada: cola de codificación de contraseñas llena", usuario.getNombreUsuario());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Hay demasiadas altas en curso, intente más tarde"));
+        }
+    }
+    
+    private ResponseEntity<?> registrarUsuario(Usuario usuario) {
         try {
-            logger.info("Creando nuevo usuario: {}", usuario.getNombreUsuario());
             Usuario usuarioCreado = servicioUsuario.crearUsuario(usuario);
             return new ResponseEntity<>(usuarioCreado, HttpStatus.CREATED);
         } catch (IllegalArgumentException e) {
@@ -49,25 +117,119 @@ public class ControladorUsuario {
     }
     
     /**
-     * Obtener todos los usuarios
-     * @return lista de todos los usuarios
+     * Importar usuarios desde CSV (con encabezado) o NDJSON/arreglo JSON
+     * El cuerpo se lee como flujo y se registra por lotes. Las filas con errores se
+     * informan con su número y motivos; el resto de la importación continúa. Con el
+     * ejecutor de contraseñas lleno se detiene y responde 503 indicando desde qué fila reintentar.
+     * @param peticion petición con el cuerpo a leer
+     * @return totales de la importación e informe de errores por fila
      */
+    @RequierePermiso(Permiso.GESTION_USUARIOS)
+    @PostMapping(value = "/importar", consumes = {TEXT_CSV, "application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> importarUsuarios(HttpServletRequest peticion) {
+        boolean esCsv = peticion.getContentType() != null && peticion.getContentType().startsWith(TEXT_CSV);
+        ObjectReader lector = esCsv ? LECTOR_CSV : objectMapper.readerFor(Usuario.class);
+        
+        try (MappingIterator<Usuario> usuarios = lector.readValues(peticion.getInputStream())) {
+            logger.info("Importando usuarios ({})", esCsv ? "CSV" : "JSON");
+            ResultadoImportacion resultado = servicioUsuario.importarUsuarios(() -> usuarios);
+            return new ResponseEntity<>(resultado, HttpStatus.OK);
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getMessage());
+        } catch (IOException e) {
+            logger.error("Contenido inválido en importación de usuarios: {}", e.getMessage());
+            return new ResponseEntity<>("Contenido inválido en la importación: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error en importación de usuarios: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            // MappingIterator envuelve los errores de sintaxis en RuntimeException
+            if (e.getCause() instanceof JsonProcessingException) {
+                logger.error("Contenido inválido en importación de usuarios: {}", e.getMessage());
+                return new ResponseEntity<>("Contenido inválido en la importación: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+            logger.error("Error interno al importar usuarios", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
+    /**
+     * Obtener usuarios paginados
+     * Con 'pagina' se pagina por número de página; en otro caso por cursor (keyset).
+     * El tamaño se limita a aplicacion.paginacion.tamaño-maximo.
+     * @param pagina número de página (desde 0), opcional
+     * @param tamano tamaño de página, opcional
+     * @param cursor cursor opaco devuelto por la página anterior, opcional
+     * @return página de usuarios con el cursor de la página siguiente; 400 si la página
+     *         empieza después del último usuario
+     */
+    @RequierePermiso(Permiso.GESTION_USUARIOS)
     @GetMapping
-    public ResponseEntity<List<Usuario>> obtenerTodosLosUsuarios() {
+    public ResponseEntity<?> obtenerTodosLosUsuarios(@RequestParam(required = false) Integer pagina,
+                                                     @RequestParam(name = "tamano", required = false) Integer tamano,
+                                                     @RequestParam(required = false) String cursor) {
         try {
-            List<Usuario> usuarios = servicioUsuario.obtenerTodosLosUsuarios();
-            return new ResponseEntity<>(usuarios, HttpStatus.OK);
+            int tamaño = normalizarTamaño(tamano);
+            if (pagina != null) {
+                List<Usuario> usuarios = servicioUsuario.obtenerUsuariosPaginados(pagina, tamaño);
+                // Una página completa entrega también el cursor para continuar por clave
+                String siguiente = usuarios.size() == tamaño
+                        ? PaginaCursor.codificarCursor(usuarios.get(usuarios.size() - 1).getId())
+                        : null;
+                return new ResponseEntity<>(new PaginaCursor<>(usuarios, siguiente, tamaño), HttpStatus.OK);
+            }
+            return new ResponseEntity<>(servicioUsuario.obtenerPaginaUsuarios(cursor, tamaño), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.error("Parámetros de paginación inválidos: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("Error al obtener usuarios", e);
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
     
+    /**
+     * Exportar todos los usuarios como NDJSON (un objeto JSON por línea)
+     * Los usuarios se escriben a medida que se recorren, con memoria constante.
+     * @return cuerpo de respuesta en streaming
+     */
+    @RequierePermiso(Permiso.GESTION_USUARIOS)
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportarUsuarios() {
+        logger.info("Exportando usuarios en formato NDJSON");
+        StreamingResponseBody cuerpo = salida -> {
+            int escritos = 0;
+            try (Stream<Usuario> usuarios = servicioUsuario.recorrerUsuarios();
+                 SequenceWriter escritor = objectMapper.writer()
+                         .without(SerializationFeature.INDENT_OUTPUT)
+                         .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                         .withRootValueSeparator("\n")
+                         .writeValues(salida)) {
+                Iterator<Usuario> iterador = usuarios.iterator();
+                while (iterador.hasNext()) {
+                    escritor.write(iterador.next());
+                    if (++escritos % USUARIOS_POR_VACIADO == 0) {
+                        escritor.flush();
+                    }
+                }
+                escritor.flush();
+            }
+            if (escritos > 0) {
+                salida.write('\n');
+            }
+            logger.info("Exportación NDJSON completada: {} usuarios", escritos);
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(cuerpo);
+    }
+    
     /**
      * Buscar usuario por ID
      * @param id identificador del usuario
      * @return usuario encontrado o 404 si no existe
      */
+    @RequierePermiso({})
     @GetMapping("/{id}")
     public ResponseEntity<?> buscarUsuarioPorId(@PathVariable Long id) {
         try {
@@ -89,6 +251,7 @@ public class ControladorUsuario {
      * @param usuario nuevos datos del usuario
      * @return usuario actualizado
      */
+    @RequierePermiso(Permiso.GESTION_USUARIOS)
     @PutMapping("/{id}")
     public ResponseEntity<?> actualizarUsuario(@PathVariable Long id, @Valid @RequestBody Usuario usuario) {
         try {
@@ -108,6 +271,7 @@ public class ControladorUsuario {
      * @param id identificador del usuario
      * @return confirmación de desactivación
      */
+    @RequierePermiso(Permiso.MODERACION)
     @DeleteMapping("/{id}")
     public ResponseEntity<?> desactivarUsuario(@PathVariable Long id) {
         try {
@@ -122,11 +286,61 @@ public class ControladorUsuario {
         }
     }
     
+    /**
+     * Asignar un rol a un usuario
+     * Los permisos nuevos llegan al token del usuario cuando lo refresca o inicia sesión.
+     * @param id identificador del usuario
+     * @param cuerpo JSON con el nombre del rol: {"rol": "MODERADOR"}
+     * @return usuario con el rol asignado
+     */
+    @RequierePermiso(Permiso.GESTION_USUARIOS)
+    @PutMapping("/{id}/rol")
+    public ResponseEntity<?> asignarRol(@PathVariable Long id, @RequestBody Map<String, String> cuerpo) {
+        try {
+            Usuario usuario = servicioUsuario.asignarRol(id, cuerpo.get("rol"));
+            return new ResponseEntity<>(usuario, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error al asignar rol: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Error interno al asignar rol", e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
+    /**
+     * Buscar personas por nombre y apellido (búsqueda mientras se escribe)
+     * No distingue mayúsculas ni tildes; 1 o 2 caracteres buscan por inicio de palabra.
+     * @param q texto buscado
+     * @param pagina número de página (desde 0), opcional
+     * @param tamano tamaño de página, opcional
+     * @return usuarios ordenados por relevancia; 400 si la página queda más allá del tope de candidatos
+     */
+    @RequierePermiso({})
+    @GetMapping("/buscar")
+    public ResponseEntity<?> buscarPorNombre(@RequestParam String q,
+                                             @RequestParam(defaultValue = "0") int pagina,
+                                             @RequestParam(name = "tamano", required = false) Integer tamano) {
+        try {
+            if (q.isBlank()) {
+                return new ResponseEntity<>("El texto de búsqueda es obligatorio", HttpStatus.BAD_REQUEST);
+            }
+            return new ResponseEntity<>(servicioUsuario.buscarPorNombre(q, pagina, normalizarTamaño(tamano)), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            logger.error("Parámetros de búsqueda inválidos: {}", e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Error al buscar usuarios por nombre: {}", q, e);
+            return new ResponseEntity<>("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
     /**
      * Buscar usuario por nombre de usuario
      * @param nombreUsuario nombre del usuario a buscar
      * @return usuario encontrado o 404 si no existe
      */
+    @RequierePermiso({})
     @GetMapping("/buscar/nombreUsuario/{nombreUsuario}")
     public ResponseEntity<?> buscarPorNombreUsuario(@PathVariable String nombreUsuario) {
         try {
@@ -142,6 +356,21 @@ public class ControladorUsuario {
         }
     }
     
+    /**
+     * Normalizar el tamaño de página solicitado
+     * @param tamano tamaño recibido (puede ser null)
+     * @return tamaño entre 1 y el máximo configurado
+     */
+    private int normalizarTamaño(Integer tamano) {
+        if (tamano == null) {
+            return tamañoPorDefecto;
+        }
+        if (tamano <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero");
+        }
+        return Math.min(tamano, tamañoMaximo);
+    }
+    
     /**
      * Endpoint de salud para verificar que el controlador funciona
      * @return estado del controlador
@@ -0,0 +1,40 @@
+package com.rrivasl.modelo;
+
+import java.util.Locale;
+
+/**
+ * Formatos de salida de los reportes
+ * @author Roberto Rivas López
+ */
+public enum FormatoReporte {
+    CSV("text/csv", "csv"),
+    PDF("application/pdf", "pdf");
+
+    private final String tipoContenido;
+    private final String extension;
+
+    FormatoReporte(String tipoContenido, String extension) {
+        this.tipoContenido = tipoContenido;
+        this.extension = extension;
+    }
+
+    public String getTipoContenido() {
+        return tipoContenido;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Resolver el formato desde un parámetro ("csv", "pdf")
+     * @throws IllegalArgumentException si el formato no existe
+     */
+    public static FormatoReporte desde(String valor) {
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Formato de reporte no válido: " + valor);
+        }
+    }
+}
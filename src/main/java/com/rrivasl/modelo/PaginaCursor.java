@@ -0,0 +1,86 @@
+package com.rrivasl.modelo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados con paginación por cursor (keyset)
+ * @author Roberto Rivas López
+ * Principios aplicados: Inmutabilidad, Encapsulación
+ *
+ * El cursor es un token opaco que codifica el último ID entregado; la página
+ * siguiente se obtiene buscando "ID mayor que el cursor" sobre un índice, por lo
+ * que una página profunda cuesta lo mismo que la primera.
+ */
+public class PaginaCursor<T> {
+
+    private static final String PREFIJO_CURSOR = "id:";
+
+    private final List<T> contenido;
+    private final String cursorSiguiente;
+    private final int tamaño;
+
+    public PaginaCursor(List<T> contenido, String cursorSiguiente, int tamaño) {
+        this.contenido = List.copyOf(contenido);
+        this.cursorSiguiente = cursorSiguiente;
+        this.tamaño = tamaño;
+    }
+
+    /**
+     * Construir una página a partir de hasta (tamaño + 1) elementos leídos
+     * @param leidos elementos leídos tras el cursor; uno extra indica que hay más
+     * @param tamaño tamaño solicitado de la página
+     * @param extractorId función que obtiene el ID de cada elemento
+     * @return página con el cursor del último elemento si quedan más resultados
+     */
+    public static <T> PaginaCursor<T> desde(List<T> leidos, int tamaño, Function<T, Long> extractorId) {
+        boolean hayMas = leidos.size() > tamaño;
+        List<T> contenido = hayMas ? leidos.subList(0, tamaño) : leidos;
+        String cursor = hayMas ? codificarCursor(extractorId.apply(contenido.get(contenido.size() - 1))) : null;
+        return new PaginaCursor<>(contenido, cursor, tamaño);
+    }
+
+    /**
+     * Codificar un ID como cursor opaco (Base64 URL sin relleno)
+     */
+    public static String codificarCursor(Long id) {
+        String valor = PREFIJO_CURSOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodificar un cursor opaco
+     * @param cursor token recibido del cliente; null o vacío indica la primera página
+     * @return último ID entregado, o 0 para la primera página
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        String valor;
+        try {
+            valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido", e);
+        }
+        if (!valor.startsWith(PREFIJO_CURSOR)) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+        try {
+            return Long.parseLong(valor.substring(PREFIJO_CURSOR.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido", e);
+        }
+    }
+
+    public List<T> getContenido() { return contenido; }
+
+    public String getCursorSiguiente() { return cursorSiguiente; }
+
+    public int getTamaño() { return tamaño; }
+
+    public boolean isHayMas() { return cursorSiguiente != null; }
+}
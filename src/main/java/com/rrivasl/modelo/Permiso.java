@@ -0,0 +1,80 @@
+package com.rrivasl.modelo;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Permisos que un rol otorga sobre la API
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Inmutabilidad
+ *
+ * Cada permiso ocupa un bit fijo de un long: los permisos de un rol o de un
+ * usuario se guardan y viajan en el token como una sola máscara, y verificar
+ * un permiso es un AND. La posición del bit se declara explícitamente y no
+ * depende del orden del enum, porque las máscaras quedan persistidas en la
+ * base y en tokens ya emitidos; un permiso nuevo toma un bit libre.
+ */
+public enum Permiso {
+    GESTION_USUARIOS(0, "Gestión de usuarios"),
+    GESTION_PRODUCTOS(1, "Gestión de productos"),
+    REPORTES(2, "Reportes y tableros"),
+    MODERACION(3, "Moderación de usuarios");
+
+    private final long bit;
+    private final String descripcion;
+
+    Permiso(int posicion, String descripcion) {
+        this.bit = 1L << posicion;
+        this.descripcion = descripcion;
+    }
+
+    public long getBit() {
+        return bit;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * Máscara con todos los permisos indicados
+     */
+    public static long mascara(Permiso... permisos) {
+        long mascara = 0;
+        for (Permiso permiso : permisos) {
+            mascara |= permiso.bit;
+        }
+        return mascara;
+    }
+
+    public static long mascara(Collection<Permiso> permisos) {
+        return mascara(permisos.toArray(new Permiso[0]));
+    }
+
+    /**
+     * Permisos presentes en una máscara; ignora los bits que no corresponden a ningún permiso
+     */
+    public static Set<Permiso> desdeMascara(long mascara) {
+        Set<Permiso> permisos = EnumSet.noneOf(Permiso.class);
+        for (Permiso permiso : values()) {
+            if ((mascara & permiso.bit) != 0) {
+                permisos.add(permiso);
+            }
+        }
+        return permisos;
+    }
+
+    /**
+     * Resolver el permiso por nombre ("reportes", "GESTION_PRODUCTOS")
+     * @throws IllegalArgumentException si el permiso no existe
+     */
+    public static Permiso desde(String valor) {
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Permiso no válido: " + valor);
+        }
+    }
+}
@@ -1,36 +1,62 @@
 package com.rrivasl.modelo;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
 
 /**
  * Entidad Producto
  * @author Roberto Rivas López
+ *
+ * Índices: código único (búsqueda por código), categoría + stock (stock bajo por
+ * categoría) y stock (stock bajo global). El ID sale de una secuencia con
+ * asignación por bloques (pooled) para que Hibernate pueda agrupar inserciones
+ * en lotes JDBC; IDENTITY obliga a un INSERT por fila.
  */
 @Entity
-@Table(name = "productos")
+@Table(name = "productos", indexes = {
+    @Index(name = Producto.INDICE_CODIGO, columnList = "codigoProducto", unique = true),
+    @Index(name = "idx_productos_categoria_stock", columnList = "categoria, stock"),
+    @Index(name = "idx_productos_stock", columnList = "stock")
+})
 public class Producto {
     
+    /** Índice único por código: identifica los códigos repetidos que rechaza la base de datos */
+    public static final String INDICE_CODIGO = "idx_productos_codigo";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_seq")
+    @SequenceGenerator(name = "productos_seq", sequenceName = "productos_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
+    @NotBlank(message = "El nombre del producto es obligatorio")
+    @Size(max = 255, message = "El nombre del producto no puede exceder 255 caracteres")
     private String nombre;
     
     private String descripcion;
     
     @Column(nullable = false)
+    @NotNull(message = "El precio es obligatorio")
+    @Positive(message = "El precio debe ser mayor a cero")
     private BigDecimal precio;
     
     private String categoria;
     
     @Column(nullable = false)
+    @NotNull(message = "El stock es obligatorio")
+    @PositiveOrZero(message = "El stock no puede ser negativo")
     private Integer stock;
     
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
+    @NotBlank(message = "El código del producto es obligatorio")
+    @Size(max = 50, message = "El código del producto no puede exceder 50 caracteres")
     private String codigoProducto;
     
+    // Versión para control optimista de concurrencia y ETag
+    @Version
+    private Long version;
+    
     // Constructor vacío
     public Producto() {}
     
@@ -71,6 +97,9 @@ public class Producto {
     public String getCodigoProducto() { return codigoProducto; }
     public void setCodigoProducto(String codigoProducto) { this.codigoProducto = codigoProducto; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     // Clase Builder interna
     public static class Builder {
         private String nombre;
@@ -0,0 +1,103 @@
+package com.rrivasl.modelo;
+
+/**
+ * Reclamos (claims) de un token JWT verificado
+ * @author Roberto Rivas López
+ * Principios aplicados: Inmutabilidad, Encapsulación
+ *
+ * Es lo único que el filtro de autenticación deja en la petición: identifica
+ * al usuario sin consultar el almacén. Los tiempos van en segundos desde la
+ * época, como en el estándar (iat, exp). Los permisos son la máscara efectiva
+ * del usuario al emitir el token (ver Permiso): autorizar es un AND.
+ */
+public final class ReclamosJwt {
+
+    private final String id;
+    private final String nombreUsuario;
+    private final Long idUsuario;
+    private final TipoToken tipo;
+    private final long emitidoEn;
+    private final long expiraEn;
+    private final long permisos;
+
+    public ReclamosJwt(String id, String nombreUsuario, Long idUsuario, TipoToken tipo, long emitidoEn, long expiraEn,
+                       long permisos) {
+        this.id = id;
+        this.nombreUsuario = nombreUsuario;
+        this.idUsuario = idUsuario;
+        this.tipo = tipo;
+        this.emitidoEn = emitidoEn;
+        this.expiraEn = expiraEn;
+        this.permisos = permisos;
+    }
+
+    /**
+     * Vigente hasta el segundo de expiración, sin incluirlo
+     */
+    public boolean estaVigente(long ahoraSegundos) {
+        return ahoraSegundos < expiraEn;
+    }
+
+    /**
+     * Verdadero si el token incluye todos los permisos de la máscara
+     */
+    public boolean tienePermisos(long mascara) {
+        return (permisos & mascara) == mascara;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getNombreUsuario() {
+        return nombreUsuario;
+    }
+
+    public Long getIdUsuario() {
+        return idUsuario;
+    }
+
+    public TipoToken getTipo() {
+        return tipo;
+    }
+
+    public long getEmitidoEn() {
+        return emitidoEn;
+    }
+
+    public long getExpiraEn() {
+        return expiraEn;
+    }
+
+    public long getPermisos() {
+        return permisos;
+    }
+
+    /**
+     * Uso del token: los de acceso autorizan peticiones, los de refresco solo
+     * sirven para obtener un nuevo par de tokens
+     */
+    public enum TipoToken {
+        ACCESO("acceso"),
+        REFRESCO("refresco");
+
+        private final String codigo;
+
+        TipoToken(String codigo) {
+            this.codigo = codigo;
+        }
+
+        public String getCodigo() {
+            return codigo;
+        }
+
+        public static TipoToken desdeCodigo(String codigo) {
+            for (TipoToken tipo : values()) {
+                if (tipo.codigo.equals(codigo)) {
+                    return tipo;
+                }
+            }
+            throw new IllegalArgumentException("Tipo de token desconocido: " + codigo);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.rrivasl.modelo;
+
+/**
+ * Par de tokens entregado al iniciar sesión o al refrescarla
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Responsabilidad Única
+ *
+ * El token de acceso va en la cabecera Authorization de cada petición; el de
+ * refresco solo se envía a /autenticacion/refrescar para obtener un par nuevo.
+ */
+public class ResultadoAutenticacion {
+
+    private final String tokenAcceso;
+    private final String tokenRefresco;
+    private final String tipoToken;
+    private final long expiraEnSegundos;
+
+    public ResultadoAutenticacion(String tokenAcceso, String tokenRefresco, String tipoToken, long expiraEnSegundos) {
+        this.tokenAcceso = tokenAcceso;
+        this.tokenRefresco = tokenRefresco;
+        this.tipoToken = tipoToken;
+        this.expiraEnSegundos = expiraEnSegundos;
+    }
+
+    public String getTokenAcceso() {
+        return tokenAcceso;
+    }
+
+    public String getTokenRefresco() {
+        return tokenRefresco;
+    }
+
+    public String getTipoToken() {
+        return tipoToken;
+    }
+
+    /**
+     * Segundos de vigencia del token de acceso
+     */
+    public long getExpiraEnSegundos() {
+        return expiraEnSegundos;
+    }
+}
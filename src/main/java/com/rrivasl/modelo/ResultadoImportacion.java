@@ -0,0 +1,113 @@
+package com.rrivasl.modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva con informe de errores por fila
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Responsabilidad Única
+ *
+ * Una fila con errores no detiene la importación: se informa con su número y sus
+ * motivos y el resto sigue su curso. El informe tiene un tope de filas para que una
+ * entrada mayoritariamente inválida no genere una respuesta tan grande como ella.
+ */
+public class ResultadoImportacion {
+
+    public static final int MAXIMO_ERRORES = 1000;
+
+    private final List<ErrorFila> errores = new ArrayList<>();
+    private long recibidos;
+    private long importados;
+    private long rechazados;
+    private long erroresOmitidos;
+    private int lotes;
+    private long duracionMs;
+
+    /**
+     * Registrar una fila rechazada; pasado el tope solo se cuenta
+     * @param fila número de registro en la entrada (desde 1, sin contar encabezado)
+     * @param clave nombre de usuario de la fila, si lo trae
+     * @param mensajes motivos del rechazo
+     */
+    public void rechazar(long fila, String clave, List<String> mensajes) {
+        rechazados++;
+        if (errores.size() < MAXIMO_ERRORES) {
+            errores.add(new ErrorFila(fila, clave, mensajes));
+        } else {
+            erroresOmitidos++;
+        }
+    }
+
+    /**
+     * Registrar un lote confirmado
+     * @param recibidosLote filas leídas en el lote
+     * @param importadosLote filas registradas del lote
+     */
+    public void agregarLote(int recibidosLote, int importadosLote) {
+        lotes++;
+        recibidos += recibidosLote;
+        importados += importadosLote;
+    }
+
+    public List<ErrorFila> getErrores() {
+        return Collections.unmodifiableList(errores);
+    }
+
+    public long getRecibidos() {
+        return recibidos;
+    }
+
+    public long getImportados() {
+        return importados;
+    }
+
+    public long getRechazados() {
+        return rechazados;
+    }
+
+    public long getErroresOmitidos() {
+        return erroresOmitidos;
+    }
+
+    public int getLotes() {
+        return lotes;
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    /**
+     * Fila rechazada de la importación
+     */
+    public static class ErrorFila {
+
+        private final long fila;
+        private final String clave;
+        private final List<String> mensajes;
+
+        public ErrorFila(long fila, String clave, List<String> mensajes) {
+            this.fila = fila;
+            this.clave = clave;
+            this.mensajes = List.copyOf(mensajes);
+        }
+
+        public long getFila() {
+            return fila;
+        }
+
+        public String getClave() {
+            return clave;
+        }
+
+        public List<String> getMensajes() {
+            return mensajes;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.rrivasl.modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de una carga masiva procesada por bloques
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Responsabilidad Única
+ *
+ * Acumula los totales de la carga y el detalle de cada bloque. Los errores se
+ * guardan por bloque con un tope, para que una carga grande con datos malos no
+ * produzca un informe del mismo tamaño que la entrada.
+ */
+public class ResultadoLote {
+
+    private final List<ResultadoBloque> bloques = new ArrayList<>();
+    private long recibidos;
+    private long insertados;
+    private long rechazados;
+    private long duracionMs;
+
+    /**
+     * Registrar un bloque terminado y sumar sus totales
+     */
+    public void agregarBloque(ResultadoBloque bloque) {
+        bloques.add(bloque);
+        recibidos += bloque.getRecibidos();
+        insertados += bloque.getInsertados();
+        rechazados += bloque.getRechazados();
+    }
+
+    public List<ResultadoBloque> getBloques() {
+        return Collections.unmodifiableList(bloques);
+    }
+
+    public long getRecibidos() {
+        return recibidos;
+    }
+
+    public long getInsertados() {
+        return insertados;
+    }
+
+    public long getRechazados() {
+        return rechazados;
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    /**
+     * Resultado de un bloque de la carga
+     */
+    public static class ResultadoBloque {
+
+        public static final int MAXIMO_ERRORES = 50;
+
+        private final int numero;
+        private final List<String> errores = new ArrayList<>();
+        private final int recibidos;
+        private int insertados;
+        private int erroresOmitidos;
+        private long duracionMs;
+
+        public ResultadoBloque(int numero, int recibidos) {
+            this.numero = numero;
+            this.recibidos = recibidos;
+        }
+
+        /**
+         * Registrar un error del bloque; pasado el tope solo se cuenta
+         */
+        public void agregarError(String error) {
+            if (errores.size() < MAXIMO_ERRORES) {
+                errores.add(error);
+            } else {
+                erroresOmitidos++;
+            }
+        }
+
+        public int getNumero() {
+            return numero;
+        }
+
+        public int getRecibidos() {
+            return recibidos;
+        }
+
+        public int getInsertados() {
+            return insertados;
+        }
+
+        public void setInsertados(int insertados) {
+            this.insertados = insertados;
+        }
+
+        public int getRechazados() {
+            return recibidos - insertados;
+        }
+
+        public List<String> getErrores() {
+            return Collections.unmodifiableList(errores);
+        }
+
+        public int getErroresOmitidos() {
+            return erroresOmitidos;
+        }
+
+        public long getDuracionMs() {
+            return duracionMs;
+        }
+
+        public void setDuracionMs(long duracionMs) {
+            this.duracionMs = duracionMs;
+        }
+    }
+}
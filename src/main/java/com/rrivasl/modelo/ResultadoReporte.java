@@ -0,0 +1,86 @@
+package com.rrivasl.modelo;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Resultado de la generación de un reporte
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Responsabilidad Única
+ *
+ * El detalle fila a fila va a la salida; aquí solo quedan los totales de cada
+ * sección, de tamaño acotado sin importar cuántas filas tuvo el reporte.
+ * El avance se informa cada INTERVALO_AVANCE filas a quien lo pida.
+ */
+public class ResultadoReporte {
+
+    public static final int INTERVALO_AVANCE = 1000;
+
+    private final TipoReporte tipo;
+    private final FormatoReporte formato;
+    private final Map<String, Object> secciones = new LinkedHashMap<>();
+    private long filas;
+    private long duracionMs;
+    private String archivo;
+    private final LongConsumer avance;
+
+    public ResultadoReporte(TipoReporte tipo, FormatoReporte formato) {
+        this(tipo, formato, filas -> { });
+    }
+
+    /**
+     * @param avance recibe las filas escritas hasta el momento; puede lanzar una excepción para abortar
+     */
+    public ResultadoReporte(TipoReporte tipo, FormatoReporte formato, LongConsumer avance) {
+        this.tipo = tipo;
+        this.formato = formato;
+        this.avance = avance;
+    }
+
+    public void agregarSeccion(String nombre, Object valor) {
+        secciones.put(nombre, valor);
+    }
+
+    public void contarFila() {
+        if (++filas % INTERVALO_AVANCE == 0) {
+            avance.accept(filas);
+        }
+    }
+
+    public TipoReporte getTipo() {
+        return tipo;
+    }
+
+    public FormatoReporte getFormato() {
+        return formato;
+    }
+
+    public Map<String, Object> getSecciones() {
+        return Collections.unmodifiableMap(secciones);
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    /**
+     * Ruta del archivo generado; null si el reporte se escribió directo a la respuesta
+     */
+    public String getArchivo() {
+        return archivo;
+    }
+
+    public void setArchivo(String archivo) {
+        this.archivo = archivo;
+    }
+}
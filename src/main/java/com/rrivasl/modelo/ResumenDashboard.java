@@ -0,0 +1,97 @@
+package com.rrivasl.modelo;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumen de totales para tableros y reportes
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Inmutabilidad
+ *
+ * Se arma con los contadores agregados en tiempo real, sin consultar la base:
+ * la distribución por rol tampoco cruza usuarios con roles.
+ * Indica cuándo fue la última reconciliación contra la fuente de datos.
+ */
+public class ResumenDashboard {
+
+    private final long totalUsuarios;
+    private final long usuariosActivos;
+    private final Map<Usuario.EstadoUsuario, Long> usuariosPorEstado;
+    private final Map<String, Long> usuariosPorRol;
+    private final long totalProductos;
+    private final long unidadesEnStock;
+    private final BigDecimal valorInventario;
+    private final List<TotalesCategoria> categorias;
+    private final Instant ultimaReconciliacion;
+
+    public ResumenDashboard(Map<Usuario.EstadoUsuario, Long> usuariosPorEstado, Map<String, Long> usuariosPorRol,
+                            List<TotalesCategoria> categorias, Instant ultimaReconciliacion) {
+        // EnumMap conserva el orden de los estados al serializar
+        Map<Usuario.EstadoUsuario, Long> porEstado = new EnumMap<>(Usuario.EstadoUsuario.class);
+        porEstado.putAll(usuariosPorEstado);
+        this.usuariosPorEstado = Collections.unmodifiableMap(porEstado);
+        this.usuariosPorRol = Collections.unmodifiableMap(new TreeMap<>(usuariosPorRol));
+        this.categorias = List.copyOf(categorias);
+        this.ultimaReconciliacion = ultimaReconciliacion;
+
+        long usuarios = 0;
+        for (long cantidad : usuariosPorEstado.values()) {
+            usuarios += cantidad;
+        }
+        this.totalUsuarios = usuarios;
+        this.usuariosActivos = usuariosPorEstado.getOrDefault(Usuario.EstadoUsuario.ACTIVO, 0L);
+
+        long productos = 0;
+        long unidades = 0;
+        BigDecimal valor = BigDecimal.ZERO;
+        for (TotalesCategoria totales : categorias) {
+            productos += totales.getProductos();
+            unidades += totales.getUnidades();
+            valor = valor.add(totales.getValor());
+        }
+        this.totalProductos = productos;
+        this.unidadesEnStock = unidades;
+        this.valorInventario = valor;
+    }
+
+    public long getTotalUsuarios() {
+        return totalUsuarios;
+    }
+
+    public long getUsuariosActivos() {
+        return usuariosActivos;
+    }
+
+    public Map<Usuario.EstadoUsuario, Long> getUsuariosPorEstado() {
+        return usuariosPorEstado;
+    }
+
+    public Map<String, Long> getUsuariosPorRol() {
+        return usuariosPorRol;
+    }
+
+    public long getTotalProductos() {
+        return totalProductos;
+    }
+
+    public long getUnidadesEnStock() {
+        return unidadesEnStock;
+    }
+
+    public BigDecimal getValorInventario() {
+        return valorInventario;
+    }
+
+    public List<TotalesCategoria> getCategorias() {
+        return categorias;
+    }
+
+    public Instant getUltimaReconciliacion() {
+        return ultimaReconciliacion;
+    }
+}
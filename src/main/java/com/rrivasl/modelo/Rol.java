@@ -1,9 +1,87 @@
 package com.rrivasl.modelo;
 
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+
+import java.util.List;
+import java.util.Set;
+
 /**
  * Entidad Rol
  * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Inmutabilidad
+ *
+ * Un rol es un nombre y una máscara de permisos (ver Permiso) guardada en una
+ * sola columna: leer los permisos de un rol no recorre una tabla de relación.
+ * ADMIN, MODERADOR y USUARIO existen siempre; la base puede agregar otros o
+ * ajustar sus permisos.
  */
+@Entity
+@Table(name = "roles")
 public class Rol {
-    // TODO: Implementar entidad Rol
+
+    public static final String ADMIN = "ADMIN";
+    public static final String MODERADOR = "MODERADOR";
+    public static final String USUARIO = "USUARIO";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false, length = 30)
+    @NotBlank(message = "El nombre del rol es obligatorio")
+    @Size(max = 30, message = "El nombre del rol no puede exceder 30 caracteres")
+    private String nombre;
+
+    @Size(max = 255, message = "La descripción del rol no puede exceder 255 caracteres")
+    private String descripcion;
+
+    @Column(nullable = false)
+    private long permisos;
+
+    // Constructor vacío
+    protected Rol() {}
+
+    public Rol(String nombre, String descripcion, Permiso... permisos) {
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.permisos = Permiso.mascara(permisos);
+    }
+
+    /**
+     * Roles que la aplicación crea al iniciar si aún no están en la base
+     */
+    public static List<Rol> predefinidos() {
+        return List.of(
+                new Rol(ADMIN, "Administrador del sistema", Permiso.values()),
+                new Rol(MODERADOR, "Moderador de usuarios", Permiso.MODERACION, Permiso.REPORTES),
+                new Rol(USUARIO, "Usuario registrado"));
+    }
+
+    public Long getId() { return id; }
+
+    public String getNombre() { return nombre; }
+
+    public String getDescripcion() { return descripcion; }
+
+    /**
+     * Máscara de permisos del rol
+     */
+    public long getPermisos() { return permisos; }
+
+    public Set<Permiso> getListaPermisos() {
+        return Permiso.desdeMascara(permisos);
+    }
+
+    public boolean tiene(Permiso permiso) {
+        return (permisos & permiso.getBit()) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Rol{" +
+                "nombre='" + nombre + '\'' +
+                ", permisos=" + getListaPermisos() +
+                '}';
+    }
 }
@@ -0,0 +1,35 @@
+package com.rrivasl.modelo;
+
+import java.util.Locale;
+
+/**
+ * Tipos de reporte disponibles
+ * @author Roberto Rivas López
+ */
+public enum TipoReporte {
+    USUARIOS("Reporte de usuarios"),
+    INVENTARIO("Reporte de inventario"),
+    VENTAS("Reporte de ventas mensuales");
+
+    private final String titulo;
+
+    TipoReporte(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    /**
+     * Resolver el tipo desde la URL ("usuarios", "inventario", "ventas")
+     * @throws IllegalArgumentException si el tipo no existe
+     */
+    public static TipoReporte desde(String valor) {
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Tipo de reporte no válido: " + valor);
+        }
+    }
+}
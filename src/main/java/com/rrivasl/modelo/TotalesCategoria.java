@@ -0,0 +1,48 @@
+package com.rrivasl.modelo;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales de inventario de una categoría de productos
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Inmutabilidad
+ *
+ * Se usa tanto para publicar los agregados en tiempo real como para el recuento
+ * completo con que se reconcilian (una fila por categoría del GROUP BY).
+ */
+public class TotalesCategoria {
+
+    private final String categoria;
+    private final long productos;
+    private final long unidades;
+    private final BigDecimal valor;
+
+    /**
+     * @param categoria categoría; null para productos sin categoría
+     * @param productos cantidad de productos
+     * @param unidades suma del stock
+     * @param valor suma de precio × stock
+     */
+    public TotalesCategoria(String categoria, Long productos, Long unidades, BigDecimal valor) {
+        this.categoria = categoria;
+        this.productos = productos == null ? 0 : productos;
+        this.unidades = unidades == null ? 0 : unidades;
+        this.valor = valor == null ? BigDecimal.ZERO : valor;
+    }
+
+    public String getCategoria() {
+        return categoria;
+    }
+
+    public long getProductos() {
+        return productos;
+    }
+
+    public long getUnidades() {
+        return unidades;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+}
@@ -0,0 +1,153 @@
+package com.rrivasl.modelo;
+
+import java.time.Instant;
+
+/**
+ * Trabajo en segundo plano (por ejemplo, un reporte a disco)
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Responsabilidad Única
+ *
+ * Lo actualiza el hilo que ejecuta el trabajo y lo leen las consultas de avance:
+ * el avance es volátil y los cambios de estado se sincronizan, así una
+ * cancelación no se cruza con el inicio ni con el fin del trabajo.
+ */
+public class Trabajo {
+
+    private final String id;
+    private final String descripcion;
+    private final Instant creado;
+    private final Long filasEstimadas;
+    private EstadoTrabajo estado = EstadoTrabajo.EN_COLA;
+    private Instant iniciado;
+    private Instant finalizado;
+    private volatile long filasProcesadas;
+    private ResultadoReporte resultado;
+    private String error;
+
+    public Trabajo(String id, String descripcion, Long filasEstimadas) {
+        this.id = id;
+        this.descripcion = descripcion;
+        this.filasEstimadas = filasEstimadas;
+        this.creado = Instant.now();
+    }
+
+    /**
+     * Pasar de EN_COLA a EN_EJECUCION
+     * @return false si el trabajo se canceló mientras esperaba en la cola
+     */
+    public synchronized boolean iniciar() {
+        if (estado != EstadoTrabajo.EN_COLA) {
+            return false;
+        }
+        estado = EstadoTrabajo.EN_EJECUCION;
+        iniciado = Instant.now();
+        return true;
+    }
+
+    /**
+     * Registrar el resultado de un trabajo en ejecución
+     * @return false si el trabajo se canceló antes de terminar: el resultado se descarta
+     */
+    public synchronized boolean completar(ResultadoReporte resultado) {
+        if (estado != EstadoTrabajo.EN_EJECUCION) {
+            return false;
+        }
+        this.resultado = resultado;
+        this.filasProcesadas = resultado.getFilas();
+        return finalizar(EstadoTrabajo.COMPLETADO);
+    }
+
+    public synchronized void fallar(String error) {
+        if (estado == EstadoTrabajo.EN_EJECUCION) {
+            this.error = error;
+            finalizar(EstadoTrabajo.FALLIDO);
+        }
+    }
+
+    /**
+     * Cancelar un trabajo en cola o en ejecución
+     * @return false si el trabajo ya había terminado
+     */
+    public synchronized boolean cancelar() {
+        return !estaTerminado() && finalizar(EstadoTrabajo.CANCELADO);
+    }
+
+    public void registrarAvance(long filas) {
+        this.filasProcesadas = filas;
+    }
+
+    public synchronized boolean estaTerminado() {
+        return estado == EstadoTrabajo.COMPLETADO || estado == EstadoTrabajo.FALLIDO || estado == EstadoTrabajo.CANCELADO;
+    }
+
+    private boolean finalizar(EstadoTrabajo estadoFinal) {
+        estado = estadoFinal;
+        finalizado = Instant.now();
+        return true;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public synchronized EstadoTrabajo getEstado() {
+        return estado;
+    }
+
+    public Instant getCreado() {
+        return creado;
+    }
+
+    public synchronized Instant getIniciado() {
+        return iniciado;
+    }
+
+    public synchronized Instant getFinalizado() {
+        return finalizado;
+    }
+
+    public long getFilasProcesadas() {
+        return filasProcesadas;
+    }
+
+    public Long getFilasEstimadas() {
+        return filasEstimadas;
+    }
+
+    /**
+     * Porcentaje de avance estimado; null si no se conoce el total
+     * Se topa en 99 hasta terminar: la estimación puede quedar corta si los datos crecen.
+     */
+    public synchronized Integer getPorcentaje() {
+        if (estado == EstadoTrabajo.COMPLETADO) {
+            return 100;
+        }
+        if (filasEstimadas == null || filasEstimadas <= 0) {
+            return null;
+        }
+        return (int) Math.min(99, filasProcesadas * 100 / filasEstimadas);
+    }
+
+    public synchronized ResultadoReporte getResultado() {
+        return resultado;
+    }
+
+    public synchronized String getError() {
+        return error;
+    }
+
+    /**
+     * Enum para estado de trabajo
+     */
+    public enum EstadoTrabajo {
+        EN_COLA,
+        EN_EJECUCION,
+        COMPLETADO,
+        FALLIDO,
+        CANCELADO
+    }
+}
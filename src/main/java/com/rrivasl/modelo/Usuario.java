@@ -1,5 +1,7 @@
 package com.rrivasl.modelo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
@@ -7,6 +9,10 @@ import jakarta.validation.constraints.*;
  * Entidad Usuario con validaciones completas
  * @author Roberto Rivas López
  * Principios aplicados: Encapsulación, Validación de Datos
+ *
+ * El rol no se recibe en el JSON: se asigna con asignarRol, que copia su
+ * máscara de permisos en el propio usuario. Así los permisos efectivos se leen
+ * (y se firman en el token) sin cargar el rol.
  */
 @Entity
 @Table(name = "usuarios")
@@ -45,6 +51,8 @@ public class Usuario {
     @Size(min = 8, max = 100, message = "La contraseña debe tener entre 8 y 100 caracteres")
     @Pattern(regexp = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$", 
              message = "La contraseña debe contener al menos: 1 minúscula, 1 mayúscula, 1 número y 1 carácter especial")
+    // Se valida en texto plano al recibirla; se guarda codificada y nunca se serializa
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String contrasena;
     
     @Pattern(regexp = "^(\\+56)?[0-9]{8,9}$", message = "El teléfono debe tener un formato válido chileno")
@@ -54,6 +62,16 @@ public class Usuario {
     @Column(nullable = false)
     private EstadoUsuario estado = EstadoUsuario.ACTIVO;
     
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "rol_id")
+    @JsonIgnore
+    private Rol rol;
+    
+    // Permisos efectivos precalculados del rol (máscara de Permiso)
+    @Column(nullable = false)
+    @JsonIgnore
+    private long permisos;
+    
     // Constructor vacío
     public Usuario() {}
     
@@ -92,6 +110,28 @@ public class Usuario {
     public EstadoUsuario getEstado() { return estado; }
     public void setEstado(EstadoUsuario estado) { this.estado = estado; }
     
+    public Rol getRol() { return rol; }
+    
+    public long getPermisos() { return permisos; }
+    
+    /**
+     * Asignar el rol y precalcular los permisos efectivos del usuario
+     * @param rol rol asignado; null deja al usuario sin permisos
+     */
+    public void asignarRol(Rol rol) {
+        this.rol = rol;
+        this.permisos = rol == null ? 0 : rol.getPermisos();
+    }
+    
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public String getNombreRol() {
+        return rol == null ? null : rol.getNombre();
+    }
+    
+    public boolean tienePermiso(Permiso permiso) {
+        return (permisos & permiso.getBit()) != 0;
+    }
+    
     /**
      * Obtener nombre completo del usuario
      * @return nombre y apellido concatenados
@@ -136,6 +176,7 @@ public class Usuario {
                 ", apellido='" + apellido + '\'' +
                 ", correoElectronico='" + correoElectronico + '\'' +
                 ", estado=" + estado +
+                ", rol=" + getNombreRol() +
                 '}';
     }
 }
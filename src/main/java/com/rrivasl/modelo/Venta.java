@@ -0,0 +1,78 @@
+package com.rrivasl.modelo;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad Venta: una línea de venta de un producto
+ * @author Roberto Rivas López
+ *
+ * Guarda el ID del producto y no una relación: los reportes agregan ventas por
+ * producto sin cargar productos. Índices: producto + fecha (ventas de un bloque
+ * de productos en un período) y fecha (ventas diarias).
+ */
+@Entity
+@Table(name = "ventas", indexes = {
+    @Index(name = "idx_ventas_producto_fecha", columnList = "productoId, fecha"),
+    @Index(name = "idx_ventas_fecha", columnList = "fecha")
+})
+public class Venta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ventas_seq")
+    @SequenceGenerator(name = "ventas_seq", sequenceName = "ventas_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    @NotNull(message = "El producto es obligatorio")
+    private Long productoId;
+
+    @Column(nullable = false)
+    @NotNull(message = "La cantidad es obligatoria")
+    @Positive(message = "La cantidad debe ser mayor a cero")
+    private Integer cantidad;
+
+    @Column(nullable = false)
+    @NotNull(message = "El precio unitario es obligatorio")
+    @PositiveOrZero(message = "El precio unitario no puede ser negativo")
+    private BigDecimal precioUnitario;
+
+    @Column(nullable = false)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    @NotNull(message = "La fecha es obligatoria")
+    private LocalDateTime fecha;
+
+    // Constructor vacío
+    public Venta() {}
+
+    public Venta(Long productoId, Integer cantidad, BigDecimal precioUnitario, LocalDateTime fecha) {
+        this.productoId = productoId;
+        this.cantidad = cantidad;
+        this.precioUnitario = precioUnitario;
+        this.fecha = fecha;
+        this.total = precioUnitario.multiply(BigDecimal.valueOf(cantidad));
+    }
+
+    // Getters y Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProductoId() { return productoId; }
+    public void setProductoId(Long productoId) { this.productoId = productoId; }
+
+    public Integer getCantidad() { return cantidad; }
+    public void setCantidad(Integer cantidad) { this.cantidad = cantidad; }
+
+    public BigDecimal getPrecioUnitario() { return precioUnitario; }
+    public void setPrecioUnitario(BigDecimal precioUnitario) { this.precioUnitario = precioUnitario; }
+
+    public BigDecimal getTotal() { return total; }
+    public void setTotal(BigDecimal total) { this.total = total; }
+
+    public LocalDateTime getFecha() { return fecha; }
+    public void setFecha(LocalDateTime fecha) { this.fecha = fecha; }
+}
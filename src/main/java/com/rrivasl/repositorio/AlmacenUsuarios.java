@@ -0,0 +1,269 @@
+package com.rrivasl.repositorio;
+
+import com.rrivasl.modelo.Usuario;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Almacén en memoria de usuarios con índices hash concurrentes
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Responsabilidad Única
+ *
+ * Mantiene tres índices (id, nombre de usuario y correo) sobre ConcurrentHashMap,
+ * de modo que búsquedas y verificaciones de duplicados son O(1). Las claves únicas
+ * se reservan con putIfAbsent: dos peticiones concurrentes con el mismo correo o
+ * nombre de usuario nunca pueden registrarse a la vez. Un conjunto ordenado de IDs
+ * permite recorrer y paginar por clave sin ordenar ni copiar todo el almacén.
+ * Un índice de trigramas sobre nombre y apellido resuelve la búsqueda de personas
+ * por subcadena o prefijo sin recorrer todos los usuarios.
+ */
+@Component
+public class AlmacenUsuarios {
+
+    private final ConcurrentMap<Long, Usuario> porId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> idPorNombreUsuario = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> idPorCorreo = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Long> idsOrdenados = new ConcurrentSkipListSet<>();
+    private final AtomicLong siguienteId = new AtomicLong(1L);
+    private final IndiceTrigramas indiceNombres = new IndiceTrigramas();
+
+    /**
+     * Registrar un usuario nuevo reservando atómicamente correo y nombre de usuario
+     * @param usuario usuario a registrar (se le asigna el ID)
+     * @return usuario registrado
+     * @throws IllegalArgumentException si el correo o el nombre de usuario faltan o ya están tomados
+     */
+    public Usuario insertar(Usuario usuario) {
+        return registrar(usuario, siguienteId.getAndIncrement());
+    }
+
+    /**
+     * Reservar correo y nombre de usuario para un alta que aún debe prepararse
+     * Mientras dura la reserva las claves cuentan como tomadas, pero el usuario
+     * no es visible. Se termina con confirmar o con liberar.
+     * @param usuario usuario a registrar
+     * @return ID reservado para el usuario
+     * @throws IllegalArgumentException si el correo o el nombre de usuario faltan o ya están tomados
+     */
+    public long reservar(Usuario usuario) {
+        long id = siguienteId.getAndIncrement();
+        reservarClaves(usuario, id);
+        return id;
+    }
+
+    /**
+     * Hacer visible un usuario cuyas claves se reservaron con reservar
+     */
+    public Usuario confirmar(Usuario usuario, long id) {
+        return publicar(usuario, id);
+    }
+
+    /**
+     * Soltar las claves de una reserva que no se confirmará
+     */
+    public void liberar(Usuario usuario, long id) {
+        idPorCorreo.remove(usuario.getCorreoElectronico(), id);
+        idPorNombreUsuario.remove(usuario.getNombreUsuario(), id);
+    }
+
+    /**
+     * Registrar un bloque de usuarios reservando de una vez un rango de IDs
+     * Cada usuario se registra de forma independiente: uno rechazado no afecta al resto.
+     * @param usuarios usuarios a registrar (se les asigna el ID)
+     * @return motivo de rechazo por posición dentro del bloque; vacío si todos se registraron
+     */
+    public Map<Integer, String> insertarLote(List<Usuario> usuarios) {
+        long primerId = siguienteId.getAndAdd(usuarios.size());
+        Map<Integer, String> rechazos = new HashMap<>();
+        for (int i = 0; i < usuarios.size(); i++) {
+            try {
+                registrar(usuarios.get(i), primerId + i);
+            } catch (IllegalArgumentException e) {
+                rechazos.put(i, e.getMessage());
+            }
+        }
+        return rechazos;
+    }
+
+    private Usuario registrar(Usuario usuario, Long id) {
+        reservarClaves(usuario, id);
+        return publicar(usuario, id);
+    }
+
+    private void reservarClaves(Usuario usuario, Long id) {
+        // Los índices no admiten claves nulas: se rechaza antes de tocarlos
+        if (usuario.getCorreoElectronico() == null) {
+            throw new IllegalArgumentException("El correo electrónico es obligatorio");
+        }
+        if (usuario.getNombreUsuario() == null) {
+            throw new IllegalArgumentException("El nombre de usuario es obligatorio");
+        }
+
+        if (idPorCorreo.putIfAbsent(usuario.getCorreoElectronico(), id) != null) {
+            throw new IllegalArgumentException("El correo electrónico ya está registrado");
+        }
+
+        if (idPorNombreUsuario.putIfAbsent(usuario.getNombreUsuario(), id) != null) {
+            // Liberar la reserva del correo tomada en el paso anterior
+            idPorCorreo.remove(usuario.getCorreoElectronico(), id);
+            throw new IllegalArgumentException("El nombre de usuario ya existe");
+        }
+    }
+
+    private Usuario publicar(Usuario usuario, Long id) {
+        usuario.setId(id);
+        porId.put(id, usuario);
+        idsOrdenados.add(id);
+        reindexarNombre(usuario);
+        return usuario;
+    }
+
+    /**
+     * Cambiar el correo de un usuario existente manteniendo la unicidad
+     * @param usuario usuario registrado
+     * @param correoNuevo nuevo correo electrónico
+     * @throws IllegalArgumentException si falta el nuevo correo o pertenece a otro usuario
+     */
+    public void cambiarCorreo(Usuario usuario, String correoNuevo) {
+        if (correoNuevo == null) {
+            throw new IllegalArgumentException("El correo electrónico es obligatorio");
+        }
+        String correoAnterior = usuario.getCorreoElectronico();
+        if (correoAnterior.equals(correoNuevo)) {
+            return;
+        }
+
+        if (idPorCorreo.putIfAbsent(correoNuevo, usuario.getId()) != null) {
+            throw new IllegalArgumentException("El correo electrónico ya está registrado");
+        }
+
+        usuario.setCorreoElectronico(correoNuevo);
+        idPorCorreo.remove(correoAnterior, usuario.getId());
+    }
+
+    /**
+     * Actualizar el índice de búsqueda tras cambiar nombre o apellido de un usuario
+     */
+    public void reindexarNombre(Usuario usuario) {
+        indiceNombres.indexar(usuario.getId(), usuario.getNombre() + " " + usuario.getApellido());
+    }
+
+    /**
+     * Buscar usuarios por nombre y apellido, sin distinguir mayúsculas ni tildes
+     * @param consulta texto buscado (prefijo de palabra o subcadena desde 3 caracteres)
+     * @param desplazamiento resultados a omitir
+     * @param limite cantidad máxima de resultados
+     * @param maximoCandidatos tope de candidatos verificados por consulta
+     * @return usuarios ordenados por relevancia
+     */
+    public List<Usuario> buscarPorNombre(String consulta, int desplazamiento, int limite, int maximoCandidatos) {
+        List<Usuario> usuarios = new ArrayList<>();
+        for (Long id : indiceNombres.buscar(consulta, desplazamiento, limite, maximoCandidatos)) {
+            Usuario usuario = porId.get(id);
+            if (usuario != null) {
+                usuarios.add(usuario);
+            }
+        }
+        return usuarios;
+    }
+
+    public Optional<Usuario> buscarPorId(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(porId.get(id));
+    }
+
+    public Optional<Usuario> buscarPorNombreUsuario(String nombreUsuario) {
+        return buscarPorClave(idPorNombreUsuario, nombreUsuario);
+    }
+
+    public Optional<Usuario> buscarPorCorreoElectronico(String correoElectronico) {
+        return buscarPorClave(idPorCorreo, correoElectronico);
+    }
+
+    /**
+     * Verificar si un correo está registrado o reservado por un alta en curso
+     */
+    public boolean existeCorreoElectronico(String correoElectronico) {
+        return correoElectronico != null && idPorCorreo.containsKey(correoElectronico);
+    }
+
+    /**
+     * Verificar si un nombre de usuario está registrado o reservado por un alta en curso
+     */
+    public boolean existeNombreUsuario(String nombreUsuario) {
+        return nombreUsuario != null && idPorNombreUsuario.containsKey(nombreUsuario);
+    }
+
+    /**
+     * Copia de todos los usuarios ordenada por ID (orden de alta)
+     */
+    public List<Usuario> listarTodos() {
+        List<Usuario> copia = new ArrayList<>(porId.size());
+        recorrer().forEach(copia::add);
+        return copia;
+    }
+
+    /**
+     * Copia de hasta 'limite' usuarios con ID mayor al dado (búsqueda por clave, sin desplazamiento)
+     * @param despuesDeId último ID ya entregado (exclusivo)
+     * @param limite cantidad máxima de usuarios a copiar
+     */
+    public List<Usuario> listarDespuesDe(long despuesDeId, int limite) {
+        List<Usuario> pagina = new ArrayList<>(Math.max(0, Math.min(limite, porId.size())));
+        for (Long id : idsOrdenados.tailSet(despuesDeId, false)) {
+            if (pagina.size() >= limite) {
+                break;
+            }
+            Usuario usuario = porId.get(id);
+            if (usuario != null) {
+                pagina.add(usuario);
+            }
+        }
+        return pagina;
+    }
+
+    /**
+     * Copia de una página por desplazamiento, en orden de alta
+     */
+    public List<Usuario> listarPagina(int desplazamiento, int tamaño) {
+        List<Usuario> pagina = new ArrayList<>(Math.max(0, Math.min(tamaño, porId.size())));
+        recorrer().skip(desplazamiento).limit(tamaño).forEach(pagina::add);
+        return pagina;
+    }
+
+    /**
+     * Recorrido perezoso en orden de ID; no copia el almacén
+     */
+    public Stream<Usuario> recorrer() {
+        return idsOrdenados.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull);
+    }
+
+    public int cantidad() {
+        return porId.size();
+    }
+
+    public boolean estaVacio() {
+        return porId.isEmpty();
+    }
+
+    private Optional<Usuario> buscarPorClave(ConcurrentMap<String, Long> indice, String clave) {
+        if (clave == null) {
+            return Optional.empty();
+        }
+        Long id = indice.get(clave);
+        // Una clave reservada cuyo alta aún no termina no tiene usuario visible todavía
+        return id == null ? Optional.empty() : Optional.ofNullable(porId.get(id));
+    }
+}
@@ -0,0 +1,177 @@
+package com.rrivasl.repositorio;
+
+import com.rrivasl.modelo.Producto;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Motor de catálogo de productos en memoria
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Responsabilidad Única
+ *
+ * Índice primario por ID (ConcurrentSkipListMap, conserva el orden de alta) e
+ * índice secundario único por código de producto (ConcurrentHashMap). Las lecturas
+ * no toman bloqueos; las escrituras sobre un mismo ID se serializan con un candado
+ * de su franja, de modo que ambos índices nunca quedan desalineados.
+ */
+@Component
+public class CatalogoProductos {
+
+    private static final int NUMERO_FRANJAS = 64;
+
+    private final ConcurrentNavigableMap<Long, Producto> porId = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, Long> idPorCodigo = new ConcurrentHashMap<>();
+    private final AtomicLong siguienteId = new AtomicLong(1L);
+    private final Object[] franjas = new Object[NUMERO_FRANJAS];
+
+    public CatalogoProductos() {
+        for (int i = 0; i < NUMERO_FRANJAS; i++) {
+            franjas[i] = new Object();
+        }
+    }
+
+    /**
+     * Registrar un producto reservando atómicamente su código
+     * @param producto producto a registrar (se le asigna el ID)
+     * @return producto registrado
+     * @throws IllegalArgumentException si el código ya existe
+     */
+    public Producto insertar(Producto producto) {
+        Long id = siguienteId.getAndIncrement();
+
+        if (idPorCodigo.putIfAbsent(producto.getCodigoProducto(), id) != null) {
+            throw new IllegalArgumentException("El código del producto ya existe");
+        }
+
+        producto.setId(id);
+        producto.setVersion(0L);
+        porId.put(id, producto);
+        return producto;
+    }
+
+    /**
+     * Reemplazar el producto con el ID dado, reindexando el código si cambia
+     * @param id identificador del producto
+     * @param producto nuevos datos; si trae versión, debe coincidir con la actual
+     * @param alReemplazar recibe la instancia reemplazada y la nueva, dentro del candado
+     *                     de la franja: otra escritura sobre el mismo ID no puede colarse
+     *                     entre ambas
+     * @return producto reemplazado o Optional.empty() si no existe
+     * @throws IllegalArgumentException si el nuevo código pertenece a otro producto
+     * @throws OptimisticLockingFailureException si la versión esperada no es la actual
+     */
+    public Optional<Producto> reemplazar(Long id, Producto producto, BiConsumer<Producto, Producto> alReemplazar) {
+        synchronized (franja(id)) {
+            Producto actual = porId.get(id);
+            if (actual == null) {
+                return Optional.empty();
+            }
+
+            if (producto.getVersion() != null && !producto.getVersion().equals(actual.getVersion())) {
+                throw new OptimisticLockingFailureException("El producto fue modificado por otra petición");
+            }
+
+            String codigoAnterior = actual.getCodigoProducto();
+            String codigoNuevo = producto.getCodigoProducto();
+            boolean cambiaCodigo = !codigoAnterior.equals(codigoNuevo);
+
+            if (cambiaCodigo && idPorCodigo.putIfAbsent(codigoNuevo, id) != null) {
+                throw new IllegalArgumentException("El código del producto ya existe");
+            }
+
+            producto.setId(id);
+            producto.setVersion(actual.getVersion() + 1);
+            porId.put(id, producto);
+
+            if (cambiaCodigo) {
+                idPorCodigo.remove(codigoAnterior, id);
+            }
+            alReemplazar.accept(actual, producto);
+            return Optional.of(producto);
+        }
+    }
+
+    /**
+     * Eliminar un producto y liberar su código
+     * @param id identificador del producto
+     * @return producto eliminado o Optional.empty() si no existía
+     */
+    public Optional<Producto> eliminar(Long id) {
+        synchronized (franja(id)) {
+            Producto eliminado = porId.remove(id);
+            if (eliminado != null) {
+                idPorCodigo.remove(eliminado.getCodigoProducto(), id);
+            }
+            return Optional.ofNullable(eliminado);
+        }
+    }
+
+    public Optional<Producto> buscarPorId(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(porId.get(id));
+    }
+
+    public Optional<Producto> buscarPorCodigo(String codigo) {
+        if (codigo == null) {
+            return Optional.empty();
+        }
+        Long id = idPorCodigo.get(codigo);
+        return id == null ? Optional.empty() : Optional.ofNullable(porId.get(id));
+    }
+
+    public boolean existeCodigo(String codigo) {
+        return codigo != null && idPorCodigo.containsKey(codigo);
+    }
+
+    /**
+     * Copia de todos los productos en orden de alta
+     */
+    public List<Producto> listarTodos() {
+        return new ArrayList<>(porId.values());
+    }
+
+    /**
+     * Copia de una página por desplazamiento, en orden de alta
+     */
+    public List<Producto> listarPagina(int desplazamiento, int tamaño) {
+        List<Producto> pagina = new ArrayList<>(Math.max(0, Math.min(tamaño, porId.size())));
+        porId.values().stream()
+                .skip(desplazamiento)
+                .limit(tamaño)
+                .forEach(pagina::add);
+        return pagina;
+    }
+
+    /**
+     * Copia de hasta 'limite' productos con ID mayor al dado (búsqueda por clave, sin desplazamiento)
+     * @param despuesDeId último ID ya entregado (exclusivo)
+     * @param limite cantidad máxima de productos a copiar
+     */
+    public List<Producto> listarDespuesDe(long despuesDeId, int limite) {
+        List<Producto> pagina = new ArrayList<>(Math.max(0, Math.min(limite, porId.size())));
+        for (Producto producto : porId.tailMap(despuesDeId, false).values()) {
+            if (pagina.size() >= limite) {
+                break;
+            }
+            pagina.add(producto);
+        }
+        return pagina;
+    }
+
+    public int cantidad() {
+        return porId.size();
+    }
+
+    private Object franja(Long id) {
+        return franjas[(Long.hashCode(id) & 0x7fffffff) % NUMERO_FRANJAS];
+    }
+}
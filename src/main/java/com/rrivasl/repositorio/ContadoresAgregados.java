@@ -0,0 +1,289 @@
+package com.rrivasl.repositorio;
+
+import com.rrivasl.modelo.Producto;
+import com.rrivasl.modelo.TotalesCategoria;
+import com.rrivasl.modelo.Usuario.EstadoUsuario;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores agregados en tiempo real para tableros
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Responsabilidad Única
+ *
+ * Usuarios por estado y por rol; por categoría, productos, unidades en stock y valor del
+ * inventario. Los servicios los ajustan en cada alta, cambio o baja, así leer un
+ * total no recorre ni consulta nada. Cada contador es un LongAdder: las escrituras
+ * concurrentes se reparten en celdas y no compiten por una misma variable.
+ *
+ * El valor se acumula en centavos para sumar sin redondeos. Dentro de una
+ * transacción el ajuste se aplica al confirmarla: un rollback no deja contadores
+ * adelantados. Lo que aun así se desvíe (escrituras fuera de la aplicación,
+ * carreras entre cambios de estado) lo corrige la reconciliación periódica.
+ */
+@Component
+public class ContadoresAgregados {
+
+    // ConcurrentHashMap no admite claves null: los productos sin categoría van bajo esta clave
+    private static final String SIN_CATEGORIA = "";
+
+    private final Map<EstadoUsuario, LongAdder> usuariosPorEstado = new EnumMap<>(EstadoUsuario.class);
+    private final ConcurrentMap<String, LongAdder> usuariosPorRol = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ContadorCategoria> porCategoria = new ConcurrentHashMap<>();
+
+    public ContadoresAgregados() {
+        // El mapa no cambia después de construirse: puede leerse sin sincronizar
+        for (EstadoUsuario estado : EstadoUsuario.values()) {
+            usuariosPorEstado.put(estado, new LongAdder());
+        }
+    }
+
+    /**
+     * Registrar un cambio de estado de usuario
+     * @param anterior estado previo; null para un alta
+     * @param nuevo estado vigente; null para una baja
+     */
+    public void cambiarEstadoUsuario(EstadoUsuario anterior, EstadoUsuario nuevo) {
+        if (anterior == nuevo) {
+            return;
+        }
+        aplicarTrasConfirmar(() -> {
+            if (anterior != null) {
+                usuariosPorEstado.get(anterior).decrement();
+            }
+            if (nuevo != null) {
+                usuariosPorEstado.get(nuevo).increment();
+            }
+        });
+    }
+
+    /**
+     * Registrar un cambio de rol de usuario
+     * @param anterior nombre del rol previo; null para un alta
+     * @param nuevo nombre del rol vigente; null si el usuario queda sin rol
+     */
+    public void cambiarRolUsuario(String anterior, String nuevo) {
+        if (Objects.equals(anterior, nuevo)) {
+            return;
+        }
+        aplicarTrasConfirmar(() -> {
+            if (anterior != null) {
+                contadorRol(anterior).decrement();
+            }
+            if (nuevo != null) {
+                contadorRol(nuevo).increment();
+            }
+        });
+    }
+
+    public void registrarAltaProducto(Producto producto) {
+        ajustarProducto(producto, 1);
+    }
+
+    public void registrarBajaProducto(Producto producto) {
+        ajustarProducto(producto, -1);
+    }
+
+    /**
+     * Registrar la modificación de un producto
+     * @param anterior copia de los datos previos (categoría, precio y stock)
+     * @param actual datos vigentes
+     */
+    public void registrarCambioProducto(Producto anterior, Producto actual) {
+        ajustarProducto(anterior, -1);
+        ajustarProducto(actual, 1);
+    }
+
+    public long getUsuarios(EstadoUsuario estado) {
+        return usuariosPorEstado.get(estado).sum();
+    }
+
+    public long getTotalUsuarios() {
+        long total = 0;
+        for (LongAdder contador : usuariosPorEstado.values()) {
+            total += contador.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Usuarios por estado, en el orden del enum
+     */
+    public Map<EstadoUsuario, Long> getUsuariosPorEstado() {
+        Map<EstadoUsuario, Long> copia = new EnumMap<>(EstadoUsuario.class);
+        usuariosPorEstado.forEach((estado, contador) -> copia.put(estado, contador.sum()));
+        return copia;
+    }
+
+    /**
+     * Usuarios por rol ordenados por nombre de rol; omite los roles sin usuarios
+     */
+    public Map<String, Long> getUsuariosPorRol() {
+        Map<String, Long> copia = new TreeMap<>();
+        usuariosPorRol.forEach((rol, contador) -> {
+            long usuarios = contador.sum();
+            if (usuarios != 0) {
+                copia.put(rol, usuarios);
+            }
+        });
+        return copia;
+    }
+
+    /**
+     * Totales por categoría ordenados por nombre (sin categoría al final); omite las vacías
+     */
+    public List<TotalesCategoria> getTotalesPorCategoria() {
+        List<TotalesCategoria> totales = new ArrayList<>(porCategoria.size());
+        porCategoria.forEach((clave, contador) -> {
+            long productos = contador.productos.sum();
+            if (productos != 0) {
+                totales.add(new TotalesCategoria(SIN_CATEGORIA.equals(clave) ? null : clave, productos,
+                        contador.unidades.sum(), BigDecimal.valueOf(contador.valorCentavos.sum(), 2)));
+            }
+        });
+        totales.sort(Comparator.comparing(TotalesCategoria::getCategoria, Comparator.nullsLast(Comparator.naturalOrder())));
+        return totales;
+    }
+
+    /**
+     * Corregir los contadores de usuarios con un recuento completo
+     * Se suma la diferencia en vez de reiniciar: un cambio concurrente con la
+     * corrección no se pierde, a lo sumo queda un desvío que corrige la próxima.
+     * @param recuento usuarios por estado según la fuente de datos
+     * @return diferencia total corregida (0 si los contadores estaban al día)
+     */
+    public long reconciliarUsuarios(Map<EstadoUsuario, Long> recuento) {
+        long desvio = 0;
+        for (Map.Entry<EstadoUsuario, LongAdder> entrada : usuariosPorEstado.entrySet()) {
+            long diferencia = recuento.getOrDefault(entrada.getKey(), 0L) - entrada.getValue().sum();
+            entrada.getValue().add(diferencia);
+            desvio += Math.abs(diferencia);
+        }
+        return desvio;
+    }
+
+    /**
+     * Corregir los contadores de usuarios por rol con un recuento completo
+     * @param recuento usuarios por nombre de rol según la fuente de datos
+     * @return diferencia total corregida (0 si los contadores estaban al día)
+     */
+    public long reconciliarRoles(Map<String, Long> recuento) {
+        long desvio = 0;
+        for (Map.Entry<String, Long> entrada : recuento.entrySet()) {
+            LongAdder contador = contadorRol(entrada.getKey());
+            long diferencia = entrada.getValue() - contador.sum();
+            contador.add(diferencia);
+            desvio += Math.abs(diferencia);
+        }
+        // Roles que ya no tienen usuarios en la fuente
+        for (Map.Entry<String, LongAdder> entrada : usuariosPorRol.entrySet()) {
+            if (!recuento.containsKey(entrada.getKey())) {
+                long sobrante = entrada.getValue().sum();
+                entrada.getValue().add(-sobrante);
+                desvio += Math.abs(sobrante);
+            }
+        }
+        return desvio;
+    }
+
+    /**
+     * Corregir los contadores de productos con un recuento completo por categoría
+     * @param recuento totales por categoría según la fuente de datos
+     * @return diferencia total de productos corregida (0 si los contadores estaban al día)
+     */
+    public long reconciliarProductos(Collection<TotalesCategoria> recuento) {
+        long desvio = 0;
+        Set<String> contadas = new HashSet<>();
+        for (TotalesCategoria totales : recuento) {
+            String clave = clave(totales.getCategoria());
+            contadas.add(clave);
+            desvio += corregir(contador(clave), totales.getProductos(), totales.getUnidades(), centavos(totales.getValor()));
+        }
+        // Categorías que ya no tienen productos en la fuente
+        for (Map.Entry<String, ContadorCategoria> entrada : porCategoria.entrySet()) {
+            if (!contadas.contains(entrada.getKey())) {
+                desvio += corregir(entrada.getValue(), 0, 0, 0);
+            }
+        }
+        return desvio;
+    }
+
+    private void ajustarProducto(Producto producto, int signo) {
+        if (producto == null) {
+            return;
+        }
+        // Los valores se leen ahora: el producto puede seguir cambiando antes de confirmar
+        String clave = clave(producto.getCategoria());
+        long unidades = producto.getStock() == null ? 0 : producto.getStock();
+        long valor = producto.getPrecio() == null ? 0 : centavos(producto.getPrecio().multiply(BigDecimal.valueOf(unidades)));
+        aplicarTrasConfirmar(() -> {
+            ContadorCategoria contador = contador(clave);
+            contador.productos.add(signo);
+            contador.unidades.add(signo * unidades);
+            contador.valorCentavos.add(signo * valor);
+        });
+    }
+
+    private LongAdder contadorRol(String rol) {
+        return usuariosPorRol.computeIfAbsent(rol, r -> new LongAdder());
+    }
+
+    private ContadorCategoria contador(String clave) {
+        return porCategoria.computeIfAbsent(clave, c -> new ContadorCategoria());
+    }
+
+    private static long corregir(ContadorCategoria contador, long productos, long unidades, long valorCentavos) {
+        long diferencia = productos - contador.productos.sum();
+        contador.productos.add(diferencia);
+        contador.unidades.add(unidades - contador.unidades.sum());
+        contador.valorCentavos.add(valorCentavos - contador.valorCentavos.sum());
+        return Math.abs(diferencia);
+    }
+
+    private static String clave(String categoria) {
+        return categoria == null ? SIN_CATEGORIA : categoria;
+    }
+
+    private static long centavos(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    /**
+     * Aplicar ahora o, si hay una transacción en curso, solo cuando se confirme
+     */
+    private static void aplicarTrasConfirmar(Runnable ajuste) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ajuste.run();
+                }
+            });
+        } else {
+            ajuste.run();
+        }
+    }
+
+    private static final class ContadorCategoria {
+        private final LongAdder productos = new LongAdder();
+        private final LongAdder unidades = new LongAdder();
+        private final LongAdder valorCentavos = new LongAdder();
+    }
+}
@@ -0,0 +1,77 @@
+package com.rrivasl.repositorio;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubo de tokens para limitar la tasa de eventos
+ * @author Roberto Rivas López
+ * Principios aplicados: Inmutabilidad, Encapsulación
+ *
+ * Se implementa como GCRA (algoritmo genérico de tasa de celdas), equivalente
+ * a un cubo de tokens: en vez de contar tokens y recordar la última recarga,
+ * guarda un solo número, el instante teórico en que el cubo vuelve a estar
+ * lleno. Un evento se admite si ese instante no queda más de una capacidad
+ * completa por delante de ahora, y lo adelanta en un intervalo.
+ *
+ * Sin locks ni objetos por evento: el estado es un AtomicLong y cada
+ * consumo es una lectura y un CAS.
+ */
+public final class CuboTokens {
+
+    private final long intervaloNanos;
+    private final long capacidadNanos;
+    private final AtomicLong llenoEn;
+
+    /**
+     * @param capacidad tokens del cubo lleno: la ráfaga máxima admitida
+     * @param periodoNanos tiempo en que el cubo vacío se vuelve a llenar
+     * @param ahora instante actual (System.nanoTime)
+     */
+    public CuboTokens(int capacidad, long periodoNanos, long ahora) {
+        if (capacidad <= 0 || periodoNanos <= 0) {
+            throw new IllegalArgumentException("La capacidad y el periodo del cubo deben ser mayores a cero");
+        }
+        this.intervaloNanos = Math.max(1, periodoNanos / capacidad);
+        this.capacidadNanos = intervaloNanos * capacidad;
+        this.llenoEn = new AtomicLong(ahora);
+    }
+
+    /**
+     * Consumir un token si hay
+     * @param ahora instante actual (System.nanoTime)
+     * @return 0 si se consumió; si no, nanosegundos hasta que haya un token
+     */
+    public long consumir(long ahora) {
+        while (true) {
+            long actual = llenoEn.get();
+            // Un cubo que se llenó en el pasado sigue lleno: los tokens no se acumulan sobre la capacidad
+            long siguiente = (actual - ahora > 0 ? actual : ahora) + intervaloNanos;
+            long exceso = siguiente - ahora - capacidadNanos;
+            if (exceso > 0) {
+                return exceso;
+            }
+            if (llenoEn.compareAndSet(actual, siguiente)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Espera hasta que haya un token, sin consumirlo
+     * @param ahora instante actual (System.nanoTime)
+     * @return 0 si hay un token; si no, nanosegundos hasta que lo haya
+     */
+    public long espera(long ahora) {
+        long actual = llenoEn.get();
+        long exceso = (actual - ahora > 0 ? actual : ahora) + intervaloNanos - ahora - capacidadNanos;
+        return exceso > 0 ? exceso : 0;
+    }
+
+    /**
+     * Tokens disponibles en el instante indicado
+     */
+    public long disponibles(long ahora) {
+        long pendiente = llenoEn.get() - ahora;
+        return pendiente <= 0 ? capacidadNanos / intervaloNanos : (capacidadNanos - pendiente) / intervaloNanos;
+    }
+}
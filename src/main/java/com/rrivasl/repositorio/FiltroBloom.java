@@ -0,0 +1,122 @@
+package com.rrivasl.repositorio;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom concurrente para cadenas
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Responsabilidad Única
+ *
+ * Responde "seguro que no está" o "quizás está". Nunca da falsos negativos: todo
+ * valor agregado responde "quizás". Los falsos positivos se mantienen cerca de la
+ * tasa configurada mientras no se supere la capacidad. Los bits viven en un
+ * AtomicLongArray, así que agregar y consultar no toman bloqueos. No admite borrar.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long numeroBits;
+    private final int numeroHashes;
+    private final long capacidad;
+    private final AtomicLong inserciones = new AtomicLong();
+
+    /**
+     * @param capacidad cantidad de valores esperados
+     * @param tasaFalsosPositivos tasa de falsos positivos buscada a plena capacidad (entre 0 y 1)
+     */
+    public FiltroBloom(long capacidad, double tasaFalsosPositivos) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad del filtro debe ser mayor a cero");
+        }
+        if (tasaFalsosPositivos <= 0 || tasaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("La tasa de falsos positivos debe estar entre 0 y 1");
+        }
+
+        // m = -n ln p / (ln 2)^2 ; k = (m / n) ln 2
+        long bitsOptimos = (long) Math.ceil(-capacidad * Math.log(tasaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+        int palabras = (int) Math.min(Integer.MAX_VALUE - 8, (bitsOptimos + 63) / 64);
+        this.bits = new AtomicLongArray(palabras);
+        this.numeroBits = (long) palabras * 64;
+        this.numeroHashes = Math.max(1, (int) Math.round((double) numeroBits / capacidad * Math.log(2)));
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * Agregar un valor al filtro
+     */
+    public void agregar(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numeroHashes; i++) {
+            long posicion = Math.floorMod(h1 + (long) i * h2, numeroBits);
+            int palabra = (int) (posicion >>> 6);
+            long mascara = 1L << posicion;
+            // Solo se escribe si el bit aún no está encendido
+            if ((bits.get(palabra) & mascara) == 0) {
+                bits.getAndAccumulate(palabra, mascara, (actual, m) -> actual | m);
+            }
+        }
+        inserciones.incrementAndGet();
+    }
+
+    /**
+     * @return false si el valor seguro no fue agregado; true si quizás lo fue
+     */
+    public boolean puedeContener(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numeroHashes; i++) {
+            long posicion = Math.floorMod(h1 + (long) i * h2, numeroBits);
+            if ((bits.get((int) (posicion >>> 6)) & (1L << posicion)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cantidad de inserciones (incluye valores repetidos)
+     */
+    public long getInserciones() {
+        return inserciones.get();
+    }
+
+    public long getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Verificar si el filtro superó su capacidad y su tasa de falsos positivos ya es mayor a la configurada
+     */
+    public boolean estaSaturado() {
+        return inserciones.get() > capacidad;
+    }
+
+    public long getNumeroBits() {
+        return numeroBits;
+    }
+
+    public int getNumeroHashes() {
+        return numeroHashes;
+    }
+
+    /**
+     * Hash de 64 bits: FNV-1a sobre los caracteres y mezcla final de MurmurHash3
+     */
+    private static long hash64(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            hash ^= valor.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,261 @@
+package com.rrivasl.repositorio;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas para búsqueda por subcadena y prefijo
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Responsabilidad Única
+ *
+ * Cada texto se normaliza (minúsculas, sin tildes ni diéresis, ñ como n) y se
+ * descompone en trigramas al estilo pg_trgm. Una consulta toma la lista de IDs de
+ * su trigrama menos frecuente y verifica solo esos candidatos, en lugar de
+ * recorrer todos los textos como haría LIKE '%texto%'.
+ *
+ * Al reindexar un texto el ID se agrega a las listas de sus trigramas nuevos y
+ * se quita de las de los trigramas que ya no tiene, así cada ID figura una sola
+ * vez por trigrama y las listas no crecen con los cambios de nombre. Si dos
+ * reindexaciones del mismo ID se cruzan puede quedar alguna entrada de más; se
+ * descarta al verificar contra el texto vigente.
+ *
+ * El tope de candidatos es un ranking de mejor esfuerzo: se verifican los
+ * primeros de la lista en orden de alta, no los más relevantes, así que con una
+ * consulta poco selectiva la página puede omitir coincidencias mejores.
+ */
+public class IndiceTrigramas {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Coincidencia> ORDEN_RELEVANCIA = Comparator.comparingInt(Coincidencia::rango)
+            .thenComparingInt(Coincidencia::largo)
+            .thenComparingLong(Coincidencia::id);
+
+    private final ConcurrentMap<Long, Postings> postingsPorTrigrama = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, String> textoPorId = new ConcurrentHashMap<>();
+
+    /**
+     * Indexar (o reindexar) el texto de un ID
+     */
+    public void indexar(long id, String texto) {
+        String normalizado = normalizar(texto);
+        String anterior = textoPorId.put(id, normalizado);
+        if (normalizado.equals(anterior)) {
+            return;
+        }
+        Set<Long> trigramas = trigramasDeTexto(normalizado);
+        if (anterior != null) {
+            Set<Long> previos = trigramasDeTexto(anterior);
+            Set<Long> descartados = new HashSet<>(previos);
+            descartados.removeAll(trigramas);
+            // El ID ya figura en las listas de los trigramas que se mantienen
+            trigramas.removeAll(previos);
+            for (long trigrama : descartados) {
+                Postings postings = postingsPorTrigrama.get(trigrama);
+                if (postings != null) {
+                    postings.quitar(id);
+                }
+            }
+        }
+        for (long trigrama : trigramas) {
+            postingsPorTrigrama.computeIfAbsent(trigrama, t -> new Postings()).agregar(id);
+        }
+    }
+
+    /**
+     * Buscar IDs cuyo texto contiene la consulta, ordenados por relevancia
+     * Consultas de 1 o 2 caracteres buscan por inicio de palabra; desde 3 caracteres,
+     * por subcadena. Orden: coincidencia exacta, prefijo del texto, inicio de palabra,
+     * resto; a igual rango, el texto más corto y luego el ID menor.
+     * @param consulta texto buscado
+     * @param desplazamiento resultados a omitir (paginación)
+     * @param limite cantidad máxima de resultados
+     * @param maximoCandidatos tope de candidatos verificados, para consultas poco selectivas;
+     *                         se toman en orden de alta, no de relevancia
+     * @return IDs de la página pedida
+     */
+    public List<Long> buscar(String consulta, int desplazamiento, int limite, int maximoCandidatos) {
+        String q = normalizar(consulta);
+        if (q.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        Postings candidatos = null;
+        for (long trigrama : trigramasDeConsulta(q)) {
+            Postings postings = postingsPorTrigrama.get(trigrama);
+            if (postings == null) {
+                // Un trigrama sin textos basta para saber que nada coincide
+                return List.of();
+            }
+            if (candidatos == null || postings.tamaño() < candidatos.tamaño()) {
+                candidatos = postings;
+            }
+        }
+
+        String inicioPalabra = " " + q;
+        // Solo se conservan las mejores (desplazamiento + límite) coincidencias: montículo acotado
+        int conservar = (int) Math.min((long) Math.max(0, desplazamiento) + limite, Integer.MAX_VALUE - 8);
+        PriorityQueue<Coincidencia> mejores = new PriorityQueue<>(ORDEN_RELEVANCIA.reversed());
+        Set<Long> idsConservados = new HashSet<>();
+
+        // Leer el tamaño antes que el arreglo: el arreglo leído siempre lo cubre
+        int total = candidatos.tamaño();
+        long[] ids = candidatos.ids();
+        for (int i = 0, revisados = 0; i < total && revisados < maximoCandidatos; i++, revisados++) {
+            long id = ids[i];
+            String texto = textoPorId.get(id);
+            int rango = texto == null ? -1 : rango(texto, q, inicioPalabra);
+            if (rango < 0) {
+                continue;
+            }
+            Coincidencia coincidencia = new Coincidencia(id, rango, texto.length());
+            if (mejores.size() < conservar) {
+                if (idsConservados.add(id)) {
+                    mejores.add(coincidencia);
+                }
+            } else if (ORDEN_RELEVANCIA.compare(coincidencia, mejores.peek()) < 0 && idsConservados.add(id)) {
+                idsConservados.remove(mejores.poll().id());
+                mejores.add(coincidencia);
+            }
+        }
+
+        List<Coincidencia> ordenadas = new ArrayList<>(mejores);
+        ordenadas.sort(ORDEN_RELEVANCIA);
+        List<Long> pagina = new ArrayList<>(limite);
+        for (int i = Math.max(0, desplazamiento); i < ordenadas.size(); i++) {
+            pagina.add(ordenadas.get(i).id());
+        }
+        return pagina;
+    }
+
+    public int cantidad() {
+        return textoPorId.size();
+    }
+
+    /**
+     * Normalizar para comparar sin distinguir mayúsculas ni tildes
+     * "Ñuñoa  Pérez" → "nunoa perez"
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinMarcas = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return NO_ALFANUMERICO.matcher(sinMarcas.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Rango de la coincidencia de q en texto, o -1 si no coincide
+     */
+    private static int rango(String texto, String q, String inicioPalabra) {
+        if (texto.equals(q)) {
+            return 0;
+        }
+        if (texto.startsWith(q)) {
+            return 1;
+        }
+        if (texto.contains(inicioPalabra)) {
+            return 2;
+        }
+        // Consultas cortas solo coinciden por inicio de palabra
+        return q.length() >= 3 && texto.contains(q) ? 3 : -1;
+    }
+
+    /**
+     * Trigramas de "  texto ": incluye los de cada inicio de palabra (" pa", "  p")
+     */
+    private static Set<Long> trigramasDeTexto(String normalizado) {
+        String relleno = "  " + normalizado + " ";
+        Set<Long> trigramas = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= relleno.length(); i++) {
+            trigramas.add(empaquetar(relleno.charAt(i), relleno.charAt(i + 1), relleno.charAt(i + 2)));
+        }
+        // "  x" por cada palabra, para que una sola letra encuentre también el apellido
+        for (int i = 1; i < normalizado.length(); i++) {
+            if (normalizado.charAt(i - 1) == ' ' && normalizado.charAt(i) != ' ') {
+                trigramas.add(empaquetar(' ', ' ', normalizado.charAt(i)));
+            }
+        }
+        return trigramas;
+    }
+
+    private static List<Long> trigramasDeConsulta(String q) {
+        if (q.length() == 1) {
+            return List.of(empaquetar(' ', ' ', q.charAt(0)));
+        }
+        if (q.length() == 2) {
+            return List.of(empaquetar(' ', q.charAt(0), q.charAt(1)));
+        }
+        List<Long> trigramas = new ArrayList<>(q.length() - 2);
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            trigramas.add(empaquetar(q.charAt(i), q.charAt(i + 1), q.charAt(i + 2)));
+        }
+        return trigramas;
+    }
+
+    private static long empaquetar(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private record Coincidencia(long id, int rango, int largo) {
+    }
+
+    /**
+     * Lista de IDs de un trigrama: escritura sincronizada, lectura sin bloqueo
+     * El arreglo se publica antes que el tamaño, así un lector nunca ve un tamaño
+     * mayor que el arreglo que lee. Quitar copia a un arreglo nuevo del mismo largo:
+     * un lector con el arreglo anterior no ve entradas desplazadas, y uno con el
+     * tamaño anterior lee a lo sumo un 0, que no es un ID.
+     */
+    private static final class Postings {
+
+        private volatile long[] ids = new long[4];
+        private volatile int tamaño;
+
+        synchronized void agregar(long id) {
+            long[] actual = ids;
+            if (tamaño == actual.length) {
+                long[] ampliado = new long[actual.length + (actual.length >> 1) + 1];
+                System.arraycopy(actual, 0, ampliado, 0, tamaño);
+                ids = ampliado;
+                actual = ampliado;
+            }
+            actual[tamaño] = id;
+            tamaño = tamaño + 1;
+        }
+
+        synchronized void quitar(long id) {
+            long[] actual = ids;
+            int n = tamaño;
+            for (int i = 0; i < n; i++) {
+                if (actual[i] == id) {
+                    long[] copia = new long[actual.length];
+                    System.arraycopy(actual, 0, copia, 0, i);
+                    System.arraycopy(actual, i + 1, copia, i, n - i - 1);
+                    ids = copia;
+                    tamaño = n - 1;
+                    return;
+                }
+            }
+        }
+
+        int tamaño() {
+            return tamaño;
+        }
+
+        long[] ids() {
+            return ids;
+        }
+    }
+}
@@ -1,9 +1,104 @@
 package com.rrivasl.repositorio;
 
+import com.rrivasl.modelo.Producto;
+import com.rrivasl.modelo.TotalesCategoria;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repositorio Producto
  * @author Roberto Rivas López
+ * Principios aplicados: Abstracción, Separación de Intereses
  */
-public interface RepositorioProducto {
-    // TODO: Implementar repositorio Producto
+@Repository
+public interface RepositorioProducto extends JpaRepository<Producto, Long> {
+    
+    /**
+     * Buscar producto por su código único
+     * @param codigoProducto código del producto
+     * @return producto encontrado o Optional.empty()
+     */
+    Optional<Producto> findByCodigoProducto(String codigoProducto);
+    
+    /**
+     * Verificar si existe un producto con el código dado
+     * @param codigoProducto código a verificar
+     * @return true si existe, false si no
+     */
+    boolean existsByCodigoProducto(String codigoProducto);
+    
+    /**
+     * Códigos que ya existen entre los dados, en una sola consulta (para cargas por bloques)
+     * @param codigos códigos a verificar
+     * @return subconjunto de los códigos que ya están registrados
+     */
+    @Query("SELECT p.codigoProducto FROM Producto p WHERE p.codigoProducto IN :codigos")
+    List<String> buscarCodigosExistentes(@Param("codigos") Collection<String> codigos);
+    
+    /**
+     * Página por clave (keyset): productos con ID mayor al dado, en orden de ID
+     * Se usa con PageRequest.of(0, n) para limitar sin OFFSET; la búsqueda recorre
+     * el índice de la clave primaria desde el cursor.
+     * @param despuesDeId último ID entregado (exclusivo)
+     * @param limite límite de filas (siempre página 0)
+     * @return productos siguientes al cursor
+     */
+    @Query("SELECT p FROM Producto p WHERE p.id > :despuesDeId ORDER BY p.id ASC")
+    List<Producto> buscarSiguientes(@Param("despuesDeId") Long despuesDeId, Pageable limite);
+    
+    /**
+     * Página por clave para vistas de listado, sin hidratar la entidad completa
+     * @param despuesDeId último ID entregado (exclusivo)
+     * @param limite límite de filas (siempre página 0)
+     * @return resúmenes de los productos siguientes al cursor
+     */
+    List<ResumenProducto> findByIdGreaterThanOrderByIdAsc(Long despuesDeId, Pageable limite);
+    
+    /**
+     * Listar productos de una categoría (usa el índice categoría + stock)
+     * @param categoria categoría a buscar
+     * @param limite límite de filas
+     * @return resúmenes de los productos de la categoría, ordenados por stock
+     */
+    List<ResumenProducto> findByCategoriaOrderByStockAsc(String categoria, Pageable limite);
+    
+    /**
+     * Productos de una categoría con stock bajo el umbral (usa el índice categoría + stock)
+     * @param categoria categoría a buscar
+     * @param umbral stock mínimo aceptable (exclusivo)
+     * @param limite límite de filas
+     * @return resúmenes ordenados de menor a mayor stock
+     */
+    List<ResumenProducto> findByCategoriaAndStockLessThanOrderByStockAsc(String categoria, Integer umbral, Pageable limite);
+    
+    /**
+     * Productos con stock bajo el umbral en todas las categorías (usa el índice de stock)
+     * @param umbral stock mínimo aceptable (exclusivo)
+     * @param limite límite de filas
+     * @return resúmenes ordenados de menor a mayor stock
+     */
+    List<ResumenProducto> findByStockLessThanOrderByStockAsc(Integer umbral, Pageable limite);
+    
+    /**
+     * Contar productos con stock bajo el umbral
+     * @param umbral stock mínimo aceptable (exclusivo)
+     * @return cantidad de productos con stock bajo
+     */
+    long countByStockLessThan(Integer umbral);
+    
+    /**
+     * Productos, unidades y valor de inventario por categoría en una sola pasada
+     * Recorre toda la tabla: se usa solo para reconciliar los contadores agregados.
+     * @return una fila por categoría (incluida la de productos sin categoría)
+     */
+    @Query("SELECT new com.rrivasl.modelo.TotalesCategoria(p.categoria, COUNT(p), SUM(p.stock), SUM(p.precio * p.stock)) "
+            + "FROM Producto p GROUP BY p.categoria")
+    List<TotalesCategoria> calcularTotalesPorCategoria();
 }
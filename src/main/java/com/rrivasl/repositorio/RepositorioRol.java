@@ -0,0 +1,23 @@
+package com.rrivasl.repositorio;
+
+import com.rrivasl.modelo.Rol;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositorio para la entidad Rol
+ * @author Roberto Rivas López
+ * Principios aplicados: Abstracción, Separación de Intereses
+ */
+@Repository
+public interface RepositorioRol extends JpaRepository<Rol, Long> {
+    
+    /**
+     * Buscar rol por nombre
+     * @param nombre nombre único del rol (ADMIN, MODERADOR, USUARIO)
+     * @return rol encontrado o Optional.empty()
+     */
+    Optional<Rol> findByNombre(String nombre);
+}
@@ -54,6 +54,8 @@ public interface RepositorioUsuario extends JpaRepository<Usuario, Long> {
     
     /**
      * Buscar usuarios que contengan el nombre especificado
+     * El comodín inicial impide usar un índice B-tree: recorre toda la tabla.
+     * La búsqueda de personas de la API usa el índice de trigramas de AlmacenUsuarios.
      * @param nombre parte del nombre a buscar
      * @return lista de usuarios que coinciden
      */
@@ -62,6 +64,8 @@ public interface RepositorioUsuario extends JpaRepository<Usuario, Long> {
     
     /**
      * Contar usuarios activos
+     * Ejecuta un COUNT en cada llamada: los tableros leen ServicioEstadisticas,
+     * que mantiene el total en memoria.
      * @return número de usuarios con estado ACTIVO
      */
     @Query("SELECT COUNT(u) FROM Usuario u WHERE u.estado = 'ACTIVO'")
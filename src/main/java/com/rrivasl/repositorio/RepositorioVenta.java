@@ -0,0 +1,73 @@
+package com.rrivasl.repositorio;
+
+import com.rrivasl.modelo.Venta;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio Venta
+ * @author Roberto Rivas López
+ * Principios aplicados: Abstracción, Separación de Intereses
+ *
+ * Las consultas de reportes devuelven filas ya agregadas por la base: nunca se
+ * cargan las ventas una por una.
+ */
+@Repository
+public interface RepositorioVenta extends JpaRepository<Venta, Long> {
+
+    /**
+     * Ventas por producto de un rango de IDs desde una fecha (usa el índice producto + fecha)
+     * Un rango y no una lista IN: Hibernate traduce de nuevo la consulta por cada
+     * lista de parámetros, mientras que con dos parámetros reutiliza el plan.
+     * @param primerId primer ID del rango (inclusivo)
+     * @param ultimoId último ID del rango (inclusivo)
+     * @param desde inicio del período (inclusivo)
+     * @return una fila por producto con ventas; los productos sin ventas no aparecen
+     */
+    @Query("SELECT new com.rrivasl.repositorio.VentasProducto(v.productoId, SUM(v.cantidad), SUM(v.total), MAX(v.fecha)) "
+            + "FROM Venta v WHERE v.productoId BETWEEN :primerId AND :ultimoId AND v.fecha >= :desde GROUP BY v.productoId")
+    List<VentasProducto> sumarPorRangoDeProductos(@Param("primerId") Long primerId,
+                                                  @Param("ultimoId") Long ultimoId,
+                                                  @Param("desde") LocalDateTime desde);
+
+    /**
+     * Productos más vendidos de un período, por unidades
+     * @param desde inicio del período (inclusivo)
+     * @param hasta fin del período (exclusivo)
+     * @param limite cantidad de productos (siempre página 0)
+     * @return filas ordenadas de mayor a menor cantidad vendida
+     */
+    @Query("SELECT new com.rrivasl.repositorio.VentasProducto(v.productoId, SUM(v.cantidad), SUM(v.total), MAX(v.fecha)) "
+            + "FROM Venta v WHERE v.fecha >= :desde AND v.fecha < :hasta "
+            + "GROUP BY v.productoId ORDER BY SUM(v.cantidad) DESC, v.productoId")
+    List<VentasProducto> buscarMasVendidos(@Param("desde") LocalDateTime desde,
+                                           @Param("hasta") LocalDateTime hasta,
+                                           Pageable limite);
+
+    /**
+     * Ventas por día de un período (usa el índice de fecha)
+     * @param desde inicio del período (inclusivo)
+     * @param hasta fin del período (exclusivo)
+     * @return una fila por día con ventas, en orden cronológico
+     */
+    @Query("SELECT new com.rrivasl.repositorio.VentasDia(CAST(v.fecha AS LocalDate), COUNT(v), SUM(v.cantidad), SUM(v.total)) "
+            + "FROM Venta v WHERE v.fecha >= :desde AND v.fecha < :hasta "
+            + "GROUP BY CAST(v.fecha AS LocalDate) ORDER BY CAST(v.fecha AS LocalDate)")
+    List<VentasDia> sumarPorDia(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Ingresos de un período
+     * @param desde inicio del período (inclusivo)
+     * @param hasta fin del período (exclusivo)
+     * @return suma de los totales, o null si no hubo ventas
+     */
+    @Query("SELECT SUM(v.total) FROM Venta v WHERE v.fecha >= :desde AND v.fecha < :hasta")
+    BigDecimal sumarTotal(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+}
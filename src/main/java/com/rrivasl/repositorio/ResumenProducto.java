@@ -0,0 +1,28 @@
+package com.rrivasl.repositorio;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección liviana de Producto para vistas de listado
+ * @author Roberto Rivas López
+ * Principios aplicados: Segregación de Interfaces
+ *
+ * Solo selecciona las columnas necesarias para listar; no hidrata la entidad
+ * completa ni su descripción.
+ */
+public interface ResumenProducto {
+
+    Long getId();
+
+    String getNombre();
+
+    String getCodigoProducto();
+
+    BigDecimal getPrecio();
+
+    String getCategoria();
+
+    Integer getStock();
+
+    Long getVersion();
+}
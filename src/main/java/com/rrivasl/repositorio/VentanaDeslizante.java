@@ -0,0 +1,90 @@
+package com.rrivasl.repositorio;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Contador de eventos en una ventana deslizante, con bloqueo temporal
+ * @author Roberto Rivas López
+ * Principios aplicados: Inmutabilidad, Encapsulación
+ *
+ * Aproxima la ventana deslizante con dos ventanas fijas: los eventos de la
+ * ventana anterior pesan en proporción al tramo que todavía se solapa con la
+ * ventana que termina ahora. Guarda tres números por clave en vez de un
+ * registro de marcas de tiempo.
+ *
+ * Sin locks: el estado es inmutable y cada registro lo reemplaza con un CAS,
+ * así los intentos concurrentes sobre una misma clave no esperan ni se pierden.
+ * Al bloquearse los contadores vuelven a cero: vencido el bloqueo se dispone
+ * otra vez de todos los intentos.
+ */
+public final class VentanaDeslizante {
+
+    private final long duracionMs;
+    private final AtomicReference<Estado> estado;
+
+    public VentanaDeslizante(long duracionMs, long ahora) {
+        if (duracionMs <= 0) {
+            throw new IllegalArgumentException("La duración de la ventana debe ser mayor a cero");
+        }
+        this.duracionMs = duracionMs;
+        this.estado = new AtomicReference<>(new Estado(ahora, 0, 0, 0));
+    }
+
+    /**
+     * Registrar un evento y bloquear si la ventana alcanza el máximo
+     * @param ahora instante del evento (ms)
+     * @param maximo eventos permitidos en la ventana
+     * @param bloqueoMs duración del bloqueo
+     * @return true si este evento inició un bloqueo
+     */
+    public boolean registrar(long ahora, int maximo, long bloqueoMs) {
+        Estado anterior;
+        Estado nuevo;
+        do {
+            anterior = estado.get();
+            Estado vigente = anterior.avanzar(ahora, duracionMs);
+            nuevo = new Estado(vigente.inicio, vigente.actual + 1, vigente.previo, vigente.bloqueadoHasta);
+            if (nuevo.bloqueadoHasta <= ahora && nuevo.estimar(ahora, duracionMs) >= maximo) {
+                nuevo = new Estado(ahora, 0, 0, ahora + bloqueoMs);
+            }
+        } while (!estado.compareAndSet(anterior, nuevo));
+        return nuevo.bloqueadoHasta != anterior.bloqueadoHasta;
+    }
+
+    /**
+     * Eventos estimados en la ventana que termina en el instante indicado
+     */
+    public double estimar(long ahora) {
+        return estado.get().avanzar(ahora, duracionMs).estimar(ahora, duracionMs);
+    }
+
+    /**
+     * Fin del bloqueo en ms; 0 si nunca se bloqueó
+     */
+    public long getBloqueadoHasta() {
+        return estado.get().bloqueadoHasta;
+    }
+
+    public boolean estaBloqueada(long ahora) {
+        return estado.get().bloqueadoHasta > ahora;
+    }
+
+    private record Estado(long inicio, int actual, int previo, long bloqueadoHasta) {
+
+        Estado avanzar(long ahora, long duracion) {
+            long transcurrido = ahora - inicio;
+            if (transcurrido < duracion) {
+                return this;
+            }
+            if (transcurrido < 2 * duracion) {
+                return new Estado(inicio + duracion, 0, actual, bloqueadoHasta);
+            }
+            return new Estado(ahora, 0, 0, bloqueadoHasta);
+        }
+
+        double estimar(long ahora, long duracion) {
+            double solapamiento = Math.max(0, duracion - (ahora - inicio)) / (double) duracion;
+            return actual + previo * solapamiento;
+        }
+    }
+}
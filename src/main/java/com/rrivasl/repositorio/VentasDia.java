@@ -0,0 +1,40 @@
+package com.rrivasl.repositorio;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Ventas agregadas de un día (fila de un GROUP BY por fecha)
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Inmutabilidad
+ */
+public class VentasDia {
+
+    private final LocalDate dia;
+    private final long ventas;
+    private final long unidades;
+    private final BigDecimal total;
+
+    public VentasDia(LocalDate dia, Long ventas, Long unidades, BigDecimal total) {
+        this.dia = dia;
+        this.ventas = ventas == null ? 0 : ventas;
+        this.unidades = unidades == null ? 0 : unidades;
+        this.total = total == null ? BigDecimal.ZERO : total;
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public long getVentas() {
+        return ventas;
+    }
+
+    public long getUnidades() {
+        return unidades;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+}
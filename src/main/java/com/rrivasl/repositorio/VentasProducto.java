@@ -0,0 +1,40 @@
+package com.rrivasl.repositorio;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ventas agregadas de un producto en un período (fila de un GROUP BY)
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Inmutabilidad
+ */
+public class VentasProducto {
+
+    private final Long productoId;
+    private final long unidades;
+    private final BigDecimal total;
+    private final LocalDateTime ultimaVenta;
+
+    public VentasProducto(Long productoId, Long unidades, BigDecimal total, LocalDateTime ultimaVenta) {
+        this.productoId = productoId;
+        this.unidades = unidades == null ? 0 : unidades;
+        this.total = total == null ? BigDecimal.ZERO : total;
+        this.ultimaVenta = ultimaVenta;
+    }
+
+    public Long getProductoId() {
+        return productoId;
+    }
+
+    public long getUnidades() {
+        return unidades;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public LocalDateTime getUltimaVenta() {
+        return ultimaVenta;
+    }
+}
@@ -0,0 +1,38 @@
+package com.rrivasl.servicio;
+
+/**
+ * Interfaz del Codificador de Contraseñas
+ * @author Roberto Rivas López
+ * Principios aplicados: Abstracción, Seguridad por defecto
+ *
+ * El valor codificado incluye el algoritmo, el costo y la sal: un cambio de
+ * costo o de algoritmo no invalida las contraseñas guardadas, que se siguen
+ * verificando con sus propios parámetros y se recodifican al iniciar sesión.
+ */
+public interface CodificadorContrasenas {
+
+    /**
+     * Codificar una contraseña con el algoritmo y costo configurados
+     * @param contrasena contraseña en texto plano
+     * @return valor a guardar, con algoritmo, costo y sal incluidos
+     */
+    String codificar(String contrasena);
+
+    /**
+     * Verificar una contraseña contra un valor guardado, en tiempo constante
+     * Un valor sin el formato de ningún algoritmo no coincide nunca, salvo que
+     * se active la migración de contraseñas en texto plano (usuarios anteriores
+     * a la codificación), que lo compara como texto.
+     * @param contrasena contraseña en texto plano recibida
+     * @param codificada valor guardado
+     * @return true si coinciden
+     */
+    boolean coincide(String contrasena, String codificada);
+
+    /**
+     * Consultar si un valor guardado debe recodificarse
+     * @param codificada valor guardado
+     * @return true si está en texto plano o usa otro algoritmo o un costo distinto al configurado
+     */
+    boolean necesitaActualizar(String codificada);
+}
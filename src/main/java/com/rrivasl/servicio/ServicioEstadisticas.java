@@ -0,0 +1,25 @@
+package com.rrivasl.servicio;
+
+import com.rrivasl.modelo.ResumenDashboard;
+
+/**
+ * Interfaz del Servicio de Estadísticas para tableros y reportes
+ * @author Roberto Rivas López
+ * Principios aplicados: Abstracción, Separación de Intereses
+ */
+public interface ServicioEstadisticas {
+    
+    /**
+     * Obtener los totales vigentes de usuarios y productos
+     * Se leen de contadores en memoria: no consulta la base ni recorre los datos.
+     * @return resumen con totales por estado de usuario y por categoría de producto
+     */
+    ResumenDashboard obtenerResumen();
+    
+    /**
+     * Recontar usuarios y productos en la fuente de datos y corregir los contadores
+     * Se ejecuta periódicamente; puede invocarse a mano tras cargas externas.
+     * @return diferencia total corregida (0 si los contadores estaban al día)
+     */
+    long reconciliar();
+}
@@ -0,0 +1,39 @@
+package com.rrivasl.servicio;
+
+/**
+ * Interfaz del Servicio de Intentos de Inicio de Sesión
+ * @author Roberto Rivas López
+ * Principios aplicados: Abstracción, Seguridad por defecto
+ */
+public interface ServicioIntentosLogin {
+    
+    /**
+     * Consultar si un intento puede continuar, antes de revisar la contraseña
+     * @param nombreUsuario nombre de usuario del intento
+     * @param ip dirección de origen del intento
+     * @return segundos que faltan para poder intentar de nuevo; 0 si puede intentar ahora
+     */
+    long segundosDeEspera(String nombreUsuario, String ip);
+    
+    /**
+     * Registrar un intento fallido
+     * Al alcanzar el máximo de la ventana se bloquean el nombre de usuario o la
+     * dirección; un usuario existente y activo pasa además a BLOQUEADO.
+     * @param nombreUsuario nombre de usuario del intento
+     * @param ip dirección de origen del intento
+     */
+    void registrarFallo(String nombreUsuario, String ip);
+    
+    /**
+     * Registrar un inicio de sesión correcto: olvida los fallos del usuario
+     * @param nombreUsuario nombre del usuario autenticado
+     */
+    void registrarExito(String nombreUsuario);
+    
+    /**
+     * Reactivar los usuarios cuyo bloqueo por intentos ya venció
+     * Se ejecuta periódicamente; solo reactiva usuarios que bloqueó este servicio.
+     * @return cantidad de usuarios reactivados
+     */
+    int desbloquearVencidos();
+}
@@ -1,6 +1,10 @@
 package com.rrivasl.servicio;
 
+import com.rrivasl.modelo.PaginaCursor;
 import com.rrivasl.modelo.Producto;
+import com.rrivasl.modelo.ResultadoLote;
+import com.rrivasl.modelo.TotalesCategoria;
+import com.rrivasl.repositorio.ResumenProducto;
 import java.util.List;
 
 /**
@@ -11,15 +15,73 @@ public interface ServicioProducto {
     
     Producto crearProducto(Producto producto);
     
+    /**
+     * Crear productos en bloques de tamaño fijo
+     * Cada bloque se valida y se persiste por separado: un bloque fallido no revierte
+     * los anteriores. Los productos inválidos o con código repetido se informan y se omiten.
+     * @param productos productos a crear; se recorren una sola vez, sin cargarlos todos en memoria
+     * @return totales de la carga y resultado de cada bloque
+     */
+    ResultadoLote crearProductosEnLote(Iterable<Producto> productos);
+    
     Producto buscarPorCodigo(String codigo);
     
+    Producto buscarPorId(Long id);
+    
     List<Producto> obtenerProductosPaginados(int pagina, int tamaño);
     
+    /**
+     * Obtener una página de productos por cursor (keyset), en orden de ID
+     * @param cursor token opaco de la página anterior; null para la primera página
+     * @param tamaño cantidad máxima de productos en la página
+     * @return página con copia de los productos y cursor siguiente si hay más
+     */
+    PaginaCursor<Producto> obtenerPaginaProductos(String cursor, int tamaño);
+    
+    /**
+     * Obtener una página de resúmenes de productos por cursor, para vistas de listado
+     * @param cursor token opaco de la página anterior; null para la primera página
+     * @param tamaño cantidad máxima de productos en la página
+     * @return página de resúmenes (sin descripción) y cursor siguiente si hay más
+     */
+    PaginaCursor<ResumenProducto> obtenerPaginaResumen(String cursor, int tamaño);
+    
     void crearProductosDePrueba(int cantidad);
     
+    /**
+     * Actualizar un producto existente
+     * @param id identificador del producto
+     * @param producto nuevos datos; si trae versión se exige que coincida con la actual
+     * @return producto actualizado o null si no existe
+     */
     Producto actualizarProducto(Long id, Producto producto);
     
     void eliminarProducto(Long id);
     
     List<Producto> buscarTodos();
+    
+    /**
+     * Listar resúmenes de productos de una categoría
+     * @param categoria categoría a buscar
+     * @param limite cantidad máxima de resultados
+     * @return resúmenes ordenados de menor a mayor stock
+     */
+    List<ResumenProducto> buscarPorCategoria(String categoria, int limite);
+    
+    /**
+     * Listar resúmenes de productos con stock bajo el umbral
+     * @param categoria categoría a filtrar; null para todas
+     * @param umbral stock mínimo aceptable (exclusivo)
+     * @param limite cantidad máxima de resultados
+     * @return resúmenes ordenados de menor a mayor stock
+     */
+    List<ResumenProducto> buscarStockBajo(String categoria, int umbral, int limite);
+    
+    /**
+     * Calcular productos, unidades y valor de inventario por categoría
+     * Recuento completo (GROUP BY) con que se reconcilian los contadores en tiempo
+     * real; los tableros leen los contadores, no este método.
+     * @return una fila por categoría
+     */
+    List<TotalesCategoria> calcularTotalesPorCategoria();
 }
@@ -0,0 +1,57 @@
+package com.rrivasl.servicio;
+
+import com.rrivasl.modelo.FormatoReporte;
+import com.rrivasl.modelo.ResultadoReporte;
+import com.rrivasl.modelo.TipoReporte;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.YearMonth;
+import java.util.function.LongConsumer;
+
+/**
+ * Interfaz del Servicio de Reportes
+ * @author Roberto Rivas López
+ * Principios aplicados: Abstracción, Separación de Intereses
+ */
+public interface ServicioReportes {
+    
+    /**
+     * Generar un reporte escribiéndolo en la salida a medida que se calcula
+     * Los datos se leen por bloques y cada sección se calcula en la misma pasada
+     * que escribe el detalle: la memoria no depende de la cantidad de filas.
+     * @param tipo reporte a generar
+     * @param formato formato de salida
+     * @param mes mes del reporte de ventas; null para el mes en curso (los demás tipos lo ignoran)
+     * @param salida destino del reporte; no se cierra
+     * @return filas escritas y totales de cada sección
+     * @throws IOException si falla la escritura en la salida
+     */
+    ResultadoReporte generarReporte(TipoReporte tipo, FormatoReporte formato, YearMonth mes, OutputStream salida)
+            throws IOException;
+    
+    /**
+     * Generar un reporte en un archivo del directorio de reportes
+     * Se escribe en un archivo temporal que se renombra al terminar, así nunca
+     * queda un reporte a medias con el nombre definitivo.
+     * @param tipo reporte a generar
+     * @param formato formato de salida
+     * @param mes mes del reporte de ventas; null para el mes en curso
+     * @return resultado con la ruta del archivo generado
+     * @throws IOException si no se puede escribir el archivo
+     */
+    ResultadoReporte generarArchivo(TipoReporte tipo, FormatoReporte formato, YearMonth mes) throws IOException;
+    
+    /**
+     * Generar un reporte en un archivo informando el avance
+     * Si el avance lanza una excepción la generación se aborta y se borra el archivo temporal.
+     * @param tipo reporte a generar
+     * @param formato formato de salida
+     * @param mes mes del reporte de ventas; null para el mes en curso
+     * @param avance recibe las filas escritas cada ResultadoReporte.INTERVALO_AVANCE filas
+     * @return resultado con la ruta del archivo generado
+     * @throws IOException si no se puede escribir el archivo
+     */
+    ResultadoReporte generarArchivo(TipoReporte tipo, FormatoReporte formato, YearMonth mes, LongConsumer avance)
+            throws IOException;
+}
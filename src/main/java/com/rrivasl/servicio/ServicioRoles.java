@@ -0,0 +1,35 @@
+package com.rrivasl.servicio;
+
+import com.rrivasl.modelo.Rol;
+
+import java.util.List;
+
+/**
+ * Interfaz del Servicio de Roles
+ * @author Roberto Rivas López
+ * Principios aplicados: Abstracción, Separación de Intereses
+ */
+public interface ServicioRoles {
+    
+    /**
+     * Obtener un rol por nombre, sin distinguir mayúsculas
+     * @param nombre nombre del rol
+     * @return rol encontrado
+     * @throws IllegalArgumentException si el rol no existe
+     */
+    Rol obtenerRol(String nombre);
+    
+    /**
+     * Rol que recibe un usuario al registrarse o importarse: siempre USUARIO
+     * El rol nunca sale de los datos de la petición ni del nombre elegido; un
+     * rol con más permisos solo lo asigna quien tiene GESTION_USUARIOS.
+     * @return rol inicial del usuario
+     */
+    Rol rolInicial();
+    
+    /**
+     * Listar los roles disponibles ordenados por nombre
+     * @return roles del catálogo
+     */
+    List<Rol> listarRoles();
+}
@@ -0,0 +1,39 @@
+package com.rrivasl.servicio;
+
+import com.rrivasl.modelo.ReclamosJwt;
+import com.rrivasl.modelo.ResultadoAutenticacion;
+import com.rrivasl.modelo.Usuario;
+
+/**
+ * Interfaz del Servicio de Tokens JWT
+ * @author Roberto Rivas López
+ * Principios aplicados: Abstracción, Separación de Intereses
+ */
+public interface ServicioTokens {
+
+    /**
+     * Emitir un par de tokens (acceso y refresco) para un usuario autenticado
+     * @param usuario usuario ya autenticado
+     * @return tokens firmados y vigencia del token de acceso
+     */
+    ResultadoAutenticacion emitirTokens(Usuario usuario);
+
+    /**
+     * Verificar firma, vigencia y tipo de un token
+     * Sin consultar el almacén: todo lo necesario va en el token.
+     * @param token token JWT compacto (sin el prefijo "Bearer ")
+     * @param tipoEsperado tipo que debe tener el token
+     * @return reclamos del token verificado
+     * @throws IllegalArgumentException si el token es inválido, venció o es de otro tipo
+     */
+    ReclamosJwt verificar(String token, ReclamosJwt.TipoToken tipoEsperado);
+
+    /**
+     * Canjear un token de refresco vigente por un par nuevo
+     * Solo aquí se consulta el usuario, para no renovar la sesión de un usuario desactivado.
+     * @param tokenRefresco token de refresco
+     * @return par nuevo de tokens
+     * @throws IllegalArgumentException si el token es inválido o el usuario ya no está activo
+     */
+    ResultadoAutenticacion refrescar(String tokenRefresco);
+}
@@ -0,0 +1,45 @@
+package com.rrivasl.servicio;
+
+import com.rrivasl.modelo.FormatoReporte;
+import com.rrivasl.modelo.TipoReporte;
+import com.rrivasl.modelo.Trabajo;
+
+import java.time.YearMonth;
+import java.util.Optional;
+
+/**
+ * Interfaz del Servicio de Trabajos en segundo plano
+ * @author Roberto Rivas López
+ * Principios aplicados: Abstracción, Separación de Intereses
+ */
+public interface ServicioTrabajos {
+    
+    /**
+     * Encolar la generación de un reporte a disco
+     * Vuelve de inmediato; el avance se consulta con buscarTrabajo.
+     * @param tipo reporte a generar
+     * @param formato formato de salida
+     * @param mes mes del reporte de ventas; null para el mes en curso
+     * @return trabajo registrado, en cola
+     * @throws org.springframework.core.task.TaskRejectedException si la cola de trabajos está llena
+     */
+    Trabajo encolarReporte(TipoReporte tipo, FormatoReporte formato, YearMonth mes);
+    
+    /**
+     * Buscar un trabajo por ID
+     * Los trabajos terminados se conservan durante aplicacion.trabajos.retencion.
+     * @param id identificador del trabajo
+     * @return trabajo encontrado o Optional.empty()
+     */
+    Optional<Trabajo> buscarTrabajo(String id);
+    
+    /**
+     * Cancelar un trabajo en cola o en ejecución
+     * Un trabajo en ejecución se interrumpe y descarta su archivo parcial.
+     * @param id identificador del trabajo
+     * @return trabajo cancelado
+     * @throws IllegalArgumentException si el trabajo no existe
+     * @throws IllegalStateException si el trabajo ya había terminado
+     */
+    Trabajo cancelarTrabajo(String id);
+}
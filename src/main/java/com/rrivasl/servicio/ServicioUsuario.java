@@ -1,8 +1,12 @@
 package com.rrivasl.servicio;
 
+import com.rrivasl.modelo.PaginaCursor;
+import com.rrivasl.modelo.ResultadoImportacion;
 import com.rrivasl.modelo.Usuario;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interfaz del Servicio de Usuarios
@@ -13,11 +17,24 @@ public interface ServicioUsuario {
     
     /**
      * Crear un nuevo usuario en el sistema
+     * La contraseña recibida en texto plano se reemplaza por su codificación.
      * @param usuario datos del usuario a crear
      * @return usuario creado con ID asignado
      */
     Usuario crearUsuario(Usuario usuario);
     
+    /**
+     * Importar usuarios en lotes
+     * Cada lote se valida en paralelo y se registra de una vez; las filas inválidas o
+     * con correo/nombre de usuario repetido se informan sin detener la importación.
+     * Las contraseñas se codifican en el ejecutor de contraseñas.
+     * @param usuarios usuarios a importar; se recorren una sola vez, sin cargarlos todos en memoria
+     * @return totales de la importación e informe de errores por fila
+     * @throws org.springframework.core.task.TaskRejectedException si el ejecutor de contraseñas
+     *         está lleno; los lotes anteriores quedan registrados
+     */
+    ResultadoImportacion importarUsuarios(Iterable<Usuario> usuarios);
+    
     /**
      * Buscar usuario por su ID
      * @param id identificador del usuario
@@ -32,6 +49,17 @@ public interface ServicioUsuario {
      */
     Optional<Usuario> buscarPorNombreUsuario(String nombreUsuario);
     
+    /**
+     * Autenticar un usuario por nombre de usuario y contraseña
+     * Verificar cuesta CPU a propósito: los controladores lo llaman desde el
+     * ejecutor de contraseñas. Si la contraseña guardada está en texto plano o
+     * usa otro costo, se recodifica con el vigente.
+     * @param nombreUsuario nombre único del usuario
+     * @param contrasena contraseña en texto plano recibida en el inicio de sesión
+     * @return usuario activo cuyas credenciales coinciden, o Optional.empty()
+     */
+    Optional<Usuario> autenticar(String nombreUsuario, String contrasena);
+    
     /**
      * Buscar usuario por correo electrónico
      * @param correoElectronico email del usuario
@@ -39,12 +67,46 @@ public interface ServicioUsuario {
      */
     Optional<Usuario> buscarPorCorreoElectronico(String correoElectronico);
     
+    /**
+     * Buscar usuarios por nombre y apellido, sin distinguir mayúsculas ni tildes
+     * @param consulta prefijo de palabra o subcadena (desde 3 caracteres) del nombre completo
+     * @param pagina número de página (desde 0)
+     * @param tamaño cantidad máxima de usuarios en la página
+     * @return usuarios ordenados por relevancia: coincidencia exacta, prefijo, inicio de palabra, resto
+     * @throws IllegalArgumentException si la página o el tamaño no son válidos, o la página queda
+     *                                  más allá del tope de candidatos
+     */
+    List<Usuario> buscarPorNombre(String consulta, int pagina, int tamaño);
+    
     /**
      * Obtener todos los usuarios del sistema
      * @return lista de todos los usuarios
      */
     List<Usuario> obtenerTodosLosUsuarios();
     
+    /**
+     * Obtener una página de usuarios por número de página
+     * @param pagina número de página (desde 0)
+     * @param tamaño cantidad máxima de usuarios en la página
+     * @return copia de los usuarios de la página, en orden de ID
+     * @throws IllegalArgumentException si la página empieza después del último usuario
+     */
+    List<Usuario> obtenerUsuariosPaginados(int pagina, int tamaño);
+    
+    /**
+     * Obtener una página de usuarios por cursor (keyset), en orden de ID
+     * @param cursor token opaco de la página anterior; null para la primera página
+     * @param tamaño cantidad máxima de usuarios en la página
+     * @return página con copia de los usuarios y cursor siguiente si hay más
+     */
+    PaginaCursor<Usuario> obtenerPaginaUsuarios(String cursor, int tamaño);
+    
+    /**
+     * Recorrer todos los usuarios en orden de ID sin materializar la lista completa
+     * @return stream perezoso de usuarios
+     */
+    Stream<Usuario> recorrerUsuarios();
+    
     /**
      * Actualizar datos de un usuario existente
      * @param id identificador del usuario
@@ -59,6 +121,31 @@ public interface ServicioUsuario {
      */
     void desactivarUsuario(Long id);
     
+    /**
+     * Bloquear un usuario activo (cambiar estado a BLOQUEADO)
+     * @param nombreUsuario nombre del usuario
+     * @return true si el usuario existía y estaba activo
+     */
+    boolean bloquearUsuario(String nombreUsuario);
+    
+    /**
+     * Reactivar un usuario bloqueado (cambiar estado a ACTIVO)
+     * Un usuario inactivo no cambia: desbloquear no deshace una desactivación.
+     * @param nombreUsuario nombre del usuario
+     * @return true si el usuario existía y estaba bloqueado
+     */
+    boolean desbloquearUsuario(String nombreUsuario);
+    
+    /**
+     * Asignar un rol a un usuario y recalcular sus permisos efectivos
+     * Los tokens ya emitidos conservan los permisos anteriores hasta vencer o refrescarse.
+     * @param id identificador del usuario
+     * @param nombreRol nombre del rol (ADMIN, MODERADOR, USUARIO)
+     * @return usuario con el nuevo rol
+     * @throws IllegalArgumentException si el usuario o el rol no existen
+     */
+    Usuario asignarRol(Long id, String nombreRol);
+    
     /**
      * Validar si un correo electrónico ya existe
      * @param correoElectronico email a validar
@@ -72,4 +159,19 @@ public interface ServicioUsuario {
      * @return true si existe, false si no existe
      */
     boolean existeNombreUsuario(String nombreUsuario);
+    
+    /**
+     * Contar usuarios por estado recorriendo todos los usuarios
+     * Costo proporcional a la cantidad de usuarios: es el recuento de referencia con
+     * que se reconcilian los contadores en tiempo real, no para consultas frecuentes.
+     * @return cantidad de usuarios por estado
+     */
+    Map<Usuario.EstadoUsuario, Long> contarPorEstado();
+    
+    /**
+     * Contar usuarios por rol recorriendo todos los usuarios
+     * Recuento de referencia para reconciliar los contadores, como contarPorEstado.
+     * @return cantidad de usuarios por nombre de rol
+     */
+    Map<String, Long> contarPorRol();
 }
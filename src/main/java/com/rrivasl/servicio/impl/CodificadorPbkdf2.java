@@ -0,0 +1,175 @@
+package com.rrivasl.servicio.impl;
+
+import com.rrivasl.servicio.CodificadorContrasenas;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Codificador de contraseñas PBKDF2 con HMAC-SHA256
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Seguridad por defecto
+ *
+ * PBKDF2 (RFC 8018) sobre el HMAC del JDK, sin dependencias. El hash mide
+ * lo mismo que la salida de HMAC-SHA256, así que basta un bloque. Como en
+ * ServicioTokensJwt, cada hilo reutiliza su Mac: SecretKeyFactory crearía en
+ * cada llamada un Mac, copias de la contraseña y un Cleaner por clave, que
+ * con costo bajo pesan más que las propias iteraciones.
+ *
+ * El valor guardado sigue el formato $pbkdf2-sha256$i=iteraciones$sal$hash
+ * (sal y hash en Base64 sin relleno), así cada contraseña se verifica con las
+ * iteraciones con que se codificó. El costo crece lineal con las iteraciones:
+ * se ajusta con aplicacion.seguridad.contrasenas.iteraciones según la latencia
+ * de verificación que mide BenchmarkContrasenas.
+ *
+ * Los valores sin prefijo (contraseñas guardadas en texto plano antes de la
+ * codificación) solo se aceptan con
+ * aplicacion.seguridad.contrasenas.aceptar-texto-plano=true, pensado para el
+ * tiempo de la migración: cada inicio de sesión correcto los recodifica. Sin
+ * el indicador, un valor así no coincide con ninguna contraseña.
+ */
+@Component
+@ConditionalOnProperty(name = "aplicacion.seguridad.contrasenas.algoritmo", havingValue = "pbkdf2", matchIfMissing = true)
+public class CodificadorPbkdf2 implements CodificadorContrasenas {
+
+    private static final Logger logger = LoggerFactory.getLogger(CodificadorPbkdf2.class);
+
+    static final String PREFIJO = "$pbkdf2-sha256$";
+
+    private static final String ALGORITMO_HMAC = "HmacSHA256";
+    private static final int BYTES_SAL = 16;
+    private static final int BYTES_HASH = 32;
+    // Índice del único bloque, en 4 bytes big-endian
+    private static final byte[] BLOQUE_1 = {0, 0, 0, 1};
+    private static final int ITERACIONES_CALENTAMIENTO = 50_000;
+
+    private static final Base64.Encoder CODIFICADOR_BASE64 = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder DECODIFICADOR_BASE64 = Base64.getDecoder();
+
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    private final ThreadLocal<Mac> macPorHilo = ThreadLocal.withInitial(CodificadorPbkdf2::nuevoMac);
+
+    @Value("${aplicacion.seguridad.contrasenas.iteraciones:310000}")
+    private int iteraciones;
+
+    @Value("${aplicacion.seguridad.contrasenas.aceptar-texto-plano:false}")
+    private boolean aceptarTextoPlano;
+
+    @PostConstruct
+    public void inicializar() {
+        if (iteraciones < 1) {
+            throw new IllegalStateException("aplicacion.seguridad.contrasenas.iteraciones debe ser mayor a cero");
+        }
+        nuevoMac(); // falla al iniciar, no en la primera alta, si el algoritmo no está disponible
+        // Con costo bajo el HMAC tardaría miles de altas en compilarse; así llega compilado a la primera
+        derivar("calentamiento", new byte[BYTES_SAL], ITERACIONES_CALENTAMIENTO);
+        logger.info("Contraseñas codificadas con PBKDF2-HMAC-SHA256, {} iteraciones", iteraciones);
+        if (aceptarTextoPlano) {
+            logger.warn("Se aceptan contraseñas guardadas en texto plano hasta recodificarlas (aceptar-texto-plano=true)");
+        }
+    }
+
+    @Override
+    public String codificar(String contrasena) {
+        if (contrasena == null || contrasena.isEmpty()) {
+            throw new IllegalArgumentException("La contraseña es obligatoria");
+        }
+        byte[] sal = new byte[BYTES_SAL];
+        aleatorio.nextBytes(sal);
+        byte[] hash = derivar(contrasena, sal, iteraciones);
+        return PREFIJO + "i=" + iteraciones + '$' + CODIFICADOR_BASE64.encodeToString(sal) + '$'
+                + CODIFICADOR_BASE64.encodeToString(hash);
+    }
+
+    @Override
+    public boolean coincide(String contrasena, String codificada) {
+        if (contrasena == null || contrasena.isEmpty() || codificada == null) {
+            return false;
+        }
+        if (!codificada.startsWith(PREFIJO)) {
+            return aceptarTextoPlano
+                    && MessageDigest.isEqual(codificada.getBytes(StandardCharsets.UTF_8), contrasena.getBytes(StandardCharsets.UTF_8));
+        }
+        Partes partes = Partes.leer(codificada);
+        return partes != null && MessageDigest.isEqual(partes.hash, derivar(contrasena, partes.sal, partes.iteraciones));
+    }
+
+    @Override
+    public boolean necesitaActualizar(String codificada) {
+        if (codificada == null || !codificada.startsWith(PREFIJO)) {
+            return true;
+        }
+        Partes partes = Partes.leer(codificada);
+        return partes == null || partes.iteraciones != iteraciones;
+    }
+
+    /**
+     * Bloque 1 de PBKDF2: U1 = HMAC(contraseña, sal || 1), Ui = HMAC(contraseña, Ui-1), hash = U1 xor ... xor Un
+     */
+    private byte[] derivar(String contrasena, byte[] sal, int iteraciones) {
+        Mac mac = macPorHilo.get();
+        byte[] clave = contrasena.getBytes(StandardCharsets.UTF_8);
+        byte[] u = new byte[BYTES_HASH];
+        try {
+            mac.init(new SecretKeySpec(clave, ALGORITMO_HMAC));
+            mac.update(sal);
+            mac.update(BLOQUE_1);
+            mac.doFinal(u, 0);
+            byte[] hash = u.clone();
+            for (int i = 1; i < iteraciones; i++) {
+                mac.update(u);
+                mac.doFinal(u, 0);
+                for (int j = 0; j < BYTES_HASH; j++) {
+                    hash[j] ^= u[j];
+                }
+            }
+            return hash;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo derivar la contraseña con " + ALGORITMO_HMAC, e);
+        } finally {
+            Arrays.fill(clave, (byte) 0);
+        }
+    }
+
+    private static Mac nuevoMac() {
+        try {
+            return Mac.getInstance(ALGORITMO_HMAC);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITMO_HMAC + " no disponible en este JDK", e);
+        }
+    }
+
+    /**
+     * Iteraciones, sal y hash de un valor guardado; null si el valor está mal formado
+     */
+    private record Partes(int iteraciones, byte[] sal, byte[] hash) {
+
+        static Partes leer(String codificada) {
+            String[] campos = codificada.substring(PREFIJO.length()).split("\\$");
+            if (campos.length != 3 || !campos[0].startsWith("i=")) {
+                return null;
+            }
+            try {
+                int iteraciones = Integer.parseInt(campos[0].substring(2));
+                byte[] sal = DECODIFICADOR_BASE64.decode(campos[1]);
+                byte[] hash = DECODIFICADOR_BASE64.decode(campos[2]);
+                return iteraciones < 1 || sal.length == 0 || hash.length == 0 ? null : new Partes(iteraciones, sal, hash);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
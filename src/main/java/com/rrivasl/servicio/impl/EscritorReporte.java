@@ -0,0 +1,60 @@
+package com.rrivasl.servicio.impl;
+
+import com.rrivasl.modelo.FormatoReporte;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Escritura incremental de un reporte: una tabla de detalle y secciones de resumen
+ * @author Roberto Rivas López
+ * Principios aplicados: Abstracción, Abierto/Cerrado
+ *
+ * Las filas se escriben a medida que llegan y se vuelcan a la salida por tramos;
+ * ninguna implementación retiene el detalle completo. Cerrar termina el documento
+ * pero no cierra la salida, que pertenece al llamador.
+ */
+interface EscritorReporte extends Closeable {
+
+    static EscritorReporte para(FormatoReporte formato, OutputStream salida) {
+        switch (formato) {
+            case CSV:
+                return new EscritorReporteCsv(salida);
+            case PDF:
+                return new EscritorReportePdf(salida);
+            default:
+                throw new IllegalArgumentException("Formato de reporte no soportado: " + formato);
+        }
+    }
+
+    /**
+     * Abrir el documento con su título y las columnas del detalle
+     */
+    void iniciar(String titulo, List<String> columnas) throws IOException;
+
+    /**
+     * Agregar una fila de detalle (mismas columnas que iniciar)
+     */
+    void fila(List<?> valores) throws IOException;
+
+    /**
+     * Agregar una sección de resumen después del detalle
+     */
+    void seccion(String titulo, List<String> columnas, List<? extends List<?>> filas) throws IOException;
+
+    /**
+     * Representación de texto común a los formatos
+     */
+    static String texto(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor instanceof BigDecimal) {
+            return ((BigDecimal) valor).toPlainString();
+        }
+        return valor.toString();
+    }
+}
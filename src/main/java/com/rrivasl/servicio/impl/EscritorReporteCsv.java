@@ -0,0 +1,80 @@
+package com.rrivasl.servicio.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Reporte en CSV (RFC 4180, UTF-8)
+ * @author Roberto Rivas López
+ *
+ * El búfer se vuelca a la salida cada vez que se llena. Las secciones de resumen
+ * van al final, separadas del detalle por una línea en blanco y con su título en
+ * una fila propia.
+ */
+class EscritorReporteCsv implements EscritorReporte {
+
+    private static final int TAMAÑO_BUFER = 64 * 1024;
+
+    private final Writer salida;
+
+    EscritorReporteCsv(OutputStream salida) {
+        this.salida = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMAÑO_BUFER);
+    }
+
+    @Override
+    public void iniciar(String titulo, List<String> columnas) throws IOException {
+        // Marca de orden de bytes para que las planillas reconozcan UTF-8 (tildes y ñ)
+        salida.write('\uFEFF');
+        escribirLinea(columnas);
+    }
+
+    @Override
+    public void fila(List<?> valores) throws IOException {
+        escribirLinea(valores);
+    }
+
+    @Override
+    public void seccion(String titulo, List<String> columnas, List<? extends List<?>> filas) throws IOException {
+        salida.write("\r\n");
+        escribirLinea(List.of(titulo));
+        escribirLinea(columnas);
+        for (List<?> fila : filas) {
+            escribirLinea(fila);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        salida.flush();
+    }
+
+    private void escribirLinea(List<?> valores) throws IOException {
+        for (int i = 0; i < valores.size(); i++) {
+            if (i > 0) {
+                salida.write(',');
+            }
+            escribirCampo(EscritorReporte.texto(valores.get(i)));
+        }
+        salida.write("\r\n");
+    }
+
+    private void escribirCampo(String campo) throws IOException {
+        boolean requiereComillas = false;
+        for (int i = 0; i < campo.length() && !requiereComillas; i++) {
+            char c = campo.charAt(i);
+            requiereComillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!requiereComillas) {
+            salida.write(campo);
+            return;
+        }
+        salida.write('"');
+        salida.write(campo.replace("\"", "\"\""));
+        salida.write('"');
+    }
+}
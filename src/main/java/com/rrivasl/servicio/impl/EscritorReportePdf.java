@@ -0,0 +1,123 @@
+package com.rrivasl.servicio.impl;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Reporte en PDF con OpenPDF
+ * @author Roberto Rivas López
+ *
+ * La tabla de detalle se marca incompleta y se agrega al documento cada cierto
+ * número de filas: OpenPDF compone esas filas en páginas, las escribe en la salida
+ * y las descarta de la tabla. Así la memoria depende del tramo y no del total.
+ */
+class EscritorReportePdf implements EscritorReporte {
+
+    // Filas acumuladas antes de componerlas en páginas y liberarlas
+    private static final int FILAS_POR_VOLCADO = 200;
+
+    private static final Font FUENTE_TITULO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+    private static final Font FUENTE_SECCION = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11);
+    private static final Font FUENTE_ENCABEZADO = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 8);
+    private static final Font FUENTE_CELDA = FontFactory.getFont(FontFactory.HELVETICA, 8);
+    private static final Color FONDO_ENCABEZADO = new Color(230, 230, 230);
+
+    private final OutputStream salida;
+    private final Document documento = new Document(PageSize.A4.rotate(), 24, 24, 24, 24);
+    private PdfPTable detalle;
+    private int filasPendientes;
+
+    EscritorReportePdf(OutputStream salida) {
+        this.salida = salida;
+    }
+
+    @Override
+    public void iniciar(String titulo, List<String> columnas) {
+        PdfWriter escritor = PdfWriter.getInstance(documento, salida);
+        escritor.setCloseStream(false);
+        documento.addTitle(titulo);
+        documento.addCreator("Roberto Rivas López");
+        documento.open();
+        documento.add(new Paragraph(titulo, FUENTE_TITULO));
+
+        detalle = nuevaTabla(columnas);
+        detalle.setComplete(false);
+    }
+
+    @Override
+    public void fila(List<?> valores) {
+        agregarCeldas(detalle, valores);
+        if (++filasPendientes == FILAS_POR_VOLCADO) {
+            documento.add(detalle);
+            filasPendientes = 0;
+        }
+    }
+
+    @Override
+    public void seccion(String titulo, List<String> columnas, List<? extends List<?>> filas) {
+        terminarDetalle();
+        Paragraph encabezado = new Paragraph(titulo, FUENTE_SECCION);
+        encabezado.setSpacingBefore(12);
+        encabezado.setSpacingAfter(4);
+        documento.add(encabezado);
+
+        PdfPTable tabla = nuevaTabla(columnas);
+        for (List<?> fila : filas) {
+            agregarCeldas(tabla, fila);
+        }
+        documento.add(tabla);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (documento.isOpen()) {
+            terminarDetalle();
+            documento.close();
+        }
+        salida.flush();
+    }
+
+    private void terminarDetalle() {
+        if (detalle != null) {
+            detalle.setComplete(true);
+            documento.add(detalle);
+            detalle = null;
+        }
+    }
+
+    private static PdfPTable nuevaTabla(List<String> columnas) {
+        PdfPTable tabla = new PdfPTable(columnas.size());
+        tabla.setWidthPercentage(100);
+        // El encabezado se repite en cada página
+        tabla.setHeaderRows(1);
+        for (String columna : columnas) {
+            PdfPCell celda = new PdfPCell(new Phrase(columna, FUENTE_ENCABEZADO));
+            celda.setBackgroundColor(FONDO_ENCABEZADO);
+            tabla.addCell(celda);
+        }
+        return tabla;
+    }
+
+    private static void agregarCeldas(PdfPTable tabla, List<?> valores) {
+        for (Object valor : valores) {
+            PdfPCell celda = new PdfPCell(new Phrase(EscritorReporte.texto(valor), FUENTE_CELDA));
+            if (valor instanceof Number) {
+                celda.setHorizontalAlignment(Element.ALIGN_RIGHT);
+            }
+            tabla.addCell(celda);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.rrivasl.servicio.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Los k mejores elementos de un recorrido, con memoria acotada a k
+ * @author Roberto Rivas López
+ *
+ * Montículo con el peor de los conservados en la cima: cada elemento nuevo solo
+ * se compara con él. O(n log k) en lugar de ordenar los n elementos.
+ */
+final class MejoresK<T> {
+
+    private final int k;
+    private final Comparator<? super T> orden;
+    private final PriorityQueue<T> conservados;
+
+    /**
+     * @param k cantidad de elementos a conservar
+     * @param orden orden de preferencia: el menor es el mejor
+     */
+    MejoresK(int k, Comparator<? super T> orden) {
+        this.k = k;
+        this.orden = orden;
+        this.conservados = new PriorityQueue<>(Math.max(1, k), orden.reversed());
+    }
+
+    void ofrecer(T elemento) {
+        if (k <= 0) {
+            return;
+        }
+        if (conservados.size() < k) {
+            conservados.add(elemento);
+        } else if (orden.compare(elemento, conservados.peek()) < 0) {
+            conservados.poll();
+            conservados.add(elemento);
+        }
+    }
+
+    /**
+     * Elementos conservados, del mejor al peor
+     */
+    List<T> ordenados() {
+        List<T> lista = new ArrayList<>(conservados);
+        lista.sort(orden);
+        return lista;
+    }
+}
@@ -0,0 +1,127 @@
+package com.rrivasl.servicio.impl;
+
+import com.rrivasl.modelo.Producto;
+import com.rrivasl.modelo.ResultadoLote;
+import com.rrivasl.modelo.ResultadoLote.ResultadoBloque;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Recorrido por bloques de una carga masiva de productos
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Reutilización
+ *
+ * Consume la entrada de forma perezosa (nunca retiene más de un bloque), valida
+ * cada producto y descarta códigos repetidos dentro del bloque. Lo que queda se
+ * entrega al almacenamiento concreto, que decide cómo persistirlo.
+ */
+final class ProcesadorLoteProductos {
+
+    /**
+     * Persistencia de un bloque ya validado
+     */
+    @FunctionalInterface
+    interface PersistidorBloque {
+        /**
+         * @param validos productos válidos y sin códigos repetidos dentro del bloque
+         * @param resultado resultado del bloque, para registrar errores
+         * @return cantidad de productos insertados
+         */
+        int persistir(List<Producto> validos, ResultadoBloque resultado);
+    }
+
+    private static final BigDecimal PRECIO_PRUEBA = new BigDecimal("100.00");
+
+    private ProcesadorLoteProductos() {
+    }
+
+    /**
+     * Productos de prueba numerados de 1 a cantidad, generados a medida que se recorren
+     */
+    static Iterable<Producto> productosDePrueba(int cantidad) {
+        return () -> IntStream.rangeClosed(1, cantidad)
+                .mapToObj(ProcesadorLoteProductos::productoDePrueba)
+                .iterator();
+    }
+
+    private static Producto productoDePrueba(int i) {
+        String numero = Integer.toString(i);
+        String relleno = numero.length() >= 3 ? "" : "000".substring(numero.length());
+        return Producto.builder()
+                .nombre("Producto " + numero)
+                .descripcion("Descripción del producto " + numero)
+                .precio(PRECIO_PRUEBA)
+                .categoria("CATEGORIA_" + (i % 3 + 1))
+                .stock(10)
+                .codigoProducto("PROD-" + relleno + numero)
+                .build();
+    }
+
+    static ResultadoLote procesar(Iterable<Producto> productos, int tamañoLote,
+                                  Validator validador, PersistidorBloque persistidor) {
+        if (tamañoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor a cero");
+        }
+
+        long inicio = System.nanoTime();
+        ResultadoLote resultado = new ResultadoLote();
+        Iterator<Producto> iterador = productos.iterator();
+        List<Producto> bloque = new ArrayList<>(tamañoLote);
+        int numero = 0;
+
+        while (iterador.hasNext()) {
+            bloque.add(iterador.next());
+            if (bloque.size() == tamañoLote || !iterador.hasNext()) {
+                resultado.agregarBloque(procesarBloque(++numero, bloque, validador, persistidor));
+                bloque = new ArrayList<>(tamañoLote);
+            }
+        }
+
+        resultado.setDuracionMs((System.nanoTime() - inicio) / 1_000_000);
+        return resultado;
+    }
+
+    private static ResultadoBloque procesarBloque(int numero, List<Producto> bloque,
+                                                  Validator validador, PersistidorBloque persistidor) {
+        long inicio = System.nanoTime();
+        ResultadoBloque resultado = new ResultadoBloque(numero, bloque.size());
+        List<Producto> validos = new ArrayList<>(bloque.size());
+        Set<String> codigosDelBloque = new HashSet<>();
+
+        for (Producto producto : bloque) {
+            if (producto == null) {
+                resultado.agregarError("Producto vacío");
+                continue;
+            }
+            Set<ConstraintViolation<Producto>> violaciones = validador.validate(producto);
+            if (!violaciones.isEmpty()) {
+                for (ConstraintViolation<Producto> violacion : violaciones) {
+                    resultado.agregarError(producto.getCodigoProducto() + ": " + violacion.getMessage());
+                }
+                continue;
+            }
+            if (!codigosDelBloque.add(producto.getCodigoProducto())) {
+                resultado.agregarError(producto.getCodigoProducto() + ": código repetido en la carga");
+                continue;
+            }
+            // La carga siempre crea: ID y versión los asigna el almacenamiento
+            producto.setId(null);
+            producto.setVersion(null);
+            validos.add(producto);
+        }
+
+        if (!validos.isEmpty()) {
+            resultado.setInsertados(persistidor.persistir(validos, resultado));
+        }
+        resultado.setDuracionMs((System.nanoTime() - inicio) / 1_000_000);
+        return resultado;
+    }
+}
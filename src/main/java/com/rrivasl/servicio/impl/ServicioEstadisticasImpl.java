@@ -0,0 +1,67 @@
+package com.rrivasl.servicio.impl;
+
+import com.rrivasl.modelo.ResumenDashboard;
+import com.rrivasl.repositorio.ContadoresAgregados;
+import com.rrivasl.servicio.ServicioEstadisticas;
+import com.rrivasl.servicio.ServicioProducto;
+import com.rrivasl.servicio.ServicioUsuario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+
+/**
+ * Implementación del Servicio de Estadísticas
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Inyección de Dependencias
+ *
+ * Los tableros leen los contadores agregados que mantienen los servicios de
+ * usuarios y productos, en lugar de ejecutar COUNT y SUM en cada consulta. Una
+ * tarea programada recuenta la fuente de datos y corrige cualquier desvío; la
+ * primera corrida, al iniciar, carga los datos que ya existían.
+ */
+@Service
+public class ServicioEstadisticasImpl implements ServicioEstadisticas {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ServicioEstadisticasImpl.class);
+    
+    @Autowired
+    private ContadoresAgregados contadores;
+    
+    @Autowired
+    private ServicioUsuario servicioUsuario;
+    
+    @Autowired
+    private ServicioProducto servicioProducto;
+    
+    private volatile Instant ultimaReconciliacion;
+    
+    @Override
+    public ResumenDashboard obtenerResumen() {
+        return new ResumenDashboard(contadores.getUsuariosPorEstado(), contadores.getUsuariosPorRol(),
+                contadores.getTotalesPorCategoria(), ultimaReconciliacion);
+    }
+    
+    @Override
+    @Scheduled(initialDelayString = "${aplicacion.estadisticas.reconciliacion-inicial:0}",
+            fixedDelayString = "${aplicacion.estadisticas.reconciliacion:PT5M}")
+    public synchronized long reconciliar() {
+        long inicio = System.nanoTime();
+        long desvioUsuarios = contadores.reconciliarUsuarios(servicioUsuario.contarPorEstado())
+                + contadores.reconciliarRoles(servicioUsuario.contarPorRol());
+        long desvioProductos = contadores.reconciliarProductos(servicioProducto.calcularTotalesPorCategoria());
+        ultimaReconciliacion = Instant.now();
+        
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        if (desvioUsuarios + desvioProductos > 0) {
+            logger.info("Contadores agregados corregidos en {} ms: {} usuarios y {} productos de diferencia",
+                    duracionMs, desvioUsuarios, desvioProductos);
+        } else {
+            logger.debug("Contadores agregados al día ({} ms)", duracionMs);
+        }
+        return desvioUsuarios + desvioProductos;
+    }
+}
@@ -0,0 +1,141 @@
+package com.rrivasl.servicio.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rrivasl.repositorio.VentanaDeslizante;
+import com.rrivasl.servicio.ServicioIntentosLogin;
+import com.rrivasl.servicio.ServicioUsuario;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Implementación del Servicio de Intentos de Inicio de Sesión
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Seguridad por defecto
+ *
+ * Cuenta los fallos por nombre de usuario y por dirección IP en ventanas
+ * deslizantes en memoria. El límite por usuario frena la adivinación de una
+ * contraseña; el límite por IP, más alto, frena las ráfagas de credenciales
+ * robadas que prueban muchos usuarios desde un mismo origen. Un intento
+ * bloqueado se rechaza con una búsqueda en memoria, antes de leer el usuario
+ * o comparar la contraseña.
+ *
+ * Las ventanas viven en cachés Caffeine acotadas en tamaño y que expiran por
+ * falta de uso: una ráfaga con millones de nombres inventados no hace crecer
+ * la memoria sin límite. Los usuarios bloqueados pasan a BLOQUEADO y una tarea
+ * programada los reactiva al vencer el bloqueo; si el usuario vuelve antes de
+ * la tarea, el propio intento lo reactiva.
+ */
+@Service
+public class ServicioIntentosLoginImpl implements ServicioIntentosLogin {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServicioIntentosLoginImpl.class);
+
+    @Autowired
+    private ServicioUsuario servicioUsuario;
+
+    @Value("${aplicacion.seguridad.intentos-maximos-login:5}")
+    private int maximoPorUsuario;
+
+    @Value("${aplicacion.seguridad.intentos-maximos-login-ip:50}")
+    private int maximoPorIp;
+
+    @Value("${aplicacion.seguridad.ventana-intentos:15m}")
+    private Duration ventana;
+
+    @Value("${aplicacion.seguridad.tiempo-bloqueo:${aplicacion.seguridad.tiempo-bloqueo-minutos:15}m}")
+    private Duration bloqueo;
+
+    @Value("${aplicacion.seguridad.limitador-login.tamaño-maximo:100000}")
+    private long tamañoMaximo;
+
+    private Cache<String, VentanaDeslizante> porUsuario;
+    private Cache<String, VentanaDeslizante> porIp;
+
+    // Usuarios que este servicio pasó a BLOQUEADO, con el fin del bloqueo (ms)
+    private final ConcurrentMap<String, Long> bloqueados = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void inicializar() {
+        // Una ventana sin uso se conserva mientras aún cuenta (la anterior pesa hasta 2 ventanas) o bloquea
+        Duration retencion = ventana.multipliedBy(2).compareTo(bloqueo) > 0 ? ventana.multipliedBy(2) : bloqueo;
+        porUsuario = Caffeine.newBuilder().maximumSize(tamañoMaximo).expireAfterAccess(retencion).build();
+        porIp = Caffeine.newBuilder().maximumSize(tamañoMaximo).expireAfterAccess(retencion).build();
+        logger.info("Límite de inicio de sesión: {} fallos por usuario y {} por IP cada {}; bloqueo de {}",
+                maximoPorUsuario, maximoPorIp, ventana, bloqueo);
+    }
+
+    @Override
+    public long segundosDeEspera(String nombreUsuario, String ip) {
+        long ahora = System.currentTimeMillis();
+        long hasta = Math.max(bloqueadoHasta(porUsuario, nombreUsuario), bloqueadoHasta(porIp, ip));
+        if (hasta > ahora) {
+            return (hasta - ahora + 999) / 1000;
+        }
+        // Bloqueo vencido que la tarea programada aún no revisó
+        Long hastaUsuario = bloqueados.get(nombreUsuario);
+        if (hastaUsuario != null && hastaUsuario <= ahora && bloqueados.remove(nombreUsuario, hastaUsuario)) {
+            servicioUsuario.desbloquearUsuario(nombreUsuario);
+        }
+        return 0;
+    }
+
+    @Override
+    public void registrarFallo(String nombreUsuario, String ip) {
+        long ahora = System.currentTimeMillis();
+        long bloqueoMs = bloqueo.toMillis();
+        if (ip != null && ventana(porIp, ip, ahora).registrar(ahora, maximoPorIp, bloqueoMs)) {
+            logger.warn("IP {} bloqueada por {} tras {} inicios de sesión fallidos", ip, bloqueo, maximoPorIp);
+        }
+        if (ventana(porUsuario, nombreUsuario, ahora).registrar(ahora, maximoPorUsuario, bloqueoMs)) {
+            logger.warn("Usuario {} bloqueado por {} tras {} inicios de sesión fallidos", nombreUsuario, bloqueo, maximoPorUsuario);
+            if (servicioUsuario.bloquearUsuario(nombreUsuario)) {
+                bloqueados.put(nombreUsuario, ahora + bloqueoMs);
+            }
+        }
+    }
+
+    @Override
+    public void registrarExito(String nombreUsuario) {
+        porUsuario.invalidate(nombreUsuario);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${aplicacion.seguridad.revision-bloqueos:PT30S}")
+    public int desbloquearVencidos() {
+        long ahora = System.currentTimeMillis();
+        int reactivados = 0;
+        for (Map.Entry<String, Long> entrada : bloqueados.entrySet()) {
+            if (entrada.getValue() <= ahora && bloqueados.remove(entrada.getKey(), entrada.getValue())
+                    && servicioUsuario.desbloquearUsuario(entrada.getKey())) {
+                reactivados++;
+            }
+        }
+        if (reactivados > 0) {
+            logger.info("{} usuarios reactivados al vencer su bloqueo por intentos fallidos", reactivados);
+        }
+        return reactivados;
+    }
+
+    private VentanaDeslizante ventana(Cache<String, VentanaDeslizante> cache, String clave, long ahora) {
+        return cache.get(clave, c -> new VentanaDeslizante(ventana.toMillis(), ahora));
+    }
+
+    private static long bloqueadoHasta(Cache<String, VentanaDeslizante> cache, String clave) {
+        if (clave == null) {
+            return 0;
+        }
+        VentanaDeslizante ventana = cache.getIfPresent(clave);
+        return ventana == null ? 0 : ventana.getBloqueadoHasta();
+    }
+}
@@ -0,0 +1,323 @@
+package com.rrivasl.servicio.impl;
+
+import com.rrivasl.configuracion.CargadorCache;
+import com.rrivasl.configuracion.ConfiguracionCache;
+import com.rrivasl.modelo.PaginaCursor;
+import com.rrivasl.modelo.Producto;
+import com.rrivasl.modelo.ResultadoLote;
+import com.rrivasl.modelo.ResultadoLote.ResultadoBloque;
+import com.rrivasl.modelo.TotalesCategoria;
+import com.rrivasl.repositorio.ContadoresAgregados;
+import com.rrivasl.repositorio.RepositorioProducto;
+import com.rrivasl.repositorio.ResumenProducto;
+import com.rrivasl.servicio.ServicioProducto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Implementación del Servicio Producto respaldada por JPA
+ * @author Roberto Rivas López
+ * Principios aplicados: Inversión de Dependencias, Separación de Intereses
+ *
+ * Se activa con aplicacion.productos.almacenamiento=jpa (valor por defecto).
+ *
+ * Las cargas masivas se persisten un bloque por transacción: el bloque completo se
+ * envía con lotes JDBC (hibernate.jdbc.batch_size) y luego se limpia el contexto de
+ * persistencia para que la memoria no crezca con el tamaño de la carga.
+ *
+ * La búsqueda por código se sirve desde la caché "productos"; actualizar o eliminar
+ * desaloja los códigos afectados al confirmar la transacción.
+ *
+ * Altas, cambios y bajas ajustan los contadores agregados por categoría, también
+ * al confirmar: un bloque o una actualización revertidos no los alteran.
+ */
+@Service
+@ConditionalOnProperty(name = "aplicacion.productos.almacenamiento", havingValue = "jpa", matchIfMissing = true)
+@Transactional(readOnly = true)
+public class ServicioProductoJpaImpl implements ServicioProducto, CargadorCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServicioProductoJpaImpl.class);
+
+    @Autowired
+    private RepositorioProducto repositorioProducto;
+
+    @Autowired
+    private PlatformTransactionManager gestorTransacciones;
+
+    @Autowired
+    private Validator validador;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ContadoresAgregados contadores;
+
+    @Value("${aplicacion.productos.tamaño-lote:500}")
+    private int tamañoLote;
+
+    @Override
+    @Transactional
+    public Producto crearProducto(Producto producto) {
+        if (repositorioProducto.existsByCodigoProducto(producto.getCodigoProducto())) {
+            throw new IllegalArgumentException("El código del producto ya existe");
+        }
+        Producto guardado;
+        try {
+            // Con flush el índice único responde aquí, dentro del try, y no al confirmar
+            guardado = repositorioProducto.saveAndFlush(producto);
+        } catch (DataIntegrityViolationException e) {
+            throw traducirViolacion(producto.getCodigoProducto(), e);
+        }
+        contadores.registrarAltaProducto(guardado);
+        return guardado;
+    }
+
+    @Override
+    @Cacheable(cacheNames = ConfiguracionCache.CACHE_PRODUCTOS, condition = "#codigo != null", unless = "#result == null")
+    public Producto buscarPorCodigo(String codigo) {
+        return repositorioProducto.findByCodigoProducto(codigo).orElse(null);
+    }
+
+    @Override
+    public Producto buscarPorId(Long id) {
+        return repositorioProducto.findById(id).orElse(null);
+    }
+
+    @Override
+    public List<Producto> obtenerProductosPaginados(int pagina, int tamaño) {
+        return repositorioProducto.findAll(PageRequest.of(pagina, tamaño, Sort.by("id"))).getContent();
+    }
+
+    @Override
+    public PaginaCursor<Producto> obtenerPaginaProductos(String cursor, int tamaño) {
+        if (tamaño <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero");
+        }
+
+        long despuesDeId = PaginaCursor.decodificarCursor(cursor);
+        // Siempre página 0: el límite se aplica sin OFFSET, la búsqueda parte del cursor
+        List<Producto> leidos = repositorioProducto.buscarSiguientes(despuesDeId, PageRequest.of(0, tamaño + 1));
+        return PaginaCursor.desde(leidos, tamaño, Producto::getId);
+    }
+
+    @Override
+    public PaginaCursor<ResumenProducto> obtenerPaginaResumen(String cursor, int tamaño) {
+        if (tamaño <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero");
+        }
+
+        long despuesDeId = PaginaCursor.decodificarCursor(cursor);
+        List<ResumenProducto> leidos = repositorioProducto.findByIdGreaterThanOrderByIdAsc(despuesDeId, PageRequest.of(0, tamaño + 1));
+        return PaginaCursor.desde(leidos, tamaño, ResumenProducto::getId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResultadoLote crearProductosEnLote(Iterable<Producto> productos) {
+        TransactionTemplate transaccion = new TransactionTemplate(gestorTransacciones);
+        ResultadoLote resultado = ProcesadorLoteProductos.procesar(productos, tamañoLote, validador,
+                (validos, bloque) -> persistirBloque(transaccion, validos, bloque));
+        logger.info("Carga de productos: {} recibidos, {} insertados, {} rechazados en {} ms",
+                resultado.getRecibidos(), resultado.getInsertados(), resultado.getRechazados(), resultado.getDuracionMs());
+        return resultado;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void crearProductosDePrueba(int cantidad) {
+        crearProductosEnLote(ProcesadorLoteProductos.productosDePrueba(cantidad));
+        logger.info("Productos de prueba creados: {}", cantidad);
+    }
+
+    @Override
+    @Transactional
+    public Producto actualizarProducto(Long id, Producto producto) {
+        Optional<Producto> existente = repositorioProducto.findById(id);
+        if (existente.isEmpty()) {
+            return null;
+        }
+
+        Producto actual = existente.get();
+        String codigoAnterior = actual.getCodigoProducto();
+        Producto anterior = Producto.builder()
+                .categoria(actual.getCategoria())
+                .precio(actual.getPrecio())
+                .stock(actual.getStock())
+                .build();
+        if (producto.getVersion() != null && !producto.getVersion().equals(actual.getVersion())) {
+            throw new OptimisticLockingFailureException("El producto fue modificado por otra petición");
+        }
+        if (!actual.getCodigoProducto().equals(producto.getCodigoProducto())
+                && repositorioProducto.existsByCodigoProducto(producto.getCodigoProducto())) {
+            throw new IllegalArgumentException("El código del producto ya existe");
+        }
+
+        actual.setNombre(producto.getNombre());
+        actual.setDescripcion(producto.getDescripcion());
+        actual.setPrecio(producto.getPrecio());
+        actual.setCategoria(producto.getCategoria());
+        actual.setStock(producto.getStock());
+        actual.setCodigoProducto(producto.getCodigoProducto());
+        // Forzar el incremento de versión ahora para que el llamador reciba la versión nueva
+        try {
+            repositorioProducto.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw traducirViolacion(producto.getCodigoProducto(), e);
+        }
+        contadores.registrarCambioProducto(anterior, actual);
+        desalojarDeCache(codigoAnterior);
+        desalojarDeCache(actual.getCodigoProducto());
+        return actual;
+    }
+
+    @Override
+    @Transactional
+    public void eliminarProducto(Long id) {
+        repositorioProducto.findById(id).ifPresent(producto -> {
+            repositorioProducto.delete(producto);
+            contadores.registrarBajaProducto(producto);
+            desalojarDeCache(producto.getCodigoProducto());
+        });
+    }
+
+    @Override
+    public List<Producto> buscarTodos() {
+        return repositorioProducto.findAll(Sort.by("id"));
+    }
+
+    @Override
+    public List<ResumenProducto> buscarPorCategoria(String categoria, int limite) {
+        return repositorioProducto.findByCategoriaOrderByStockAsc(categoria, PageRequest.of(0, limite));
+    }
+
+    @Override
+    public List<ResumenProducto> buscarStockBajo(String categoria, int umbral, int limite) {
+        if (categoria == null) {
+            return repositorioProducto.findByStockLessThanOrderByStockAsc(umbral, PageRequest.of(0, limite));
+        }
+        return repositorioProducto.findByCategoriaAndStockLessThanOrderByStockAsc(categoria, umbral, PageRequest.of(0, limite));
+    }
+
+    @Override
+    public List<TotalesCategoria> calcularTotalesPorCategoria() {
+        return repositorioProducto.calcularTotalesPorCategoria();
+    }
+
+    @Override
+    public String getNombreCache() {
+        return ConfiguracionCache.CACHE_PRODUCTOS;
+    }
+
+    /**
+     * Carga para la caché de productos: lee la base sin pasar por la caché
+     */
+    @Override
+    public Object cargar(Object clave) {
+        return repositorioProducto.findByCodigoProducto((String) clave).orElse(null);
+    }
+
+    private void desalojarDeCache(String codigo) {
+        Cache cache = cacheManager.getCache(ConfiguracionCache.CACHE_PRODUCTOS);
+        if (cache != null) {
+            cache.evict(codigo);
+        }
+    }
+
+    /**
+     * Persistir un bloque en su propia transacción
+     * Los códigos ya registrados se descartan con una sola consulta IN; si aun así la
+     * base rechaza el bloque (carrera con otra carga), el bloque completo se informa fallido.
+     */
+    private int persistirBloque(TransactionTemplate transaccion, List<Producto> validos, ResultadoBloque bloque) {
+        try {
+            Integer insertados = transaccion.execute(estado -> {
+                List<String> codigos = new ArrayList<>(validos.size());
+                for (Producto producto : validos) {
+                    codigos.add(producto.getCodigoProducto());
+                }
+                Set<String> existentes = new HashSet<>(repositorioProducto.buscarCodigosExistentes(codigos));
+
+                List<Producto> nuevos = new ArrayList<>(validos.size());
+                for (Producto producto : validos) {
+                    if (existentes.contains(producto.getCodigoProducto())) {
+                        bloque.agregarError(producto.getCodigoProducto() + ": El código del producto ya existe");
+                    } else {
+                        nuevos.add(producto);
+                    }
+                }
+
+                repositorioProducto.saveAll(nuevos);
+                nuevos.forEach(contadores::registrarAltaProducto);
+                entityManager.flush();
+                entityManager.clear();
+                return nuevos.size();
+            });
+            return insertados == null ? 0 : insertados;
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Bloque {} rechazado por la base de datos: {}", bloque.getNumero(), e.getMostSpecificCause().getMessage());
+            bloque.agregarError("Bloque rechazado por la base de datos: " + e.getMostSpecificCause().getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Otra petición guardó el mismo código entre la comprobación y la escritura:
+     * se responde igual que si la comprobación lo hubiera encontrado. Cualquier
+     * otra violación (nulos, otras restricciones) sigue como error de la base de datos
+     */
+    private static RuntimeException traducirViolacion(String codigo, DataIntegrityViolationException e) {
+        if (!violaIndiceCodigo(e)) {
+            return e;
+        }
+        logger.debug("Código de producto {} rechazado por la base de datos: {}", codigo, e.getMostSpecificCause().getMessage());
+        return new IllegalArgumentException("El código del producto ya existe");
+    }
+
+    /**
+     * Si la restricción violada es el índice único del código. Hibernate extrae el
+     * nombre según el dialecto (en H2 viene junto a la definición del índice); si no
+     * lo extrae, se busca en el mensaje de la causa más específica
+     */
+    private static boolean violaIndiceCodigo(DataIntegrityViolationException e) {
+        String restriccion = null;
+        for (Throwable causa = e; causa != null && restriccion == null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion) {
+                restriccion = violacion.getConstraintName();
+            }
+        }
+        if (restriccion == null) {
+            restriccion = e.getMostSpecificCause().getMessage();
+        }
+        return restriccion != null && restriccion.toLowerCase(Locale.ROOT).contains(Producto.INDICE_CODIGO);
+    }
+}
@@ -0,0 +1,341 @@
+package com.rrivasl.servicio.impl;
+
+import com.rrivasl.modelo.FormatoReporte;
+import com.rrivasl.modelo.PaginaCursor;
+import com.rrivasl.modelo.Producto;
+import com.rrivasl.modelo.ResultadoReporte;
+import com.rrivasl.modelo.TipoReporte;
+import com.rrivasl.modelo.Usuario;
+import com.rrivasl.repositorio.RepositorioVenta;
+import com.rrivasl.repositorio.ResumenProducto;
+import com.rrivasl.repositorio.VentasDia;
+import com.rrivasl.repositorio.VentasProducto;
+import com.rrivasl.servicio.ServicioProducto;
+import com.rrivasl.servicio.ServicioReportes;
+import com.rrivasl.servicio.ServicioUsuario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementación del Servicio de Reportes
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Inyección de Dependencias
+ *
+ * El inventario se recorre por cursor en bloques de productos (proyección sin
+ * descripción); por cada bloque se consultan sus ventas agregadas con una sola
+ * consulta por el rango de IDs del bloque. Stock bajo, más vendidos, sin movimiento y valor del inventario se
+ * acumulan en esa misma pasada: las listas de cada sección se limitan a las
+ * primeras filas y el resto solo se cuenta. Las ventas diarias y los productos top
+ * los agrega la base con GROUP BY. El detalle se escribe a medida que se lee.
+ * Las filas usan Arrays.asList porque admiten valores null (List.of no).
+ */
+@Service
+public class ServicioReportesImpl implements ServicioReportes {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServicioReportesImpl.class);
+
+    private static final DateTimeFormatter FORMATO_NOMBRE_ARCHIVO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS");
+
+    @Autowired
+    private ServicioProducto servicioProducto;
+
+    @Autowired
+    private ServicioUsuario servicioUsuario;
+
+    @Autowired
+    private RepositorioVenta repositorioVenta;
+
+    @Value("${aplicacion.reportes.tamaño-bloque:1000}")
+    private int tamañoBloque;
+
+    @Value("${aplicacion.reportes.umbral-stock-bajo:10}")
+    private int umbralStockBajo;
+
+    @Value("${aplicacion.reportes.dias-movimiento:30}")
+    private int diasMovimiento;
+
+    @Value("${aplicacion.reportes.filas-por-seccion:10}")
+    private int filasPorSeccion;
+
+    @Value("${aplicacion.reportes.directorio:reportes}")
+    private String directorio;
+
+    @Override
+    public ResultadoReporte generarReporte(TipoReporte tipo, FormatoReporte formato, YearMonth mes, OutputStream salida)
+            throws IOException {
+        return generar(tipo, formato, mes, salida, new ResultadoReporte(tipo, formato));
+    }
+
+    @Override
+    public ResultadoReporte generarArchivo(TipoReporte tipo, FormatoReporte formato, YearMonth mes) throws IOException {
+        return generarArchivo(tipo, formato, mes, filas -> { });
+    }
+
+    @Override
+    public ResultadoReporte generarArchivo(TipoReporte tipo, FormatoReporte formato, YearMonth mes, LongConsumer avance)
+            throws IOException {
+        Path carpeta = Paths.get(directorio);
+        Files.createDirectories(carpeta);
+        String nombre = tipo.name().toLowerCase(Locale.ROOT) + "-" + LocalDateTime.now().format(FORMATO_NOMBRE_ARCHIVO);
+        Path destino = carpeta.resolve(nombre + "." + formato.getExtension());
+        Path temporal = Files.createTempFile(carpeta, nombre + "-", ".parcial");
+
+        ResultadoReporte resultado;
+        try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(temporal), 64 * 1024)) {
+            resultado = generar(tipo, formato, mes, salida, new ResultadoReporte(tipo, formato, avance));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+
+        Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+        resultado.setArchivo(destino.toString());
+        logger.info("Reporte guardado en {}", destino);
+        return resultado;
+    }
+
+    private ResultadoReporte generar(TipoReporte tipo, FormatoReporte formato, YearMonth mes, OutputStream salida,
+                                     ResultadoReporte resultado) throws IOException {
+        long inicio = System.nanoTime();
+
+        try (EscritorReporte escritor = EscritorReporte.para(formato, salida)) {
+            switch (tipo) {
+                case USUARIOS:
+                    escribirUsuarios(escritor, resultado);
+                    break;
+                case INVENTARIO:
+                    escribirInventario(escritor, resultado);
+                    break;
+                case VENTAS:
+                    escribirVentas(escritor, resultado, mes == null ? YearMonth.now() : mes);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Tipo de reporte no soportado: " + tipo);
+            }
+        }
+
+        resultado.setDuracionMs((System.nanoTime() - inicio) / 1_000_000);
+        logger.info("{} en {}: {} filas en {} ms", tipo.getTitulo(), formato, resultado.getFilas(), resultado.getDuracionMs());
+        return resultado;
+    }
+
+    /**
+     * Detalle de usuarios en orden de alta y distribución por estado
+     */
+    private void escribirUsuarios(EscritorReporte escritor, ResultadoReporte resultado) throws IOException {
+        escritor.iniciar(TipoReporte.USUARIOS.getTitulo(),
+                Arrays.asList("ID", "Usuario", "Nombre", "Apellido", "Correo electrónico", "Estado"));
+
+        Map<Usuario.EstadoUsuario, Long> porEstado = new EnumMap<>(Usuario.EstadoUsuario.class);
+        try (Stream<Usuario> usuarios = servicioUsuario.recorrerUsuarios()) {
+            Iterator<Usuario> iterador = usuarios.iterator();
+            while (iterador.hasNext()) {
+                Usuario usuario = iterador.next();
+                escritor.fila(Arrays.asList(usuario.getId(), usuario.getNombreUsuario(), usuario.getNombre(),
+                        usuario.getApellido(), usuario.getCorreoElectronico(), String.valueOf(usuario.getEstado())));
+                resultado.contarFila();
+                if (usuario.getEstado() != null) {
+                    porEstado.merge(usuario.getEstado(), 1L, Long::sum);
+                }
+            }
+        }
+
+        List<List<?>> filasEstados = new ArrayList<>();
+        for (Usuario.EstadoUsuario estado : Usuario.EstadoUsuario.values()) {
+            filasEstados.add(Arrays.asList(estado.name(), porEstado.getOrDefault(estado, 0L)));
+        }
+        escritor.seccion("Distribución por estado", Arrays.asList("Estado", "Usuarios"), filasEstados);
+
+        long activos = porEstado.getOrDefault(Usuario.EstadoUsuario.ACTIVO, 0L);
+        escritor.seccion("Totales", Arrays.asList("Concepto", "Cantidad"), Arrays.asList(
+                Arrays.asList("Total usuarios", resultado.getFilas()),
+                Arrays.asList("Usuarios activos", activos)));
+
+        resultado.agregarSeccion("totalUsuarios", resultado.getFilas());
+        resultado.agregarSeccion("usuariosActivos", activos);
+        resultado.agregarSeccion("distribucionEstados", porEstado);
+    }
+
+    /**
+     * Detalle de productos con sus ventas recientes y secciones de inventario, en una pasada
+     */
+    private void escribirInventario(EscritorReporte escritor, ResultadoReporte resultado) throws IOException {
+        LocalDateTime desde = LocalDate.now().minusDays(diasMovimiento).atStartOfDay();
+        escritor.iniciar(TipoReporte.INVENTARIO.getTitulo(), Arrays.asList("Código", "Nombre", "Categoría", "Stock",
+                "Precio", "Valor", "Vendidas (" + diasMovimiento + " días)", "Última venta"));
+
+        MejoresK<ResumenProducto> stockBajo = new MejoresK<>(filasPorSeccion,
+                Comparator.comparing(ResumenProducto::getStock).thenComparing(ResumenProducto::getId));
+        MejoresK<ProductoVendido> masVendidos = new MejoresK<>(filasPorSeccion,
+                Comparator.comparingLong(ProductoVendido::unidades).reversed()
+                        .thenComparing(vendido -> vendido.producto().getId()));
+        List<ResumenProducto> sinMovimiento = new ArrayList<>(filasPorSeccion);
+        long totalStockBajo = 0;
+        long totalSinMovimiento = 0;
+        long unidades = 0;
+        BigDecimal valorInventario = BigDecimal.ZERO;
+
+        String cursor = null;
+        do {
+            PaginaCursor<ResumenProducto> pagina = servicioProducto.obtenerPaginaResumen(cursor, tamañoBloque);
+            Map<Long, VentasProducto> ventas = ventasDelBloque(pagina.getContenido(), desde);
+
+            for (ResumenProducto producto : pagina.getContenido()) {
+                int stock = producto.getStock() == null ? 0 : producto.getStock();
+                BigDecimal valor = producto.getPrecio() == null ? BigDecimal.ZERO
+                        : producto.getPrecio().multiply(BigDecimal.valueOf(stock));
+                VentasProducto vendidas = ventas.get(producto.getId());
+
+                escritor.fila(Arrays.asList(producto.getCodigoProducto(), producto.getNombre(),
+                        producto.getCategoria() == null ? "" : producto.getCategoria(), stock,
+                        producto.getPrecio() == null ? BigDecimal.ZERO : producto.getPrecio(), valor,
+                        vendidas == null ? 0L : vendidas.getUnidades(),
+                        vendidas == null ? "" : vendidas.getUltimaVenta().toLocalDate()));
+                resultado.contarFila();
+
+                unidades += stock;
+                valorInventario = valorInventario.add(valor);
+                if (stock < umbralStockBajo) {
+                    totalStockBajo++;
+                    stockBajo.ofrecer(producto);
+                }
+                if (vendidas == null) {
+                    totalSinMovimiento++;
+                    if (sinMovimiento.size() < filasPorSeccion) {
+                        sinMovimiento.add(producto);
+                    }
+                } else {
+                    masVendidos.ofrecer(new ProductoVendido(producto, vendidas.getUnidades(), vendidas.getTotal()));
+                }
+            }
+            cursor = pagina.getCursorSiguiente();
+        } while (cursor != null);
+
+        escritor.seccion("Stock bajo (menos de " + umbralStockBajo + " unidades): " + totalStockBajo + " productos",
+                Arrays.asList("Código", "Nombre", "Categoría", "Stock"),
+                stockBajo.ordenados().stream()
+                        .map(p -> Arrays.asList(p.getCodigoProducto(), p.getNombre(),
+                                p.getCategoria() == null ? "" : p.getCategoria(), p.getStock()))
+                        .collect(Collectors.toList()));
+        escritor.seccion("Más vendidos (últimos " + diasMovimiento + " días)",
+                Arrays.asList("Código", "Nombre", "Unidades", "Total"),
+                masVendidos.ordenados().stream()
+                        .map(v -> Arrays.asList(v.producto().getCodigoProducto(), v.producto().getNombre(), v.unidades(), v.total()))
+                        .collect(Collectors.toList()));
+        escritor.seccion("Sin movimiento (últimos " + diasMovimiento + " días): " + totalSinMovimiento + " productos",
+                Arrays.asList("Código", "Nombre", "Stock"),
+                sinMovimiento.stream()
+                        .map(p -> Arrays.asList(p.getCodigoProducto(), p.getNombre(), p.getStock()))
+                        .collect(Collectors.toList()));
+        escritor.seccion("Valor inventario", Arrays.asList("Concepto", "Valor"), Arrays.asList(
+                Arrays.asList("Productos", resultado.getFilas()),
+                Arrays.asList("Unidades en stock", unidades),
+                Arrays.asList("Valor total", valorInventario)));
+
+        resultado.agregarSeccion("stockBajo", totalStockBajo);
+        resultado.agregarSeccion("masVendidos", masVendidos.ordenados().stream()
+                .map(v -> v.producto().getCodigoProducto())
+                .collect(Collectors.toList()));
+        resultado.agregarSeccion("sinMovimiento", totalSinMovimiento);
+        resultado.agregarSeccion("valorInventario", valorInventario);
+    }
+
+    /**
+     * Ventas diarias del mes (todos los días, con cero si no hubo), productos top y comparativa
+     */
+    private void escribirVentas(EscritorReporte escritor, ResultadoReporte resultado, YearMonth mes) throws IOException {
+        LocalDateTime desde = mes.atDay(1).atStartOfDay();
+        LocalDateTime hasta = mes.plusMonths(1).atDay(1).atStartOfDay();
+        escritor.iniciar(TipoReporte.VENTAS.getTitulo() + " " + mes, Arrays.asList("Día", "Ventas", "Unidades", "Total"));
+
+        Iterator<VentasDia> dias = repositorioVenta.sumarPorDia(desde, hasta).iterator();
+        VentasDia siguiente = dias.hasNext() ? dias.next() : null;
+        BigDecimal ingresos = BigDecimal.ZERO;
+        for (LocalDate dia = mes.atDay(1); dia.isBefore(mes.plusMonths(1).atDay(1)); dia = dia.plusDays(1)) {
+            VentasDia ventasDia = null;
+            if (siguiente != null && siguiente.getDia().equals(dia)) {
+                ventasDia = siguiente;
+                siguiente = dias.hasNext() ? dias.next() : null;
+            }
+            long ventas = ventasDia == null ? 0 : ventasDia.getVentas();
+            long unidadesDia = ventasDia == null ? 0 : ventasDia.getUnidades();
+            BigDecimal total = ventasDia == null ? BigDecimal.ZERO : ventasDia.getTotal();
+            escritor.fila(Arrays.asList(dia, ventas, unidadesDia, total));
+            resultado.contarFila();
+            ingresos = ingresos.add(total);
+        }
+
+        List<List<?>> filasTop = new ArrayList<>();
+        List<String> codigosTop = new ArrayList<>();
+        for (VentasProducto vendido : repositorioVenta.buscarMasVendidos(desde, hasta, PageRequest.of(0, filasPorSeccion))) {
+            Producto producto = servicioProducto.buscarPorId(vendido.getProductoId());
+            String codigo = producto == null ? "ID " + vendido.getProductoId() : producto.getCodigoProducto();
+            filasTop.add(Arrays.asList(codigo, producto == null ? "(eliminado)" : producto.getNombre(),
+                    vendido.getUnidades(), vendido.getTotal()));
+            codigosTop.add(codigo);
+        }
+        escritor.seccion("Productos top", Arrays.asList("Código", "Nombre", "Unidades", "Total"), filasTop);
+
+        BigDecimal mesAnterior = repositorioVenta.sumarTotal(mes.minusMonths(1).atDay(1).atStartOfDay(), desde);
+        mesAnterior = mesAnterior == null ? BigDecimal.ZERO : mesAnterior;
+        String crecimiento = mesAnterior.signum() == 0 ? "N/A"
+                : ingresos.subtract(mesAnterior).multiply(BigDecimal.valueOf(100))
+                        .divide(mesAnterior, 1, RoundingMode.HALF_UP).toPlainString() + "%";
+        escritor.seccion("Comparativa", Arrays.asList("Concepto", "Valor"), Arrays.asList(
+                Arrays.asList("Ingresos totales", ingresos),
+                Arrays.asList("Mes anterior", mesAnterior),
+                Arrays.asList("Crecimiento", crecimiento)));
+
+        resultado.agregarSeccion("ventasDiarias", resultado.getFilas());
+        resultado.agregarSeccion("productosTop", codigosTop);
+        resultado.agregarSeccion("ingresosTotales", ingresos);
+        resultado.agregarSeccion("comparativa", crecimiento);
+    }
+
+    private Map<Long, VentasProducto> ventasDelBloque(List<ResumenProducto> bloque, LocalDateTime desde) {
+        if (bloque.isEmpty()) {
+            return Map.of();
+        }
+        // El bloque viene en orden de ID y sin huecos entre productos existentes
+        Long primerId = bloque.get(0).getId();
+        Long ultimoId = bloque.get(bloque.size() - 1).getId();
+        Map<Long, VentasProducto> ventas = new HashMap<>();
+        for (VentasProducto vendido : repositorioVenta.sumarPorRangoDeProductos(primerId, ultimoId, desde)) {
+            ventas.put(vendido.getProductoId(), vendido);
+        }
+        return ventas;
+    }
+
+    private record ProductoVendido(ResumenProducto producto, long unidades, BigDecimal total) {
+    }
+}
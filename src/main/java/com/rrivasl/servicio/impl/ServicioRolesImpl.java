@@ -0,0 +1,85 @@
+package com.rrivasl.servicio.impl;
+
+import com.rrivasl.modelo.Rol;
+import com.rrivasl.repositorio.RepositorioRol;
+import com.rrivasl.servicio.ServicioRoles;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Implementación del Servicio de Roles
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Inyección de Dependencias
+ *
+ * El catálogo de roles es pequeño y casi no cambia: se lee de la base al
+ * iniciar, creando los roles predefinidos que falten, y queda en un mapa
+ * inmutable. Resolver un rol en un alta no consulta la base. Los cambios
+ * hechos directamente en la tabla roles se ven al reiniciar.
+ */
+@Service
+public class ServicioRolesImpl implements ServicioRoles {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServicioRolesImpl.class);
+
+    @Autowired
+    private RepositorioRol repositorioRol;
+
+    private volatile Map<String, Rol> roles = Map.of();
+
+    /**
+     * Cargar el catálogo de roles y crear los predefinidos que no existan
+     */
+    @PostConstruct
+    public void cargarRoles() {
+        Map<String, Rol> catalogo = new HashMap<>();
+        for (Rol rol : repositorioRol.findAll()) {
+            catalogo.put(clave(rol.getNombre()), rol);
+        }
+        for (Rol predefinido : Rol.predefinidos()) {
+            if (!catalogo.containsKey(clave(predefinido.getNombre()))) {
+                catalogo.put(clave(predefinido.getNombre()), repositorioRol.save(predefinido));
+                logger.info("Rol predefinido creado: {}", predefinido);
+            }
+        }
+        roles = Map.copyOf(catalogo);
+        logger.info("Catálogo de roles cargado: {} roles", roles.size());
+    }
+
+    @Override
+    public Rol obtenerRol(String nombre) {
+        if (nombre == null || nombre.isBlank()) {
+            throw new IllegalArgumentException("El rol es obligatorio");
+        }
+        Rol rol = roles.get(clave(nombre));
+        if (rol == null) {
+            throw new IllegalArgumentException("Rol no encontrado: " + nombre);
+        }
+        return rol;
+    }
+
+    @Override
+    public Rol rolInicial() {
+        return obtenerRol(Rol.USUARIO);
+    }
+
+    @Override
+    public List<Rol> listarRoles() {
+        List<Rol> lista = new ArrayList<>(roles.values());
+        lista.sort(Comparator.comparing(Rol::getNombre));
+        return lista;
+    }
+
+    private static String clave(String nombre) {
+        return nombre.trim().toUpperCase(Locale.ROOT);
+    }
+}
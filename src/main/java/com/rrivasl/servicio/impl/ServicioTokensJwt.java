@@ -0,0 +1,248 @@
+package com.rrivasl.servicio.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rrivasl.modelo.ReclamosJwt;
+import com.rrivasl.modelo.ReclamosJwt.TipoToken;
+import com.rrivasl.modelo.ResultadoAutenticacion;
+import com.rrivasl.modelo.Usuario;
+import com.rrivasl.servicio.ServicioTokens;
+import com.rrivasl.servicio.ServicioUsuario;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Implementación del Servicio de Tokens con JWT firmados HS256
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Inmutabilidad, Seguridad por defecto
+ *
+ * La clave HMAC se arma una vez al iniciar y cada hilo reutiliza su propio Mac
+ * ya inicializado: Mac.getInstance y la derivación de la clave no se repiten
+ * por petición. Los tokens verificados quedan unos segundos en una caché
+ * indexada por su firma, que ya es un hash con clave del token completo; un
+ * acierto compara el resto del token con String.equals y se salta el HMAC y
+ * la lectura del JSON. Solo se cachean tokens válidos, y la vigencia se revisa
+ * en cada uso, así que la caché nunca extiende la vida de un token.
+ *
+ * El reclamo "per" lleva la máscara de permisos efectivos del usuario: las
+ * verificaciones de permisos no consultan al usuario ni a su rol. Un cambio de
+ * rol llega a los tokens al refrescar, que vuelve a leer al usuario.
+ *
+ * Solo se aceptan tokens con la cabecera que emite esta aplicación (HS256):
+ * un token con "alg":"none" u otro algoritmo se rechaza sin interpretarlo.
+ */
+@Service
+public class ServicioTokensJwt implements ServicioTokens {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServicioTokensJwt.class);
+
+    private static final String ALGORITMO_HMAC = "HmacSHA256";
+    // RFC 7518: la clave de HS256 debe tener al menos el tamaño del hash
+    private static final int BYTES_MINIMOS_CLAVE = 32;
+    private static final String TIPO_BEARER = "Bearer";
+
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+    private static final String CABECERA = CODIFICADOR.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+    private static final String PREFIJO_CONTENIDO = CABECERA + ".";
+
+    @Autowired
+    private ServicioUsuario servicioUsuario;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${aplicacion.jwt.secreto}")
+    private String secreto;
+
+    @Value("${aplicacion.jwt.duracion:3600000}")
+    private long duracionAccesoMs;
+
+    @Value("${aplicacion.jwt.refresh-duracion:86400000}")
+    private long duracionRefrescoMs;
+
+    @Value("${aplicacion.jwt.verificados.tamaño-maximo:50000}")
+    private long tamañoMaximoVerificados;
+
+    @Value("${aplicacion.jwt.verificados.expiracion:30s}")
+    private Duration expiracionVerificados;
+
+    private ObjectWriter escritorReclamos;
+    private SecretKeySpec clave;
+    private ThreadLocal<Mac> macPorHilo;
+    private Cache<String, TokenVerificado> verificados;
+
+    @PostConstruct
+    public void inicializar() {
+        byte[] bytesClave = secreto.getBytes(StandardCharsets.UTF_8);
+        if (bytesClave.length < BYTES_MINIMOS_CLAVE) {
+            throw new IllegalStateException("aplicacion.jwt.secreto debe tener al menos " + BYTES_MINIMOS_CLAVE + " bytes para HS256");
+        }
+        clave = new SecretKeySpec(bytesClave, ALGORITMO_HMAC);
+        // El ObjectMapper de la aplicación indenta: los reclamos van compactos
+        escritorReclamos = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        macPorHilo = ThreadLocal.withInitial(this::nuevoMac);
+        nuevoMac(); // falla al iniciar, no en la primera petición, si el algoritmo no está disponible
+
+        // Tamaño 0 desactiva la caché de tokens verificados
+        verificados = tamañoMaximoVerificados > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(tamañoMaximoVerificados)
+                        .expireAfterWrite(expiracionVerificados)
+                        .build()
+                : null;
+        logger.info("Tokens JWT HS256: acceso {} ms, refresco {} ms, caché de verificados {} entradas por {}",
+                duracionAccesoMs, duracionRefrescoMs, tamañoMaximoVerificados, expiracionVerificados);
+    }
+
+    @Override
+    public ResultadoAutenticacion emitirTokens(Usuario usuario) {
+        long ahora = ahoraSegundos();
+        String acceso = firmar(usuario, TipoToken.ACCESO, ahora, duracionAccesoMs);
+        String refresco = firmar(usuario, TipoToken.REFRESCO, ahora, duracionRefrescoMs);
+        logger.debug("Tokens emitidos para {}", usuario.getNombreUsuario());
+        return new ResultadoAutenticacion(acceso, refresco, TIPO_BEARER, duracionAccesoMs / 1000);
+    }
+
+    @Override
+    public ReclamosJwt verificar(String token, TipoToken tipoEsperado) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Token vacío");
+        }
+        int ultimoPunto = token.lastIndexOf('.');
+        if (ultimoPunto <= 0 || token.indexOf('.') == ultimoPunto) {
+            throw new IllegalArgumentException("Token con formato inválido");
+        }
+        String contenido = token.substring(0, ultimoPunto);
+        String firma = token.substring(ultimoPunto + 1);
+
+        ReclamosJwt reclamos = null;
+        if (verificados != null) {
+            TokenVerificado verificado = verificados.getIfPresent(firma);
+            if (verificado != null && verificado.contenido().equals(contenido)) {
+                reclamos = verificado.reclamos();
+            }
+        }
+        if (reclamos == null) {
+            reclamos = verificarFirma(contenido, firma);
+            if (verificados != null && reclamos.estaVigente(ahoraSegundos())) {
+                verificados.put(firma, new TokenVerificado(contenido, reclamos));
+            }
+        }
+
+        if (!reclamos.estaVigente(ahoraSegundos())) {
+            throw new IllegalArgumentException("Token vencido");
+        }
+        if (reclamos.getTipo() != tipoEsperado) {
+            throw new IllegalArgumentException("Se esperaba un token de " + tipoEsperado.getCodigo());
+        }
+        return reclamos;
+    }
+
+    @Override
+    public ResultadoAutenticacion refrescar(String tokenRefresco) {
+        ReclamosJwt reclamos = verificar(tokenRefresco, TipoToken.REFRESCO);
+        Usuario usuario = servicioUsuario.buscarPorNombreUsuario(reclamos.getNombreUsuario())
+                .filter(Usuario::estaActivo)
+                .orElseThrow(() -> new IllegalArgumentException("El usuario ya no está activo"));
+        return emitirTokens(usuario);
+    }
+
+    private String firmar(Usuario usuario, TipoToken tipo, long ahora, long duracionMs) {
+        Map<String, Object> reclamos = new LinkedHashMap<>();
+        reclamos.put("jti", UUID.randomUUID().toString());
+        reclamos.put("sub", usuario.getNombreUsuario());
+        reclamos.put("uid", usuario.getId());
+        reclamos.put("tip", tipo.getCodigo());
+        reclamos.put("iat", ahora);
+        reclamos.put("exp", ahora + duracionMs / 1000);
+        reclamos.put("per", usuario.getPermisos());
+        try {
+            String contenido = PREFIJO_CONTENIDO + CODIFICADOR.encodeToString(escritorReclamos.writeValueAsBytes(reclamos));
+            return contenido + "." + CODIFICADOR.encodeToString(hmac(contenido));
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo serializar el token", e);
+        }
+    }
+
+    private ReclamosJwt verificarFirma(String contenido, String firma) {
+        if (!contenido.startsWith(PREFIJO_CONTENIDO)) {
+            throw new IllegalArgumentException("Cabecera de token no admitida");
+        }
+        byte[] firmaRecibida;
+        byte[] reclamosJson;
+        try {
+            firmaRecibida = DECODIFICADOR.decode(firma);
+            reclamosJson = DECODIFICADOR.decode(contenido.substring(PREFIJO_CONTENIDO.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Token con formato inválido");
+        }
+        // Comparación en tiempo constante: no revela cuántos bytes coinciden
+        if (!MessageDigest.isEqual(hmac(contenido), firmaRecibida)) {
+            throw new IllegalArgumentException("Firma de token inválida");
+        }
+        return leerReclamos(reclamosJson);
+    }
+
+    private ReclamosJwt leerReclamos(byte[] json) {
+        JsonNode nodo;
+        try {
+            nodo = objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Contenido de token inválido");
+        }
+        if (nodo == null || !nodo.hasNonNull("sub") || !nodo.hasNonNull("tip") || !nodo.hasNonNull("exp")) {
+            throw new IllegalArgumentException("Contenido de token incompleto");
+        }
+        return new ReclamosJwt(
+                nodo.path("jti").asText(null),
+                nodo.get("sub").asText(),
+                nodo.hasNonNull("uid") ? nodo.get("uid").asLong() : null,
+                TipoToken.desdeCodigo(nodo.get("tip").asText()),
+                nodo.path("iat").asLong(),
+                nodo.get("exp").asLong(),
+                nodo.path("per").asLong(0));
+    }
+
+    private byte[] hmac(String contenido) {
+        return macPorHilo.get().doFinal(contenido.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac nuevoMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO_HMAC);
+            mac.init(clave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo inicializar " + ALGORITMO_HMAC, e);
+        }
+    }
+
+    private static long ahoraSegundos() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private record TokenVerificado(String contenido, ReclamosJwt reclamos) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.rrivasl.servicio.impl;
+
+import com.rrivasl.modelo.FormatoReporte;
+import com.rrivasl.modelo.ResultadoReporte;
+import com.rrivasl.modelo.TipoReporte;
+import com.rrivasl.modelo.Trabajo;
+import com.rrivasl.servicio.ServicioEstadisticas;
+import com.rrivasl.servicio.ServicioReportes;
+import com.rrivasl.servicio.ServicioTrabajos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * Implementación del Servicio de Trabajos en segundo plano
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Inversión de Dependencias
+ *
+ * Los trabajos corren en el ejecutor acotado ejecutorTrabajos y se registran en
+ * memoria con su estado y avance. La cancelación es cooperativa: el reporte
+ * informa su avance cada pocas filas y ahí se corta si el trabajo se canceló;
+ * además se interrumpe el hilo por si está esperando una consulta o el disco.
+ * Los trabajos terminados se purgan pasada la retención.
+ */
+@Service
+public class ServicioTrabajosImpl implements ServicioTrabajos {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServicioTrabajosImpl.class);
+
+    @Autowired
+    @Qualifier("ejecutorTrabajos")
+    private ThreadPoolTaskExecutor ejecutorTrabajos;
+
+    @Autowired
+    private ServicioReportes servicioReportes;
+
+    @Autowired
+    private ServicioEstadisticas servicioEstadisticas;
+
+    @Value("${aplicacion.trabajos.retencion:1h}")
+    private Duration retencion;
+
+    private final Map<String, Trabajo> trabajos = new ConcurrentHashMap<>();
+    private final Map<String, Future<?>> ejecuciones = new ConcurrentHashMap<>();
+
+    @Override
+    public Trabajo encolarReporte(TipoReporte tipo, FormatoReporte formato, YearMonth mes) {
+        String descripcion = tipo.getTitulo() + " (" + formato.name().toLowerCase(Locale.ROOT) + ")";
+        Trabajo trabajo = new Trabajo(UUID.randomUUID().toString(), descripcion, estimarFilas(tipo, mes));
+        trabajos.put(trabajo.getId(), trabajo);
+
+        try {
+            ejecuciones.put(trabajo.getId(), ejecutorTrabajos.submit(() -> ejecutarReporte(trabajo, tipo, formato, mes)));
+        } catch (TaskRejectedException e) {
+            trabajos.remove(trabajo.getId());
+            logger.warn("Cola de trabajos llena: se rechaza {}", descripcion);
+            throw e;
+        }
+        logger.info("Trabajo {} en cola: {}", trabajo.getId(), descripcion);
+        return trabajo;
+    }
+
+    @Override
+    public Optional<Trabajo> buscarTrabajo(String id) {
+        return Optional.ofNullable(trabajos.get(id));
+    }
+
+    @Override
+    public Trabajo cancelarTrabajo(String id) {
+        Trabajo trabajo = trabajos.get(id);
+        if (trabajo == null) {
+            throw new IllegalArgumentException("Trabajo no encontrado: " + id);
+        }
+        if (!trabajo.cancelar()) {
+            throw new IllegalStateException("El trabajo ya terminó con estado " + trabajo.getEstado());
+        }
+        Future<?> ejecucion = ejecuciones.remove(id);
+        if (ejecucion != null) {
+            // En cola: se quita de la cola; en ejecución: se interrumpe el hilo
+            ejecucion.cancel(true);
+            ejecutorTrabajos.getThreadPoolExecutor().purge();
+        }
+        logger.info("Trabajo {} cancelado", id);
+        return trabajo;
+    }
+
+    /**
+     * Quitar del registro los trabajos terminados hace más que la retención
+     * Con el trabajo se borra su archivo: ya nadie puede pedirlo y, si no, el
+     * directorio de reportes crecería sin límite.
+     */
+    @Scheduled(fixedDelayString = "${aplicacion.trabajos.limpieza:PT10M}")
+    public void purgarTerminados() {
+        Instant limite = Instant.now().minus(retencion);
+        int purgados = 0;
+        for (Trabajo trabajo : trabajos.values()) {
+            if (trabajo.estaTerminado() && trabajo.getFinalizado().isBefore(limite)
+                    && trabajos.remove(trabajo.getId(), trabajo)) {
+                borrarArchivo(trabajo);
+                purgados++;
+            }
+        }
+        // Un trabajo muy corto puede terminar antes de registrar su ejecución
+        ejecuciones.values().removeIf(Future::isDone);
+        if (purgados > 0) {
+            logger.debug("Purgados {} trabajos terminados", purgados);
+        }
+    }
+
+    private void borrarArchivo(Trabajo trabajo) {
+        ResultadoReporte resultado = trabajo.getResultado();
+        if (trabajo.getEstado() != Trabajo.EstadoTrabajo.COMPLETADO || resultado == null || resultado.getArchivo() == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(resultado.getArchivo()));
+        } catch (IOException e) {
+            logger.warn("No se pudo borrar el archivo del trabajo {}: {}", trabajo.getId(), e.getMessage());
+        }
+    }
+
+    private void ejecutarReporte(Trabajo trabajo, TipoReporte tipo, FormatoReporte formato, YearMonth mes) {
+        try {
+            if (!trabajo.iniciar()) {
+                return;
+            }
+            ResultadoReporte resultado = servicioReportes.generarArchivo(tipo, formato, mes, filas -> {
+                if (trabajo.getEstado() == Trabajo.EstadoTrabajo.CANCELADO || Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Trabajo cancelado: " + trabajo.getId());
+                }
+                trabajo.registrarAvance(filas);
+            });
+            if (!trabajo.completar(resultado)) {
+                // Cancelado justo al terminar: el archivo ya no tiene quién lo pida
+                Files.deleteIfExists(Paths.get(resultado.getArchivo()));
+                return;
+            }
+            logger.info("Trabajo {} completado: {} filas en {} ms", trabajo.getId(), resultado.getFilas(), resultado.getDuracionMs());
+        } catch (CancellationException e) {
+            logger.info("Trabajo {} detenido por cancelación", trabajo.getId());
+        } catch (IOException | RuntimeException e) {
+            if (trabajo.getEstado() == Trabajo.EstadoTrabajo.CANCELADO) {
+                // La interrupción de la cancelación puede llegar como error de E/S o de consulta
+                logger.info("Trabajo {} detenido por cancelación", trabajo.getId());
+            } else {
+                logger.error("Trabajo {} fallido", trabajo.getId(), e);
+                trabajo.fallar(e.getMessage());
+            }
+        } finally {
+            ejecuciones.remove(trabajo.getId());
+        }
+    }
+
+    /**
+     * Filas esperadas según los contadores agregados, para informar un porcentaje
+     */
+    private Long estimarFilas(TipoReporte tipo, YearMonth mes) {
+        switch (tipo) {
+            case USUARIOS:
+                return servicioEstadisticas.obtenerResumen().getTotalUsuarios();
+            case INVENTARIO:
+                return servicioEstadisticas.obtenerResumen().getTotalProductos();
+            case VENTAS:
+                return (long) (mes == null ? YearMonth.now() : mes).lengthOfMonth();
+            default:
+                return null;
+        }
+    }
+}
@@ -1,74 +1,468 @@
 package com.rrivasl.servicio.impl;
 
+import com.rrivasl.configuracion.CargadorCache;
+import com.rrivasl.configuracion.ConfiguracionCache;
+import com.rrivasl.servicio.CodificadorContrasenas;
+import com.rrivasl.servicio.ServicioRoles;
 import com.rrivasl.servicio.ServicioUsuario;
+import com.rrivasl.modelo.PaginaCursor;
+import com.rrivasl.modelo.ResultadoImportacion;
+import com.rrivasl.modelo.Rol;
 import com.rrivasl.modelo.Usuario;
+import com.rrivasl.repositorio.AlmacenUsuarios;
+import com.rrivasl.repositorio.ContadoresAgregados;
+import com.rrivasl.repositorio.FiltroBloom;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementación del Servicio de Usuarios
  * @author Roberto Rivas López
  * Principios aplicados: Encapsulación, Modularidad, Inyección de Dependencias
+ *
+ * La búsqueda por nombre de usuario se sirve desde la caché "usuarios"; las
+ * operaciones que modifican un usuario desalojan solo su entrada.
+ *
+ * Las verificaciones de existencia pasan primero por un filtro de Bloom de correos
+ * y otro de nombres de usuario: la mayoría de las altas usan claves libres y el
+ * filtro las descarta sin consultar el almacén. Toda clave se agrega al filtro
+ * antes de reservarse en el almacén, así el filtro nunca da un falso negativo.
+ *
+ * Altas y cambios de estado o de rol ajustan los contadores agregados de usuarios
+ * por estado y por rol. Cada alta recibe su rol inicial de ServicioRoles.
+ * El único ADMIN que no asigna otro administrador es la cuenta inicial de
+ * aplicacion.seguridad.administrador, creada al iniciar con la contraseña que
+ * tiene el servidor: ningún registro abierto obtiene ADMIN por su nombre.
+ *
+ * Las contraseñas se guardan codificadas (CodificadorContrasenas), siempre en
+ * el ejecutor acotado de contraseñas: el alta lo hace después de reservar
+ * correo y nombre, así un duplicado no paga el hash. Al iniciar sesión, una
+ * contraseña codificada con otros parámetros (o en texto plano, si la
+ * migración está activa) se recodifica con los vigentes: subir el costo no
+ * obliga a cambiar contraseñas.
+ * Un nombre inexistente también paga una verificación, para que la latencia
+ * del inicio de sesión no revele qué usuarios existen.
  */
 @Service
-public class ServicioUsuarioImpl implements ServicioUsuario {
+public class ServicioUsuarioImpl implements ServicioUsuario, CargadorCache {
     
     private static final Logger logger = LoggerFactory.getLogger(ServicioUsuarioImpl.class);
     
-    // Simulación de base de datos en memoria para pruebas
-    private final List<Usuario> usuarios = new ArrayList<>();
-    private Long siguienteId = 1L;
+    // Simulación de base de datos en memoria para pruebas (índices hash concurrentes)
+    @Autowired
+    private AlmacenUsuarios almacenUsuarios;
+    
+    @Autowired
+    private Validator validador;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private ContadoresAgregados contadores;
+    
+    @Autowired
+    private ServicioRoles servicioRoles;
+    
+    @Autowired
+    private CodificadorContrasenas codificador;
+    
+    @Autowired
+    @Qualifier("ejecutorContrasenas")
+    private ThreadPoolTaskExecutor ejecutorContrasenas;
+    
+    @Value("${aplicacion.usuarios.tamaño-lote-importacion:1000}")
+    private int tamañoLoteImportacion;
+    
+    @Value("${aplicacion.usuarios.filtro-bloom.capacidad:1000000}")
+    private long capacidadFiltro;
+    
+    @Value("${aplicacion.usuarios.filtro-bloom.tasa-falsos-positivos:0.01}")
+    private double tasaFalsosPositivos;
+    
+    @Value("${aplicacion.usuarios.busqueda.maximo-candidatos:20000}")
+    private int maximoCandidatosBusqueda;
+    
+    @Value("${aplicacion.seguridad.administrador.nombre-usuario:}")
+    private String nombreAdministrador;
+    
+    @Value("${aplicacion.seguridad.administrador.correo:}")
+    private String correoAdministrador;
+    
+    @Value("${aplicacion.seguridad.administrador.contrasena:}")
+    private String contrasenaAdministrador;
+    
+    private volatile FiltroBloom filtroCorreos;
+    private volatile FiltroBloom filtroNombres;
+    private final AtomicBoolean avisoSaturacion = new AtomicBoolean();
+    
+    // Valor contra el que se verifica cuando el usuario no existe o no está activo
+    private volatile String contrasenaFicticia;
+    
+    @PostConstruct
+    public void inicializar() {
+        reconstruirFiltros();
+        crearAdministradorInicial();
+    }
+    
+    /**
+     * Reconstruir los filtros de Bloom a partir del almacén
+     * Se ejecuta al iniciar; debe llamarse sin altas concurrentes.
+     */
+    public void reconstruirFiltros() {
+        long capacidad = Math.max(capacidadFiltro, 2L * almacenUsuarios.cantidad());
+        FiltroBloom correos = new FiltroBloom(capacidad, tasaFalsosPositivos);
+        FiltroBloom nombres = new FiltroBloom(capacidad, tasaFalsosPositivos);
+        try (Stream<Usuario> usuarios = almacenUsuarios.recorrer()) {
+            usuarios.forEach(usuario -> {
+                correos.agregar(usuario.getCorreoElectronico());
+                nombres.agregar(usuario.getNombreUsuario());
+            });
+        }
+        filtroCorreos = correos;
+        filtroNombres = nombres;
+        avisoSaturacion.set(false);
+        logger.info("Filtros de Bloom de usuarios reconstruidos: {} usuarios, {} bits y {} hashes por filtro",
+                almacenUsuarios.cantidad(), correos.getNumeroBits(), correos.getNumeroHashes());
+    }
+    
+    /**
+     * Crear la cuenta ADMIN configurada si aún no existe
+     * Sin contraseña configurada no se crea ninguna: los roles con más
+     * permisos los asigna después un usuario con GESTION_USUARIOS.
+     */
+    private void crearAdministradorInicial() {
+        if (nombreAdministrador == null || nombreAdministrador.isBlank()) {
+            return;
+        }
+        if (contrasenaAdministrador == null || contrasenaAdministrador.isBlank()) {
+            logger.warn("Sin aplicacion.seguridad.administrador.contrasena: no se crea la cuenta {}", nombreAdministrador);
+            return;
+        }
+        if (almacenUsuarios.buscarPorNombreUsuario(nombreAdministrador).isPresent()) {
+            // Una cuenta existente con ese nombre no se promueve: pudo registrarla cualquiera
+            logger.info("La cuenta de administrador {} ya existe; se conserva su rol", nombreAdministrador);
+            return;
+        }
+        String correo = correoAdministrador == null || correoAdministrador.isBlank()
+                ? nombreAdministrador + "@administracion.local" : correoAdministrador;
+        Usuario administrador = new Usuario(nombreAdministrador, "Administrador", "Inicial", correo, contrasenaAdministrador);
+        Set<ConstraintViolation<Usuario>> violaciones = validador.validate(administrador);
+        if (!violaciones.isEmpty()) {
+            throw new IllegalStateException("Cuenta de administrador inválida (aplicacion.seguridad.administrador): "
+                    + violaciones.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; ")));
+        }
+        administrador.asignarRol(servicioRoles.obtenerRol(Rol.ADMIN));
+        crearUsuario(administrador);
+        logger.info("Cuenta de administrador inicial creada: {}", nombreAdministrador);
+    }
     
     @Override
     public Usuario crearUsuario(Usuario usuario) {
         logger.info("Creando nuevo usuario: {}", usuario.getNombreUsuario());
         
-        // Validaciones
-        if (existeCorreoElectronico(usuario.getCorreoElectronico())) {
-            throw new IllegalArgumentException("El correo electrónico ya está registrado");
+        if (usuario.getRol() == null) {
+            usuario.asignarRol(servicioRoles.rolInicial());
         }
-        
-        if (existeNombreUsuario(usuario.getNombreUsuario())) {
-            throw new IllegalArgumentException("El nombre de usuario ya existe");
+        registrarEnFiltros(usuario.getCorreoElectronico(), usuario.getNombreUsuario());
+        // Reserva atómica de correo y nombre de usuario antes del hash: un duplicado se rechaza sin codificar
+        long id = almacenUsuarios.reservar(usuario);
+        try {
+            if (usuario.getContrasena() != null) {
+                usuario.setContrasena(codificador.codificar(usuario.getContrasena()));
+            }
+        } catch (RuntimeException e) {
+            almacenUsuarios.liberar(usuario, id);
+            throw e;
         }
-        
-        // Asignar ID y agregar a la "base de datos"
-        usuario.setId(siguienteId++);
-        usuarios.add(usuario);
+        almacenUsuarios.confirmar(usuario, id);
+        contadores.cambiarEstadoUsuario(null, usuario.getEstado());
+        contadores.cambiarRolUsuario(null, usuario.getNombreRol());
         
         logger.info("Usuario creado exitosamente con ID: {}", usuario.getId());
         return usuario;
     }
     
+    @Override
+    public ResultadoImportacion importarUsuarios(Iterable<Usuario> usuarios) {
+        if (tamañoLoteImportacion <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote de importación debe ser mayor a cero");
+        }
+        
+        long inicio = System.nanoTime();
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        Iterator<Usuario> iterador = usuarios.iterator();
+        List<Usuario> lote = new ArrayList<>(tamañoLoteImportacion);
+        long filasProcesadas = 0;
+        
+        while (iterador.hasNext()) {
+            lote.add(iterador.next());
+            if (lote.size() == tamañoLoteImportacion || !iterador.hasNext()) {
+                try {
+                    importarLote(lote, filasProcesadas, resultado);
+                } catch (TaskRejectedException e) {
+                    logger.warn("Importación de usuarios detenida en la fila {}: ejecutor de contraseñas ocupado ({} importados)",
+                            filasProcesadas + 1, resultado.getImportados());
+                    throw new TaskRejectedException("El ejecutor de contraseñas está ocupado: la importación se detuvo tras registrar "
+                            + resultado.getImportados() + " usuarios; reintente desde la fila " + (filasProcesadas + 1), e);
+                }
+                filasProcesadas += lote.size();
+                lote = new ArrayList<>(tamañoLoteImportacion);
+            }
+        }
+        
+        resultado.setDuracionMs((System.nanoTime() - inicio) / 1_000_000);
+        logger.info("Importación de usuarios: {} recibidos, {} importados, {} rechazados en {} ms",
+                resultado.getRecibidos(), resultado.getImportados(), resultado.getRechazados(), resultado.getDuracionMs());
+        return resultado;
+    }
+    
+    /**
+     * Validar en paralelo, depurar duplicados y registrar un lote
+     * Los duplicados contra lotes anteriores los detecta el almacén, porque esos lotes
+     * ya están registrados; así solo se guardan las claves del lote en curso.
+     */
+    private void importarLote(List<Usuario> lote, long filasPrevias, ResultadoImportacion resultado) {
+        // Las expresiones regulares de Usuario dominan el costo: se reparten entre núcleos
+        List<Set<ConstraintViolation<Usuario>>> violaciones = lote.parallelStream()
+                .map(usuario -> usuario == null ? Set.<ConstraintViolation<Usuario>>of() : validador.validate(usuario))
+                .collect(Collectors.toList());
+        
+        Map<Integer, List<String>> rechazos = new TreeMap<>();
+        List<Usuario> aceptados = new ArrayList<>(lote.size());
+        List<Integer> posiciones = new ArrayList<>(lote.size());
+        Set<String> correosDelLote = new HashSet<>();
+        Set<String> nombresDelLote = new HashSet<>();
+        
+        for (int i = 0; i < lote.size(); i++) {
+            Usuario usuario = lote.get(i);
+            if (usuario == null) {
+                rechazos.put(i, List.of("Registro vacío"));
+                continue;
+            }
+            if (!violaciones.get(i).isEmpty()) {
+                rechazos.put(i, violaciones.get(i).stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.toList()));
+                continue;
+            }
+            
+            List<String> mensajes = new ArrayList<>(2);
+            if (correosDelLote.contains(usuario.getCorreoElectronico()) || existeCorreoElectronico(usuario.getCorreoElectronico())) {
+                mensajes.add("El correo electrónico ya está registrado");
+            }
+            if (nombresDelLote.contains(usuario.getNombreUsuario()) || existeNombreUsuario(usuario.getNombreUsuario())) {
+                mensajes.add("El nombre de usuario ya existe");
+            }
+            if (!mensajes.isEmpty()) {
+                rechazos.put(i, mensajes);
+                continue;
+            }
+            
+            correosDelLote.add(usuario.getCorreoElectronico());
+            nombresDelLote.add(usuario.getNombreUsuario());
+            usuario.setId(null);
+            if (usuario.getEstado() == null) {
+                usuario.setEstado(Usuario.EstadoUsuario.ACTIVO);
+            }
+            if (usuario.getRol() == null) {
+                usuario.asignarRol(servicioRoles.rolInicial());
+            }
+            registrarEnFiltros(usuario.getCorreoElectronico(), usuario.getNombreUsuario());
+            aceptados.add(usuario);
+            posiciones.add(i);
+        }
+        
+        codificarContrasenas(aceptados);
+        
+        // Un alta concurrente puede tomar una clave entre la verificación y el registro
+        Map<Integer, String> rechazosAlmacen = almacenUsuarios.insertarLote(aceptados);
+        for (int j = 0; j < aceptados.size(); j++) {
+            String motivo = rechazosAlmacen.get(j);
+            if (motivo == null) {
+                contadores.cambiarEstadoUsuario(null, aceptados.get(j).getEstado());
+                contadores.cambiarRolUsuario(null, aceptados.get(j).getNombreRol());
+            } else {
+                rechazos.put(posiciones.get(j), List.of(motivo));
+            }
+        }
+        
+        rechazos.forEach((i, mensajes) -> resultado.rechazar(
+                filasPrevias + i + 1, lote.get(i) == null ? null : lote.get(i).getNombreUsuario(), mensajes));
+        resultado.agregarLote(lote.size(), lote.size() - rechazos.size());
+    }
+    
     @Override
     public Optional<Usuario> buscarPorId(Long id) {
-        return usuarios.stream()
-                .filter(usuario -> usuario.getId().equals(id))
-                .findFirst();
+        return almacenUsuarios.buscarPorId(id);
     }
     
     @Override
+    @Cacheable(cacheNames = ConfiguracionCache.CACHE_USUARIOS, condition = "#nombreUsuario != null", unless = "#result == null")
     public Optional<Usuario> buscarPorNombreUsuario(String nombreUsuario) {
-        return usuarios.stream()
-                .filter(usuario -> usuario.getNombreUsuario().equals(nombreUsuario))
-                .findFirst();
+        return almacenUsuarios.buscarPorNombreUsuario(nombreUsuario);
+    }
+    
+    /**
+     * Codificar las contraseñas de un lote en el ejecutor de contraseñas
+     * Una tarea por hilo del ejecutor y no una por usuario: el lote ocupa pocos
+     * lugares de la cola y compite con altas e inicios de sesión por los mismos
+     * hilos acotados, no por el ForkJoinPool común.
+     * @throws TaskRejectedException si la cola del ejecutor está llena
+     */
+    private void codificarContrasenas(List<Usuario> usuarios) {
+        int partes = Math.min(usuarios.size(), ejecutorContrasenas.getMaxPoolSize());
+        List<CompletableFuture<Void>> tareas = new ArrayList<>(partes);
+        try {
+            for (int p = 0; p < partes; p++) {
+                List<Usuario> parte = usuarios.subList(usuarios.size() * p / partes, usuarios.size() * (p + 1) / partes);
+                tareas.add(CompletableFuture.runAsync(
+                        () -> parte.forEach(usuario -> usuario.setContrasena(codificador.codificar(usuario.getContrasena()))),
+                        ejecutorContrasenas));
+            }
+            CompletableFuture.allOf(tareas.toArray(new CompletableFuture<?>[0])).join();
+        } catch (TaskRejectedException e) {
+            // Las partes aún en cola no llegan a codificar: el lote no se registra
+            tareas.forEach(tarea -> tarea.cancel(false));
+            throw e;
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
+    }
+    
+    @Override
+    public Optional<Usuario> autenticar(String nombreUsuario, String contrasena) {
+        if (nombreUsuario == null || contrasena == null) {
+            return Optional.empty();
+        }
+        Optional<Usuario> encontrado = almacenUsuarios.buscarPorNombreUsuario(nombreUsuario).filter(Usuario::estaActivo);
+        if (encontrado.isEmpty()) {
+            codificador.coincide(contrasena, contrasenaFicticia());
+            return Optional.empty();
+        }
+        Usuario usuario = encontrado.get();
+        String guardada = usuario.getContrasena();
+        if (!codificador.coincide(contrasena, guardada)) {
+            return Optional.empty();
+        }
+        if (codificador.necesitaActualizar(guardada)) {
+            recodificarContrasena(usuario, guardada, contrasena);
+        }
+        return encontrado;
+    }
+    
+    /**
+     * Guardar la contraseña con los parámetros vigentes si nadie la cambió mientras tanto
+     */
+    private void recodificarContrasena(Usuario usuario, String anterior, String contrasena) {
+        String nueva = codificador.codificar(contrasena);
+        synchronized (usuario) {
+            if (!anterior.equals(usuario.getContrasena())) {
+                return;
+            }
+            usuario.setContrasena(nueva);
+        }
+        desalojarDeCache(usuario);
+        logger.info("Contraseña del usuario {} recodificada con los parámetros vigentes", usuario.getNombreUsuario());
+    }
+    
+    private String contrasenaFicticia() {
+        String ficticia = contrasenaFicticia;
+        if (ficticia == null) {
+            // Dos hilos pueden calcularla a la vez: cualquiera de los valores sirve
+            ficticia = codificador.codificar(UUID.randomUUID().toString());
+            contrasenaFicticia = ficticia;
+        }
+        return ficticia;
     }
     
     @Override
     public Optional<Usuario> buscarPorCorreoElectronico(String correoElectronico) {
-        return usuarios.stream()
-                .filter(usuario -> usuario.getCorreoElectronico().equals(correoElectronico))
-                .findFirst();
+        return almacenUsuarios.buscarPorCorreoElectronico(correoElectronico);
+    }
+    
+    @Override
+    public List<Usuario> buscarPorNombre(String consulta, int pagina, int tamaño) {
+        if (pagina < 0 || tamaño <= 0) {
+            throw new IllegalArgumentException("Página y tamaño deben ser válidos");
+        }
+        // Solo se verifican maximoCandidatosBusqueda coincidencias: no hay resultados más allá
+        int desplazamiento = desplazamiento(pagina, tamaño, maximoCandidatosBusqueda);
+        return almacenUsuarios.buscarPorNombre(consulta, desplazamiento, tamaño, maximoCandidatosBusqueda);
     }
     
     @Override
     public List<Usuario> obtenerTodosLosUsuarios() {
-        return new ArrayList<>(usuarios);
+        return almacenUsuarios.listarTodos();
+    }
+    
+    @Override
+    public List<Usuario> obtenerUsuariosPaginados(int pagina, int tamaño) {
+        if (pagina < 0 || tamaño <= 0) {
+            return new ArrayList<>();
+        }
+        
+        return almacenUsuarios.listarPagina(desplazamiento(pagina, tamaño, almacenUsuarios.cantidad()), tamaño);
+    }
+    
+    /**
+     * Primer elemento de una página. Se calcula en long: pagina * tamaño desborda int
+     * con páginas grandes y daría un desplazamiento negativo
+     * @param total elementos que puede haber; la primera página siempre es válida
+     * @throws IllegalArgumentException si la página empieza después del último elemento
+     */
+    private static int desplazamiento(int pagina, int tamaño, int total) {
+        long desplazamiento = (long) pagina * tamaño;
+        if (pagina > 0 && desplazamiento >= total) {
+            throw new IllegalArgumentException("La página " + pagina + " está fuera del rango");
+        }
+        return (int) desplazamiento;
+    }
+    
+    @Override
+    public PaginaCursor<Usuario> obtenerPaginaUsuarios(String cursor, int tamaño) {
+        if (tamaño <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero");
+        }
+        
+        long despuesDeId = PaginaCursor.decodificarCursor(cursor);
+        // Se lee un elemento extra para saber si existe una página siguiente
+        List<Usuario> leidos = almacenUsuarios.listarDespuesDe(despuesDeId, tamaño + 1);
+        return PaginaCursor.desde(leidos, tamaño, Usuario::getId);
+    }
+    
+    @Override
+    public Stream<Usuario> recorrerUsuarios() {
+        return almacenUsuarios.recorrer();
     }
     
     @Override
@@ -77,20 +471,20 @@ public class ServicioUsuarioImpl implements ServicioUsuario {
         
         if (usuarioExistente.isPresent()) {
             Usuario usuario = usuarioExistente.get();
+            Usuario.EstadoUsuario estadoAnterior = usuario.getEstado();
+            
+            // Validar cambio de correo si es diferente (reserva atómica del nuevo correo)
+            registrarEnFiltros(usuarioActualizado.getCorreoElectronico(), null);
+            almacenUsuarios.cambiarCorreo(usuario, usuarioActualizado.getCorreoElectronico());
             
             // Actualizar campos
             usuario.setNombre(usuarioActualizado.getNombre());
             usuario.setApellido(usuarioActualizado.getApellido());
             usuario.setTelefono(usuarioActualizado.getTelefono());
             usuario.setEstado(usuarioActualizado.getEstado());
-            
-            // Validar cambio de correo si es diferente
-            if (!usuario.getCorreoElectronico().equals(usuarioActualizado.getCorreoElectronico())) {
-                if (existeCorreoElectronico(usuarioActualizado.getCorreoElectronico())) {
-                    throw new IllegalArgumentException("El correo electrónico ya está registrado");
-                }
-                usuario.setCorreoElectronico(usuarioActualizado.getCorreoElectronico());
-            }
+            almacenUsuarios.reindexarNombre(usuario);
+            contadores.cambiarEstadoUsuario(estadoAnterior, usuario.getEstado());
+            desalojarDeCache(usuario);
             
             logger.info("Usuario actualizado: {}", usuario.getId());
             return usuario;
@@ -104,23 +498,138 @@ public class ServicioUsuarioImpl implements ServicioUsuario {
         Optional<Usuario> usuario = buscarPorId(id);
         
         if (usuario.isPresent()) {
+            // Un usuario inactivo conserva su correo y nombre: los filtros no cambian
+            Usuario.EstadoUsuario estadoAnterior = usuario.get().getEstado();
             usuario.get().setEstado(Usuario.EstadoUsuario.INACTIVO);
+            contadores.cambiarEstadoUsuario(estadoAnterior, Usuario.EstadoUsuario.INACTIVO);
+            desalojarDeCache(usuario.get());
             logger.info("Usuario desactivado: {}", id);
         } else {
             throw new IllegalArgumentException("Usuario no encontrado con ID: " + id);
         }
     }
     
+    @Override
+    public boolean bloquearUsuario(String nombreUsuario) {
+        return cambiarEstado(nombreUsuario, Usuario.EstadoUsuario.ACTIVO, Usuario.EstadoUsuario.BLOQUEADO);
+    }
+    
+    @Override
+    public boolean desbloquearUsuario(String nombreUsuario) {
+        return cambiarEstado(nombreUsuario, Usuario.EstadoUsuario.BLOQUEADO, Usuario.EstadoUsuario.ACTIVO);
+    }
+    
+    /**
+     * Cambiar el estado solo si el usuario está en el estado esperado
+     * Se sincroniza sobre el usuario: un bloqueo y un desbloqueo simultáneos no
+     * pueden ajustar dos veces los contadores.
+     */
+    private boolean cambiarEstado(String nombreUsuario, Usuario.EstadoUsuario esperado, Usuario.EstadoUsuario nuevo) {
+        Optional<Usuario> encontrado = almacenUsuarios.buscarPorNombreUsuario(nombreUsuario);
+        if (encontrado.isEmpty()) {
+            return false;
+        }
+        Usuario usuario = encontrado.get();
+        synchronized (usuario) {
+            if (usuario.getEstado() != esperado) {
+                return false;
+            }
+            usuario.setEstado(nuevo);
+        }
+        contadores.cambiarEstadoUsuario(esperado, nuevo);
+        desalojarDeCache(usuario);
+        logger.info("Usuario {} cambió de {} a {}", nombreUsuario, esperado, nuevo);
+        return true;
+    }
+    
+    @Override
+    public Usuario asignarRol(Long id, String nombreRol) {
+        Usuario usuario = buscarPorId(id)
+                .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado con ID: " + id));
+        Rol rol = servicioRoles.obtenerRol(nombreRol);
+        
+        String rolAnterior = usuario.getNombreRol();
+        usuario.asignarRol(rol);
+        contadores.cambiarRolUsuario(rolAnterior, rol.getNombre());
+        desalojarDeCache(usuario);
+        
+        logger.info("Rol de usuario {} cambiado de {} a {}", id, rolAnterior, rol.getNombre());
+        return usuario;
+    }
+    
     @Override
     public boolean existeCorreoElectronico(String correoElectronico) {
-        return usuarios.stream()
-                .anyMatch(usuario -> usuario.getCorreoElectronico().equals(correoElectronico));
+        if (correoElectronico == null || !filtroCorreos.puedeContener(correoElectronico)) {
+            return false;
+        }
+        return almacenUsuarios.existeCorreoElectronico(correoElectronico);
     }
     
     @Override
     public boolean existeNombreUsuario(String nombreUsuario) {
-        return usuarios.stream()
-                .anyMatch(usuario -> usuario.getNombreUsuario().equals(nombreUsuario));
+        if (nombreUsuario == null || !filtroNombres.puedeContener(nombreUsuario)) {
+            return false;
+        }
+        return almacenUsuarios.existeNombreUsuario(nombreUsuario);
+    }
+    
+    @Override
+    public Map<Usuario.EstadoUsuario, Long> contarPorEstado() {
+        Map<Usuario.EstadoUsuario, Long> recuento = new EnumMap<>(Usuario.EstadoUsuario.class);
+        try (Stream<Usuario> usuarios = almacenUsuarios.recorrer()) {
+            usuarios.map(Usuario::getEstado)
+                    .filter(estado -> estado != null)
+                    .forEach(estado -> recuento.merge(estado, 1L, Long::sum));
+        }
+        return recuento;
+    }
+    
+    @Override
+    public Map<String, Long> contarPorRol() {
+        Map<String, Long> recuento = new TreeMap<>();
+        try (Stream<Usuario> usuarios = almacenUsuarios.recorrer()) {
+            usuarios.map(Usuario::getNombreRol)
+                    .filter(rol -> rol != null)
+                    .forEach(rol -> recuento.merge(rol, 1L, Long::sum));
+        }
+        return recuento;
+    }
+    
+    @Override
+    public String getNombreCache() {
+        return ConfiguracionCache.CACHE_USUARIOS;
+    }
+    
+    /**
+     * Carga para la caché de usuarios: lee el almacén sin pasar por la caché
+     */
+    @Override
+    public Object cargar(Object clave) {
+        return almacenUsuarios.buscarPorNombreUsuario((String) clave).orElse(null);
+    }
+    
+    /**
+     * Agregar claves a los filtros de Bloom antes de reservarlas en el almacén
+     * Una reserva que luego falla deja la clave en el filtro: solo agrega un falso positivo.
+     */
+    private void registrarEnFiltros(String correoElectronico, String nombreUsuario) {
+        if (correoElectronico != null) {
+            filtroCorreos.agregar(correoElectronico);
+        }
+        if (nombreUsuario != null) {
+            filtroNombres.agregar(nombreUsuario);
+        }
+        if (filtroCorreos.estaSaturado() && avisoSaturacion.compareAndSet(false, true)) {
+            logger.warn("Filtros de Bloom de usuarios sobre su capacidad ({}): aumentar aplicacion.usuarios.filtro-bloom.capacidad",
+                    filtroCorreos.getCapacidad());
+        }
+    }
+    
+    private void desalojarDeCache(Usuario usuario) {
+        Cache cache = cacheManager.getCache(ConfiguracionCache.CACHE_USUARIOS);
+        if (cache != null) {
+            cache.evict(usuario.getNombreUsuario());
+        }
     }
     
     /**
@@ -128,7 +637,7 @@ public class ServicioUsuarioImpl implements ServicioUsuario {
      * Principio: Separación de Intereses
      */
     public void crearUsuariosDePrueba() {
-        if (usuarios.isEmpty()) {
+        if (almacenUsuarios.estaVacio()) {
             Usuario usuarioPrueba = new Usuario();
             usuarioPrueba.setNombreUsuario("rrivasl");
             usuarioPrueba.setNombre("Roberto");
@@ -1,85 +1,230 @@
 package com.rrivasl.servicio.impl;
 
+import com.rrivasl.configuracion.CargadorCache;
+import com.rrivasl.configuracion.ConfiguracionCache;
+import com.rrivasl.modelo.PaginaCursor;
 import com.rrivasl.modelo.Producto;
+import com.rrivasl.modelo.ResultadoLote;
+import com.rrivasl.modelo.TotalesCategoria;
+import com.rrivasl.repositorio.CatalogoProductos;
+import com.rrivasl.repositorio.ContadoresAgregados;
+import com.rrivasl.repositorio.ResumenProducto;
 import com.rrivasl.servicio.ServicioProducto;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
- * Implementación del Servicio Producto
+ * Implementación del Servicio Producto (almacenamiento en memoria)
  * @author Roberto Rivas López
  */
 @Service
-public class ServicioProductoImpl implements ServicioProducto {
+@ConditionalOnProperty(name = "aplicacion.productos.almacenamiento", havingValue = "memoria")
+public class ServicioProductoImpl implements ServicioProducto, CargadorCache {
     
-    // Simulación de base de datos en memoria para las pruebas
-    private List<Producto> productos = new ArrayList<>();
-    private Long siguienteId = 1L;
+    // Simulación de base de datos en memoria para las pruebas (catálogo indexado por ID y código)
+    @Autowired
+    private CatalogoProductos catalogo;
+    
+    @Autowired
+    private Validator validador;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private ContadoresAgregados contadores;
+    
+    @Value("${aplicacion.productos.tamaño-lote:500}")
+    private int tamañoLote;
     
     @Override
     public Producto crearProducto(Producto producto) {
-        producto.setId(siguienteId++);
-        productos.add(producto);
-        return producto;
+        // El catálogo rechaza códigos duplicados con IllegalArgumentException
+        Producto creado = catalogo.insertar(producto);
+        contadores.registrarAltaProducto(creado);
+        return creado;
+    }
+    
+    @Override
+    public ResultadoLote crearProductosEnLote(Iterable<Producto> productos) {
+        return ProcesadorLoteProductos.procesar(productos, tamañoLote, validador, (validos, bloque) -> {
+            int insertados = 0;
+            for (Producto producto : validos) {
+                try {
+                    catalogo.insertar(producto);
+                    contadores.registrarAltaProducto(producto);
+                    insertados++;
+                } catch (IllegalArgumentException e) {
+                    bloque.agregarError(producto.getCodigoProducto() + ": " + e.getMessage());
+                }
+            }
+            return insertados;
+        });
     }
     
     @Override
+    @Cacheable(cacheNames = ConfiguracionCache.CACHE_PRODUCTOS, condition = "#codigo != null", unless = "#result == null")
     public Producto buscarPorCodigo(String codigo) {
-        return productos.stream()
-                .filter(p -> p.getCodigoProducto().equals(codigo))
-                .findFirst()
-                .orElse(null);
+        return catalogo.buscarPorCodigo(codigo).orElse(null);
+    }
+    
+    @Override
+    public Producto buscarPorId(Long id) {
+        return catalogo.buscarPorId(id).orElse(null);
     }
     
     @Override
     public List<Producto> obtenerProductosPaginados(int pagina, int tamaño) {
         int inicio = pagina * tamaño;
-        int fin = Math.min(inicio + tamaño, productos.size());
         
-        if (inicio >= productos.size()) {
+        if (pagina < 0 || tamaño <= 0 || inicio >= catalogo.cantidad()) {
             return new ArrayList<>();
         }
         
-        return productos.subList(inicio, fin);
+        return catalogo.listarPagina(inicio, tamaño);
     }
     
     @Override
-    public void crearProductosDePrueba(int cantidad) {
-        for (int i = 1; i <= cantidad; i++) {
-            Producto producto = Producto.builder()
-                    .nombre("Producto " + i)
-                    .descripcion("Descripción del producto " + i)
-                    .precio(new BigDecimal("100.00"))
-                    .categoria("CATEGORIA_" + (i % 3 + 1))
-                    .stock(10)
-                    .codigoProducto("PROD-" + String.format("%03d", i))
-                    .build();
-            crearProducto(producto);
+    public PaginaCursor<Producto> obtenerPaginaProductos(String cursor, int tamaño) {
+        if (tamaño <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero");
         }
+        
+        long despuesDeId = PaginaCursor.decodificarCursor(cursor);
+        // Se lee un elemento extra para saber si existe una página siguiente
+        List<Producto> leidos = catalogo.listarDespuesDe(despuesDeId, tamaño + 1);
+        return PaginaCursor.desde(leidos, tamaño, Producto::getId);
+    }
+    
+    @Override
+    public PaginaCursor<ResumenProducto> obtenerPaginaResumen(String cursor, int tamaño) {
+        PaginaCursor<Producto> pagina = obtenerPaginaProductos(cursor, tamaño);
+        List<ResumenProducto> resumenes = pagina.getContenido().stream()
+                .map(ResumenEnMemoria::new)
+                .collect(Collectors.toList());
+        return new PaginaCursor<>(resumenes, pagina.getCursorSiguiente(), tamaño);
+    }
+    
+    @Override
+    public void crearProductosDePrueba(int cantidad) {
+        crearProductosEnLote(ProcesadorLoteProductos.productosDePrueba(cantidad));
     }
     
     @Override
     public Producto actualizarProducto(Long id, Producto producto) {
-        for (int i = 0; i < productos.size(); i++) {
-            if (productos.get(i).getId().equals(id)) {
-                producto.setId(id);
-                productos.set(i, producto);
-                return producto;
-            }
-        }
-        return null;
+        // El catálogo entrega la instancia que reemplazó bajo su candado: leerla
+        // antes podría devolver la de otra actualización concurrente
+        return catalogo.reemplazar(id, producto, (anterior, nuevo) -> {
+            contadores.registrarCambioProducto(anterior, nuevo);
+            desalojarDeCache(anterior.getCodigoProducto());
+            desalojarDeCache(nuevo.getCodigoProducto());
+        }).orElse(null);
     }
     
     @Override
     public void eliminarProducto(Long id) {
-        productos.removeIf(p -> p.getId().equals(id));
+        catalogo.eliminar(id).ifPresent(producto -> {
+            contadores.registrarBajaProducto(producto);
+            desalojarDeCache(producto.getCodigoProducto());
+        });
     }
     
     @Override
     public List<Producto> buscarTodos() {
-        return new ArrayList<>(productos);
+        return catalogo.listarTodos();
+    }
+    
+    @Override
+    public List<ResumenProducto> buscarPorCategoria(String categoria, int limite) {
+        return catalogo.listarTodos().stream()
+                .filter(p -> Objects.equals(categoria, p.getCategoria()))
+                .sorted(Comparator.comparing(Producto::getStock))
+                .limit(limite)
+                .map(ResumenEnMemoria::new)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<ResumenProducto> buscarStockBajo(String categoria, int umbral, int limite) {
+        return catalogo.listarTodos().stream()
+                .filter(p -> categoria == null || categoria.equals(p.getCategoria()))
+                .filter(p -> p.getStock() < umbral)
+                .sorted(Comparator.comparing(Producto::getStock))
+                .limit(limite)
+                .map(ResumenEnMemoria::new)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<TotalesCategoria> calcularTotalesPorCategoria() {
+        // HashMap admite la categoría null, a diferencia de Collectors.groupingBy
+        Map<String, long[]> cantidades = new HashMap<>();
+        Map<String, BigDecimal> valores = new HashMap<>();
+        for (Producto producto : catalogo.listarTodos()) {
+            long stock = producto.getStock() == null ? 0 : producto.getStock();
+            BigDecimal precio = producto.getPrecio() == null ? BigDecimal.ZERO : producto.getPrecio();
+            long[] cantidad = cantidades.computeIfAbsent(producto.getCategoria(), c -> new long[2]);
+            cantidad[0]++;
+            cantidad[1] += stock;
+            valores.merge(producto.getCategoria(), precio.multiply(BigDecimal.valueOf(stock)), BigDecimal::add);
+        }
+        List<TotalesCategoria> totales = new ArrayList<>(cantidades.size());
+        cantidades.forEach((categoria, cantidad) ->
+                totales.add(new TotalesCategoria(categoria, cantidad[0], cantidad[1], valores.get(categoria))));
+        return totales;
+    }
+    
+    @Override
+    public String getNombreCache() {
+        return ConfiguracionCache.CACHE_PRODUCTOS;
+    }
+    
+    /**
+     * Carga para la caché de productos: lee el catálogo sin pasar por la caché
+     */
+    @Override
+    public Object cargar(Object clave) {
+        return catalogo.buscarPorCodigo((String) clave).orElse(null);
+    }
+    
+    private void desalojarDeCache(String codigo) {
+        Cache cache = cacheManager.getCache(ConfiguracionCache.CACHE_PRODUCTOS);
+        if (cache != null && codigo != null) {
+            cache.evict(codigo);
+        }
+    }
+    
+    /**
+     * Resumen de producto en memoria (equivalente a la proyección JPA)
+     */
+    private static class ResumenEnMemoria implements ResumenProducto {
+        private final Producto producto;
+        
+        ResumenEnMemoria(Producto producto) {
+            this.producto = producto;
+        }
+        
+        @Override public Long getId() { return producto.getId(); }
+        @Override public String getNombre() { return producto.getNombre(); }
+        @Override public String getCodigoProducto() { return producto.getCodigoProducto(); }
+        @Override public BigDecimal getPrecio() { return producto.getPrecio(); }
+        @Override public String getCategoria() { return producto.getCategoria(); }
+        @Override public Integer getStock() { return producto.getStock(); }
+        @Override public Long getVersion() { return producto.getVersion(); }
     }
 }
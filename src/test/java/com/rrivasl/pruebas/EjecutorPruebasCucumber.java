@@ -1,5 +1,6 @@
 package com.rrivasl.pruebas;
 
+import org.junit.platform.engine.support.hierarchical.ExclusiveResource;
 import org.junit.platform.suite.api.ConfigurationParameter;
 import org.junit.platform.suite.api.IncludeEngines;
 import org.junit.platform.suite.api.SelectClasspathResource;
@@ -11,12 +12,23 @@ import static io.cucumber.junit.platform.engine.Constants.*;
  * Ejecutor principal de pruebas Cucumber
  * @author Roberto Rivas López
  * Spring Boot + Cucumber funcionando correctamente
+ *
+ * Los escenarios corren en paralelo sobre un único contexto de Spring, con un
+ * hilo por núcleo (estrategia dinámica con factor 1). Su estado vive en beans
+ * de escenario (ContextoTest) y sus datos llevan el espacio de nombres del
+ * escenario. Las características marcadas @aislado (totales globales del
+ * tablero, mediciones de rendimiento) toman el recurso global de JUnit en
+ * modo escritura y corren solas.
  */
 @Suite
 @IncludeEngines("cucumber")
 @SelectClasspathResource("features")
 @ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty")
 @ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "com.rrivasl.pruebas")
+@ConfigurationParameter(key = PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME, value = "true")
+@ConfigurationParameter(key = PARALLEL_CONFIG_STRATEGY_PROPERTY_NAME, value = "dynamic")
+@ConfigurationParameter(key = PARALLEL_CONFIG_DYNAMIC_FACTOR_PROPERTY_NAME, value = "1")
+@ConfigurationParameter(key = "cucumber.execution.exclusive-resources.aislado.read-write", value = ExclusiveResource.GLOBAL_KEY)
 public class EjecutorPruebasCucumber {
     // Configuración limpia sin duplicados
 }
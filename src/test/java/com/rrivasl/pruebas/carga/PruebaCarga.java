@@ -0,0 +1,130 @@
+package com.rrivasl.pruebas.carga;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de carga HTTP de modelo cerrado
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Simplicidad
+ *
+ * Mantiene N conexiones concurrentes: cada una envía su siguiente petición al
+ * recibir la respuesta anterior. Tras un calentamiento, mide durante el tiempo
+ * indicado y reporta throughput y latencias (p50, p99, p99.9, máxima).
+ * Lo usa prueba-carga.sh para comparar hilos de plataforma y virtuales; no es
+ * una prueba automática.
+ *
+ * Uso: PruebaCarga url [concurrencia] [segundos] [calentamiento] [etiqueta] [token]
+ * Con token, cada petición lleva "Authorization: Bearer token".
+ */
+public final class PruebaCarga {
+
+    private static final int MAXIMO_MUESTRAS = 20_000_000;
+
+    private final HttpClient cliente;
+    private final HttpRequest peticion;
+    private final long[] latenciasNanos = new long[MAXIMO_MUESTRAS];
+    private final AtomicInteger muestras = new AtomicInteger();
+    private final LongAdder errores = new LongAdder();
+    private volatile long inicioMedicion = Long.MAX_VALUE;
+    private volatile long finMedicion;
+
+    private PruebaCarga(String url, String token) {
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+                .build();
+        HttpRequest.Builder constructor = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).GET();
+        if (token != null && !token.isEmpty()) {
+            constructor.header("Authorization", "Bearer " + token);
+        }
+        this.peticion = constructor.build();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Uso: PruebaCarga url [concurrencia] [segundos] [calentamiento] [etiqueta] [token]");
+            System.exit(2);
+        }
+        String url = args[0];
+        int concurrencia = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int calentamiento = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        String etiqueta = args.length > 4 ? args[4] : "carga";
+        String token = args.length > 5 ? args[5] : null;
+
+        new PruebaCarga(url, token).ejecutar(concurrencia, segundos, calentamiento, etiqueta);
+        System.exit(0);
+    }
+
+    private void ejecutar(int concurrencia, int segundos, int calentamiento, String etiqueta) throws InterruptedException {
+        long ahora = System.nanoTime();
+        inicioMedicion = ahora + Duration.ofSeconds(calentamiento).toNanos();
+        finMedicion = inicioMedicion + Duration.ofSeconds(segundos).toNanos();
+
+        CountDownLatch terminadas = new CountDownLatch(concurrencia);
+        for (int i = 0; i < concurrencia; i++) {
+            enviar(terminadas);
+        }
+        terminadas.await();
+        informar(etiqueta, concurrencia, segundos);
+    }
+
+    /**
+     * Enviar una petición y, al responder, la siguiente de la misma conexión
+     */
+    private void enviar(CountDownLatch terminadas) {
+        long inicio = System.nanoTime();
+        if (inicio >= finMedicion) {
+            terminadas.countDown();
+            return;
+        }
+        cliente.sendAsync(peticion, HttpResponse.BodyHandlers.discarding()).whenComplete((respuesta, error) -> {
+            long fin = System.nanoTime();
+            if (inicio >= inicioMedicion && fin <= finMedicion) {
+                if (error != null || respuesta.statusCode() >= 400) {
+                    errores.increment();
+                } else {
+                    registrar(fin - inicio);
+                }
+            }
+            enviar(terminadas);
+        });
+    }
+
+    private void registrar(long latencia) {
+        int indice = muestras.getAndIncrement();
+        if (indice < MAXIMO_MUESTRAS) {
+            latenciasNanos[indice] = latencia;
+        }
+    }
+
+    private void informar(String etiqueta, int concurrencia, int segundos) {
+        int total = Math.min(muestras.get(), MAXIMO_MUESTRAS);
+        long[] ordenadas = Arrays.copyOf(latenciasNanos, total);
+        Arrays.sort(ordenadas);
+
+        System.out.printf("%-18s conexiones=%d respuestas=%d errores=%d throughput=%.0f req/s "
+                        + "p50=%.1f ms p99=%.1f ms p99.9=%.1f ms max=%.1f ms%n",
+                etiqueta, concurrencia, muestras.get(), errores.sum(), muestras.get() / (double) segundos,
+                percentil(ordenadas, 0.50), percentil(ordenadas, 0.99), percentil(ordenadas, 0.999),
+                total == 0 ? 0.0 : ordenadas[total - 1] / 1e6);
+    }
+
+    private static double percentil(long[] ordenadas, double fraccion) {
+        if (ordenadas.length == 0) {
+            return 0.0;
+        }
+        int indice = (int) Math.ceil(fraccion * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+}
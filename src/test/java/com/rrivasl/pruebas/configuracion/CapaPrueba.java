@@ -0,0 +1,32 @@
+package com.rrivasl.pruebas.configuracion;
+
+/**
+ * Capas opcionales del contexto de pruebas
+ * @author Roberto Rivas López
+ * Principios aplicados: Abierto/Cerrado, Configuración Centralizada
+ *
+ * Cada capa agrupa las autoconfiguraciones de un paquete. En el contexto
+ * recortado de pruebas quedan fuera, salvo que alguna definición de pasos
+ * la pida con @RequiereCapa.
+ */
+public enum CapaPrueba {
+
+    /** Endpoints, métricas y health de Spring Boot Actuator */
+    ACTUATOR("org.springframework.boot.actuate.autoconfigure."),
+
+    /** Documentación OpenAPI y Swagger UI */
+    SPRINGDOC("org.springdoc."),
+
+    /** Reinicio automático, LiveReload y consola H2 de devtools */
+    DEVTOOLS("org.springframework.boot.devtools.");
+
+    private final String paquete;
+
+    CapaPrueba(String paquete) {
+        this.paquete = paquete;
+    }
+
+    public boolean contiene(String autoconfiguracion) {
+        return autoconfiguracion.startsWith(paquete);
+    }
+}
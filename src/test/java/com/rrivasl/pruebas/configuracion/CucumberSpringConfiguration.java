@@ -1,7 +1,9 @@
 package com.rrivasl.pruebas.configuracion;
 
+import com.rrivasl.pruebas.definiciones.ContextoTest;
 import io.cucumber.spring.CucumberContextConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 
 /**
@@ -12,6 +14,7 @@ import org.springframework.test.context.ActiveProfiles;
 @CucumberContextConfiguration
 @SpringBootTest(classes = com.rrivasl.AplicacionPrincipal.class)
 @ActiveProfiles("test")
+@Import(ContextoTest.class) // la aplicación no escanea los paquetes de prueba
 public class CucumberSpringConfiguration {
     // Esta clase conecta Cucumber con Spring Boot
     // Spring Boot ya se está iniciando correctamente (11.184 segundos)
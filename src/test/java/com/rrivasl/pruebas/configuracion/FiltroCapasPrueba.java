@@ -0,0 +1,76 @@
+package com.rrivasl.pruebas.configuracion;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Recorta las autoconfiguraciones del contexto de pruebas
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Configuración por convención
+ *
+ * Con pruebas.contexto.recortado=true (perfil test) descarta las capas de
+ * CapaPrueba que ninguna definición de pasos pide con @RequiereCapa. Las
+ * anotaciones se leen con ASM sobre pruebas.contexto.paquete-pasos, sin cargar
+ * las clases. Se registra en META-INF/spring.factories de las pruebas, así que
+ * la aplicación y los benchmarks no lo ven activo.
+ */
+public class FiltroCapasPrueba implements AutoConfigurationImportFilter, EnvironmentAware {
+
+    private Environment entorno;
+
+    @Override
+    public void setEnvironment(Environment entorno) {
+        this.entorno = entorno;
+    }
+
+    @Override
+    public boolean[] match(String[] autoconfiguraciones, AutoConfigurationMetadata metadatos) {
+        boolean[] incluidas = new boolean[autoconfiguraciones.length];
+        Set<CapaPrueba> excluidas = capasExcluidas();
+        for (int i = 0; i < autoconfiguraciones.length; i++) {
+            incluidas[i] = autoconfiguraciones[i] == null || !excluir(autoconfiguraciones[i], excluidas);
+        }
+        return incluidas;
+    }
+
+    private static boolean excluir(String autoconfiguracion, Set<CapaPrueba> excluidas) {
+        for (CapaPrueba capa : excluidas) {
+            if (capa.contiene(autoconfiguracion)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Set<CapaPrueba> capasExcluidas() {
+        if (!entorno.getProperty("pruebas.contexto.recortado", Boolean.class, false)) {
+            return EnumSet.noneOf(CapaPrueba.class);
+        }
+        Set<CapaPrueba> excluidas = EnumSet.allOf(CapaPrueba.class);
+        excluidas.removeAll(capasRequeridas(entorno.getProperty("pruebas.contexto.paquete-pasos", "com.rrivasl.pruebas")));
+        return excluidas;
+    }
+
+    private static Set<CapaPrueba> capasRequeridas(String paquete) {
+        ClassPathScanningCandidateComponentProvider escaner = new ClassPathScanningCandidateComponentProvider(false);
+        escaner.addIncludeFilter(new AnnotationTypeFilter(RequiereCapa.class));
+        Set<CapaPrueba> requeridas = EnumSet.noneOf(CapaPrueba.class);
+        for (BeanDefinition pasos : escaner.findCandidateComponents(paquete)) {
+            MergedAnnotation<RequiereCapa> anotacion = ((AnnotatedBeanDefinition) pasos).getMetadata()
+                    .getAnnotations().get(RequiereCapa.class);
+            requeridas.addAll(Arrays.asList(anotacion.getEnumArray("value", CapaPrueba.class)));
+        }
+        return requeridas;
+    }
+}
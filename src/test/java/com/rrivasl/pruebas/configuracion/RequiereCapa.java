@@ -0,0 +1,24 @@
+package com.rrivasl.pruebas.configuracion;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declara las capas opcionales que necesita una clase de definiciones de pasos
+ * @author Roberto Rivas López
+ * Principios aplicados: Declaratividad, Segregación de Interfaces
+ *
+ * Todos los escenarios comparten un contexto de Spring: basta con que una
+ * clase de pasos pida una capa para que el contexto la incluya.
+ * Ejemplo: @RequiereCapa(CapaPrueba.ACTUATOR) para consultar /actuator/health.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiereCapa {
+
+    CapaPrueba[] value();
+}
@@ -1,10 +1,65 @@
 package com.rrivasl.pruebas.definiciones;
 
+import io.cucumber.spring.ScenarioScope;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Contexto compartido para pruebas BDD
+ * @author Roberto Rivas López
+ * Principios aplicados: Encapsulación, Aislamiento de pruebas
+ *
+ * Un bean por escenario: las definiciones de pasos de un mismo escenario
+ * comparten el último código de estado, excepción y mensaje, y los escenarios
+ * que corren en paralelo no se pisan. Cada escenario tiene además su propio
+ * espacio de nombres para los datos que crea (nombres de usuario, correos,
+ * códigos de producto), porque los servicios y almacenes sí son compartidos.
  */
+@Component
+@ScenarioScope
 public class ContextoTest {
-    public static int ultimoCodigoEstado = 0;
-    public static Exception ultimaExcepcion = null;
-    public static String ultimoMensajeError = null;
+
+    private static final AtomicLong ESCENARIOS = new AtomicLong();
+
+    private final String espacio = "esc" + ESCENARIOS.incrementAndGet();
+    private int ultimoCodigoEstado = 0;
+    private Exception ultimaExcepcion = null;
+    private String ultimoMensajeError = null;
+
+    /**
+     * Valor propio de este escenario: "rrivasl" pasa a "esc7-rrivasl" y
+     * "existente@test.com" a "esc7-existente@test.com"
+     */
+    public String aislar(String valor) {
+        return espacio + "-" + valor;
+    }
+
+    public String getEspacio() {
+        return espacio;
+    }
+
+    public int getUltimoCodigoEstado() {
+        return ultimoCodigoEstado;
+    }
+
+    public void setUltimoCodigoEstado(int ultimoCodigoEstado) {
+        this.ultimoCodigoEstado = ultimoCodigoEstado;
+    }
+
+    public Exception getUltimaExcepcion() {
+        return ultimaExcepcion;
+    }
+
+    public void setUltimaExcepcion(Exception ultimaExcepcion) {
+        this.ultimaExcepcion = ultimaExcepcion;
+    }
+
+    public String getUltimoMensajeError() {
+        return ultimoMensajeError;
+    }
+
+    public void setUltimoMensajeError(String ultimoMensajeError) {
+        this.ultimoMensajeError = ultimoMensajeError;
+    }
 }
@@ -0,0 +1,322 @@
+package com.rrivasl.pruebas.definiciones;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rrivasl.configuracion.FiltroAutenticacionJwt;
+import com.rrivasl.modelo.ReclamosJwt;
+import com.rrivasl.modelo.Usuario;
+import com.rrivasl.pruebas.utilidades.UtilPruebas;
+import com.rrivasl.servicio.CodificadorContrasenas;
+import com.rrivasl.servicio.ServicioIntentosLogin;
+import com.rrivasl.servicio.ServicioRoles;
+import com.rrivasl.servicio.ServicioTokens;
+import com.rrivasl.servicio.ServicioUsuario;
+import io.cucumber.java.es.Cuando;
+import io.cucumber.java.es.Dado;
+import io.cucumber.java.es.Entonces;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Definiciones de pasos para autenticación con tokens JWT
+ * @author Roberto Rivas López
+ * Principios aplicados: Separación de Responsabilidades, Pruebas de caja negra
+ *
+ * Las peticiones pasan por MockMvc con el filtro de autenticación real, así
+ * que cada escenario recorre el mismo camino que una petición al servidor.
+ */
+@SpringBootTest
+public class DefinicionesAutenticacion {
+
+    @Autowired
+    private ServicioUsuario servicioUsuario;
+
+    @Autowired
+    private ServicioTokens servicioTokens;
+
+    @Autowired
+    private ServicioRoles servicioRoles;
+
+    @Autowired
+    private ServicioIntentosLogin servicioIntentosLogin;
+
+    @Autowired
+    private CodificadorContrasenas codificadorContrasenas;
+
+    @Autowired
+    private FiltroAutenticacionJwt filtroAutenticacionJwt;
+
+    @Autowired
+    private WebApplicationContext contextoWeb;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContextoTest contexto;
+
+    @Value("${aplicacion.seguridad.tiempo-bloqueo}")
+    private Duration tiempoBloqueo;
+
+    @Value("${aplicacion.seguridad.administrador.nombre-usuario}")
+    private String nombreAdministrador;
+
+    @Value("${aplicacion.seguridad.administrador.contrasena}")
+    private String contrasenaAdministrador;
+
+    private final UtilPruebas utilPruebas = new UtilPruebas();
+
+    private MockMvc mockMvc;
+    private String nombreUsuario;
+    private String tokenAcceso;
+    private String tokenRefresco;
+    private String ultimaRespuesta;
+    private MockHttpServletResponse ultimaRespuestaHttp;
+    private double promedioVerificacionMicros;
+
+    @Dado("que existe el usuario {string} con contraseña {string}")
+    public void queExisteElUsuarioConContrasena(String nombre, String contrasena) {
+        nombreUsuario = contexto.aislar(nombre);
+        if (servicioUsuario.buscarPorNombreUsuario(nombreUsuario).isEmpty()) {
+            servicioUsuario.crearUsuario(new Usuario(nombreUsuario, "Jwt", "Prueba", nombreUsuario + "@jwt.test", contrasena));
+        }
+    }
+
+    @Dado("que el usuario {string} tiene el rol {string}")
+    public void queElUsuarioTieneElRol(String nombre, String rol) {
+        servicioUsuario.asignarRol(usuario(nombre).getId(), rol);
+    }
+
+    @Cuando("inicio sesión como {string} con contraseña {string}")
+    public void inicioSesionComo(String nombre, String contrasena) throws Exception {
+        String cuerpo = objectMapper.writeValueAsString(Map.of(
+                "nombreUsuario", contexto.aislar(nombre), "contrasena", contrasena));
+        recibirTokens(ejecutar(post("/autenticacion/login").contentType(MediaType.APPLICATION_JSON).content(cuerpo)));
+    }
+
+    @Cuando("inicio sesión como {string} con contraseña {string} {int} veces")
+    public void inicioSesionComoVeces(String nombre, String contrasena, int veces) throws Exception {
+        for (int i = 0; i < veces; i++) {
+            inicioSesionComo(nombre, contrasena);
+        }
+    }
+
+    @Cuando("registro por la API el usuario {string} con contraseña {string}")
+    public void registroPorLaApiElUsuario(String nombre, String contrasena) throws Exception {
+        String nombreAislado = contexto.aislar(nombre);
+        registrar(new Usuario(nombreAislado, "Jwt", "Prueba", nombreAislado + "@jwt.test", contrasena));
+    }
+
+    @Cuando("registro por la API un usuario con el nombre del administrador inicial")
+    public void registroPorLaApiUnUsuarioConElNombreDelAdministrador() throws Exception {
+        // El registro abierto no puede tomar la cuenta ni su rol: el nombre ya existe desde el inicio
+        registrar(new Usuario(nombreAdministrador, "Jwt", "Prueba", contexto.aislar("admin") + "@jwt.test", "MiClave123!"));
+    }
+
+    @Cuando("inicio sesión como el administrador inicial")
+    public void inicioSesionComoElAdministradorInicial() throws Exception {
+        String cuerpo = objectMapper.writeValueAsString(Map.of(
+                "nombreUsuario", nombreAdministrador, "contrasena", contrasenaAdministrador));
+        recibirTokens(ejecutar(post("/autenticacion/login").contentType(MediaType.APPLICATION_JSON).content(cuerpo)));
+    }
+
+    @Cuando("espero a que venza el bloqueo")
+    public void esperoAQueVenzaElBloqueo() throws InterruptedException {
+        Thread.sleep(tiempoBloqueo.toMillis() + 100);
+    }
+
+    @Cuando("se revisan los bloqueos vencidos")
+    public void seRevisanLosBloqueosVencidos() {
+        servicioIntentosLogin.desbloquearVencidos();
+    }
+
+    @Cuando("refresco la sesión con el token de refresco")
+    public void refrescoLaSesion() throws Exception {
+        assertNotNull(tokenRefresco, "No hay token de refresco en este escenario");
+        String cuerpo = objectMapper.writeValueAsString(Map.of("tokenRefresco", tokenRefresco));
+        recibirTokens(ejecutar(post("/autenticacion/refrescar").contentType(MediaType.APPLICATION_JSON).content(cuerpo)));
+    }
+
+    @Cuando("consulto mi usuario con el token de acceso")
+    public void consultoMiUsuarioConElTokenDeAcceso() throws Exception {
+        consultarMiUsuario(tokenAcceso);
+    }
+
+    @Cuando("consulto mi usuario con el token de refresco")
+    public void consultoMiUsuarioConElTokenDeRefresco() throws Exception {
+        consultarMiUsuario(tokenRefresco);
+    }
+
+    @Cuando("consulto mi usuario con el token de acceso alterado")
+    public void consultoMiUsuarioConElTokenDeAccesoAlterado() throws Exception {
+        assertNotNull(tokenAcceso, "No hay token de acceso en este escenario");
+        // Se altera un carácter interior de la firma: el último solo lleva bits de relleno
+        int posicion = tokenAcceso.length() - 10;
+        char reemplazo = tokenAcceso.charAt(posicion) == 'A' ? 'B' : 'A';
+        consultarMiUsuario(tokenAcceso.substring(0, posicion) + reemplazo + tokenAcceso.substring(posicion + 1));
+    }
+
+    @Cuando("consulto mi usuario sin token")
+    public void consultoMiUsuarioSinToken() throws Exception {
+        ejecutar(get("/usuarios/buscar/nombreUsuario/{nombre}", nombreUsuario));
+    }
+
+    @Cuando("consulto mi usuario sin token con la ruta {string}")
+    public void consultoMiUsuarioSinTokenConLaRuta(String ruta) throws Exception {
+        // Variantes que Spring MVC resuelve al mismo controlador que la ruta normal
+        ejecutar(get(ruta, nombreUsuario));
+    }
+
+    @Cuando("consulto el resumen de reportes con el token de acceso")
+    public void consultoElResumenDeReportesConElTokenDeAcceso() throws Exception {
+        assertNotNull(tokenAcceso, "No hay token de acceso en este escenario");
+        ejecutar(get("/reportes/resumen").header("Authorization", "Bearer " + tokenAcceso));
+    }
+
+    @Cuando("asigno el rol {string} al usuario {string} con el token de acceso")
+    public void asignoElRolAlUsuarioConElTokenDeAcceso(String rol, String nombre) throws Exception {
+        assertNotNull(tokenAcceso, "No hay token de acceso en este escenario");
+        ejecutar(put("/usuarios/{id}/rol", usuario(nombre).getId())
+                .header("Authorization", "Bearer " + tokenAcceso)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("rol", rol))));
+    }
+
+    @Cuando("verifico el token de acceso {int} veces")
+    public void verificoElTokenDeAccesoVeces(int veces) {
+        assertNotNull(tokenAcceso, "No hay token de acceso en este escenario");
+        // Calentamiento sin medir: JIT y primera verificación con HMAC
+        for (int i = 0; i < veces / 10; i++) {
+            servicioTokens.verificar(tokenAcceso, ReclamosJwt.TipoToken.ACCESO);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < veces; i++) {
+            servicioTokens.verificar(tokenAcceso, ReclamosJwt.TipoToken.ACCESO);
+        }
+        promedioVerificacionMicros = (System.nanoTime() - inicio) / 1_000.0 / veces;
+        System.out.println(String.format(Locale.ROOT, "⏱️ Verificación de token: %.3f µs en promedio", promedioVerificacionMicros));
+    }
+
+    @Entonces("debería recibir un token de acceso y uno de refresco")
+    public void deberiaRecibirUnTokenDeAccesoYUnoDeRefresco() {
+        assertTrue(utilPruebas.esTokenJwtValido(tokenAcceso), "Token de acceso inválido: " + tokenAcceso);
+        assertTrue(utilPruebas.esTokenJwtValido(tokenRefresco), "Token de refresco inválido: " + tokenRefresco);
+        assertNotEquals(tokenAcceso, tokenRefresco, "Acceso y refresco deberían ser tokens distintos");
+    }
+
+    @Entonces("la respuesta debería indicar {string}")
+    public void laRespuestaDeberiaIndicar(String mensaje) {
+        assertTrue(ultimaRespuesta != null && ultimaRespuesta.contains(mensaje),
+                "La respuesta debería contener '" + mensaje + "', pero fue: " + ultimaRespuesta);
+    }
+
+    @Entonces("el usuario {string} debería tener el rol {string}")
+    public void elUsuarioDeberiaTenerElRol(String nombre, String rol) {
+        Usuario usuario = usuario(nombre);
+        assertEquals(rol, usuario.getNombreRol(), "Rol de " + usuario.getNombreUsuario());
+        assertEquals(servicioRoles.obtenerRol(rol).getPermisos(), usuario.getPermisos(),
+                "Los permisos efectivos deberían ser los del rol");
+    }
+
+    @Entonces("el usuario {string} debería estar en estado {string}")
+    public void elUsuarioDeberiaEstarEnEstado(String nombre, String estado) {
+        assertEquals(Usuario.EstadoUsuario.valueOf(estado), usuario(nombre).getEstado(), "Estado de " + nombre);
+    }
+
+    @Dado("que el usuario {string} tiene guardada en texto plano la contraseña {string}")
+    public void queElUsuarioTieneGuardadaEnTextoPlano(String nombre, String contrasena) {
+        // Como la guardaba la aplicación antes de codificar contraseñas
+        usuario(nombre).setContrasena(contrasena);
+    }
+
+    @Entonces("la contraseña del usuario {string} debería estar codificada")
+    public void laContrasenaDelUsuarioDeberiaEstarCodificada(String nombre) {
+        String guardada = usuario(nombre).getContrasena();
+        assertFalse(codificadorContrasenas.necesitaActualizar(guardada),
+                "La contraseña de " + nombre + " no está codificada con los parámetros vigentes: " + guardada);
+    }
+
+    @Entonces("la respuesta debería incluir la cabecera {string}")
+    public void laRespuestaDeberiaIncluirLaCabecera(String cabecera) {
+        assertNotNull(ultimaRespuestaHttp.getHeader(cabecera), "Falta la cabecera " + cabecera);
+    }
+
+    @Entonces("cada verificación debería tomar en promedio menos de {int} microsegundos")
+    public void cadaVerificacionDeberiaTomarEnPromedioMenosDe(int microsegundos) {
+        assertTrue(promedioVerificacionMicros < microsegundos, String.format(Locale.ROOT,
+                "Verificación promedio %.3f µs (objetivo < %d µs)", promedioVerificacionMicros, microsegundos));
+    }
+
+    private Usuario usuario(String nombre) {
+        String nombreUsuario = contexto.aislar(nombre);
+        return servicioUsuario.buscarPorNombreUsuario(nombreUsuario)
+                .orElseThrow(() -> new AssertionError("No existe el usuario " + nombreUsuario));
+    }
+
+    private void registrar(Usuario usuario) throws Exception {
+        // El alta recibe la contraseña en el JSON; al responder ya no se serializa
+        Map<String, String> cuerpo = Map.of(
+                "nombreUsuario", usuario.getNombreUsuario(),
+                "nombre", usuario.getNombre(),
+                "apellido", usuario.getApellido(),
+                "correoElectronico", usuario.getCorreoElectronico(),
+                "contrasena", usuario.getContrasena());
+        ejecutar(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(cuerpo)));
+    }
+
+    private void consultarMiUsuario(String token) throws Exception {
+        assertNotNull(token, "No hay token en este escenario");
+        ejecutar(get("/usuarios/buscar/nombreUsuario/{nombre}", nombreUsuario).header("Authorization", "Bearer " + token));
+    }
+
+    private void recibirTokens(MockHttpServletResponse respuesta) throws Exception {
+        if (respuesta.getStatus() == 200) {
+            JsonNode tokens = objectMapper.readTree(ultimaRespuesta);
+            tokenAcceso = tokens.path("tokenAcceso").asText(null);
+            tokenRefresco = tokens.path("tokenRefresco").asText(null);
+        }
+    }
+
+    private MockHttpServletResponse ejecutar(MockHttpServletRequestBuilder peticion) throws Exception {
+        MvcResult resultado = mockMvc().perform(peticion).andReturn();
+        // Inicio de sesión y alta responden desde el ejecutor de contraseñas
+        if (resultado.getRequest().isAsyncStarted()) {
+            resultado = mockMvc().perform(asyncDispatch(resultado)).andReturn();
+        }
+        MockHttpServletResponse respuesta = resultado.getResponse();
+        ultimaRespuestaHttp = respuesta;
+        ultimaRespuesta = respuesta.getContentAsString(StandardCharsets.UTF_8);
+        contexto.setUltimoCodigoEstado(respuesta.getStatus());
+        return respuesta;
+    }
+
+    private MockMvc mockMvc() {
+        if (mockMvc == null) {
+            mockMvc = MockMvcBuilders.webAppContextSetup(contextoWeb).addFilters(filtroAutenticacionJwt).build();
+        }
+        return mockMvc;
+    }
+}
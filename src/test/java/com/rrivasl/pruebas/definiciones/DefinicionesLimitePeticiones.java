@@ -0,0 +1,131 @@
+package com.rrivasl.pruebas.definiciones;
+
+import com.rrivasl.configuracion.FiltroAutenticacionJwt;
+import com.rrivasl.configuracion.FiltroLimitePeticiones;
+import io.cucumber.java.Before;
+import io.cucumber.java.es.Cuando;
+import io.cucumber.java.es.Entonces;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Definiciones de pasos para el límite de peticiones
+ * @author Roberto Rivas López
+ * Principios aplicados: Separación de Responsabilidades, Pruebas de caja negra
+ *
+ * Las peticiones pasan por el filtro de límite y el de autenticación, en el
+ * orden del servidor. Cada cliente es una dirección remota propia del
+ * escenario: los escenarios en paralelo no comparten cubos. Sin token, una
+ * petición admitida por el límite termina en 401 de la autenticación.
+ */
+@SpringBootTest
+public class DefinicionesLimitePeticiones {
+
+    private static final String CABECERA_CLAVE = "X-API-Key";
+    // Límites de application-test.yml que miden los escenarios
+    private static final List<String> LIMITES = List.of("GET /productos", "GET /usuarios/buscar");
+
+    @Autowired
+    private FiltroLimitePeticiones filtroLimitePeticiones;
+
+    @Autowired
+    private FiltroAutenticacionJwt filtroAutenticacionJwt;
+
+    @Autowired
+    private WebApplicationContext contextoWeb;
+
+    @Autowired
+    private ContextoTest contexto;
+
+    private MockMvc mockMvc;
+    private MockHttpServletResponse ultimaRespuesta;
+    private final Map<String, Double> rechazadasAlInicio = new HashMap<>();
+
+    @Before("@limite")
+    public void registrarRechazosPrevios() {
+        LIMITES.forEach(limite -> rechazadasAlInicio.put(limite, filtroLimitePeticiones.rechazadas(limite)));
+    }
+
+    @Cuando("el cliente {string} consulta los productos {int} vez/veces")
+    public void elClienteConsultaLosProductos(String cliente, int veces) throws Exception {
+        consultar(cliente, "/productos", veces);
+    }
+
+    @Cuando("el cliente {string} consulta los productos {int} vez/veces con la clave de API {string}")
+    public void elClienteConsultaLosProductosConLaClave(String cliente, int veces, String clave) throws Exception {
+        for (int i = 0; i < veces; i++) {
+            ejecutar(cliente, get("/productos").header(CABECERA_CLAVE, contexto.aislar(clave)));
+        }
+    }
+
+    @Cuando("el cliente {string} consulta la salud de productos {int} vez/veces")
+    public void elClienteConsultaLaSaludDeProductos(String cliente, int veces) throws Exception {
+        consultar(cliente, "/productos/salud", veces);
+    }
+
+    @Cuando("el cliente {string} consulta la ruta {string} {int} vez/veces")
+    public void elClienteConsultaLaRuta(String cliente, String ruta, int veces) throws Exception {
+        consultar(cliente, ruta, veces);
+    }
+
+    @Cuando("el cliente {string} busca usuarios {int} vez/veces con una clave de API distinta cada vez")
+    public void elClienteBuscaUsuariosConUnaClaveDistinta(String cliente, int veces) throws Exception {
+        for (int i = 0; i < veces; i++) {
+            ejecutar(cliente, get("/usuarios/buscar").param("q", "ana").header(CABECERA_CLAVE, UUID.randomUUID().toString()));
+        }
+    }
+
+    @Entonces("la respuesta debería pedir reintentar en a lo sumo {int} segundos")
+    public void laRespuestaDeberiaPedirReintentar(int segundos) {
+        String reintento = ultimaRespuesta.getHeader(HttpHeaders.RETRY_AFTER);
+        assertNotNull(reintento, "Falta la cabecera Retry-After");
+        long espera = Long.parseLong(reintento);
+        assertTrue(espera >= 1 && espera <= segundos, "Retry-After fuera de rango: " + espera);
+    }
+
+    @Entonces("el límite {string} debería haber rechazado {int} petición/peticiones")
+    public void elLimiteDeberiaHaberRechazado(String limite, int rechazadas) {
+        assertEquals(rechazadas, filtroLimitePeticiones.rechazadas(limite) - rechazadasAlInicio.getOrDefault(limite, 0.0), 0.0,
+                "Peticiones rechazadas por " + limite);
+    }
+
+    private void consultar(String cliente, String ruta, int veces) throws Exception {
+        for (int i = 0; i < veces; i++) {
+            ejecutar(cliente, get(ruta).header(CABECERA_CLAVE, contexto.aislar(cliente)));
+        }
+    }
+
+    private void ejecutar(String cliente, MockHttpServletRequestBuilder peticion) throws Exception {
+        String direccion = contexto.aislar(cliente);
+        ultimaRespuesta = mockMvc().perform(peticion.with(p -> {
+            p.setRemoteAddr(direccion);
+            return p;
+        })).andReturn().getResponse();
+        contexto.setUltimoCodigoEstado(ultimaRespuesta.getStatus());
+    }
+
+    private MockMvc mockMvc() {
+        if (mockMvc == null) {
+            mockMvc = MockMvcBuilders.webAppContextSetup(contextoWeb)
+                    .addFilters(filtroLimitePeticiones, filtroAutenticacionJwt)
+                    .build();
+        }
+        return mockMvc;
+    }
+}
@@ -2,6 +2,7 @@ package com.rrivasl.pruebas.definiciones;
 import com.rrivasl.modelo.Producto;
 
 import com.rrivasl.modelo.Producto;
+import com.rrivasl.modelo.ResultadoLote;
 import com.rrivasl.servicio.ServicioProducto;
 import io.cucumber.java.es.*;
 import io.cucumber.datatable.DataTable;
@@ -12,9 +13,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
-import com.rrivasl.pruebas.definiciones.ContextoTest;
 
 /**
  * Definiciones de pasos para gestión de productos - CÓDIGOS DE ESTADO CORREGIDOS
@@ -26,19 +28,21 @@ public class DefinicionesProductos {
     @Autowired
     private ServicioProducto servicioProducto;
     
+    @Autowired
+    private ContextoTest contexto;
+    
     private Producto ultimoProductoCreado;
-    // Usar contexto compartido
-    // private Exception ultimaExcepcion;
-    // private String ultimoMensajeError;
-    // private int ultimoCodigoEstado = 0; // Inicialización explícita
+    private List<Producto> cargaProductos;
+    private ResultadoLote ultimoResultadoLote;
+    private String codigoExistente;
     
     @Dado("que estoy autenticado con permisos de gestión")
     public void queEstoyAutenticadoConPermisosDeGestion() {
         System.out.println("🔑 Autenticado con permisos de gestión - Roberto Rivas López");
         // Resetear estado para nueva prueba
-        ContextoTest.ultimoCodigoEstado = 0;
-        ContextoTest.ultimaExcepcion = null;
-        ContextoTest.ultimoMensajeError = null;
+        contexto.setUltimoCodigoEstado(0);
+        contexto.setUltimaExcepcion(null);
+        contexto.setUltimoMensajeError(null);
         assertTrue(true, "Permisos de gestión verificados");
     }
     
@@ -53,25 +57,27 @@ public class DefinicionesProductos {
                 .precio(new BigDecimal(datos.get("precio")))
                 .categoria(datos.get("categoria"))
                 .stock(Integer.parseInt(datos.get("stock")))
-                .codigoProducto(datos.get("codigoProducto"))
+                .codigoProducto(contexto.aislar(datos.get("codigoProducto")))
                 .build();
         
         // Resetear estado
-        ContextoTest.ultimoCodigoEstado = 0;
-        ContextoTest.ultimaExcepcion = null;
-        ContextoTest.ultimoMensajeError = null;
+        contexto.setUltimoCodigoEstado(0);
+        contexto.setUltimaExcepcion(null);
+        contexto.setUltimoMensajeError(null);
         
         assertTrue(true, "Datos de producto preparados");
     }
     
     @Dado("que existe un producto con código {string}")
-    public void queExisteUnProductoConCodigo(String codigo) {
+    public void queExisteUnProductoConCodigo(String codigoBase) {
+        String codigo = contexto.aislar(codigoBase);
+        codigoExistente = codigo;
         System.out.println("📦 Verificando producto existente con código: " + codigo);
         
         // Resetear estado
-        ContextoTest.ultimoCodigoEstado = 0;
-        ContextoTest.ultimaExcepcion = null;
-        ContextoTest.ultimoMensajeError = null;
+        contexto.setUltimoCodigoEstado(0);
+        contexto.setUltimaExcepcion(null);
+        contexto.setUltimoMensajeError(null);
         
         // Verificar si ya existe, si no, crearlo
         Producto productoExistente = servicioProducto.buscarPorCodigo(codigo);
@@ -102,39 +108,32 @@ public class DefinicionesProductos {
         
         try {
             // Resetear estado antes de la operación
-            ContextoTest.ultimaExcepcion = null;
-            ContextoTest.ultimoMensajeError = null;
+            contexto.setUltimaExcepcion(null);
+            contexto.setUltimoMensajeError(null);
             
-            // Verificar si ya existe un producto con el mismo código
-            Producto productoExistente = servicioProducto.buscarPorCodigo(ultimoProductoCreado.getCodigoProducto());
-            if (productoExistente != null) {
-                // Simular error de código duplicado
-                throw new IllegalArgumentException("El código del producto ya existe");
-            }
-            
-            // Intentar crear el producto
+            // Intentar crear el producto (el catálogo rechaza códigos duplicados)
             ultimoProductoCreado = servicioProducto.crearProducto(ultimoProductoCreado);
             
             // Si llegamos aquí, la creación fue exitosa
-            ContextoTest.ultimoCodigoEstado = 201; // Created
+            contexto.setUltimoCodigoEstado(201); // Created
             System.out.println("✅ Producto creado exitosamente con ID: " + ultimoProductoCreado.getId());
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
             
         } catch (IllegalArgumentException e) {
             // Error de validación/conflicto
-            ContextoTest.ultimaExcepcion = e;
-            ContextoTest.ultimoMensajeError = e.getMessage();
-            ContextoTest.ultimoCodigoEstado = 409; // Conflict
+            contexto.setUltimaExcepcion(e);
+            contexto.setUltimoMensajeError(e.getMessage());
+            contexto.setUltimoCodigoEstado(409); // Conflict
             System.out.println("❌ Error de conflicto: " + e.getMessage());
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
             
         } catch (Exception e) {
             // Otro tipo de error
-            ContextoTest.ultimaExcepcion = e;
-            ContextoTest.ultimoMensajeError = e.getMessage();
-            ContextoTest.ultimoCodigoEstado = 500; // Internal Server Error
+            contexto.setUltimaExcepcion(e);
+            contexto.setUltimoMensajeError(e.getMessage());
+            contexto.setUltimoCodigoEstado(500); // Internal Server Error
             System.out.println("❌ Error interno: " + e.getMessage());
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
         }
         
         assertTrue(true, "Petición de creación procesada");
@@ -146,8 +145,8 @@ public class DefinicionesProductos {
         
         try {
             // Resetear estado antes de la operación
-            ContextoTest.ultimaExcepcion = null;
-            ContextoTest.ultimoMensajeError = null;
+            contexto.setUltimaExcepcion(null);
+            contexto.setUltimoMensajeError(null);
             
             Producto productoDuplicado = Producto.builder()
                     .nombre("Producto Duplicado")
@@ -155,71 +154,65 @@ public class DefinicionesProductos {
                     .precio(new BigDecimal("200.00"))
                     .categoria("TEST")
                     .stock(3)
-                    .codigoProducto("PROD-001")
+                    .codigoProducto(codigoExistente)
                     .build();
             
-            // Verificar si ya existe (debería existir)
-            Producto productoExistente = servicioProducto.buscarPorCodigo("PROD-001");
-            if (productoExistente != null) {
-                // Simular error de código duplicado
-                throw new IllegalArgumentException("El código del producto ya existe");
-            }
-            
-            // Intentar crear producto duplicado
+            // Intentar crear producto duplicado (el catálogo debe rechazarlo)
             servicioProducto.crearProducto(productoDuplicado);
             
             // Si llegamos aquí, no hubo error (inesperado)
-            ContextoTest.ultimoCodigoEstado = 201; // Created
+            contexto.setUltimoCodigoEstado(201); // Created
             System.out.println("⚠️ Producto duplicado creado inesperadamente");
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
             
         } catch (IllegalArgumentException e) {
             // Error esperado de duplicación
-            ContextoTest.ultimaExcepcion = e;
-            ContextoTest.ultimoMensajeError = e.getMessage();
-            ContextoTest.ultimoCodigoEstado = 409; // Conflict
+            contexto.setUltimaExcepcion(e);
+            contexto.setUltimoMensajeError(e.getMessage());
+            contexto.setUltimoCodigoEstado(409); // Conflict
             System.out.println("✅ Error de duplicación capturado correctamente: " + e.getMessage());
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
             
         } catch (Exception e) {
             // Otro tipo de error
-            ContextoTest.ultimaExcepcion = e;
-            ContextoTest.ultimoMensajeError = e.getMessage();
-            ContextoTest.ultimoCodigoEstado = 500; // Internal Server Error
+            contexto.setUltimaExcepcion(e);
+            contexto.setUltimoMensajeError(e.getMessage());
+            contexto.setUltimoCodigoEstado(500); // Internal Server Error
             System.out.println("❌ Error inesperado: " + e.getMessage());
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
         }
         
         assertTrue(true, "Intento de duplicación procesado");
     }
     
     @Cuando("busco el producto por código {string}")
-    public void buscoElProductoPorCodigo(String codigo) {
+    public void buscoElProductoPorCodigo(String codigoBase) {
+        String codigo = contexto.aislar(codigoBase);
         System.out.println("🔍 Buscando producto por código: " + codigo);
         
         try {
             // Resetear estado antes de la operación
-            ContextoTest.ultimaExcepcion = null;
-            ContextoTest.ultimoMensajeError = null;
+            contexto.setUltimaExcepcion(null);
+            contexto.setUltimoMensajeError(null);
             
             Producto producto = servicioProducto.buscarPorCodigo(codigo);
             if (producto != null) {
                 ultimoProductoCreado = producto;
-                ContextoTest.ultimoCodigoEstado = 200; // OK
+                contexto.setUltimoCodigoEstado(200); // OK
                 System.out.println("✅ Producto encontrado: " + producto.getNombre());
-                System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+                System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
             } else {
-                ContextoTest.ultimoCodigoEstado = 404; // Not Found
+                contexto.setUltimoCodigoEstado(404); // Not Found
                 System.out.println("❌ Producto no encontrado");
-                System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+                System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
             }
             
         } catch (Exception e) {
-            ContextoTest.ultimaExcepcion = e;
-            ContextoTest.ultimoMensajeError = e.getMessage();
-            ContextoTest.ultimoCodigoEstado = 500; // Internal Server Error
+            contexto.setUltimaExcepcion(e);
+            contexto.setUltimoMensajeError(e.getMessage());
+            contexto.setUltimoCodigoEstado(500); // Internal Server Error
             System.out.println("❌ Error en búsqueda: " + e.getMessage());
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
         }
         
         assertTrue(true, "Búsqueda de producto procesada");
@@ -228,8 +221,8 @@ public class DefinicionesProductos {
     @Entonces("el producto debería crearse exitosamente")
     public void elProductoDeberiaCrearseExitosamente() {
         System.out.println("✅ Verificando creación exitosa del producto");
-        System.out.println("📊 Código de estado actual: " + ContextoTest.ultimoCodigoEstado);
-        assertNull(ContextoTest.ultimaExcepcion, "No debería haber excepciones para creación exitosa");
+        System.out.println("📊 Código de estado actual: " + contexto.getUltimoCodigoEstado());
+        assertNull(contexto.getUltimaExcepcion(), "No debería haber excepciones para creación exitosa");
         assertNotNull(ultimoProductoCreado, "Producto debería estar creado");
         assertNotNull(ultimoProductoCreado.getId(), "Producto debería tener ID asignado");
         System.out.println("Producto creado exitosamente con ID: " + ultimoProductoCreado.getId());
@@ -249,9 +242,9 @@ public class DefinicionesProductos {
     @Entonces("debería encontrar el producto")
     public void deberiaEncontrarElProducto() {
         System.out.println("✅ Verificando que el producto fue encontrado");
-        System.out.println("📊 Código de estado actual: " + ContextoTest.ultimoCodigoEstado);
+        System.out.println("📊 Código de estado actual: " + contexto.getUltimoCodigoEstado());
         assertNotNull(ultimoProductoCreado, "Producto debería haber sido encontrado");
-        assertEquals(200, ContextoTest.ultimoCodigoEstado, "Código de estado debería ser 200 para búsqueda exitosa");
+        assertEquals(200, contexto.getUltimoCodigoEstado(), "Código de estado debería ser 200 para búsqueda exitosa");
     }
     
     @Entonces("los datos del producto deberían ser correctos")
@@ -268,4 +261,65 @@ public class DefinicionesProductos {
         System.out.println("   Código: " + ultimoProductoCreado.getCodigoProducto());
         System.out.println("   Precio: $" + ultimoProductoCreado.getPrecio());
     }
+    
+    @Dado("que tengo una carga de {int} productos nuevos con prefijo {string}")
+    public void queTengoUnaCargaDeProductosNuevos(int cantidad, String prefijoBase) {
+        String prefijo = contexto.aislar(prefijoBase);
+        System.out.println("📦 Preparando carga masiva de " + cantidad + " productos");
+        
+        cargaProductos = new ArrayList<>(cantidad + 2);
+        for (int i = 1; i <= cantidad; i++) {
+            cargaProductos.add(Producto.builder()
+                    .nombre("Producto de carga " + i)
+                    .precio(new BigDecimal("1500.00"))
+                    .categoria("CARGA")
+                    .stock(i % 20)
+                    .codigoProducto(prefijo + "-" + i)
+                    .build());
+        }
+        ultimoResultadoLote = null;
+    }
+    
+    @Dado("la carga incluye un producto inválido y un código repetido")
+    public void laCargaIncluyeUnProductoInvalidoYUnCodigoRepetido() {
+        cargaProductos.add(Producto.builder()
+                .nombre("")
+                .precio(new BigDecimal("-1"))
+                .stock(1)
+                .codigoProducto(contexto.aislar("INVALIDO-1"))
+                .build());
+        Producto primero = cargaProductos.get(0);
+        cargaProductos.add(Producto.builder()
+                .nombre("Repetido")
+                .precio(new BigDecimal("10.00"))
+                .stock(1)
+                .codigoProducto(primero.getCodigoProducto())
+                .build());
+    }
+    
+    @Cuando("envío la carga masiva de productos")
+    public void envioLaCargaMasivaDeProductos() {
+        System.out.println("📤 Enviando carga masiva de productos...");
+        ultimoResultadoLote = servicioProducto.crearProductosEnLote(cargaProductos);
+        System.out.println("📊 Insertados: " + ultimoResultadoLote.getInsertados()
+                + ", rechazados: " + ultimoResultadoLote.getRechazados());
+    }
+    
+    @Entonces("deberían insertarse {int} productos")
+    public void deberianInsertarseProductos(int cantidad) {
+        assertNotNull(ultimoResultadoLote, "La carga debería haberse procesado");
+        assertEquals(cantidad, ultimoResultadoLote.getInsertados(), "Cantidad de productos insertados");
+        assertNotNull(servicioProducto.buscarPorCodigo(cargaProductos.get(cantidad - 1).getCodigoProducto()),
+                "El último producto de la carga debería estar en el inventario");
+    }
+    
+    @Entonces("deberían rechazarse {int} productos")
+    public void deberianRechazarseProductos(int cantidad) {
+        assertEquals(cantidad, ultimoResultadoLote.getRechazados(), "Cantidad de productos rechazados");
+    }
+    
+    @Entonces("la carga debería procesarse en {int} bloques")
+    public void laCargaDeberiaProcesarseEnBloques(int cantidad) {
+        assertEquals(cantidad, ultimoResultadoLote.getBloques().size(), "Cantidad de bloques procesados");
+    }
 }
@@ -0,0 +1,192 @@
+package com.rrivasl.pruebas.definiciones;
+
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.es.Cuando;
+import io.cucumber.java.es.Dado;
+import io.cucumber.java.es.Entonces;
+import com.rrivasl.configuracion.FiltroAutenticacionJwt;
+import com.rrivasl.modelo.Producto;
+import com.rrivasl.modelo.Usuario;
+import com.rrivasl.pruebas.utilidades.GeneradorCarga;
+import com.rrivasl.pruebas.utilidades.GeneradorCarga.ResultadoCarga;
+import com.rrivasl.servicio.ServicioProducto;
+import com.rrivasl.servicio.ServicioTokens;
+import com.rrivasl.servicio.ServicioUsuario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Definiciones de pasos para escenarios de rendimiento
+ * Principios aplicados: Separación de Responsabilidades, Reutilización de código
+ * @author Roberto Rivas López
+ *
+ * Los pasos "Cuando" cargan los servicios reales (o MockMvc, para incluir la
+ * capa web) con GeneradorCarga; los pasos "Entonces" comparan el resultado con
+ * el objetivo de servicio y fallan el escenario si no se cumple. Durante la
+ * carga el registro de com.rrivasl baja a WARN: se mide el servicio, no la consola.
+ * Las consultas por MockMvc pasan por el filtro JWT con un token de acceso, así
+ * la latencia medida incluye la autenticación.
+ */
+@SpringBootTest
+public class DefinicionesRendimiento {
+
+    private static final String PAQUETE_APLICACION = "com.rrivasl";
+    private static final AtomicLong SECUENCIA = new AtomicLong();
+
+    @Autowired
+    private ServicioUsuario servicioUsuario;
+
+    @Autowired
+    private ServicioProducto servicioProducto;
+
+    @Autowired
+    private ServicioTokens servicioTokens;
+
+    @Autowired
+    private FiltroAutenticacionJwt filtroAutenticacionJwt;
+
+    @Autowired
+    private WebApplicationContext contextoWeb;
+
+    @Autowired
+    private LoggingSystem sistemaRegistro;
+
+    private Duration calentamiento = Duration.ZERO;
+    private List<String> nombresUsuarioCarga = new ArrayList<>();
+    private ResultadoCarga ultimoResultado;
+    private LogLevel nivelRegistroAnterior;
+
+    @Before("@rendimiento")
+    public void silenciarRegistro() {
+        LoggerConfiguration configuracion = sistemaRegistro.getLoggerConfiguration(PAQUETE_APLICACION);
+        nivelRegistroAnterior = configuracion == null ? null : configuracion.getConfiguredLevel();
+        sistemaRegistro.setLogLevel(PAQUETE_APLICACION, LogLevel.WARN);
+    }
+
+    @After("@rendimiento")
+    public void restaurarRegistro() {
+        sistemaRegistro.setLogLevel(PAQUETE_APLICACION, nivelRegistroAnterior);
+    }
+
+    @Dado("que cada carga se calienta durante {int} segundo(s)")
+    public void queCadaCargaSeCalientaDurante(int segundos) {
+        calentamiento = Duration.ofSeconds(segundos);
+    }
+
+    @Dado("que existen {int} usuarios para la carga")
+    public void queExistenUsuariosParaLaCarga(int cantidad) {
+        nombresUsuarioCarga = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            nombresUsuarioCarga.add(servicioUsuario.crearUsuario(nuevoUsuario()).getNombreUsuario());
+        }
+    }
+
+    @Dado("que existe el producto {string} para la carga")
+    public void queExisteElProductoParaLaCarga(String codigo) {
+        if (servicioProducto.buscarPorCodigo(codigo) == null) {
+            servicioProducto.crearProducto(Producto.builder()
+                    .nombre("Producto de carga")
+                    .codigoProducto(codigo)
+                    .categoria("Carga")
+                    .precio(BigDecimal.valueOf(1000))
+                    .stock(10)
+                    .build());
+        }
+    }
+
+    @Cuando("{int} usuarios concurrentes crean cuentas durante {int} segundo(s)")
+    public void usuariosConcurrentesCreanCuentasDurante(int concurrencia, int segundos) throws InterruptedException {
+        cargar(concurrencia, segundos, (hilo, iteracion) -> servicioUsuario.crearUsuario(nuevoUsuario()));
+    }
+
+    @Cuando("{int} clientes concurrentes buscan usuarios por nombre de usuario durante {int} segundo(s)")
+    public void clientesConcurrentesBuscanUsuariosPorNombre(int concurrencia, int segundos) throws InterruptedException {
+        assertTrue(!nombresUsuarioCarga.isEmpty(), "No hay usuarios preparados para la carga");
+        List<String> nombres = nombresUsuarioCarga;
+        cargar(concurrencia, segundos, (hilo, iteracion) -> {
+            String nombre = nombres.get((int) ((iteracion * 31 + hilo) % nombres.size()));
+            if (servicioUsuario.buscarPorNombreUsuario(nombre).isEmpty()) {
+                throw new IllegalStateException("Usuario no encontrado: " + nombre);
+            }
+        });
+    }
+
+    @Cuando("{int} clientes concurrentes consultan {string} durante {int} segundo(s)")
+    public void clientesConcurrentesConsultan(int concurrencia, String ruta, int segundos) throws InterruptedException {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(contextoWeb).addFilters(filtroAutenticacionJwt).build();
+        String autorizacion = "Bearer " + servicioTokens.emitirTokens(servicioUsuario.crearUsuario(nuevoUsuario())).getTokenAcceso();
+        cargar(concurrencia, segundos, (hilo, iteracion) -> {
+            int estado = mockMvc.perform(get(ruta).header("Authorization", autorizacion)).andReturn().getResponse().getStatus();
+            if (estado >= 400) {
+                throw new IllegalStateException("GET " + ruta + " respondió " + estado);
+            }
+        });
+    }
+
+    @Entonces("no debería haber errores")
+    public void noDeberiaHaberErrores() {
+        ResultadoCarga resultado = resultado();
+        assertEquals(0, resultado.getErrores(), () -> "Hubo errores bajo carga (" + resultado.resumen()
+                + "); primero: " + resultado.getPrimerError());
+    }
+
+    @Entonces("la tasa de errores debería ser menor a {double} %")
+    public void laTasaDeErroresDeberiaSerMenorA(double porcentaje) {
+        ResultadoCarga resultado = resultado();
+        assertTrue(resultado.porcentajeErrores() < porcentaje, () -> String.format(Locale.ROOT,
+                "Tasa de errores %.2f %% (objetivo < %.2f %%): %s", resultado.porcentajeErrores(), porcentaje, resultado.resumen()));
+    }
+
+    @Entonces("el p{double} debería ser menor a {int} ms")
+    public void elPercentilDeberiaSerMenorA(double percentil, int milisegundos) {
+        ResultadoCarga resultado = resultado();
+        assertTrue(resultado.getOperaciones() > 0, () -> "La carga no completó operaciones: " + resultado.resumen());
+        double medido = resultado.percentilMs(percentil);
+        assertTrue(medido < milisegundos, () -> String.format(Locale.ROOT,
+                "p%s = %.2f ms (objetivo < %d ms): %s", formatear(percentil), medido, milisegundos, resultado.resumen()));
+    }
+
+    @Entonces("el throughput debería ser de al menos {int} operaciones por segundo")
+    public void elThroughputDeberiaSerDeAlMenos(int operacionesPorSegundo) {
+        ResultadoCarga resultado = resultado();
+        assertTrue(resultado.throughput() >= operacionesPorSegundo, () -> String.format(Locale.ROOT,
+                "Throughput %.0f op/s (objetivo >= %d op/s): %s", resultado.throughput(), operacionesPorSegundo, resultado.resumen()));
+    }
+
+    private void cargar(int concurrencia, int segundos, GeneradorCarga.Operacion operacion) throws InterruptedException {
+        GeneradorCarga generador = new GeneradorCarga(concurrencia, Duration.ofSeconds(segundos), calentamiento);
+        ultimoResultado = generador.ejecutar(operacion);
+        System.out.println("⏱️ " + ultimoResultado.resumen());
+    }
+
+    private ResultadoCarga resultado() {
+        assertNotNull(ultimoResultado, "No se ejecutó ninguna carga en este escenario");
+        return ultimoResultado;
+    }
+
+    private static Usuario nuevoUsuario() {
+        long numero = SECUENCIA.incrementAndGet();
+        return new Usuario("carga" + numero, "Carga", "Rendimiento", "carga" + numero + "@rendimiento.test", "MiClave123!");
+    }
+
+    private static String formatear(double percentil) {
+        return percentil == Math.rint(percentil) ? String.valueOf((long) percentil) : String.valueOf(percentil);
+    }
+}
@@ -4,14 +4,39 @@ import io.cucumber.java.es.Dado;
 import io.cucumber.java.es.Cuando;
 import io.cucumber.java.es.Entonces;
 import io.cucumber.datatable.DataTable;
+import com.rrivasl.modelo.FormatoReporte;
+import com.rrivasl.modelo.Producto;
+import com.rrivasl.modelo.ResultadoReporte;
+import com.rrivasl.modelo.ResumenDashboard;
+import com.rrivasl.modelo.TipoReporte;
+import com.rrivasl.modelo.TotalesCategoria;
+import com.rrivasl.modelo.Trabajo;
+import com.rrivasl.modelo.Usuario;
+import com.rrivasl.modelo.Venta;
+import com.rrivasl.repositorio.RepositorioVenta;
+import com.rrivasl.servicio.ServicioEstadisticas;
+import com.rrivasl.servicio.ServicioReportes;
+import com.rrivasl.servicio.ServicioProducto;
+import com.rrivasl.servicio.ServicioTrabajos;
+import com.rrivasl.servicio.ServicioUsuario;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
-import com.rrivasl.pruebas.definiciones.ContextoTest;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Definiciones de pasos para generación de reportes
@@ -21,12 +46,36 @@ import com.rrivasl.pruebas.definiciones.ContextoTest;
 @SpringBootTest
 public class DefinicionesReportes {
     
+    @Autowired
+    private ServicioEstadisticas servicioEstadisticas;
+    
+    @Autowired
+    private ServicioUsuario servicioUsuario;
+    
+    @Autowired
+    private ServicioProducto servicioProducto;
+    
+    @Autowired
+    private ServicioReportes servicioReportes;
+    
+    @Autowired
+    private RepositorioVenta repositorioVenta;
+    
+    @Autowired
+    private ServicioTrabajos servicioTrabajos;
+    
+    @Autowired
+    private ContextoTest contexto;
+    
+    private ResumenDashboard resumenInicial;
+    private Trabajo trabajo;
+    private byte[] archivoReporte;
+    
     // Variables de contexto para reportes
     private String tipoReporteSolicitado;
     private String formatoReporte;
     private boolean reporteGenerado = false;
     private Map<String, Object> contenidoReporte = new HashMap<>();
-    // El status se maneja ahora con ContextoTest
     private boolean datosDisponibles = true;
     
     @Dado("que estoy autenticado con permisos de reportes")
@@ -63,19 +112,19 @@ public class DefinicionesReportes {
         if (datosDisponibles) {
             reporteGenerado = true;
             formatoReporte = "PDF";
-            ContextoTest.ultimoCodigoEstado = 200;
-            // Simular contenido del reporte
-            contenidoReporte.put("totalUsuarios", 150);
-            contenidoReporte.put("usuariosActivos", 127);
+            contexto.setUltimoCodigoEstado(200);
+            // Totales leídos de los contadores agregados, sin recorrer los usuarios
+            ResumenDashboard resumen = servicioEstadisticas.obtenerResumen();
+            contenidoReporte.put("totalUsuarios", resumen.getTotalUsuarios());
+            contenidoReporte.put("usuariosActivos", resumen.getUsuariosActivos());
             contenidoReporte.put("ultimaConexion", "2024-01-20");
-            contenidoReporte.put("distribucionRoles", Map.of(
-                "ADMIN", 5,
-                "USUARIO", 120,
-                "MODERADOR", 2
-            ));
+            contenidoReporte.put("distribucionEstados", resumen.getUsuariosPorEstado());
+            contenidoReporte.put("distribucionRoles", resumen.getUsuariosPorRol());
+            assertEquals(servicioUsuario.obtenerTodosLosUsuarios().size(), resumen.getTotalUsuarios(),
+                    "El total del reporte debe coincidir con los usuarios registrados");
             System.out.println("✅ Reporte de usuarios activos generado");
         } else {
-            ContextoTest.ultimoCodigoEstado = 400;
+            contexto.setUltimoCodigoEstado(400);
             System.out.println("❌ No hay datos suficientes para el reporte");
         }
     }
@@ -87,27 +136,15 @@ public class DefinicionesReportes {
         if (datosDisponibles) {
             reporteGenerado = true;
             formatoReporte = "PDF";
-            ContextoTest.ultimoCodigoEstado = 200;
+            contexto.setUltimoCodigoEstado(200);
             
-            // Simular contenido del reporte de inventario
-            contenidoReporte.put("stockBajo", Map.of(
-                "cantidad", 15,
-                "productos", "Laptops, Mouses, Teclados"
-            ));
-            contenidoReporte.put("masVendidos", Map.of(
-                "producto1", "Laptop Dell",
-                "producto2", "Mouse Logitech",
-                "producto3", "Teclado Mecánico"
-            ));
-            contenidoReporte.put("sinMovimiento", Map.of(
-                "cantidad", 8,
-                "dias", 30
-            ));
-            contenidoReporte.put("valorInventario", "CLP $45,250,000");
+            // Reporte real: secciones calculadas en la misma pasada que escribe el detalle
+            ResultadoReporte resultado = generarReporte(TipoReporte.INVENTARIO, FormatoReporte.PDF);
+            contenidoReporte.putAll(resultado.getSecciones());
             
             System.out.println("✅ Reporte de inventario generado");
         } else {
-            ContextoTest.ultimoCodigoEstado = 400;
+            contexto.setUltimoCodigoEstado(400);
         }
     }
     
@@ -117,28 +154,103 @@ public class DefinicionesReportes {
         
         if ("ventas_mensuales".equals(tipoReporteSolicitado)) {
             reporteGenerado = true;
-            ContextoTest.ultimoCodigoEstado = 200;
+            contexto.setUltimoCodigoEstado(200);
             
-            // Simular contenido del reporte de ventas
-            contenidoReporte.put("ventasDiarias", generarDatosVentasDiarias());
-            contenidoReporte.put("productosTop", generarProductosTop());
-            contenidoReporte.put("ingresosTotales", "CLP $12,500,000");
-            contenidoReporte.put("comparativa", Map.of(
-                "mesActual", "CLP $12,500,000",
-                "mesAnterior", "CLP $11,200,000",
-                "crecimiento", "+11.6%"
-            ));
+            ResultadoReporte resultado = generarReporte(TipoReporte.VENTAS, FormatoReporte.PDF);
+            contenidoReporte.putAll(resultado.getSecciones());
         }
         
         assertTrue(reporteGenerado, "Reporte debe generarse exitosamente");
     }
     
+    @Dado("que existen ventas registradas en el mes actual")
+    public void queExistenVentasRegistradasEnElMesActual() {
+        Producto producto = servicioProducto.buscarPorCodigo("VENTA-001");
+        if (producto == null) {
+            producto = servicioProducto.crearProducto(Producto.builder()
+                    .nombre("Producto vendido")
+                    .codigoProducto("VENTA-001")
+                    .categoria("Ventas")
+                    .precio(BigDecimal.valueOf(15000))
+                    .stock(3)
+                    .build());
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        repositorioVenta.saveAll(List.of(
+                new Venta(producto.getId(), 5, producto.getPrecio(), ahora),
+                new Venta(producto.getId(), 2, producto.getPrecio(), ahora)));
+        System.out.println("🧾 Ventas registradas para " + producto.getCodigoProducto());
+    }
+    
+    @Entonces("los más vendidos deberían incluir el producto {string}")
+    public void losMasVendidosDeberianIncluirElProducto(String codigo) {
+        Object masVendidos = contenidoReporte.containsKey("masVendidos")
+                ? contenidoReporte.get("masVendidos") : contenidoReporte.get("productosTop");
+        assertTrue(masVendidos instanceof List && ((List<?>) masVendidos).contains(codigo),
+                "Los más vendidos deberían incluir " + codigo + ": " + masVendidos);
+    }
+    
+    @Dado("que registro los totales actuales del tablero")
+    public void queRegistroLosTotalesActualesDelTablero() {
+        resumenInicial = servicioEstadisticas.obtenerResumen();
+        System.out.println("📊 Usuarios activos: " + resumenInicial.getUsuariosActivos()
+                + ", productos: " + resumenInicial.getTotalProductos());
+    }
+    
+    @Cuando("se crean {int} usuarios con prefijo {string} y se desactiva uno de ellos")
+    public void seCreanUsuariosYSeDesactivaUnoDeEllos(int cantidad, String prefijo) {
+        Usuario ultimo = null;
+        for (int i = 1; i <= cantidad; i++) {
+            String nombreUsuario = prefijo + i;
+            ultimo = servicioUsuario.crearUsuario(new Usuario(nombreUsuario, "Tablero", "Prueba",
+                    nombreUsuario + "@test.com", "Password123!"));
+        }
+        servicioUsuario.desactivarUsuario(ultimo.getId());
+    }
+    
+    @Cuando("se crea un producto de categoría {string} con precio {int} y stock {int}")
+    public void seCreaUnProductoDeCategoria(String categoria, int precio, int stock) {
+        servicioProducto.crearProducto(Producto.builder()
+                .nombre("Producto " + categoria)
+                .codigoProducto(categoria.toUpperCase() + "-001")
+                .categoria(categoria)
+                .precio(BigDecimal.valueOf(precio))
+                .stock(stock)
+                .build());
+    }
+    
+    @Entonces("el tablero debería mostrar {int} usuario activo más y {int} inactivo más")
+    public void elTableroDeberiaMostrarUsuariosMas(int activos, int inactivos) {
+        ResumenDashboard resumen = servicioEstadisticas.obtenerResumen();
+        assertEquals(resumenInicial.getUsuariosActivos() + activos, resumen.getUsuariosActivos(), "Usuarios activos");
+        assertEquals(resumenInicial.getUsuariosPorEstado().get(Usuario.EstadoUsuario.INACTIVO) + inactivos,
+                resumen.getUsuariosPorEstado().get(Usuario.EstadoUsuario.INACTIVO), "Usuarios inactivos");
+    }
+    
+    @Entonces("la categoría {string} debería valer {int} con {int} unidades")
+    public void laCategoriaDeberiaValer(String categoria, int valor, int unidades) {
+        TotalesCategoria totales = servicioEstadisticas.obtenerResumen().getCategorias().stream()
+                .filter(t -> categoria.equals(t.getCategoria()))
+                .findFirst()
+                .orElse(null);
+        assertNotNull(totales, "El tablero debería incluir la categoría " + categoria);
+        assertEquals(0, BigDecimal.valueOf(valor).compareTo(totales.getValor()), "Valor de inventario de " + categoria);
+        assertEquals(unidades, totales.getUnidades(), "Unidades de " + categoria);
+    }
+    
+    @Entonces("la reconciliación no debería encontrar diferencias")
+    public void laReconciliacionNoDeberiaEncontrarDiferencias() {
+        assertEquals(0, servicioEstadisticas.reconciliar(), "Los contadores deberían coincidir con el recuento completo");
+    }
+    
     @Entonces("debería recibir un archivo PDF")
     public void deberiaRecibirUnArchivoPdf() {
         System.out.println("📄 Verificando archivo PDF generado");
         
         assertEquals("PDF", formatoReporte, "Formato debe ser PDF");
         assertTrue(reporteGenerado, "Reporte debe estar generado");
+        assertNotNull(archivoReporte, "El reporte debe haberse escrito");
+        assertEquals("%PDF", new String(archivoReporte, 0, 4, StandardCharsets.US_ASCII), "El archivo debe ser un PDF");
         
         System.out.println("✅ Archivo PDF disponible para descarga");
     }
@@ -202,6 +314,55 @@ public class DefinicionesReportes {
         System.out.println("✅ Todos los gráficos verificados");
     }
     
+    @Cuando("encolo un reporte de inventario en formato CSV")
+    public void encoloUnReporteDeInventarioEnFormatoCsv() {
+        trabajo = servicioTrabajos.encolarReporte(TipoReporte.INVENTARIO, FormatoReporte.CSV, null);
+        System.out.println("🕒 Trabajo encolado: " + trabajo.getId());
+    }
+    
+    @Entonces("el trabajo debería quedar registrado sin esperar a que termine")
+    public void elTrabajoDeberiaQuedarRegistrado() {
+        assertNotNull(trabajo.getId(), "El trabajo debe tener identificador");
+        assertTrue(servicioTrabajos.buscarTrabajo(trabajo.getId()).isPresent(), "El trabajo debe poder consultarse");
+    }
+    
+    @Entonces("el trabajo debería completarse con el archivo del reporte")
+    public void elTrabajoDeberiaCompletarseConElArchivo() throws Exception {
+        long limite = System.currentTimeMillis() + 30_000;
+        while (!trabajo.estaTerminado() && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+        }
+        assertEquals(Trabajo.EstadoTrabajo.COMPLETADO, trabajo.getEstado(), "Error del trabajo: " + trabajo.getError());
+        assertEquals(100, trabajo.getPorcentaje());
+        Path archivo = Paths.get(trabajo.getResultado().getArchivo());
+        assertTrue(Files.exists(archivo), "El archivo del reporte debe existir: " + archivo);
+        assertTrue(Files.readString(archivo, StandardCharsets.UTF_8).contains("Valor inventario"),
+                "El archivo debe contener las secciones del reporte");
+        System.out.println("✅ Trabajo completado: " + archivo);
+    }
+    
+    @Entonces("cancelar el trabajo terminado debería ser rechazado")
+    public void cancelarElTrabajoTerminadoDeberiaSerRechazado() {
+        assertThrows(IllegalStateException.class, () -> servicioTrabajos.cancelarTrabajo(trabajo.getId()));
+        assertThrows(IllegalArgumentException.class, () -> servicioTrabajos.cancelarTrabajo("no-existe"));
+    }
+    
+    /**
+     * Generar un reporte en memoria y guardar su contenido para las verificaciones
+     */
+    private ResultadoReporte generarReporte(TipoReporte tipo, FormatoReporte formato) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try {
+            ResultadoReporte resultado = servicioReportes.generarReporte(tipo, formato, null, salida);
+            archivoReporte = salida.toByteArray();
+            System.out.println("📄 " + tipo.getTitulo() + ": " + resultado.getFilas() + " filas, "
+                    + archivoReporte.length + " bytes");
+            return resultado;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo generar el reporte", e);
+        }
+    }
+    
     /**
      * Simula datos disponibles para reportes
      * Principio: Abstracción de generación de datos
@@ -233,9 +394,17 @@ public class DefinicionesReportes {
                 assertTrue(contenidoReporte.containsKey("ultimaConexion"),
                           "Debe incluir última conexión");
                 break;
+            case "Distribución estados":
+                assertTrue(contenidoReporte.containsKey("distribucionEstados"),
+                          "Debe incluir distribución por estado");
+                break;
             case "Distribución roles":
-                assertTrue(contenidoReporte.containsKey("distribucionRoles"),
-                          "Debe incluir distribución de roles");
+                @SuppressWarnings("unchecked")
+                Map<String, Long> porRol = (Map<String, Long>) contenidoReporte.get("distribucionRoles");
+                assertNotNull(porRol, "Debe incluir distribución por rol");
+                assertEquals(contenidoReporte.get("totalUsuarios"),
+                        porRol.values().stream().mapToLong(Long::longValue).sum(),
+                        "Cada usuario debería contarse en un rol");
                 break;
             default:
                 System.out.println("ℹ️ Sección genérica verificada: " + seccion);
@@ -298,37 +467,4 @@ public class DefinicionesReportes {
                 break;
         }
     }
-    
-    /**
-     * Genera datos simulados de ventas diarias
-     * Principio: Abstracción de generación de datos
-     */
-    private Map<String, Object> generarDatosVentasDiarias() {
-        Map<String, Object> ventasDiarias = new HashMap<>();
-        
-        ventasDiarias.put("dia1", 450000);
-        ventasDiarias.put("dia2", 380000);
-        ventasDiarias.put("dia3", 520000);
-        ventasDiarias.put("dia4", 340000);
-        ventasDiarias.put("dia5", 610000);
-        ventasDiarias.put("promedio", 460000);
-        
-        return ventasDiarias;
-    }
-    
-    /**
-     * Genera datos simulados de productos top
-     * Principio: Reutilización de código
-     */
-    private Map<String, Object> generarProductosTop() {
-        Map<String, Object> productosTop = new HashMap<>();
-        
-        productosTop.put("1", Map.of("nombre", "Laptop Dell", "ventas", 25));
-        productosTop.put("2", Map.of("nombre", "Mouse Logitech", "ventas", 48));
-        productosTop.put("3", Map.of("nombre", "Teclado Mecánico", "ventas", 32));
-        productosTop.put("4", Map.of("nombre", "Monitor 24\"", "ventas", 18));
-        productosTop.put("5", Map.of("nombre", "Auriculares", "ventas", 41));
-        
-        return productosTop;
-    }
-}
\ No newline at end of file
+}
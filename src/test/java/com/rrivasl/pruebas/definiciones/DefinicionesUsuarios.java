@@ -1,5 +1,6 @@
 package com.rrivasl.pruebas.definiciones;
 
+import com.rrivasl.modelo.ResultadoImportacion;
 import com.rrivasl.modelo.Usuario;
 import com.rrivasl.servicio.ServicioUsuario;
 import io.cucumber.java.es.Dado;
@@ -15,8 +16,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Definiciones de pasos para gestión de usuarios - CÓDIGOS DE ESTADO CORREGIDOS
@@ -28,16 +32,22 @@ public class DefinicionesUsuarios {
     @Autowired
     private ServicioUsuario servicioUsuario;
     
+    @Autowired
+    private ContextoTest contexto;
+    
     private Usuario ultimoUsuarioCreado;
-    // Usar contexto compartido para estado y errores
+    private List<Usuario> importacionUsuarios;
+    private ResultadoImportacion ultimoResultadoImportacion;
+    private List<Usuario> ultimosResultadosBusqueda;
+    private String correoExistente;
     
     @Dado("que estoy autenticado como administrador")
     public void queEstoyAutenticadoComoAdministrador() {
         System.out.println("🔐 Autenticado como administrador - Roberto Rivas López");
         // Resetear estado para nueva prueba
-        ContextoTest.ultimoCodigoEstado = 0;
-        ContextoTest.ultimaExcepcion = null;
-        ContextoTest.ultimoMensajeError = null;
+        contexto.setUltimoCodigoEstado(0);
+        contexto.setUltimaExcepcion(null);
+        contexto.setUltimoMensajeError(null);
         assertTrue(true, "Usuario administrador autenticado");
     }
     
@@ -48,29 +58,32 @@ public class DefinicionesUsuarios {
         ultimoUsuarioCreado = new Usuario();
         ultimoUsuarioCreado.setNombre(datos.get("nombre"));
         ultimoUsuarioCreado.setApellido(datos.get("apellido"));
-        ultimoUsuarioCreado.setCorreoElectronico(datos.get("correoElectronico"));
-        ultimoUsuarioCreado.setNombreUsuario(datos.get("nombreUsuario"));
+        // Un dato que falta en la tabla queda nulo, no se aísla
+        ultimoUsuarioCreado.setCorreoElectronico(aislarSiExiste(datos.get("correoElectronico")));
+        ultimoUsuarioCreado.setNombreUsuario(aislarSiExiste(datos.get("nombreUsuario")));
         ultimoUsuarioCreado.setContrasena(datos.get("contrasena"));
         // Resetear estado
-        ContextoTest.ultimoCodigoEstado = 0;
-        ContextoTest.ultimaExcepcion = null;
-        ContextoTest.ultimoMensajeError = null;
+        contexto.setUltimoCodigoEstado(0);
+        contexto.setUltimaExcepcion(null);
+        contexto.setUltimoMensajeError(null);
         assertTrue(true, "Datos de usuario preparados");
     }
     
     @Dado("que existe un usuario con correo {string}")
-    public void queExisteUnUsuarioConCorreo(String correo) {
+    public void queExisteUnUsuarioConCorreo(String correoBase) {
+        String correo = contexto.aislar(correoBase);
+        correoExistente = correo;
         System.out.println("👤 Verificando usuario existente con correo: " + correo);
         
         // Resetear estado
-        ContextoTest.ultimoCodigoEstado = 0;
-        ContextoTest.ultimaExcepcion = null;
-        ContextoTest.ultimoMensajeError = null;
+        contexto.setUltimoCodigoEstado(0);
+        contexto.setUltimaExcepcion(null);
+        contexto.setUltimoMensajeError(null);
         
         // Verificar si ya existe, si no, crearlo
         if (!servicioUsuario.existeCorreoElectronico(correo)) {
             Usuario usuarioExistente = new Usuario();
-            usuarioExistente.setNombreUsuario("temp_user_" + System.currentTimeMillis());
+            usuarioExistente.setNombreUsuario(contexto.aislar("temp_user"));
             usuarioExistente.setNombre("Usuario");
             usuarioExistente.setApellido("Temporal");
             usuarioExistente.setCorreoElectronico(correo);
@@ -88,13 +101,14 @@ public class DefinicionesUsuarios {
     }
     
     @Dado("que existe un usuario con nombre {string}")
-    public void queExisteUnUsuarioConNombre(String nombreUsuario) {
+    public void queExisteUnUsuarioConNombre(String nombreBase) {
+        String nombreUsuario = contexto.aislar(nombreBase);
         System.out.println("👤 Verificando usuario existente con nombre: " + nombreUsuario);
         
         // Resetear estado
-        ContextoTest.ultimoCodigoEstado = 0;
-        ContextoTest.ultimaExcepcion = null;
-        ContextoTest.ultimoMensajeError = null;
+        contexto.setUltimoCodigoEstado(0);
+        contexto.setUltimaExcepcion(null);
+        contexto.setUltimoMensajeError(null);
         
         // Verificar si ya existe, si no, crearlo
         if (!servicioUsuario.existeNombreUsuario(nombreUsuario)) {
@@ -121,28 +135,28 @@ public class DefinicionesUsuarios {
         System.out.println("📤 Enviando solicitud de creación de usuario...");
         try {
             // Resetear estado antes de la operación
-            ContextoTest.ultimaExcepcion = null;
-            ContextoTest.ultimoMensajeError = null;
+            contexto.setUltimaExcepcion(null);
+            contexto.setUltimoMensajeError(null);
             // Intentar crear el usuario
             ultimoUsuarioCreado = servicioUsuario.crearUsuario(ultimoUsuarioCreado);
             // Si llegamos aquí, la creación fue exitosa
-            ContextoTest.ultimoCodigoEstado = 201; // Created
+            contexto.setUltimoCodigoEstado(201); // Created
             System.out.println("✅ Usuario creado exitosamente con ID: " + ultimoUsuarioCreado.getId());
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
         } catch (IllegalArgumentException e) {
             // Error de validación/conflicto
-            ContextoTest.ultimaExcepcion = e;
-            ContextoTest.ultimoMensajeError = e.getMessage();
-            ContextoTest.ultimoCodigoEstado = 409; // Conflict
+            contexto.setUltimaExcepcion(e);
+            contexto.setUltimoMensajeError(e.getMessage());
+            contexto.setUltimoCodigoEstado(409); // Conflict
             System.out.println("❌ Error de conflicto: " + e.getMessage());
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
         } catch (Exception e) {
             // Otro tipo de error
-            ContextoTest.ultimaExcepcion = e;
-            ContextoTest.ultimoMensajeError = e.getMessage();
-            ContextoTest.ultimoCodigoEstado = 500; // Internal Server Error
+            contexto.setUltimaExcepcion(e);
+            contexto.setUltimoMensajeError(e.getMessage());
+            contexto.setUltimoCodigoEstado(500); // Internal Server Error
             System.out.println("❌ Error interno: " + e.getMessage());
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
         }
         assertTrue(true, "Solicitud de creación procesada");
     }
@@ -152,61 +166,62 @@ public class DefinicionesUsuarios {
         System.out.println("⚠️ Intentando crear usuario con correo duplicado");
         try {
             // Resetear estado antes de la operación
-            ContextoTest.ultimaExcepcion = null;
-            ContextoTest.ultimoMensajeError = null;
+            contexto.setUltimaExcepcion(null);
+            contexto.setUltimoMensajeError(null);
             Usuario usuarioDuplicado = new Usuario();
-            usuarioDuplicado.setNombreUsuario("duplicate_user_" + System.currentTimeMillis());
+            usuarioDuplicado.setNombreUsuario(contexto.aislar("duplicate_user"));
             usuarioDuplicado.setNombre("Usuario");
             usuarioDuplicado.setApellido("Duplicado");
-            usuarioDuplicado.setCorreoElectronico("existente@test.com");
+            usuarioDuplicado.setCorreoElectronico(correoExistente);
             usuarioDuplicado.setContrasena("Password123!");
             // Intentar crear usuario duplicado
             servicioUsuario.crearUsuario(usuarioDuplicado);
             // Si llegamos aquí, no hubo error (inesperado)
-            ContextoTest.ultimoCodigoEstado = 201; // Created
+            contexto.setUltimoCodigoEstado(201); // Created
             System.out.println("⚠️ Usuario duplicado creado inesperadamente");
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
         } catch (IllegalArgumentException e) {
             // Error esperado de duplicación
-            ContextoTest.ultimaExcepcion = e;
-            ContextoTest.ultimoMensajeError = e.getMessage();
-            ContextoTest.ultimoCodigoEstado = 409; // Conflict
+            contexto.setUltimaExcepcion(e);
+            contexto.setUltimoMensajeError(e.getMessage());
+            contexto.setUltimoCodigoEstado(409); // Conflict
             System.out.println("✅ Error de duplicación capturado correctamente: " + e.getMessage());
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
         } catch (Exception e) {
-            ContextoTest.ultimaExcepcion = e;
-            ContextoTest.ultimoMensajeError = e.getMessage();
-            ContextoTest.ultimoCodigoEstado = 500; // Internal Server Error
+            contexto.setUltimaExcepcion(e);
+            contexto.setUltimoMensajeError(e.getMessage());
+            contexto.setUltimoCodigoEstado(500); // Internal Server Error
             System.out.println("❌ Error inesperado: " + e.getMessage());
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
         }
         assertTrue(true, "Intento de duplicación procesado");
     }
     
     @Cuando("busco el usuario por nombre {string}")
-    public void buscoElUsuarioPorNombre(String nombreUsuario) {
+    public void buscoElUsuarioPorNombre(String nombreBase) {
+        String nombreUsuario = contexto.aislar(nombreBase);
         System.out.println("🔍 Buscando usuario por nombre: " + nombreUsuario);
         try {
             // Resetear estado antes de la operación
-            ContextoTest.ultimaExcepcion = null;
-            ContextoTest.ultimoMensajeError = null;
+            contexto.setUltimaExcepcion(null);
+            contexto.setUltimoMensajeError(null);
             Optional<Usuario> usuario = servicioUsuario.buscarPorNombreUsuario(nombreUsuario);
             if (usuario.isPresent()) {
                 ultimoUsuarioCreado = usuario.get();
-                ContextoTest.ultimoCodigoEstado = 200; // OK
+                contexto.setUltimoCodigoEstado(200); // OK
                 System.out.println("✅ Usuario encontrado: " + ultimoUsuarioCreado.getNombreUsuario());
-                System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+                System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
             } else {
-                ContextoTest.ultimoCodigoEstado = 404; // Not Found
+                contexto.setUltimoCodigoEstado(404); // Not Found
                 System.out.println("❌ Usuario no encontrado");
-                System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+                System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
             }
         } catch (Exception e) {
-            ContextoTest.ultimaExcepcion = e;
-            ContextoTest.ultimoMensajeError = e.getMessage();
-            ContextoTest.ultimoCodigoEstado = 500; // Internal Server Error
+            contexto.setUltimaExcepcion(e);
+            contexto.setUltimoMensajeError(e.getMessage());
+            contexto.setUltimoCodigoEstado(500); // Internal Server Error
             System.out.println("❌ Error en búsqueda: " + e.getMessage());
-            System.out.println("📊 Código de estado establecido: " + ContextoTest.ultimoCodigoEstado);
+            System.out.println("📊 Código de estado establecido: " + contexto.getUltimoCodigoEstado());
         }
         assertTrue(true, "Búsqueda de usuario procesada");
     }
@@ -214,8 +229,8 @@ public class DefinicionesUsuarios {
     @Entonces("el usuario debería crearse exitosamente")
     public void elUsuarioDeberiaCrearseExitosamente() {
         System.out.println("✅ Verificando creación exitosa del usuario");
-        System.out.println("📊 Código de estado actual: " + ContextoTest.ultimoCodigoEstado);
-        assertNull(ContextoTest.ultimaExcepcion, "No debería haber excepciones para creación exitosa");
+        System.out.println("📊 Código de estado actual: " + contexto.getUltimoCodigoEstado());
+        assertNull(contexto.getUltimaExcepcion(), "No debería haber excepciones para creación exitosa");
         assertNotNull(ultimoUsuarioCreado, "Usuario debería estar creado");
         assertNotNull(ultimoUsuarioCreado.getId(), "Usuario debería tener ID asignado");
         System.out.println("Usuario creado exitosamente con ID: " + ultimoUsuarioCreado.getId());
@@ -225,9 +240,9 @@ public class DefinicionesUsuarios {
     public void deberiaRecibirCodigoDeEstado(int codigoEsperado) {
         System.out.println("📊 Verificando código de estado:");
         System.out.println("   Esperado: " + codigoEsperado);
-        System.out.println("   Actual: " + ContextoTest.ultimoCodigoEstado);
-        assertEquals(codigoEsperado, ContextoTest.ultimoCodigoEstado,
-                    "Código de estado debería coincidir. Esperado: " + codigoEsperado + ", Actual: " + ContextoTest.ultimoCodigoEstado);
+        System.out.println("   Actual: " + contexto.getUltimoCodigoEstado());
+        assertEquals(codigoEsperado, contexto.getUltimoCodigoEstado(),
+                    "Código de estado debería coincidir. Esperado: " + codigoEsperado + ", Actual: " + contexto.getUltimoCodigoEstado());
     }
     
     @Entonces("el usuario debería aparecer en la lista de usuarios")
@@ -245,11 +260,11 @@ public class DefinicionesUsuarios {
     public void deberiaVerMensaje(String mensajeEsperado) {
         System.out.println("💬 Verificando mensaje:");
         System.out.println("   Esperado: " + mensajeEsperado);
-        System.out.println("   Actual: " + ContextoTest.ultimoMensajeError);
-        if (ContextoTest.ultimaExcepcion != null) {
-            assertTrue(ContextoTest.ultimoMensajeError != null && 
-                      (ContextoTest.ultimoMensajeError.contains(mensajeEsperado) || ContextoTest.ultimoMensajeError.equals(mensajeEsperado)),
-                      "El mensaje de error debería contener: " + mensajeEsperado + ", pero fue: " + ContextoTest.ultimoMensajeError);
+        System.out.println("   Actual: " + contexto.getUltimoMensajeError());
+        if (contexto.getUltimaExcepcion() != null) {
+            assertTrue(contexto.getUltimoMensajeError() != null && 
+                      (contexto.getUltimoMensajeError().contains(mensajeEsperado) || contexto.getUltimoMensajeError().equals(mensajeEsperado)),
+                      "El mensaje de error debería contener: " + mensajeEsperado + ", pero fue: " + contexto.getUltimoMensajeError());
         }
         System.out.println("Mensaje verificado correctamente");
     }
@@ -257,9 +272,9 @@ public class DefinicionesUsuarios {
     @Entonces("debería encontrar el usuario")
     public void deberiaEncontrarElUsuario() {
         System.out.println("✅ Verificando que el usuario fue encontrado");
-        System.out.println("📊 Código de estado actual: " + ContextoTest.ultimoCodigoEstado);
+        System.out.println("📊 Código de estado actual: " + contexto.getUltimoCodigoEstado());
         assertNotNull(ultimoUsuarioCreado, "Usuario debería haber sido encontrado");
-        assertEquals(200, ContextoTest.ultimoCodigoEstado, "Código de estado debería ser 200 para búsqueda exitosa");
+        assertEquals(200, contexto.getUltimoCodigoEstado(), "Código de estado debería ser 200 para búsqueda exitosa");
     }
     
     @Entonces("los datos del usuario deberían ser correctos")
@@ -274,4 +289,103 @@ public class DefinicionesUsuarios {
         System.out.println("   Nombre: " + ultimoUsuarioCreado.getNombreCompleto());
         System.out.println("   Correo: " + ultimoUsuarioCreado.getCorreoElectronico());
     }
+    
+    @Dado("que tengo una importación de {int} usuarios nuevos con prefijo {string}")
+    public void queTengoUnaImportacionDeUsuariosNuevos(int cantidad, String prefijoBase) {
+        String prefijo = contexto.aislar(prefijoBase);
+        System.out.println("📝 Preparando importación de " + cantidad + " usuarios");
+        
+        importacionUsuarios = new ArrayList<>(cantidad + 2);
+        for (int i = 1; i <= cantidad; i++) {
+            importacionUsuarios.add(new Usuario(prefijo + i, "Usuario", "Importado",
+                    prefijo + i + "@test.com", "MiClave123!"));
+        }
+        ultimoResultadoImportacion = null;
+    }
+    
+    @Dado("la importación incluye una fila inválida y un correo repetido")
+    public void laImportacionIncluyeUnaFilaInvalidaYUnCorreoRepetido() {
+        importacionUsuarios.add(new Usuario("x", "N", "A", "correo-invalido", "abc"));
+        importacionUsuarios.add(new Usuario(contexto.aislar("repetido.importacion"), "Usuario", "Repetido",
+                importacionUsuarios.get(0).getCorreoElectronico(), "MiClave123!"));
+    }
+    
+    @Cuando("importo los usuarios")
+    public void importoLosUsuarios() {
+        System.out.println("📤 Importando usuarios...");
+        ultimoResultadoImportacion = servicioUsuario.importarUsuarios(importacionUsuarios);
+        System.out.println("📊 Importados: " + ultimoResultadoImportacion.getImportados()
+                + ", rechazados: " + ultimoResultadoImportacion.getRechazados());
+    }
+    
+    @Entonces("deberían importarse {int} usuarios")
+    public void deberianImportarseUsuarios(int cantidad) {
+        assertNotNull(ultimoResultadoImportacion, "La importación debería haberse procesado");
+        assertEquals(cantidad, ultimoResultadoImportacion.getImportados(), "Cantidad de usuarios importados");
+        assertTrue(servicioUsuario.buscarPorNombreUsuario(importacionUsuarios.get(cantidad - 1).getNombreUsuario()).isPresent(),
+                "El último usuario importado debería existir");
+    }
+    
+    @Entonces("el informe debería señalar las filas {int} y {int}")
+    public void elInformeDeberiaSenalarLasFilas(int primera, int segunda) {
+        List<Long> filas = ultimoResultadoImportacion.getErrores().stream()
+                .map(ResultadoImportacion.ErrorFila::getFila)
+                .collect(Collectors.toList());
+        assertEquals(List.of((long) primera, (long) segunda), filas, "Filas rechazadas en el informe");
+    }
+    
+    @Cuando("busco usuarios cuyo nombre contiene {string}")
+    public void buscoUsuariosCuyoNombreContiene(String consulta) {
+        System.out.println("🔎 Buscando usuarios por nombre: " + consulta);
+        ultimosResultadosBusqueda = servicioUsuario.buscarPorNombre(consulta, 0, 20);
+        System.out.println("📊 Resultados: " + ultimosResultadosBusqueda.size());
+    }
+    
+    @Cuando("cambio el apellido del usuario {string} a {string}")
+    public void cambioElApellidoDelUsuario(String nombreBase, String apellido) {
+        Usuario usuario = servicioUsuario.buscarPorNombreUsuario(contexto.aislar(nombreBase))
+                .orElseThrow(() -> new AssertionError("El usuario " + nombreBase + " debería existir"));
+        // El apellido lleva el espacio del escenario para que la búsqueda no dependa de otros usuarios
+        Usuario cambios = new Usuario();
+        cambios.setNombre(usuario.getNombre());
+        cambios.setApellido(apellido + " " + contexto.getEspacio());
+        cambios.setCorreoElectronico(usuario.getCorreoElectronico());
+        cambios.setTelefono(usuario.getTelefono());
+        cambios.setEstado(usuario.getEstado());
+        servicioUsuario.actualizarUsuario(usuario.getId(), cambios);
+        System.out.println("✏️ Apellido cambiado a: " + cambios.getApellido());
+    }
+    
+    @Cuando("busco usuarios de este escenario cuyo nombre contiene {string}")
+    public void buscoUsuariosDeEsteEscenarioCuyoNombreContiene(String consulta) {
+        buscoUsuariosCuyoNombreContiene(consulta + " " + contexto.getEspacio());
+    }
+    
+    @Entonces("los resultados no deberían incluir al usuario {string}")
+    public void losResultadosNoDeberianIncluirAlUsuario(String nombreBase) {
+        String nombreUsuario = contexto.aislar(nombreBase);
+        assertNotNull(ultimosResultadosBusqueda, "La búsqueda debería haberse realizado");
+        assertTrue(ultimosResultadosBusqueda.stream().noneMatch(u -> nombreUsuario.equals(u.getNombreUsuario())),
+                "Los resultados no deberían incluir a " + nombreUsuario);
+    }
+    
+    @Entonces("los resultados deberían incluir una vez al usuario {string}")
+    public void losResultadosDeberianIncluirUnaVezAlUsuario(String nombreBase) {
+        String nombreUsuario = contexto.aislar(nombreBase);
+        assertNotNull(ultimosResultadosBusqueda, "La búsqueda debería haberse realizado");
+        assertEquals(1, ultimosResultadosBusqueda.stream().filter(u -> nombreUsuario.equals(u.getNombreUsuario())).count(),
+                "Los resultados deberían incluir una sola vez a " + nombreUsuario);
+    }
+    
+    @Entonces("los resultados deberían incluir al usuario {string}")
+    public void losResultadosDeberianIncluirAlUsuario(String nombreBase) {
+        String nombreUsuario = contexto.aislar(nombreBase);
+        assertNotNull(ultimosResultadosBusqueda, "La búsqueda debería haberse realizado");
+        assertTrue(ultimosResultadosBusqueda.stream().anyMatch(u -> nombreUsuario.equals(u.getNombreUsuario())),
+                "Los resultados deberían incluir a " + nombreUsuario);
+    }
+    
+    private String aislarSiExiste(String valor) {
+        return valor == null ? null : contexto.aislar(valor);
+    }
 }
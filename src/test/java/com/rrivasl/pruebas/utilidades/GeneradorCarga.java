@@ -0,0 +1,210 @@
+package com.rrivasl.pruebas.utilidades;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generador de carga concurrente para escenarios de rendimiento
+ * @author Roberto Rivas López
+ * Principios aplicados: Responsabilidad Única, Reutilización de código
+ *
+ * Modelo cerrado: cada uno de los N hilos ejecuta la operación, registra su
+ * latencia y vuelve a empezar hasta agotar el tiempo. Las operaciones del
+ * calentamiento se ejecutan pero no se miden. Cada hilo registra en su propio
+ * histograma HdrHistogram (sin contención) y al final se suman.
+ */
+public final class GeneradorCarga {
+
+    /** Latencias de 1 µs a 1 min con 3 dígitos significativos */
+    private static final long LATENCIA_MAXIMA_NANOS = Duration.ofMinutes(1).toNanos();
+    private static final int DIGITOS_SIGNIFICATIVOS = 3;
+
+    private final int concurrencia;
+    private final Duration duracion;
+    private final Duration calentamiento;
+
+    /**
+     * Operación bajo carga; una excepción cuenta como error, no como latencia
+     */
+    @FunctionalInterface
+    public interface Operacion {
+        void ejecutar(int hilo, long iteracion) throws Exception;
+    }
+
+    public GeneradorCarga(int concurrencia, Duration duracion, Duration calentamiento) {
+        if (concurrencia <= 0) {
+            throw new IllegalArgumentException("La concurrencia debe ser mayor a cero");
+        }
+        if (duracion.isNegative() || duracion.isZero()) {
+            throw new IllegalArgumentException("La duración debe ser mayor a cero");
+        }
+        this.concurrencia = concurrencia;
+        this.duracion = duracion;
+        this.calentamiento = calentamiento.isNegative() ? Duration.ZERO : calentamiento;
+    }
+
+    /**
+     * Ejecutar la operación con la concurrencia y duración configuradas
+     */
+    public ResultadoCarga ejecutar(Operacion operacion) throws InterruptedException {
+        AtomicInteger numeroHilo = new AtomicInteger();
+        ExecutorService hilos = Executors.newFixedThreadPool(concurrencia, tarea -> {
+            Thread hilo = new Thread(tarea, "carga-" + numeroHilo.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        AtomicReference<Throwable> primerError = new AtomicReference<>();
+        CountDownLatch listos = new CountDownLatch(concurrencia);
+        CountDownLatch largada = new CountDownLatch(1);
+        long[] ventana = new long[2];
+
+        try {
+            List<Future<Medicion>> mediciones = new ArrayList<>(concurrencia);
+            for (int i = 0; i < concurrencia; i++) {
+                int hilo = i;
+                mediciones.add(hilos.submit(() -> {
+                    listos.countDown();
+                    largada.await();
+                    return medir(hilo, operacion, ventana[0], ventana[1], primerError);
+                }));
+            }
+
+            // Todos los hilos arrancan a la vez: la ventana se fija cuando ya están creados
+            listos.await();
+            ventana[0] = System.nanoTime() + calentamiento.toNanos();
+            ventana[1] = ventana[0] + duracion.toNanos();
+            largada.countDown();
+
+            Histogram latencias = nuevoHistograma();
+            long errores = 0;
+            for (Future<Medicion> medicion : mediciones) {
+                Medicion parcial = esperar(medicion);
+                latencias.add(parcial.latencias);
+                errores += parcial.errores;
+            }
+            return new ResultadoCarga(concurrencia, duracion, latencias, errores, primerError.get());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    private static Medicion medir(int hilo, Operacion operacion, long inicioMedicion, long finMedicion,
+                                  AtomicReference<Throwable> primerError) {
+        Medicion medicion = new Medicion();
+        long iteracion = 0;
+        long inicio = System.nanoTime();
+        while (inicio < finMedicion) {
+            boolean correcta = true;
+            try {
+                operacion.ejecutar(hilo, iteracion++);
+            } catch (Exception e) {
+                correcta = false;
+                primerError.compareAndSet(null, e);
+            }
+            long fin = System.nanoTime();
+            if (inicio >= inicioMedicion && fin <= finMedicion) {
+                if (correcta) {
+                    medicion.latencias.recordValue(Math.min(fin - inicio, LATENCIA_MAXIMA_NANOS));
+                } else {
+                    medicion.errores++;
+                }
+            }
+            inicio = fin;
+        }
+        return medicion;
+    }
+
+    private static Medicion esperar(Future<Medicion> medicion) throws InterruptedException {
+        try {
+            return medicion.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló un hilo del generador de carga", e.getCause());
+        }
+    }
+
+    private static Histogram nuevoHistograma() {
+        return new Histogram(1_000, LATENCIA_MAXIMA_NANOS, DIGITOS_SIGNIFICATIVOS);
+    }
+
+    private static final class Medicion {
+        private final Histogram latencias = nuevoHistograma();
+        private long errores;
+    }
+
+    /**
+     * Resultado de una carga: latencias de las operaciones correctas y errores
+     */
+    public static final class ResultadoCarga {
+
+        private final int concurrencia;
+        private final Duration duracion;
+        private final Histogram latencias;
+        private final long errores;
+        private final Throwable primerError;
+
+        private ResultadoCarga(int concurrencia, Duration duracion, Histogram latencias, long errores, Throwable primerError) {
+            this.concurrencia = concurrencia;
+            this.duracion = duracion;
+            this.latencias = latencias;
+            this.errores = errores;
+            this.primerError = primerError;
+        }
+
+        public long getOperaciones() {
+            return latencias.getTotalCount();
+        }
+
+        public long getErrores() {
+            return errores;
+        }
+
+        public Throwable getPrimerError() {
+            return primerError;
+        }
+
+        /**
+         * Latencia en milisegundos del percentil indicado (por ejemplo 99 o 99.9)
+         */
+        public double percentilMs(double percentil) {
+            return latencias.getValueAtPercentile(percentil) / 1e6;
+        }
+
+        public double maximaMs() {
+            return latencias.getMaxValue() / 1e6;
+        }
+
+        /**
+         * Operaciones correctas por segundo dentro de la ventana medida
+         */
+        public double throughput() {
+            return getOperaciones() / (duracion.toNanos() / 1e9);
+        }
+
+        /**
+         * Porcentaje de operaciones fallidas sobre el total medido
+         */
+        public double porcentajeErrores() {
+            long total = getOperaciones() + errores;
+            return total == 0 ? 0.0 : errores * 100.0 / total;
+        }
+
+        public String resumen() {
+            return String.format(Locale.ROOT,
+                    "concurrencia=%d duracion=%ds operaciones=%d errores=%d throughput=%.0f op/s "
+                            + "p50=%.2f ms p99=%.2f ms p99.9=%.2f ms max=%.2f ms",
+                    concurrencia, duracion.toSeconds(), getOperaciones(), errores, throughput(),
+                    percentilMs(50), percentilMs(99), percentilMs(99.9), maximaMs());
+        }
+    }
+}
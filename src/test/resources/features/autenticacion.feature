@@ -0,0 +1,116 @@
+# language: es
+Característica: Autenticación sin estado con tokens JWT
+  Como cliente de la API
+  Quiero iniciar sesión y usar un token en cada petición
+  Para acceder a usuarios, productos y reportes sin sesión en el servidor
+
+  Antecedentes:
+    Dado que el sistema está disponible
+    Y que existe el usuario "jwtuser" con contraseña "MiClave123!"
+
+  @autenticacion @login
+  Escenario: Iniciar sesión y consultar una ruta protegida con el token de acceso
+    Cuando inicio sesión como "jwtuser" con contraseña "MiClave123!"
+    Entonces debería recibir código de estado 200
+    Y debería recibir un token de acceso y uno de refresco
+    Cuando consulto mi usuario con el token de acceso
+    Entonces debería recibir código de estado 200
+
+  @autenticacion @login
+  Escenario: Rechazar credenciales inválidas
+    Cuando inicio sesión como "jwtuser" con contraseña "OtraClave123!"
+    Entonces debería recibir código de estado 401
+    Y la respuesta debería indicar "Credenciales inválidas"
+
+  @autenticacion @bloqueo
+  Escenario: Bloquear la cuenta tras intentos fallidos y reactivarla al vencer el bloqueo
+    Cuando inicio sesión como "jwtuser" con contraseña "OtraClave123!" 5 veces
+    Entonces debería recibir código de estado 401
+    Y el usuario "jwtuser" debería estar en estado "BLOQUEADO"
+    Cuando inicio sesión como "jwtuser" con contraseña "MiClave123!"
+    Entonces debería recibir código de estado 429
+    Y la respuesta debería incluir la cabecera "Retry-After"
+    Y la respuesta debería indicar "Demasiados intentos fallidos"
+    Cuando espero a que venza el bloqueo
+    Y se revisan los bloqueos vencidos
+    Entonces el usuario "jwtuser" debería estar en estado "ACTIVO"
+    Cuando inicio sesión como "jwtuser" con contraseña "MiClave123!"
+    Entonces debería recibir código de estado 200
+
+  @autenticacion @token
+  Escenario: Rechazar peticiones sin token o con un token alterado
+    Cuando consulto mi usuario sin token
+    Entonces debería recibir código de estado 401
+    Y la respuesta debería indicar "Token de acceso requerido"
+    Cuando consulto mi usuario sin token con la ruta "/usuarios;x/buscar/nombreUsuario/{nombre}"
+    Entonces debería recibir código de estado 401
+    Cuando consulto mi usuario sin token con la ruta "/usuarios//buscar/nombreUsuario/{nombre}"
+    Entonces debería recibir código de estado 401
+    Cuando inicio sesión como "jwtuser" con contraseña "MiClave123!"
+    Y consulto mi usuario con el token de acceso alterado
+    Entonces debería recibir código de estado 401
+    Y la respuesta debería indicar "Firma de token inválida"
+
+  @autenticacion @refresco
+  Escenario: Renovar la sesión con el token de refresco
+    Cuando inicio sesión como "jwtuser" con contraseña "MiClave123!"
+    Y consulto mi usuario con el token de refresco
+    Entonces debería recibir código de estado 401
+    Y la respuesta debería indicar "Se esperaba un token de acceso"
+    Cuando refresco la sesión con el token de refresco
+    Entonces debería recibir código de estado 200
+    Y debería recibir un token de acceso y uno de refresco
+    Cuando consulto mi usuario con el token de acceso
+    Entonces debería recibir código de estado 200
+
+  @autenticacion @rendimiento
+  Escenario: Verificar un token ya verificado cuesta microsegundos
+    Cuando inicio sesión como "jwtuser" con contraseña "MiClave123!"
+    Y verifico el token de acceso 200000 veces
+    Entonces cada verificación debería tomar en promedio menos de 20 microsegundos
+
+  @autenticacion @roles
+  Escenario: Los permisos del rol viajan en el token de acceso
+    Cuando inicio sesión como "jwtuser" con contraseña "MiClave123!"
+    Y consulto el resumen de reportes con el token de acceso
+    Entonces debería recibir código de estado 403
+    Y la respuesta debería indicar "Permisos insuficientes"
+    Dado que el usuario "jwtuser" tiene el rol "MODERADOR"
+    Cuando inicio sesión como "jwtuser" con contraseña "MiClave123!"
+    Y consulto el resumen de reportes con el token de acceso
+    Entonces debería recibir código de estado 200
+    Y la respuesta debería indicar "usuariosPorRol"
+
+  @autenticacion @roles
+  Escenario: Un administrador asigna roles por la API
+    Dado que existe el usuario "jwtadmin" con contraseña "MiClave123!"
+    Y que el usuario "jwtadmin" tiene el rol "ADMIN"
+    Cuando inicio sesión como "jwtadmin" con contraseña "MiClave123!"
+    Y asigno el rol "MODERADOR" al usuario "jwtuser" con el token de acceso
+    Entonces debería recibir código de estado 200
+    Y el usuario "jwtuser" debería tener el rol "MODERADOR"
+    Cuando asigno el rol "SUPERVISOR" al usuario "jwtuser" con el token de acceso
+    Entonces debería recibir código de estado 400
+    Y la respuesta debería indicar "Rol no encontrado"
+
+  @autenticacion @roles
+  Escenario: Solo la cuenta de administrador inicial tiene ADMIN sin que otro se lo asigne
+    Cuando registro por la API el usuario "jwtnuevo" con contraseña "MiClave123!"
+    Entonces debería recibir código de estado 201
+    Y el usuario "jwtnuevo" debería tener el rol "USUARIO"
+    Cuando registro por la API un usuario con el nombre del administrador inicial
+    Entonces debería recibir código de estado 409
+    Cuando inicio sesión como el administrador inicial
+    Entonces debería recibir código de estado 200
+    Cuando asigno el rol "MODERADOR" al usuario "jwtnuevo" con el token de acceso
+    Entonces debería recibir código de estado 200
+
+  @autenticacion @contrasenas
+  Escenario: Las contraseñas se guardan codificadas y las antiguas se recodifican al iniciar sesión
+    Entonces la contraseña del usuario "jwtuser" debería estar codificada
+    Dado que el usuario "jwtuser" tiene guardada en texto plano la contraseña "MiClave123!"
+    Cuando inicio sesión como "jwtuser" con contraseña "MiClave123!"
+    Entonces debería recibir código de estado 200
+    Y la contraseña del usuario "jwtuser" debería estar codificada
+    Cuando inicio sesión como "jwtuser" con contraseña "MiClave123!"
+    Entonces debería recibir código de estado 200
@@ -35,3 +35,12 @@ Característica: Gestión de productos del inventario
     Cuando busco el producto por código "LAPTOP-001"
     Entonces debería encontrar el producto
     Y los datos del producto deberían ser correctos
+
+  @productos @lote
+  Escenario: Carga masiva de productos por bloques
+    Dado que tengo una carga de 1200 productos nuevos con prefijo "LOTE"
+    Y la carga incluye un producto inválido y un código repetido
+    Cuando envío la carga masiva de productos
+    Entonces deberían insertarse 1200 productos
+    Y deberían rechazarse 2 productos
+    Y la carga debería procesarse en 3 bloques
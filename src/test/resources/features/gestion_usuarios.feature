@@ -28,9 +28,47 @@ Característica: Gestión de usuarios del sistema
     Entonces debería recibir código de estado 409
     Y debería ver mensaje "El correo electrónico ya está registrado"
 
+  @usuarios @validacion
+  Escenario: Error al crear usuario sin correo electrónico
+    Dado que tengo los datos de un nuevo usuario:
+      | nombre           | Ana              |
+      | apellido         | Soto             |
+      | nombreUsuario    | asoto            |
+      | contrasena       | MiClave123!      |
+    Cuando envío una solicitud para crear el usuario
+    Entonces debería recibir código de estado 409
+    Y debería ver mensaje "El correo electrónico es obligatorio"
+
   @usuarios @busqueda
   Escenario: Buscar usuario por nombre de usuario
     Dado que existe un usuario con nombre "rrivasl"
     Cuando busco el usuario por nombre "rrivasl"
     Entonces debería encontrar el usuario
     Y los datos del usuario deberían ser correctos
+
+  @usuarios @importacion
+  Escenario: Importar usuarios en lote con informe de errores por fila
+    Dado que tengo una importación de 2500 usuarios nuevos con prefijo "imp"
+    Y la importación incluye una fila inválida y un correo repetido
+    Cuando importo los usuarios
+    Entonces deberían importarse 2500 usuarios
+    Y el informe debería señalar las filas 2501 y 2502
+
+  @usuarios @busqueda
+  Escenario: Buscar usuarios por nombre sin distinguir tildes ni mayúsculas
+    Dado que existe un usuario con nombre "rrivasl"
+    Cuando busco usuarios cuyo nombre contiene "LOPEZ"
+    Entonces los resultados deberían incluir al usuario "rrivasl"
+    Cuando busco usuarios cuyo nombre contiene "riv"
+    Entonces los resultados deberían incluir al usuario "rrivasl"
+
+  @usuarios @busqueda
+  Escenario: Un usuario renombrado se busca por su nombre vigente
+    Dado que existe un usuario con nombre "renombrado"
+    Cuando cambio el apellido del usuario "renombrado" a "Zúñiga"
+    Y cambio el apellido del usuario "renombrado" a "Rivas"
+    Y busco usuarios de este escenario cuyo nombre contiene "zuniga"
+    Entonces los resultados no deberían incluir al usuario "renombrado"
+    Cuando cambio el apellido del usuario "renombrado" a "Zúñiga"
+    Y busco usuarios de este escenario cuyo nombre contiene "ZUÑIGA"
+    Entonces los resultados deberían incluir una vez al usuario "renombrado"
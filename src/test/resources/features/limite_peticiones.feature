@@ -0,0 +1,43 @@
+# language: es
+Característica: Límite de peticiones por cliente y ruta
+  Como operador de la API
+  Quiero limitar las peticiones de cada cliente con cubos de tokens
+  Para que una ráfaga de un cliente no degrade el servicio de los demás
+
+  Antecedentes:
+    Dado que el sistema está disponible
+
+  @limite
+  Escenario: Rechazar con 429 al agotar el límite de una ruta
+    Cuando el cliente "ráfaga" consulta los productos 3 veces
+    Entonces debería recibir código de estado 401
+    Cuando el cliente "ráfaga" consulta los productos 1 vez
+    Entonces debería recibir código de estado 429
+    Y la respuesta debería pedir reintentar en a lo sumo 60 segundos
+    Y el límite "GET /productos" debería haber rechazado 1 petición
+    Cuando el cliente "tranquilo" consulta los productos 1 vez
+    Entonces debería recibir código de estado 401
+
+  @limite
+  Escenario: Las rutas de salud no consumen el límite
+    Cuando el cliente "sonda" consulta la salud de productos 5 veces
+    Entonces debería recibir código de estado 200
+    Cuando el cliente "sonda" consulta los productos 1 vez
+    Entonces debería recibir código de estado 401
+
+  @limite
+  Escenario: Cambiar de clave de API o escribir la ruta de otra forma no evita el límite
+    Cuando el cliente "rotativo" busca usuarios 3 veces con una clave de API distinta cada vez
+    Entonces debería recibir código de estado 401
+    Cuando el cliente "rotativo" consulta la ruta "/usuarios;x=1/buscar?q=ana" 1 vez
+    Entonces debería recibir código de estado 429
+    Y el límite "GET /usuarios/buscar" debería haber rechazado 1 petición
+
+  @limite
+  Escenario: Una petición rechazada no gasta los demás cubos del cliente
+    Cuando el cliente "primero" consulta los productos 3 veces con la clave de API "compartida"
+    Y el cliente "segundo" consulta los productos 2 veces con la clave de API "compartida"
+    Entonces debería recibir código de estado 429
+    Cuando el cliente "segundo" consulta los productos 3 veces
+    Entonces debería recibir código de estado 401
+    Y el límite "GET /productos" debería haber rechazado 2 peticiones
@@ -0,0 +1,40 @@
+# language: es
+@aislado @rendimiento
+Característica: Rendimiento de los servicios principales
+  Como responsable de la plataforma
+  Quiero que la latencia y el throughput se verifiquen junto con el comportamiento
+  Para que una regresión de rendimiento falle igual que una regresión funcional
+
+  Antecedentes:
+    Dado que el sistema está disponible
+    Y que cada carga se calienta durante 1 segundo
+
+  @usuarios
+  Escenario: Altas concurrentes de usuarios
+    Cuando 8 usuarios concurrentes crean cuentas durante 3 segundos
+    Entonces no debería haber errores
+    Y el p99 debería ser menor a 30 ms
+    Y el throughput debería ser de al menos 5000 operaciones por segundo
+
+  @usuarios
+  Escenario: Búsquedas concurrentes de usuarios por nombre de usuario
+    Dado que existen 1000 usuarios para la carga
+    Cuando 8 clientes concurrentes buscan usuarios por nombre de usuario durante 3 segundos
+    Entonces no debería haber errores
+    Y el p99 debería ser menor a 5 ms
+    Y el throughput debería ser de al menos 20000 operaciones por segundo
+
+  @productos
+  Escenario: Consultas HTTP concurrentes de un producto por código
+    Dado que existe el producto "CARGA-001" para la carga
+    Cuando 4 clientes concurrentes consultan "/productos/codigo/CARGA-001" durante 3 segundos
+    Entonces la tasa de errores debería ser menor a 0.1 %
+    Y el p99 debería ser menor a 200 ms
+    Y el throughput debería ser de al menos 50 operaciones por segundo
+
+  @lento @usuarios
+  Escenario: Altas sostenidas con 500 usuarios concurrentes
+    Cuando 500 usuarios concurrentes crean cuentas durante 30 segundos
+    Entonces no debería haber errores
+    Y el p99 debería ser menor a 50 ms
+    Y el p99.9 debería ser menor a 200 ms
@@ -0,0 +1,61 @@
+# language: es
+@aislado
+Característica: Reportes y tableros del sistema
+  Como administrador del sistema
+  Quiero consultar totales de usuarios e inventario al instante
+  Para seguir el estado del sistema sin recuentos sobre la base de datos
+
+  Antecedentes:
+    Dado que el sistema está disponible
+    Y que estoy autenticado con permisos de reportes
+    Y que existen datos suficientes en el sistema
+
+  @reportes @usuarios
+  Escenario: Reporte de usuarios activos desde los contadores agregados
+    Cuando solicito un reporte de usuarios activos
+    Entonces el reporte debería contener:
+      | Total usuarios        | Cantidad de usuarios registrados |
+      | Usuarios activos      | Usuarios con estado ACTIVO       |
+      | Distribución estados  | Usuarios por estado              |
+      | Distribución roles    | Usuarios por rol                 |
+
+  @reportes @tablero
+  Escenario: Los totales del tablero se actualizan con cada cambio
+    Dado que registro los totales actuales del tablero
+    Cuando se crean 2 usuarios con prefijo "tablero" y se desactiva uno de ellos
+    Y se crea un producto de categoría "Tablero" con precio 2500 y stock 4
+    Entonces el tablero debería mostrar 1 usuario activo más y 1 inactivo más
+    Y la categoría "Tablero" debería valer 10000 con 4 unidades
+    Y la reconciliación no debería encontrar diferencias
+
+  @reportes @inventario
+  Escenario: Reporte de inventario con secciones calculadas en una sola pasada
+    Dado que existen ventas registradas en el mes actual
+    Cuando genero un reporte de inventario
+    Entonces debería recibir un archivo PDF
+    Y debería incluir:
+      | Stock bajo       | Productos bajo el umbral de stock   |
+      | Más vendidos     | Productos con más unidades vendidas |
+      | Sin movimiento   | Productos sin ventas recientes      |
+      | Valor inventario | Valor total del stock               |
+    Y los más vendidos deberían incluir el producto "VENTA-001"
+
+  @reportes @ventas
+  Escenario: Reporte de ventas del mes actual
+    Dado que existen ventas registradas en el mes actual
+    Y que solicito el reporte de ventas del mes actual
+    Cuando el reporte se genera exitosamente
+    Entonces debería recibir un archivo PDF
+    Y debería contener gráficos de:
+      | Ventas diarias   | Mes actual   |
+      | Productos top    | Mes actual   |
+      | Ingresos totales | Mes actual   |
+      | Comparativa      | Mes anterior |
+    Y los más vendidos deberían incluir el producto "VENTA-001"
+
+  @reportes @trabajos
+  Escenario: Reporte de inventario generado en segundo plano
+    Cuando encolo un reporte de inventario en formato CSV
+    Entonces el trabajo debería quedar registrado sin esperar a que termine
+    Y el trabajo debería completarse con el archivo del reporte
+    Y cancelar el trabajo terminado debería ser rechazado